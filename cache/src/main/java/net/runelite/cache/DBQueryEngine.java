@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.runelite.cache.definitions.DBRowDefinition;
+import net.runelite.cache.definitions.DBTableDefinition;
+import net.runelite.cache.definitions.DBTableIndex;
+import net.runelite.cache.definitions.loaders.DBRowLoader;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+
+/**
+ * Answers equality and range lookups on db table columns without scanning rows.
+ * <p>
+ * Lookups use the cache's own {@link DBTableIndex} for a column when there is one, and
+ * otherwise build a secondary index from the table's rows on first use. Either way the
+ * index is kept sorted by value, so a lookup is a binary search. Rows are kept encoded
+ * until they are first requested.
+ */
+public class DBQueryEngine
+{
+	private static final Comparator<Object> VALUE_ORDER = DBQueryEngine::compare;
+
+	private final Store store;
+	private final Map<Integer, DBTableDefinition> tables = new HashMap<>();
+	private final Map<Integer, DBTableIndex> cacheIndexes = new HashMap<>();
+	private final Map<Integer, byte[]> rowData = new HashMap<>();
+	private final Map<Integer, DBRowDefinition> rows = new ConcurrentHashMap<>();
+	private final Map<Long, SortedIndex> sortedIndexes = new ConcurrentHashMap<>();
+
+	public DBQueryEngine(Store store)
+	{
+		this.store = store;
+	}
+
+	public void load() throws IOException
+	{
+		DBTableManager tableManager = new DBTableManager(store);
+		tableManager.load();
+		for (DBTableDefinition table : tableManager.getTables())
+		{
+			addTable(table);
+		}
+
+		DBTableIndexManager indexManager = new DBTableIndexManager(store);
+		indexManager.load();
+		for (DBTableIndex index : indexManager.getIndexes())
+		{
+			addIndex(index);
+		}
+
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(ConfigType.DBROW.getId());
+
+		// just in case the loader is being run on a cache that doesn't have them
+		if (archive == null)
+		{
+			return;
+		}
+
+		byte[] archiveData = storage.loadArchive(archive);
+		ArchiveFiles files = archive.getFiles(archiveData);
+
+		for (FSFile f : files.getFiles())
+		{
+			addRow(f.getFileId(), f.getContents());
+		}
+	}
+
+	void addTable(DBTableDefinition table)
+	{
+		tables.put(table.getId(), table);
+	}
+
+	void addIndex(DBTableIndex index)
+	{
+		cacheIndexes.put(index.getTableId() << 16 | index.getColumnId() + 1, index);
+	}
+
+	void addRow(int rowId, byte[] data)
+	{
+		rowData.put(rowId, data);
+	}
+
+	/**
+	 * Gets a row, decoding it on first use.
+	 *
+	 * @param rowId The row id to lookup.
+	 * @return The row, or null if there is no such row.
+	 */
+	public DBRowDefinition getRow(int rowId)
+	{
+		DBRowDefinition row = rows.get(rowId);
+		if (row == null)
+		{
+			byte[] data = rowData.get(rowId);
+			if (data == null)
+			{
+				return null;
+			}
+
+			row = rows.computeIfAbsent(rowId, id -> new DBRowLoader().load(id, data));
+		}
+		return row;
+	}
+
+	/**
+	 * Gets the fields of a row's column, falling back to the table's default values.
+	 *
+	 * @param rowId The row id to lookup.
+	 * @param columnId The column id to lookup.
+	 * @return The column fields, or null if neither the row nor the table has a value.
+	 */
+	public Object[] getColumnValues(int rowId, int columnId)
+	{
+		DBRowDefinition row = getRow(rowId);
+		if (row == null)
+		{
+			return null;
+		}
+
+		Object[][] values = row.getColumnValues();
+		if (values != null && columnId < values.length && values[columnId] != null)
+		{
+			return values[columnId];
+		}
+
+		DBTableDefinition table = tables.get(row.getTableId());
+		Object[] defaults = table == null ? null : table.getDefaultColumnValues();
+		if (defaults != null && columnId < defaults.length)
+		{
+			return (Object[]) defaults[columnId];
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the rows whose column has the given value in its first tuple field.
+	 *
+	 * @see #find(int, int, int, Object)
+	 */
+	public List<Integer> find(int tableId, int columnId, Object value)
+	{
+		return find(tableId, columnId, 0, value);
+	}
+
+	/**
+	 * Finds the rows whose column has the given value in the given tuple field.
+	 *
+	 * @param tableId The table to search.
+	 * @param columnId The column to search.
+	 * @param tuple The field of the column's tuple to compare.
+	 * @param value The value to find, an {@link Integer}, {@link Long} or {@link String}
+	 *              matching the column type.
+	 * @return The ids of the matching rows, in index order.
+	 */
+	public List<Integer> find(int tableId, int columnId, int tuple, Object value)
+	{
+		SortedIndex index = getIndex(tableId, columnId, tuple);
+		int i = index.search(value);
+		return i < 0 ? Collections.emptyList() : index.rows(i, i + 1);
+	}
+
+	/**
+	 * Finds the rows whose column has a value in the given range in its first tuple field.
+	 *
+	 * @see #findRange(int, int, int, Object, Object)
+	 */
+	public List<Integer> findRange(int tableId, int columnId, Object from, Object to)
+	{
+		return findRange(tableId, columnId, 0, from, to);
+	}
+
+	/**
+	 * Finds the rows whose column has a value between {@code from} and {@code to}, inclusive,
+	 * in the given tuple field.
+	 *
+	 * @param tableId The table to search.
+	 * @param columnId The column to search.
+	 * @param tuple The field of the column's tuple to compare.
+	 * @param from The lowest value to match, or null for no lower bound.
+	 * @param to The highest value to match, or null for no upper bound.
+	 * @return The ids of the matching rows, ordered by the first value they match.
+	 */
+	public List<Integer> findRange(int tableId, int columnId, int tuple, Object from, Object to)
+	{
+		SortedIndex index = getIndex(tableId, columnId, tuple);
+		int start = 0;
+		if (from != null)
+		{
+			start = index.search(from);
+			if (start < 0)
+			{
+				start = -start - 1;
+			}
+		}
+
+		int end = index.keys.length;
+		if (to != null)
+		{
+			end = index.search(to);
+			end = end < 0 ? -end - 1 : end + 1;
+		}
+
+		return start < end ? index.rows(start, end) : Collections.emptyList();
+	}
+
+	private SortedIndex getIndex(int tableId, int columnId, int tuple)
+	{
+		long key = (long) tableId << 32 | (long) (columnId + 1) << 16 | tuple;
+		return sortedIndexes.computeIfAbsent(key, k ->
+		{
+			DBTableIndex index = cacheIndexes.get(tableId << 16 | columnId + 1);
+			if (index != null)
+			{
+				if (tuple >= index.getTupleIndexes().size())
+				{
+					throw new IllegalArgumentException("column " + columnId + " of table " + tableId + " has no tuple field " + tuple);
+				}
+				return new SortedIndex(index.getTupleIndexes().get(tuple));
+			}
+			return buildIndex(tableId, columnId, tuple);
+		});
+	}
+
+	/**
+	 * Builds an index of a column the cache doesn't index, by decoding every row of its table.
+	 */
+	private SortedIndex buildIndex(int tableId, int columnId, int tuple)
+	{
+		DBTableDefinition table = tables.get(tableId);
+		if (table == null || columnId >= table.getTypes().length || table.getTypes()[columnId] == null)
+		{
+			throw new IllegalArgumentException("table " + tableId + " has no column " + columnId);
+		}
+
+		int tupleSize = table.getTypes()[columnId].length;
+		if (tuple >= tupleSize)
+		{
+			throw new IllegalArgumentException("column " + columnId + " of table " + tableId + " has no tuple field " + tuple);
+		}
+
+		Map<Object, List<Integer>> valueToRows = new HashMap<>();
+		for (int rowId : getTableRows(tableId))
+		{
+			Object[] fields = getColumnValues(rowId, columnId);
+			if (fields == null)
+			{
+				continue;
+			}
+
+			for (int i = tuple; i < fields.length; i += tupleSize)
+			{
+				List<Integer> rowIds = valueToRows.computeIfAbsent(fields[i], v -> new ArrayList<>());
+				// a row can hold the same value in more than one field
+				if (rowIds.isEmpty() || rowIds.get(rowIds.size() - 1) != rowId)
+				{
+					rowIds.add(rowId);
+				}
+			}
+		}
+		return new SortedIndex(valueToRows);
+	}
+
+	private List<Integer> getTableRows(int tableId)
+	{
+		List<Integer> tableRows = new ArrayList<>();
+		DBTableIndex master = cacheIndexes.get(tableId << 16);
+		if (master != null)
+		{
+			for (Map<Object, List<Integer>> tupleIndex : master.getTupleIndexes())
+			{
+				for (List<Integer> rowIds : tupleIndex.values())
+				{
+					tableRows.addAll(rowIds);
+				}
+			}
+		}
+		else
+		{
+			// without a master index the table's rows are only known by decoding all of them
+			for (int rowId : rowData.keySet())
+			{
+				if (getRow(rowId).getTableId() == tableId)
+				{
+					tableRows.add(rowId);
+				}
+			}
+		}
+		tableRows.sort(null);
+		return tableRows;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int compare(Object a, Object b)
+	{
+		if (a.getClass() != b.getClass())
+		{
+			throw new IllegalArgumentException("can't compare " + a.getClass().getSimpleName() + " to " + b.getClass().getSimpleName());
+		}
+		return ((Comparable<Object>) a).compareTo(b);
+	}
+
+	private static class SortedIndex
+	{
+		private final Object[] keys;
+		private final int[][] rows;
+
+		SortedIndex(Map<Object, List<Integer>> valueToRows)
+		{
+			keys = valueToRows.keySet().toArray();
+			Arrays.sort(keys, VALUE_ORDER);
+			rows = new int[keys.length][];
+			for (int i = 0; i < keys.length; ++i)
+			{
+				rows[i] = valueToRows.get(keys[i]).stream().mapToInt(Integer::intValue).toArray();
+			}
+		}
+
+		int search(Object value)
+		{
+			return Arrays.binarySearch(keys, value, VALUE_ORDER);
+		}
+
+		List<Integer> rows(int from, int to)
+		{
+			if (to - from == 1)
+			{
+				List<Integer> result = new ArrayList<>(rows[from].length);
+				for (int row : rows[from])
+				{
+					result.add(row);
+				}
+				return result;
+			}
+
+			// a row holding several values in the range is listed once
+			Set<Integer> result = new LinkedHashSet<>();
+			for (int i = from; i < to; ++i)
+			{
+				for (int row : rows[i])
+				{
+					result.add(row);
+				}
+			}
+			return new ArrayList<>(result);
+		}
+	}
+}
@@ -26,43 +26,151 @@ package net.runelite.cache;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import lombok.Setter;
+import net.runelite.cache.definitions.MapDefinition;
+import net.runelite.cache.definitions.loaders.MapLoader;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.region.Region;
-import net.runelite.cache.region.RegionLoader;
-import net.runelite.cache.util.KeyProvider;
+import net.runelite.cache.util.ParallelWorkers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Draws and exports heightmaps of every region in the cache. Regions are decoded and
+ * rendered one task per region on a pool of workers, and the per region tiles are
+ * stitched together by position. The heights of all planes are computed once, when
+ * a region is loaded.
+ */
 public class HeightMapDumper
 {
 	private static final Logger logger = LoggerFactory.getLogger(HeightMapDumper.class);
 
+	private static final int MAX_REGION = 32768;
 	private static final int MAP_SCALE = 1;
 	private static final float MAX_HEIGHT = 2048f;
 
 	private final Store store;
-	private RegionLoader regionLoader;
+	private final List<Region> regions = new ArrayList<>();
+	private int lowestX, lowestY, highestX, highestY;
+
+	@Setter
+	private int threads = Runtime.getRuntime().availableProcessors();
 
 	public HeightMapDumper(Store store)
 	{
 		this.store = store;
 	}
 
-	public void load(KeyProvider keyProvider) throws IOException
+	/**
+	 * Loads the terrain of every region. Archives are read from the store on the calling
+	 * thread and decoded on the workers; locations are not needed for heights, so no
+	 * xtea keys are required.
+	 */
+	public void load() throws IOException
 	{
-		regionLoader = new RegionLoader(store, keyProvider);
-		regionLoader.loadRegions();
-		regionLoader.calculateBounds();
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.MAPS);
+		MapLoader loader = new MapLoader();
+
+		// limits how many loaded archives are waiting for a worker
+		Semaphore pending = new Semaphore(threads * 2);
+		List<Future<?>> futures = new ArrayList<>();
+		Region[] loaded = new Region[MAX_REGION];
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			for (int i = 0; i < MAX_REGION; ++i)
+			{
+				int x = i >> 8;
+				int y = i & 0xFF;
+				Archive map = index.findArchiveByName("m" + x + "_" + y);
+				if (map == null)
+				{
+					continue;
+				}
+
+				byte[] data = storage.loadArchive(map);
+				int regionId = i;
+				pending.acquire();
+				futures.add(executor.submit(() ->
+				{
+					try
+					{
+						MapDefinition mapDef = loader.load(x, y, map.decompress(data));
+						Region region = new Region(regionId);
+						region.loadTerrain(mapDef);
+						loaded[regionId] = region;
+					}
+					finally
+					{
+						pending.release();
+					}
+					return null;
+				}));
+			}
+
+			ParallelWorkers.await(futures);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		for (Region region : loaded)
+		{
+			if (region != null)
+			{
+				addRegion(region);
+			}
+		}
+
+		logger.info("Loaded terrain of {} regions", regions.size());
 	}
 
-	public BufferedImage drawHeightMap(int z)
+	void addRegion(Region region)
 	{
-		int minX = regionLoader.getLowestX().getBaseX();
-		int minY = regionLoader.getLowestY().getBaseY();
+		if (regions.isEmpty())
+		{
+			lowestX = highestX = region.getBaseX();
+			lowestY = highestY = region.getBaseY();
+		}
+		else
+		{
+			lowestX = Math.min(lowestX, region.getBaseX());
+			highestX = Math.max(highestX, region.getBaseX());
+			lowestY = Math.min(lowestY, region.getBaseY());
+			highestY = Math.max(highestY, region.getBaseY());
+		}
+		regions.add(region);
+	}
+
+	public BufferedImage drawHeightMap(int z) throws IOException
+	{
+		int minX = lowestX;
+		int minY = lowestY;
 
-		int maxX = regionLoader.getHighestX().getBaseX() + Region.X;
-		int maxY = regionLoader.getHighestY().getBaseY() + Region.Y;
+		int maxX = highestX + Region.X;
+		int maxY = highestY + Region.Y;
 
 		int dimX = maxX - minX;
 		int dimY = maxY - minY;
@@ -77,49 +185,110 @@ public class HeightMapDumper
 		return image;
 	}
 
-	private void draw(BufferedImage image, int z)
+	private void draw(BufferedImage image, int z) throws IOException
 	{
+		List<int[]> tiles = forEachRegion(region ->
+		{
+			int[] heights = heights(region, z);
+			int[] rgb = new int[Region.X * Region.Y * MAP_SCALE * MAP_SCALE];
+			int scaled = Region.X * MAP_SCALE;
+			for (int i = 0; i < heights.length; ++i)
+			{
+				int color = toColor(heights[i]);
+				int x = (i % Region.X) * MAP_SCALE;
+				int y = (i / Region.X) * MAP_SCALE;
+				for (int dy = 0; dy < MAP_SCALE; ++dy)
+				{
+					for (int dx = 0; dx < MAP_SCALE; ++dx)
+					{
+						rgb[(y + dy) * scaled + x + dx] = color;
+					}
+				}
+			}
+			return rgb;
+		});
+
 		int max = Integer.MIN_VALUE;
 		int min = Integer.MAX_VALUE;
-
-		for (Region region : regionLoader.getRegions())
+		for (int i = 0; i < regions.size(); ++i)
 		{
-			int baseX = region.getBaseX();
-			int baseY = region.getBaseY();
+			Region region = regions.get(i);
 
 			// to pixel X
-			int drawBaseX = baseX - regionLoader.getLowestX().getBaseX();
+			int drawBaseX = region.getBaseX() - lowestX;
 
 			// to pixel Y. top most y is 0, but the top most
 			// region has the greatest y, so invert
-			int drawBaseY = regionLoader.getHighestY().getBaseY() - baseY;
+			int drawBaseY = highestY - region.getBaseY();
+
+			int size = Region.X * MAP_SCALE;
+			image.setRGB(drawBaseX * MAP_SCALE, drawBaseY * MAP_SCALE, size, size, tiles.get(i), 0, size);
 
 			for (int x = 0; x < Region.X; ++x)
 			{
-				int drawX = drawBaseX + x;
-
 				for (int y = 0; y < Region.Y; ++y)
 				{
-					int drawY = drawBaseY + (Region.Y - 1 - y);
-
 					int height = region.getTileHeight(z, x, y);
-					if (height > max)
-					{
-						max = height;
-					}
-					if (height < min)
-					{
-						min = height;
-					}
-
-					int rgb = toColor(height);
+					max = Math.max(max, height);
+					min = Math.min(min, height);
+				}
+			}
+		}
+		logger.info("Heights on plane {} range from {} to {}", z, min, max);
+	}
 
-					drawMapSquare(image, drawX, drawY, rgb);
+	/**
+	 * Writes the heights of a plane as one raw tile per region, named
+	 * {@code <regionX>_<regionY>.raw}. Each tile is 64x64 big endian unsigned 16 bit
+	 * values, north row first, holding the height above sea level (the negated tile height).
+	 */
+	public void exportTiles(int z, File outDir) throws IOException
+	{
+		forEachRegion(region ->
+		{
+			int[] heights = heights(region, z);
+			File file = new File(outDir, region.getRegionX() + "_" + region.getRegionY() + ".raw");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file))))
+			{
+				for (int height : heights)
+				{
+					out.writeShort(-height);
 				}
 			}
+			return null;
+		});
+	}
+
+	/**
+	 * Gets the tile heights of a region on a plane in image order, north row first.
+	 */
+	private static int[] heights(Region region, int z)
+	{
+		int[] heights = new int[Region.X * Region.Y];
+		for (int x = 0; x < Region.X; ++x)
+		{
+			for (int y = 0; y < Region.Y; ++y)
+			{
+				heights[(Region.Y - 1 - y) * Region.X + x] = region.getTileHeight(z, x, y);
+			}
 		}
-		System.out.println("max " + max);
-		System.out.println("min " + min);
+		return heights;
+	}
+
+	private interface RegionTask<T>
+	{
+		T run(Region region) throws IOException;
+	}
+
+	/**
+	 * Runs a task for every region on the workers, returning the results in region order.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> List<T> forEachRegion(RegionTask<T> task) throws IOException
+	{
+		Object[] results = new Object[regions.size()];
+		ParallelWorkers.forEach(threads, 0, results.length, i -> results[i] = task.run(regions.get(i)));
+		return (List<T>) Arrays.asList(results);
 	}
 
 	private int toColor(int height)
@@ -133,18 +302,4 @@ public class HeightMapDumper
 
 		return new Color(color, color, color).getRGB();
 	}
-
-	private void drawMapSquare(BufferedImage image, int x, int y, int rgb)
-	{
-		x *= MAP_SCALE;
-		y *= MAP_SCALE;
-
-		for (int i = 0; i < MAP_SCALE; ++i)
-		{
-			for (int j = 0; j < MAP_SCALE; ++j)
-			{
-				image.setRGB(x + i, y + j, rgb);
-			}
-		}
-	}
 }
@@ -27,8 +27,10 @@ package net.runelite.cache;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
 import net.runelite.cache.definitions.InterfaceDefinition;
-import net.runelite.cache.definitions.exporters.InterfaceExporter;
+import net.runelite.cache.definitions.exporters.JsonExporter;
 import net.runelite.cache.definitions.loaders.InterfaceLoader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
@@ -112,29 +114,39 @@ public class InterfaceManager
 	{
 		out.mkdirs();
 
-		for (InterfaceDefinition[] defs : interfaces)
+		List<InterfaceDefinition> defs = getDefinitions();
+		for (InterfaceDefinition def : defs)
 		{
-			if (defs == null)
+			new File(out, "" + (def.id >>> 16)).mkdirs();
+		}
+
+		new JsonExporter().exportFiles(defs, def -> new File(new File(out, "" + (def.id >>> 16)), (def.id & 0xffff) + ".json"));
+	}
+
+	public void exportNdjson(File file) throws IOException
+	{
+		JsonExporter.exportNdjson(getDefinitions(), file);
+	}
+
+	private List<InterfaceDefinition> getDefinitions()
+	{
+		List<InterfaceDefinition> defs = new ArrayList<>();
+		for (InterfaceDefinition[] group : interfaces)
+		{
+			if (group == null)
 			{
 				continue;
 			}
 
-			for (InterfaceDefinition def : defs)
+			for (InterfaceDefinition def : group)
 			{
-				if (def == null)
+				if (def != null)
 				{
-					continue;
+					defs.add(def);
 				}
-
-				InterfaceExporter exporter = new InterfaceExporter(def);
-
-				File folder = new File(out, "" + (def.id >>> 16));
-				folder.mkdirs();
-
-				File targ = new File(folder, (def.id & 0xffff) + ".json");
-				exporter.exportTo(targ);
 			}
 		}
+		return defs;
 	}
 
 	public void java(File java) throws IOException
@@ -31,7 +31,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import net.runelite.cache.definitions.ItemDefinition;
-import net.runelite.cache.definitions.exporters.ItemExporter;
+import net.runelite.cache.definitions.exporters.JsonExporter;
 import net.runelite.cache.definitions.loaders.ItemLoader;
 import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.fs.Archive;
@@ -108,13 +108,12 @@ public class ItemManager implements ItemProvider
 	{
 		out.mkdirs();
 
-		for (ItemDefinition def : items.values())
-		{
-			ItemExporter exporter = new ItemExporter(def);
+		new JsonExporter().exportFiles(items.values(), def -> new File(out, def.id + ".json"));
+	}
 
-			File targ = new File(out, def.id + ".json");
-			exporter.exportTo(targ);
-		}
+	public void exportNdjson(File file) throws IOException
+	{
+		JsonExporter.exportNdjson(items.values(), file);
 	}
 
 	public void java(File java) throws IOException
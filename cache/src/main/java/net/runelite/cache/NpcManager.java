@@ -31,7 +31,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import net.runelite.cache.definitions.NpcDefinition;
-import net.runelite.cache.definitions.exporters.NpcExporter;
+import net.runelite.cache.definitions.exporters.JsonExporter;
 import net.runelite.cache.definitions.loaders.NpcLoader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
@@ -85,13 +85,12 @@ public class NpcManager
 	{
 		out.mkdirs();
 
-		for (NpcDefinition def : npcs.values())
-		{
-			NpcExporter exporter = new NpcExporter(def);
+		new JsonExporter().exportFiles(npcs.values(), def -> new File(out, def.id + ".json"));
+	}
 
-			File targ = new File(out, def.id + ".json");
-			exporter.exportTo(targ);
-		}
+	public void exportNdjson(File file) throws IOException
+	{
+		JsonExporter.exportNdjson(npcs.values(), file);
 	}
 
 	public void java(File java) throws IOException
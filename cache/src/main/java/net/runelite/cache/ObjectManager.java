@@ -31,7 +31,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import net.runelite.cache.definitions.ObjectDefinition;
-import net.runelite.cache.definitions.exporters.ObjectExporter;
+import net.runelite.cache.definitions.exporters.JsonExporter;
 import net.runelite.cache.definitions.loaders.ObjectLoader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
@@ -85,13 +85,12 @@ public class ObjectManager
 	{
 		out.mkdirs();
 
-		for (ObjectDefinition def : objects.values())
-		{
-			ObjectExporter exporter = new ObjectExporter(def);
+		new JsonExporter().exportFiles(objects.values(), def -> new File(out, def.getId() + ".json"));
+	}
 
-			File targ = new File(out, def.getId() + ".json");
-			exporter.exportTo(targ);
-		}
+	public void exportNdjson(File file) throws IOException
+	{
+		JsonExporter.exportNdjson(objects.values(), file);
 	}
 
 	public void java(File java) throws IOException
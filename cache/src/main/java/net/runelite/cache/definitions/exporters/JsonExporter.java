@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions.exporters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import lombok.Setter;
+import net.runelite.cache.util.ParallelWorkers;
+
+/**
+ * Dumps definitions as json, streaming each one straight to its output so that
+ * no definition is materialized as a string.
+ */
+public class JsonExporter
+{
+	public static final Gson GSON = new GsonBuilder()
+		.setPrettyPrinting()
+		.create();
+	private static final Gson COMPACT_GSON = new Gson();
+
+	@Setter
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Writes a single definition as pretty printed json.
+	 */
+	public static void write(Object definition, File file) throws IOException
+	{
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+		{
+			GSON.toJson(definition, writer);
+		}
+	}
+
+	/**
+	 * Writes each definition as pretty printed json to its own file, spreading the
+	 * definitions over a pool of worker threads.
+	 *
+	 * @param definitions the definitions to export
+	 * @param target maps a definition to the file it is written to
+	 */
+	public <T> void exportFiles(Collection<T> definitions, Function<T, File> target) throws IOException
+	{
+		List<T> defs = new ArrayList<>(definitions);
+		ParallelWorkers.forEach(threads, 0, defs.size(), i ->
+		{
+			T def = defs.get(i);
+			write(def, target.apply(def));
+		});
+	}
+
+	/**
+	 * Writes all definitions to a single newline delimited json file, one compact
+	 * definition per line, in iteration order.
+	 *
+	 * @param definitions the definitions to export
+	 * @param file the file to write
+	 */
+	public static void exportNdjson(Iterable<?> definitions, File file) throws IOException
+	{
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+			JsonWriter jsonWriter = COMPACT_GSON.newJsonWriter(writer))
+		{
+			// top level values are written back to back, which requires lenient mode
+			jsonWriter.setLenient(true);
+			for (Object def : definitions)
+			{
+				COMPACT_GSON.toJson(def, def.getClass(), jsonWriter);
+				writer.write('\n');
+			}
+		}
+	}
+}
@@ -60,6 +60,22 @@ class Graphics3D extends Rasterizer2D
 	int[] rasterClipY = new int[1024];
 	public int[] colorPalette;
 
+	// scratch buffers for drawing models, shared by every model drawn with this rasterizer
+	boolean[] faceClipped = new boolean[6500];
+	int[] modelViewportYs = new int[6500];
+	int[] modelViewportXs = new int[6500];
+	int[] modelViewportZs = new int[6500];
+	int[] modelLocalX = new int[6500];
+	int[] modelLocalY = new int[6500];
+	int[] modelLocalZ = new int[6500];
+	int[] distanceFaceCount = new int[6000];
+	int[][] facesByDistance = new int[6000][512];
+	int[] numOfPriority = new int[12];
+	int[][] orderedFaces = new int[12][2000];
+	int[] eq10 = new int[2000];
+	int[] eq11 = new int[2000];
+	int[] lt10 = new int[12];
+
 	public Graphics3D(RSTextureProvider textureProvider)
 	{
 		this.textureProvider = textureProvider;
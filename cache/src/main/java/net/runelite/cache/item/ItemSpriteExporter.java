@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.item;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.cache.definitions.providers.ItemProvider;
+import net.runelite.cache.definitions.providers.ModelProvider;
+import net.runelite.cache.definitions.providers.SpriteProvider;
+import net.runelite.cache.definitions.providers.TextureProvider;
+import net.runelite.cache.util.ParallelWorkers;
+
+/**
+ * Renders item icons in bulk, either as one png per item or as atlas pages.
+ * <p>
+ * Each worker thread owns an {@link ItemSpriteFactory} and claims items one at a time, so
+ * only one icon per thread, or one atlas page, is held in memory however many items are
+ * exported. The providers are shared between the workers and must be safe to read from
+ * multiple threads.
+ */
+@Slf4j
+public class ItemSpriteExporter
+{
+	public static final int ICON_WIDTH = 36;
+	public static final int ICON_HEIGHT = 32;
+
+	private final ItemProvider itemProvider;
+	private final ModelProvider modelProvider;
+	private final SpriteProvider spriteProvider;
+	private final TextureProvider textureProvider;
+
+	@Setter
+	private int threads = Runtime.getRuntime().availableProcessors();
+	@Setter
+	private int quantity = 1;
+	@Setter
+	private int border = 1;
+	@Setter
+	private int shadowColor = 3153952;
+
+	public ItemSpriteExporter(ItemProvider itemProvider, ModelProvider modelProvider,
+		SpriteProvider spriteProvider, TextureProvider textureProvider)
+	{
+		this.itemProvider = itemProvider;
+		this.modelProvider = modelProvider;
+		this.spriteProvider = spriteProvider;
+		this.textureProvider = textureProvider;
+	}
+
+	@FunctionalInterface
+	private interface SpriteConsumer
+	{
+		void accept(int index, SpritePixels sprite) throws IOException;
+	}
+
+	/**
+	 * Writes {@code <id>.png} into {@code outDir} for every item which has an icon.
+	 *
+	 * @return the number of icons written
+	 */
+	public int exportTo(File outDir, int[] itemIds) throws IOException
+	{
+		AtomicInteger count = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			ThreadLocal<ItemSpriteFactory> factories = ThreadLocal.withInitial(this::newFactory);
+			render(executor, factories, itemIds, 0, itemIds.length, (i, sprite) ->
+			{
+				BufferedImage image = sprite.toBufferedImage();
+				ImageIO.write(image, "png", new File(outDir, itemIds[i] + ".png"));
+				count.incrementAndGet();
+			});
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		return count.get();
+	}
+
+	/**
+	 * Packs the icons into atlas pages of {@code columns * rows} icons, written as
+	 * {@code atlas-<page>.png} into {@code outDir}. Icons are placed in the order of
+	 * {@code itemIds}, leaving a gap for items without an icon, and are listed in an
+	 * {@code atlas.csv} index of {@code id,page,x,y}.
+	 *
+	 * @return the number of icons written
+	 */
+	public int exportAtlas(File outDir, int[] itemIds, int columns, int rows) throws IOException
+	{
+		final int perPage = columns * rows;
+		final int width = columns * ICON_WIDTH;
+		final int height = rows * ICON_HEIGHT;
+		final int[] page = new int[width * height];
+		final boolean[] drawn = new boolean[perPage];
+
+		int count = 0;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try (BufferedWriter index = Files.newBufferedWriter(new File(outDir, "atlas.csv").toPath(), StandardCharsets.UTF_8))
+		{
+			ThreadLocal<ItemSpriteFactory> factories = ThreadLocal.withInitial(this::newFactory);
+			index.write("id,page,x,y\n");
+
+			for (int start = 0, pageId = 0; start < itemIds.length; start += perPage, ++pageId)
+			{
+				final int first = start;
+				final int end = Math.min(itemIds.length, start + perPage);
+				Arrays.fill(page, 0);
+				Arrays.fill(drawn, false);
+
+				// every icon has its own cell, so the workers write to disjoint parts of the page
+				render(executor, factories, itemIds, first, end, (i, sprite) ->
+				{
+					int slot = i - first;
+					int x = (slot % columns) * ICON_WIDTH;
+					int y = (slot / columns) * ICON_HEIGHT;
+					for (int row = 0; row < ICON_HEIGHT; ++row)
+					{
+						int src = row * ICON_WIDTH;
+						int dst = (y + row) * width + x;
+						for (int col = 0; col < ICON_WIDTH; ++col)
+						{
+							int px = sprite.pixels[src + col];
+							page[dst + col] = px != 0 ? px | 0xff000000 : 0;
+						}
+					}
+					drawn[slot] = true;
+				});
+
+				for (int i = first; i < end; ++i)
+				{
+					int slot = i - first;
+					if (drawn[slot])
+					{
+						index.write(itemIds[i] + "," + pageId + "," + (slot % columns) * ICON_WIDTH + "," + (slot / columns) * ICON_HEIGHT + "\n");
+						++count;
+					}
+				}
+
+				BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				image.setRGB(0, 0, width, height, page, 0, width);
+				ImageIO.write(image, "png", new File(outDir, "atlas-" + pageId + ".png"));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		return count;
+	}
+
+	private ItemSpriteFactory newFactory()
+	{
+		return new ItemSpriteFactory(itemProvider, modelProvider, spriteProvider, textureProvider);
+	}
+
+	private void render(ExecutorService executor, ThreadLocal<ItemSpriteFactory> factories,
+		int[] itemIds, int start, int end, SpriteConsumer consumer) throws IOException
+	{
+		ParallelWorkers.forEach(executor, threads, start, end, i ->
+		{
+			SpritePixels sprite;
+			try
+			{
+				sprite = factories.get().createSpritePixels(itemIds[i], quantity, border, shadowColor, false);
+			}
+			catch (Exception ex)
+			{
+				log.warn("error rendering item {}", itemIds[i], ex);
+				return;
+			}
+
+			if (sprite != null)
+			{
+				consumer.accept(i, sprite);
+			}
+		});
+	}
+}
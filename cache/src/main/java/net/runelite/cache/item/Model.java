@@ -26,20 +26,6 @@ package net.runelite.cache.item;
 
 class Model extends Renderable
 {
-	boolean[] faceClipped = new boolean[6500];
-	int[] modelViewportYs = new int[6500];
-	int[] modelViewportXs = new int[6500];
-	int[] modelViewportZs = new int[6500];
-	int[] modelLocalX = new int[6500];
-	int[] modelLocalY = new int[6500];
-	int[] modelLocalZ = new int[6500];
-	int[] distanceFaceCount = new int[6000];
-	int[][] facesByDistance = new int[6000][512];
-	int[] numOfPriority = new int[12];
-	int[][] orderedFaces = new int[12][2000];
-	int[] eq10 = new int[2000];
-	int[] eq11 = new int[2000];
-	int[] lt10 = new int[12];
 	static int[] Model_sine;
 	static int[] Model_cosine;
 	int verticesCount;
@@ -125,7 +111,7 @@ class Model extends Renderable
 
 	public final void projectAndDraw(Graphics3D graphics, int yzRotation, int xzRotation, int xyRotation, int orientation, int xOffset, int yOffset, int zOffset)
 	{
-		distanceFaceCount[0] = -1;
+		graphics.distanceFaceCount[0] = -1;
 		// (re?)Calculate magnitude as necessary
 		if (this.boundsType != 2 && this.boundsType != 1)
 		{
@@ -194,14 +180,14 @@ class Model extends Renderable
 			z += zOffset;
 			int tmp = y * cosX - z * sinX >> 16;
 			z = y * sinX + z * cosX >> 16;
-			modelViewportZs[i] = z - zRelatedVariable;
-			modelViewportYs[i] = x * graphics.Rasterizer3D_zoom / z + graphics.centerX;
-			modelViewportXs[i] = tmp * graphics.Rasterizer3D_zoom / z + graphics.centerY;
+			graphics.modelViewportZs[i] = z - zRelatedVariable;
+			graphics.modelViewportYs[i] = x * graphics.Rasterizer3D_zoom / z + graphics.centerX;
+			graphics.modelViewportXs[i] = tmp * graphics.Rasterizer3D_zoom / z + graphics.centerY;
 			if (faceTextures != null)
 			{
-				modelLocalX[i] = x;
-				modelLocalY[i] = tmp;
-				modelLocalZ[i] = z;
+				graphics.modelLocalX[i] = x;
+				graphics.modelLocalY[i] = tmp;
+				graphics.modelLocalZ[i] = z;
 			}
 		}
 
@@ -214,7 +200,7 @@ class Model extends Renderable
 		{
 			for (int var5 = 0; var5 < this.diameter; ++var5)
 			{
-				distanceFaceCount[var5] = 0;
+				graphics.distanceFaceCount[var5] = 0;
 			}
 
 			int var7;
@@ -236,23 +222,23 @@ class Model extends Renderable
 					var7 = this.indices1[var26];
 					var27 = this.indices2[var26];
 					var9 = this.indices3[var26];
-					var10 = modelViewportYs[var7];
-					var11 = modelViewportYs[var27];
-					var12 = modelViewportYs[var9];
+					var10 = graphics.modelViewportYs[var7];
+					var11 = graphics.modelViewportYs[var27];
+					var12 = graphics.modelViewportYs[var9];
 
-					if ((var10 - var11) * (modelViewportXs[var9] - modelViewportXs[var27]) - (var12 - var11) * (modelViewportXs[var7] - modelViewportXs[var27]) > 0)
+					if ((var10 - var11) * (graphics.modelViewportXs[var9] - graphics.modelViewportXs[var27]) - (var12 - var11) * (graphics.modelViewportXs[var7] - graphics.modelViewportXs[var27]) > 0)
 					{
 						if (var10 >= 0 && var11 >= 0 && var12 >= 0 && var10 <= graphics.rasterClipX && var11 <= graphics.rasterClipX && var12 <= graphics.rasterClipX)
 						{
-							faceClipped[var26] = false;
+							graphics.faceClipped[var26] = false;
 						}
 						else
 						{
-							faceClipped[var26] = true;
+							graphics.faceClipped[var26] = true;
 						}
 
-						var13 = (modelViewportZs[var7] + modelViewportZs[var27] + modelViewportZs[var9]) / 3 + this.radius;
-						facesByDistance[var13][distanceFaceCount[var13]++] = var26;
+						var13 = (graphics.modelViewportZs[var7] + graphics.modelViewportZs[var27] + graphics.modelViewportZs[var9]) / 3 + this.radius;
+						graphics.facesByDistance[var13][graphics.distanceFaceCount[var13]++] = var26;
 					}
 				}
 			}
@@ -262,10 +248,10 @@ class Model extends Renderable
 			{
 				for (var26 = this.diameter - 1; var26 >= 0; --var26)
 				{
-					var7 = distanceFaceCount[var26];
+					var7 = graphics.distanceFaceCount[var26];
 					if (var7 > 0)
 					{
-						var8 = facesByDistance[var26];
+						var8 = graphics.facesByDistance[var26];
 
 						for (var9 = 0; var9 < var7; ++var9)
 						{
@@ -279,67 +265,67 @@ class Model extends Renderable
 			{
 				for (var26 = 0; var26 < 12; ++var26)
 				{
-					numOfPriority[var26] = 0;
-					lt10[var26] = 0;
+					graphics.numOfPriority[var26] = 0;
+					graphics.lt10[var26] = 0;
 				}
 
 				for (var26 = this.diameter - 1; var26 >= 0; --var26)
 				{
-					var7 = distanceFaceCount[var26];
+					var7 = graphics.distanceFaceCount[var26];
 					if (var7 > 0)
 					{
-						var8 = facesByDistance[var26];
+						var8 = graphics.facesByDistance[var26];
 
 						for (var9 = 0; var9 < var7; ++var9)
 						{
 							var10 = var8[var9];
 							byte var31 = this.facePriorities[var10];
-							var12 = numOfPriority[var31]++;
-							orderedFaces[var31][var12] = var10;
+							var12 = graphics.numOfPriority[var31]++;
+							graphics.orderedFaces[var31][var12] = var10;
 							if (var31 < 10)
 							{
-								lt10[var31] += var26;
+								graphics.lt10[var31] += var26;
 							}
 							else if (var31 == 10)
 							{
-								eq10[var12] = var26;
+								graphics.eq10[var12] = var26;
 							}
 							else
 							{
-								eq11[var12] = var26;
+								graphics.eq11[var12] = var26;
 							}
 						}
 					}
 				}
 
 				var26 = 0;
-				if (numOfPriority[1] > 0 || numOfPriority[2] > 0)
+				if (graphics.numOfPriority[1] > 0 || graphics.numOfPriority[2] > 0)
 				{
-					var26 = (lt10[1] + lt10[2]) / (numOfPriority[1] + numOfPriority[2]);
+					var26 = (graphics.lt10[1] + graphics.lt10[2]) / (graphics.numOfPriority[1] + graphics.numOfPriority[2]);
 				}
 
 				var7 = 0;
-				if (numOfPriority[3] > 0 || numOfPriority[4] > 0)
+				if (graphics.numOfPriority[3] > 0 || graphics.numOfPriority[4] > 0)
 				{
-					var7 = (lt10[3] + lt10[4]) / (numOfPriority[3] + numOfPriority[4]);
+					var7 = (graphics.lt10[3] + graphics.lt10[4]) / (graphics.numOfPriority[3] + graphics.numOfPriority[4]);
 				}
 
 				var27 = 0;
-				if (numOfPriority[6] > 0 || numOfPriority[8] > 0)
+				if (graphics.numOfPriority[6] > 0 || graphics.numOfPriority[8] > 0)
 				{
-					var27 = (lt10[8] + lt10[6]) / (numOfPriority[8] + numOfPriority[6]);
+					var27 = (graphics.lt10[8] + graphics.lt10[6]) / (graphics.numOfPriority[8] + graphics.numOfPriority[6]);
 				}
 
 				var10 = 0;
-				var11 = numOfPriority[10];
-				int[] var28 = orderedFaces[10];
-				int[] var29 = eq10;
+				var11 = graphics.numOfPriority[10];
+				int[] var28 = graphics.orderedFaces[10];
+				int[] var29 = graphics.eq10;
 				if (var10 == var11)
 				{
 					var10 = 0;
-					var11 = numOfPriority[11];
-					var28 = orderedFaces[11];
-					var29 = eq11;
+					var11 = graphics.numOfPriority[11];
+					var28 = graphics.orderedFaces[11];
+					var29 = graphics.eq11;
 				}
 
 				if (var10 < var11)
@@ -356,12 +342,12 @@ class Model extends Renderable
 					while (var14 == 0 && var9 > var26)
 					{
 						this.rasterFace(graphics, var28[var10++]);
-						if (var10 == var11 && var28 != orderedFaces[11])
+						if (var10 == var11 && var28 != graphics.orderedFaces[11])
 						{
 							var10 = 0;
-							var11 = numOfPriority[11];
-							var28 = orderedFaces[11];
-							var29 = eq11;
+							var11 = graphics.numOfPriority[11];
+							var28 = graphics.orderedFaces[11];
+							var29 = graphics.eq11;
 						}
 
 						if (var10 < var11)
@@ -377,12 +363,12 @@ class Model extends Renderable
 					while (var14 == 3 && var9 > var7)
 					{
 						this.rasterFace(graphics, var28[var10++]);
-						if (var10 == var11 && var28 != orderedFaces[11])
+						if (var10 == var11 && var28 != graphics.orderedFaces[11])
 						{
 							var10 = 0;
-							var11 = numOfPriority[11];
-							var28 = orderedFaces[11];
-							var29 = eq11;
+							var11 = graphics.numOfPriority[11];
+							var28 = graphics.orderedFaces[11];
+							var29 = graphics.eq11;
 						}
 
 						if (var10 < var11)
@@ -398,12 +384,12 @@ class Model extends Renderable
 					while (var14 == 5 && var9 > var27)
 					{
 						this.rasterFace(graphics, var28[var10++]);
-						if (var10 == var11 && var28 != orderedFaces[11])
+						if (var10 == var11 && var28 != graphics.orderedFaces[11])
 						{
 							var10 = 0;
-							var11 = numOfPriority[11];
-							var28 = orderedFaces[11];
-							var29 = eq11;
+							var11 = graphics.numOfPriority[11];
+							var28 = graphics.orderedFaces[11];
+							var29 = graphics.eq11;
 						}
 
 						if (var10 < var11)
@@ -416,8 +402,8 @@ class Model extends Renderable
 						}
 					}
 
-					var15 = numOfPriority[var14];
-					int[] var30 = orderedFaces[var14];
+					var15 = graphics.numOfPriority[var14];
+					int[] var30 = graphics.orderedFaces[var14];
 
 					for (var17 = 0; var17 < var15; ++var17)
 					{
@@ -428,12 +414,12 @@ class Model extends Renderable
 				while (var9 != -1000)
 				{
 					this.rasterFace(graphics, var28[var10++]);
-					if (var10 == var11 && var28 != orderedFaces[11])
+					if (var10 == var11 && var28 != graphics.orderedFaces[11])
 					{
 						var10 = 0;
-						var28 = orderedFaces[11];
-						var11 = numOfPriority[11];
-						var29 = eq11;
+						var28 = graphics.orderedFaces[11];
+						var11 = graphics.numOfPriority[11];
+						var29 = graphics.eq11;
 					}
 
 					if (var10 < var11)
@@ -455,7 +441,7 @@ class Model extends Renderable
 		int var2 = this.indices1[face];
 		int var3 = this.indices2[face];
 		int var4 = this.indices3[face];
-		graphics.rasterClipEnable = faceClipped[face];
+		graphics.rasterClipEnable = graphics.faceClipped[face];
 		if (this.faceTransparencies == null)
 		{
 			graphics.rasterAlpha = 0;
@@ -486,21 +472,21 @@ class Model extends Renderable
 
 			if (this.faceColors3[face] == -1)
 			{
-				graphics.rasterTextureAffine(modelViewportXs[var2], modelViewportXs[var3], modelViewportXs[var4], modelViewportYs[var2], modelViewportYs[var3], modelViewportYs[var4], this.faceColors1[face], this.faceColors1[face], this.faceColors1[face], modelLocalX[var5], modelLocalX[var6], modelLocalX[var7], modelLocalY[var5], modelLocalY[var6], modelLocalY[var7], modelLocalZ[var5], modelLocalZ[var6], modelLocalZ[var7], this.faceTextures[face]);
+				graphics.rasterTextureAffine(graphics.modelViewportXs[var2], graphics.modelViewportXs[var3], graphics.modelViewportXs[var4], graphics.modelViewportYs[var2], graphics.modelViewportYs[var3], graphics.modelViewportYs[var4], this.faceColors1[face], this.faceColors1[face], this.faceColors1[face], graphics.modelLocalX[var5], graphics.modelLocalX[var6], graphics.modelLocalX[var7], graphics.modelLocalY[var5], graphics.modelLocalY[var6], graphics.modelLocalY[var7], graphics.modelLocalZ[var5], graphics.modelLocalZ[var6], graphics.modelLocalZ[var7], this.faceTextures[face]);
 			}
 			else
 			{
-				graphics.rasterTextureAffine(modelViewportXs[var2], modelViewportXs[var3], modelViewportXs[var4], modelViewportYs[var2], modelViewportYs[var3], modelViewportYs[var4], this.faceColors1[face], this.faceColors2[face], this.faceColors3[face], modelLocalX[var5], modelLocalX[var6], modelLocalX[var7], modelLocalY[var5], modelLocalY[var6], modelLocalY[var7], modelLocalZ[var5], modelLocalZ[var6], modelLocalZ[var7], this.faceTextures[face]);
+				graphics.rasterTextureAffine(graphics.modelViewportXs[var2], graphics.modelViewportXs[var3], graphics.modelViewportXs[var4], graphics.modelViewportYs[var2], graphics.modelViewportYs[var3], graphics.modelViewportYs[var4], this.faceColors1[face], this.faceColors2[face], this.faceColors3[face], graphics.modelLocalX[var5], graphics.modelLocalX[var6], graphics.modelLocalX[var7], graphics.modelLocalY[var5], graphics.modelLocalY[var6], graphics.modelLocalY[var7], graphics.modelLocalZ[var5], graphics.modelLocalZ[var6], graphics.modelLocalZ[var7], this.faceTextures[face]);
 			}
 		}
 		else if (this.faceColors3[face] == -1)
 		{
 			int[] field1889 = graphics.colorPalette;
-			graphics.rasterFlat(modelViewportXs[var2], modelViewportXs[var3], modelViewportXs[var4], modelViewportYs[var2], modelViewportYs[var3], modelViewportYs[var4], field1889[this.faceColors1[face]]);
+			graphics.rasterFlat(graphics.modelViewportXs[var2], graphics.modelViewportXs[var3], graphics.modelViewportXs[var4], graphics.modelViewportYs[var2], graphics.modelViewportYs[var3], graphics.modelViewportYs[var4], field1889[this.faceColors1[face]]);
 		}
 		else
 		{
-			graphics.rasterGouraud(modelViewportXs[var2], modelViewportXs[var3], modelViewportXs[var4], modelViewportYs[var2], modelViewportYs[var3], modelViewportYs[var4], this.faceColors1[face], this.faceColors2[face], this.faceColors3[face]);
+			graphics.rasterGouraud(graphics.modelViewportXs[var2], graphics.modelViewportXs[var3], graphics.modelViewportXs[var4], graphics.modelViewportYs[var2], graphics.modelViewportYs[var3], graphics.modelViewportYs[var4], this.faceColors1[face], this.faceColors2[face], this.faceColors3[face]);
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,590 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.models;
+
+import net.runelite.cache.definitions.ModelDefinition;
+
+/**
+ * An immutable, compact copy of the geometry and face data of a {@link ModelDefinition},
+ * for holding many models in memory at once.
+ * <p>
+ * Vertices and faces are interleaved into single narrow arrays, face attributes which
+ * hold only their default value are dropped, and normals are packed into flat arrays
+ * which are computed on first use. Recoloring, retexturing or resizing returns a new
+ * model which shares every array the operation did not change.
+ */
+public final class CompactModel
+{
+	private final int id;
+	private final int vertexCount;
+	private final int faceCount;
+
+	// x, y, z per vertex; wideVertices is used instead if a coordinate does not fit in a short
+	private final short[] vertices;
+	private final int[] wideVertices;
+	// a, b, c vertex indices per face
+	private final char[] faces;
+
+	private final short[] faceColors;
+	private final byte[] faceRenderTypes;
+	private final byte[] faceTransparencies;
+	private final byte[] faceRenderPriorities;
+	private final short[] faceTextures;
+	private final byte[] textureCoords;
+	private final byte priority;
+
+	private final int textureFaceCount;
+	// a, b, c vertex indices per texture face
+	private final short[] textureFaces;
+	private final byte[] textureRenderTypes;
+
+	private static class Normals
+	{
+		// x, y, z, magnitude per vertex
+		private final int[] vertex;
+		// x, y, z per flat shaded face, or null if there are none
+		private final int[] face;
+
+		private Normals(int[] vertex, int[] face)
+		{
+			this.vertex = vertex;
+			this.face = face;
+		}
+	}
+
+	// see ModelDefinition#computeNormals
+	private volatile Normals normals;
+
+	private CompactModel(int id, int vertexCount, int faceCount, short[] vertices, int[] wideVertices, char[] faces,
+		short[] faceColors, byte[] faceRenderTypes, byte[] faceTransparencies, byte[] faceRenderPriorities,
+		short[] faceTextures, byte[] textureCoords, byte priority,
+		int textureFaceCount, short[] textureFaces, byte[] textureRenderTypes)
+	{
+		this.id = id;
+		this.vertexCount = vertexCount;
+		this.faceCount = faceCount;
+		this.vertices = vertices;
+		this.wideVertices = wideVertices;
+		this.faces = faces;
+		this.faceColors = faceColors;
+		this.faceRenderTypes = faceRenderTypes;
+		this.faceTransparencies = faceTransparencies;
+		this.faceRenderPriorities = faceRenderPriorities;
+		this.faceTextures = faceTextures;
+		this.textureCoords = textureCoords;
+		this.priority = priority;
+		this.textureFaceCount = textureFaceCount;
+		this.textureFaces = textureFaces;
+		this.textureRenderTypes = textureRenderTypes;
+	}
+
+	/**
+	 * @param normals the normals of the copy if they are already known, or null to compute them when needed
+	 */
+	private CompactModel copy(short[] vertices, int[] wideVertices, short[] faceColors, short[] faceTextures, Normals normals)
+	{
+		CompactModel model = new CompactModel(id, vertexCount, faceCount, vertices, wideVertices, faces,
+			faceColors, faceRenderTypes, faceTransparencies, faceRenderPriorities,
+			faceTextures, textureCoords, priority,
+			textureFaceCount, textureFaces, textureRenderTypes);
+		model.normals = normals;
+		return model;
+	}
+
+	public static CompactModel of(ModelDefinition def)
+	{
+		final int vertexCount = def.vertexCount;
+		final int faceCount = def.faceCount;
+
+		boolean narrow = fitsShort(def.vertexX, vertexCount) && fitsShort(def.vertexY, vertexCount) && fitsShort(def.vertexZ, vertexCount);
+		short[] vertices = narrow ? new short[vertexCount * 3] : null;
+		int[] wideVertices = narrow ? null : new int[vertexCount * 3];
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			if (narrow)
+			{
+				vertices[i * 3] = (short) def.vertexX[i];
+				vertices[i * 3 + 1] = (short) def.vertexY[i];
+				vertices[i * 3 + 2] = (short) def.vertexZ[i];
+			}
+			else
+			{
+				wideVertices[i * 3] = def.vertexX[i];
+				wideVertices[i * 3 + 1] = def.vertexY[i];
+				wideVertices[i * 3 + 2] = def.vertexZ[i];
+			}
+		}
+
+		// vertex counts are unsigned shorts, so face indices always fit in a char
+		char[] faces = new char[faceCount * 3];
+		for (int i = 0; i < faceCount; ++i)
+		{
+			faces[i * 3] = (char) def.faceIndices1[i];
+			faces[i * 3 + 1] = (char) def.faceIndices2[i];
+			faces[i * 3 + 2] = (char) def.faceIndices3[i];
+		}
+
+		int textureFaceCount = def.texIndices1 == null ? 0 : def.numTextureFaces;
+		short[] textureFaces = null;
+		if (textureFaceCount > 0)
+		{
+			textureFaces = new short[textureFaceCount * 3];
+			for (int i = 0; i < textureFaceCount; ++i)
+			{
+				textureFaces[i * 3] = def.texIndices1[i];
+				textureFaces[i * 3 + 1] = def.texIndices2[i];
+				textureFaces[i * 3 + 2] = def.texIndices3[i];
+			}
+		}
+
+		return new CompactModel(def.id, vertexCount, faceCount, vertices, wideVertices, faces,
+			copy(def.faceColors, faceCount),
+			copyUnlessAll(def.faceRenderTypes, faceCount, (byte) 0),
+			copyUnlessAll(def.faceTransparencies, faceCount, (byte) 0),
+			copy(def.faceRenderPriorities, faceCount),
+			copy(def.faceTextures, faceCount),
+			copyUnlessAll(def.textureCoords, faceCount, (byte) -1),
+			def.priority,
+			textureFaceCount, textureFaces,
+			copyUnlessAll(def.textureRenderTypes, textureFaceCount, (byte) 0));
+	}
+
+	public int getId()
+	{
+		return id;
+	}
+
+	public int getVertexCount()
+	{
+		return vertexCount;
+	}
+
+	public int getFaceCount()
+	{
+		return faceCount;
+	}
+
+	public int getVertexX(int vertex)
+	{
+		return vertices != null ? vertices[vertex * 3] : wideVertices[vertex * 3];
+	}
+
+	public int getVertexY(int vertex)
+	{
+		return vertices != null ? vertices[vertex * 3 + 1] : wideVertices[vertex * 3 + 1];
+	}
+
+	public int getVertexZ(int vertex)
+	{
+		return vertices != null ? vertices[vertex * 3 + 2] : wideVertices[vertex * 3 + 2];
+	}
+
+	public int getFaceIndex1(int face)
+	{
+		return faces[face * 3];
+	}
+
+	public int getFaceIndex2(int face)
+	{
+		return faces[face * 3 + 1];
+	}
+
+	public int getFaceIndex3(int face)
+	{
+		return faces[face * 3 + 2];
+	}
+
+	public short getFaceColor(int face)
+	{
+		return faceColors == null ? 0 : faceColors[face];
+	}
+
+	public byte getFaceRenderType(int face)
+	{
+		return faceRenderTypes == null ? 0 : faceRenderTypes[face];
+	}
+
+	public byte getFaceTransparency(int face)
+	{
+		return faceTransparencies == null ? 0 : faceTransparencies[face];
+	}
+
+	public byte getFaceRenderPriority(int face)
+	{
+		return faceRenderPriorities == null ? priority : faceRenderPriorities[face];
+	}
+
+	public short getFaceTexture(int face)
+	{
+		return faceTextures == null ? -1 : faceTextures[face];
+	}
+
+	public byte getTextureCoord(int face)
+	{
+		return textureCoords == null ? -1 : textureCoords[face];
+	}
+
+	public int getTextureFaceCount()
+	{
+		return textureFaceCount;
+	}
+
+	public int getTextureFaceIndex1(int textureFace)
+	{
+		return textureFaces[textureFace * 3] & 0xffff;
+	}
+
+	public int getTextureFaceIndex2(int textureFace)
+	{
+		return textureFaces[textureFace * 3 + 1] & 0xffff;
+	}
+
+	public int getTextureFaceIndex3(int textureFace)
+	{
+		return textureFaces[textureFace * 3 + 2] & 0xffff;
+	}
+
+	public byte getTextureRenderType(int textureFace)
+	{
+		return textureRenderTypes == null ? 0 : textureRenderTypes[textureFace];
+	}
+
+	/**
+	 * Gets the highest face render priority, see {@link ModelDefinition#computeMaxPriority()}.
+	 */
+	public int getMaxPriority()
+	{
+		int max = 0;
+		if (faceRenderPriorities != null)
+		{
+			for (byte p : faceRenderPriorities)
+			{
+				max = Math.max(max, p);
+			}
+		}
+		return max;
+	}
+
+	public int getVertexNormalX(int vertex)
+	{
+		return normals().vertex[vertex * 4];
+	}
+
+	public int getVertexNormalY(int vertex)
+	{
+		return normals().vertex[vertex * 4 + 1];
+	}
+
+	public int getVertexNormalZ(int vertex)
+	{
+		return normals().vertex[vertex * 4 + 2];
+	}
+
+	public int getVertexNormalMagnitude(int vertex)
+	{
+		return normals().vertex[vertex * 4 + 3];
+	}
+
+	/**
+	 * Gets the normal of a flat shaded face, or 0 for faces of other render types.
+	 */
+	public int getFaceNormalX(int face)
+	{
+		int[] faceNormals = normals().face;
+		return faceNormals == null ? 0 : faceNormals[face * 3];
+	}
+
+	public int getFaceNormalY(int face)
+	{
+		int[] faceNormals = normals().face;
+		return faceNormals == null ? 0 : faceNormals[face * 3 + 1];
+	}
+
+	public int getFaceNormalZ(int face)
+	{
+		int[] faceNormals = normals().face;
+		return faceNormals == null ? 0 : faceNormals[face * 3 + 2];
+	}
+
+	/**
+	 * Computes the texture coordinates of the three corners of a textured face, see
+	 * {@link ModelDefinition#computeTextureUVCoordinates()}.
+	 */
+	public void getTextureCoordinates(int face, float[] u, float[] v)
+	{
+		byte textureCoord = getTextureCoord(face);
+		if (textureCoord == -1)
+		{
+			// the face is its own texture face, which reduces to the unit triangle
+			u[0] = 0f;
+			v[0] = 0f;
+			u[1] = 1f;
+			v[1] = 0f;
+			u[2] = 0f;
+			v[2] = 1f;
+			return;
+		}
+
+		int textureFace = textureCoord & 0xff;
+		int texA = getTextureFaceIndex1(textureFace);
+		int texB = getTextureFaceIndex2(textureFace);
+		int texC = getTextureFaceIndex3(textureFace);
+
+		float v1x = getVertexX(texA);
+		float v1y = getVertexY(texA);
+		float v1z = getVertexZ(texA);
+		float v2x = getVertexX(texB) - v1x;
+		float v2y = getVertexY(texB) - v1y;
+		float v2z = getVertexZ(texB) - v1z;
+		float v3x = getVertexX(texC) - v1x;
+		float v3y = getVertexY(texC) - v1y;
+		float v3z = getVertexZ(texC) - v1z;
+
+		float v7x = v2y * v3z - v2z * v3y;
+		float v7y = v2z * v3x - v2x * v3z;
+		float v7z = v2x * v3y - v2y * v3x;
+
+		float u8x = v3y * v7z - v3z * v7y;
+		float u8y = v3z * v7x - v3x * v7z;
+		float u8z = v3x * v7y - v3y * v7x;
+		float uf = 1.0F / (u8x * v2x + u8y * v2y + u8z * v2z);
+
+		float v8x = v2y * v7z - v2z * v7y;
+		float v8y = v2z * v7x - v2x * v7z;
+		float v8z = v2x * v7y - v2y * v7x;
+		float vf = 1.0F / (v8x * v3x + v8y * v3y + v8z * v3z);
+
+		for (int corner = 0; corner < 3; ++corner)
+		{
+			int vertex = corner == 0 ? getFaceIndex1(face) : corner == 1 ? getFaceIndex2(face) : getFaceIndex3(face);
+			float x = getVertexX(vertex) - v1x;
+			float y = getVertexY(vertex) - v1y;
+			float z = getVertexZ(vertex) - v1z;
+			u[corner] = (u8x * x + u8y * y + u8z * z) * uf;
+			v[corner] = (v8x * x + v8y * y + v8z * z) * vf;
+		}
+	}
+
+	public CompactModel recolor(short find, short replace)
+	{
+		short[] colors = replace(faceColors, find, replace);
+		// the geometry is unchanged, so the copy shares any normals computed so far
+		return colors == faceColors ? this : copy(vertices, wideVertices, colors, faceTextures, normals);
+	}
+
+	public CompactModel retexture(short find, short replace)
+	{
+		short[] textures = replace(faceTextures, find, replace);
+		return textures == faceTextures ? this : copy(vertices, wideVertices, faceColors, textures, normals);
+	}
+
+	/**
+	 * Scales the model, see {@link ModelDefinition#resize(int, int, int)}.
+	 */
+	public CompactModel resize(int x, int y, int z)
+	{
+		if (x == 128 && y == 128 && z == 128)
+		{
+			return this;
+		}
+
+		int[] wide = new int[vertexCount * 3];
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			wide[i * 3] = getVertexX(i) * x / 128;
+			wide[i * 3 + 1] = y * getVertexY(i) / 128;
+			wide[i * 3 + 2] = z * getVertexZ(i) / 128;
+		}
+
+		if (fitsShort(wide, wide.length))
+		{
+			short[] narrow = new short[wide.length];
+			for (int i = 0; i < wide.length; ++i)
+			{
+				narrow[i] = (short) wide[i];
+			}
+			return copy(narrow, null, faceColors, faceTextures, null);
+		}
+		return copy(null, wide, faceColors, faceTextures, null);
+	}
+
+	private Normals normals()
+	{
+		Normals n = normals;
+		if (n == null)
+		{
+			// racing threads compute the same result, and each publishes both arrays together
+			n = computeNormals();
+			normals = n;
+		}
+		return n;
+	}
+
+	private Normals computeNormals()
+	{
+		int[] normals = new int[vertexCount * 4];
+		int[] flat = null;
+
+		for (int face = 0; face < faceCount; ++face)
+		{
+			int vertexA = getFaceIndex1(face);
+			int vertexB = getFaceIndex2(face);
+			int vertexC = getFaceIndex3(face);
+
+			int xA = getVertexX(vertexB) - getVertexX(vertexA);
+			int yA = getVertexY(vertexB) - getVertexY(vertexA);
+			int zA = getVertexZ(vertexB) - getVertexZ(vertexA);
+
+			int xB = getVertexX(vertexC) - getVertexX(vertexA);
+			int yB = getVertexY(vertexC) - getVertexY(vertexA);
+			int zB = getVertexZ(vertexC) - getVertexZ(vertexA);
+
+			int nx = yA * zB - yB * zA;
+			int ny = zA * xB - zB * xA;
+			int nz = xA * yB - xB * yA;
+
+			while (nx > 8192 || ny > 8192 || nz > 8192 || nx < -8192 || ny < -8192 || nz < -8192)
+			{
+				nx >>= 1;
+				ny >>= 1;
+				nz >>= 1;
+			}
+
+			int length = (int) Math.sqrt((double) (nx * nx + ny * ny + nz * nz));
+			if (length <= 0)
+			{
+				length = 1;
+			}
+
+			nx = nx * 256 / length;
+			ny = ny * 256 / length;
+			nz = nz * 256 / length;
+
+			byte renderType = getFaceRenderType(face);
+			if (renderType == 0)
+			{
+				addNormal(normals, vertexA, nx, ny, nz);
+				addNormal(normals, vertexB, nx, ny, nz);
+				addNormal(normals, vertexC, nx, ny, nz);
+			}
+			else if (renderType == 1)
+			{
+				if (flat == null)
+				{
+					flat = new int[faceCount * 3];
+				}
+
+				flat[face * 3] = nx;
+				flat[face * 3 + 1] = ny;
+				flat[face * 3 + 2] = nz;
+			}
+		}
+
+		return new Normals(normals, flat);
+	}
+
+	private static void addNormal(int[] normals, int vertex, int x, int y, int z)
+	{
+		normals[vertex * 4] += x;
+		normals[vertex * 4 + 1] += y;
+		normals[vertex * 4 + 2] += z;
+		++normals[vertex * 4 + 3];
+	}
+
+	private static boolean fitsShort(int[] values, int count)
+	{
+		for (int i = 0; i < count; ++i)
+		{
+			if (values[i] != (short) values[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static short[] copy(short[] values, int count)
+	{
+		if (values == null)
+		{
+			return null;
+		}
+
+		short[] copy = new short[count];
+		System.arraycopy(values, 0, copy, 0, count);
+		return copy;
+	}
+
+	private static byte[] copy(byte[] values, int count)
+	{
+		if (values == null)
+		{
+			return null;
+		}
+
+		byte[] copy = new byte[count];
+		System.arraycopy(values, 0, copy, 0, count);
+		return copy;
+	}
+
+	private static byte[] copyUnlessAll(byte[] values, int count, byte value)
+	{
+		if (values == null)
+		{
+			return null;
+		}
+
+		for (int i = 0; i < count; ++i)
+		{
+			if (values[i] != value)
+			{
+				return copy(values, count);
+			}
+		}
+		return null;
+	}
+
+	private static short[] replace(short[] values, short find, short replace)
+	{
+		if (values == null)
+		{
+			return null;
+		}
+
+		short[] copy = null;
+		for (int i = 0; i < values.length; ++i)
+		{
+			if (values[i] == find)
+			{
+				if (copy == null)
+				{
+					copy = values.clone();
+				}
+				copy[i] = replace;
+			}
+		}
+		return copy == null ? values : copy;
+	}
+}
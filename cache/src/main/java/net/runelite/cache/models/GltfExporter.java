@@ -0,0 +1,564 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.models;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.imageio.ImageIO;
+import lombok.Setter;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
+import net.runelite.cache.definitions.exporters.JsonExporter;
+import net.runelite.cache.definitions.providers.SpriteProvider;
+import net.runelite.cache.definitions.providers.TextureProvider;
+import net.runelite.cache.util.ParallelWorkers;
+
+/**
+ * Exports many models into a single binary glTF (.glb) file, one mesh and node per model.
+ * <p>
+ * Every texture used by the models is packed into one shared atlas, which is embedded as
+ * a png and used by both materials: an alpha tested one for opaque meshes, and a blended
+ * one for meshes with any transparent face. Untextured faces sample a white slot of the atlas
+ * and take their color from the vertex colors. Since an atlas can't repeat a texture, each
+ * face's texture coordinates are shifted into the first tile and clamped to it.
+ * <p>
+ * Models are converted to vertex data on a pool of workers and the results are written
+ * in order, so the output doesn't depend on the number of threads.
+ */
+public class GltfExporter
+{
+	private static final double BRIGHTNESS = JagexColor.BRIGHTNESS_MIN;
+	private static final int TEXTURE_SIZE = 128;
+
+	private static final int GLB_MAGIC = 0x46546C67;
+	private static final int GLB_VERSION = 2;
+	private static final int CHUNK_JSON = 0x4E4F534A;
+	private static final int CHUNK_BIN = 0x004E4942;
+	// lengths in the glb header are unsigned 32 bit
+	private static final long MAX_GLB_LENGTH = 0xFFFFFFFFL;
+
+	private static final int GL_FLOAT = 5126;
+	private static final int GL_UNSIGNED_BYTE = 5121;
+	private static final int GL_NEAREST = 9728;
+	private static final int GL_CLAMP_TO_EDGE = 33071;
+	private static final int GL_ARRAY_BUFFER = 34962;
+	private static final int MODE_TRIANGLES = 4;
+
+	private static final int MATERIAL_MASK = 0;
+	private static final int MATERIAL_BLEND = 1;
+
+	private final Map<Integer, TextureDefinition> textures = new HashMap<>();
+	private final SpriteProvider spriteProvider;
+
+	@Setter
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	public GltfExporter(TextureProvider textureProvider, SpriteProvider spriteProvider)
+	{
+		for (TextureDefinition texture : textureProvider.provide())
+		{
+			textures.put(texture.getId(), texture);
+		}
+		this.spriteProvider = spriteProvider;
+	}
+
+	public void export(List<ModelDefinition> models, File file) throws IOException
+	{
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file)))
+		{
+			export(models, out);
+		}
+	}
+
+	/**
+	 * Writes the models as a binary glTF. Each model is converted to a {@link CompactModel}
+	 * on the worker that builds its mesh, so the definitions are left untouched and may be
+	 * listed more than once.
+	 */
+	public void export(List<ModelDefinition> models, OutputStream out) throws IOException
+	{
+		if (models.stream().noneMatch(model -> model.faceCount > 0))
+		{
+			// glTF requires at least one mesh and node
+			throw new IllegalArgumentException("none of the models have any faces");
+		}
+
+		Atlas atlas = buildAtlas(models);
+		List<Mesh> meshes = buildMeshes(models, atlas);
+
+		JsonArray bufferViews = new JsonArray();
+		JsonArray accessors = new JsonArray();
+		JsonArray gltfMeshes = new JsonArray();
+		JsonArray nodes = new JsonArray();
+		JsonArray sceneNodes = new JsonArray();
+		long offset = 0;
+
+		for (Mesh mesh : meshes)
+		{
+			if (mesh.vertexCount == 0)
+			{
+				continue;
+			}
+
+			JsonObject attributes = new JsonObject();
+			attributes.addProperty("POSITION", accessors.size());
+			JsonObject position = accessor(bufferViews.size(), mesh.vertexCount, GL_FLOAT, "VEC3", false);
+			position.add("min", array(mesh.min));
+			position.add("max", array(mesh.max));
+			accessors.add(position);
+			bufferViews.add(bufferView(offset, mesh.vertexCount * 12));
+			offset += mesh.vertexCount * 12;
+
+			attributes.addProperty("NORMAL", accessors.size());
+			accessors.add(accessor(bufferViews.size(), mesh.vertexCount, GL_FLOAT, "VEC3", false));
+			bufferViews.add(bufferView(offset, mesh.vertexCount * 12));
+			offset += mesh.vertexCount * 12;
+
+			attributes.addProperty("TEXCOORD_0", accessors.size());
+			accessors.add(accessor(bufferViews.size(), mesh.vertexCount, GL_FLOAT, "VEC2", false));
+			bufferViews.add(bufferView(offset, mesh.vertexCount * 8));
+			offset += mesh.vertexCount * 8;
+
+			attributes.addProperty("COLOR_0", accessors.size());
+			accessors.add(accessor(bufferViews.size(), mesh.vertexCount, GL_UNSIGNED_BYTE, "VEC4", true));
+			bufferViews.add(bufferView(offset, mesh.vertexCount * 4));
+			offset += mesh.vertexCount * 4;
+
+			JsonObject primitive = new JsonObject();
+			primitive.add("attributes", attributes);
+			primitive.addProperty("material", mesh.transparent ? MATERIAL_BLEND : MATERIAL_MASK);
+			primitive.addProperty("mode", MODE_TRIANGLES);
+			JsonArray primitives = new JsonArray();
+			primitives.add(primitive);
+
+			JsonObject gltfMesh = new JsonObject();
+			gltfMesh.addProperty("name", "model" + mesh.id);
+			gltfMesh.add("primitives", primitives);
+
+			JsonObject node = new JsonObject();
+			node.addProperty("name", "model" + mesh.id);
+			node.addProperty("mesh", gltfMeshes.size());
+
+			sceneNodes.add(nodes.size());
+			nodes.add(node);
+			gltfMeshes.add(gltfMesh);
+		}
+
+		JsonObject imageView = new JsonObject();
+		imageView.addProperty("buffer", 0);
+		imageView.addProperty("byteOffset", offset);
+		imageView.addProperty("byteLength", atlas.png.length);
+		int imageViewIndex = bufferViews.size();
+		bufferViews.add(imageView);
+		long binLength = pad(offset + atlas.png.length);
+
+		JsonObject gltf = new JsonObject();
+		JsonObject asset = new JsonObject();
+		asset.addProperty("version", "2.0");
+		asset.addProperty("generator", "RuneLite cache GltfExporter");
+		gltf.add("asset", asset);
+		gltf.addProperty("scene", 0);
+		JsonObject scene = new JsonObject();
+		scene.add("nodes", sceneNodes);
+		gltf.add("scenes", single(scene));
+		gltf.add("nodes", nodes);
+		gltf.add("meshes", gltfMeshes);
+		JsonArray materials = new JsonArray();
+		materials.add(material("atlas", "MASK"));
+		materials.add(material("atlas_blend", "BLEND"));
+		gltf.add("materials", materials);
+		gltf.add("textures", single(texture()));
+		gltf.add("samplers", single(sampler()));
+		JsonObject image = new JsonObject();
+		image.addProperty("bufferView", imageViewIndex);
+		image.addProperty("mimeType", "image/png");
+		gltf.add("images", single(image));
+		gltf.add("accessors", accessors);
+		gltf.add("bufferViews", bufferViews);
+		JsonObject buffer = new JsonObject();
+		buffer.addProperty("byteLength", binLength);
+		gltf.add("buffers", single(buffer));
+
+		byte[] json = JsonExporter.GSON.toJson(gltf).getBytes(StandardCharsets.UTF_8);
+		long jsonLength = pad(json.length);
+		long length = 12 + 8 + jsonLength + 8 + binLength;
+		if (length > MAX_GLB_LENGTH)
+		{
+			throw new IOException("the models need " + length + " bytes, more than a glb can hold");
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(GLB_MAGIC);
+		header.putInt(GLB_VERSION);
+		header.putInt((int) length);
+		header.putInt((int) jsonLength);
+		header.putInt(CHUNK_JSON);
+		out.write(header.array());
+		out.write(json);
+		for (int i = json.length; i < jsonLength; ++i)
+		{
+			// the json chunk is padded with spaces
+			out.write(' ');
+		}
+
+		ByteBuffer binHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		binHeader.putInt((int) binLength);
+		binHeader.putInt(CHUNK_BIN);
+		out.write(binHeader.array());
+		for (Mesh mesh : meshes)
+		{
+			out.write(mesh.data);
+		}
+		out.write(atlas.png);
+		out.write(new byte[(int) (binLength - offset - atlas.png.length)]);
+	}
+
+	/**
+	 * Packs every texture used by the models into a square grid, after a white slot for
+	 * untextured faces.
+	 */
+	private Atlas buildAtlas(List<ModelDefinition> models) throws IOException
+	{
+		TreeSet<Integer> textureIds = new TreeSet<>();
+		for (ModelDefinition model : models)
+		{
+			if (model.faceTextures == null)
+			{
+				continue;
+			}
+
+			for (int i = 0; i < model.faceCount; ++i)
+			{
+				if (model.faceTextures[i] != -1 && textures.containsKey((int) model.faceTextures[i]))
+				{
+					textureIds.add((int) model.faceTextures[i]);
+				}
+			}
+		}
+
+		int columns = (int) Math.ceil(Math.sqrt(textureIds.size() + 1));
+		int rows = (textureIds.size() + columns) / columns;
+		BufferedImage image = new BufferedImage(columns * TEXTURE_SIZE, rows * TEXTURE_SIZE, BufferedImage.TYPE_INT_ARGB);
+
+		int[] white = new int[TEXTURE_SIZE * TEXTURE_SIZE];
+		Arrays.fill(white, 0xFFFFFFFF);
+		image.setRGB(0, 0, TEXTURE_SIZE, TEXTURE_SIZE, white, 0, TEXTURE_SIZE);
+
+		Atlas atlas = new Atlas(columns, rows);
+		int slot = 1;
+		for (int textureId : textureIds)
+		{
+			TextureDefinition texture = textures.get(textureId);
+			texture.method2680(BRIGHTNESS, TEXTURE_SIZE, spriteProvider);
+
+			int[] argb = new int[TEXTURE_SIZE * TEXTURE_SIZE];
+			for (int i = 0; i < argb.length; ++i)
+			{
+				int rgb = texture.pixels[i];
+				// black texels are transparent
+				argb[i] = rgb == 0 ? 0 : 0xFF000000 | rgb;
+			}
+
+			image.setRGB((slot % columns) * TEXTURE_SIZE, (slot / columns) * TEXTURE_SIZE, TEXTURE_SIZE, TEXTURE_SIZE, argb, 0, TEXTURE_SIZE);
+			atlas.slots.put(textureId, slot++);
+		}
+
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", png);
+		atlas.png = png.toByteArray();
+		return atlas;
+	}
+
+	private List<Mesh> buildMeshes(List<ModelDefinition> models, Atlas atlas) throws IOException
+	{
+		Mesh[] meshes = new Mesh[models.size()];
+		ParallelWorkers.forEach(threads, 0, meshes.length, i -> meshes[i] = buildMesh(CompactModel.of(models.get(i)), atlas));
+		return Arrays.asList(meshes);
+	}
+
+	/**
+	 * Converts a model to unindexed triangles, with the positions, normals, texture
+	 * coordinates and colors each stored as one block.
+	 */
+	private static Mesh buildMesh(CompactModel model, Atlas atlas)
+	{
+		int vertexCount = model.getFaceCount() * 3;
+		Mesh mesh = new Mesh(model.getId(), vertexCount);
+		ByteBuffer buffer = ByteBuffer.wrap(mesh.data).order(ByteOrder.LITTLE_ENDIAN);
+		int normals = vertexCount * 12;
+		int texCoords = normals + vertexCount * 12;
+		int colors = texCoords + vertexCount * 8;
+		float[] u = new float[3];
+		float[] v = new float[3];
+
+		for (int face = 0; face < model.getFaceCount(); ++face)
+		{
+			int[] vertices = {model.getFaceIndex1(face), model.getFaceIndex2(face), model.getFaceIndex3(face)};
+			boolean flat = model.getFaceRenderType(face) == 1;
+			int textureId = model.getFaceTexture(face);
+			Integer slot = textureId == -1 ? null : atlas.slots.get(textureId);
+			if (slot != null)
+			{
+				model.getTextureCoordinates(face, u, v);
+				tile(u);
+				tile(v);
+			}
+
+			int rgb = slot == null ? JagexColor.HSLtoRGB(model.getFaceColor(face), BRIGHTNESS) : 0xFFFFFF;
+			int alpha = 255 - (model.getFaceTransparency(face) & 0xFF);
+			mesh.transparent |= alpha != 255;
+
+			for (int corner = 0; corner < 3; ++corner)
+			{
+				int vertex = vertices[corner];
+				float x = model.getVertexX(vertex);
+				float y = -model.getVertexY(vertex);
+				float z = -model.getVertexZ(vertex);
+				buffer.putFloat(x).putFloat(y).putFloat(z);
+				mesh.bound(x, y, z);
+
+				int nx, ny, nz;
+				if (flat)
+				{
+					nx = model.getFaceNormalX(face);
+					ny = model.getFaceNormalY(face);
+					nz = model.getFaceNormalZ(face);
+				}
+				else
+				{
+					nx = model.getVertexNormalX(vertex);
+					ny = model.getVertexNormalY(vertex);
+					nz = model.getVertexNormalZ(vertex);
+				}
+				putNormal(buffer, normals, nx, -ny, -nz);
+				normals += 12;
+
+				float s, t;
+				if (slot == null)
+				{
+					// the middle of the white slot
+					s = 0.5f;
+					t = 0.5f;
+				}
+				else
+				{
+					s = u[corner];
+					t = v[corner];
+				}
+				int atlasSlot = slot == null ? 0 : slot;
+				buffer.putFloat(texCoords, atlas.u(atlasSlot, s));
+				buffer.putFloat(texCoords + 4, atlas.v(atlasSlot, t));
+				texCoords += 8;
+
+				buffer.put(colors, (byte) (rgb >> 16));
+				buffer.put(colors + 1, (byte) (rgb >> 8));
+				buffer.put(colors + 2, (byte) rgb);
+				buffer.put(colors + 3, (byte) alpha);
+				colors += 4;
+			}
+		}
+
+		return mesh;
+	}
+
+	private static void putNormal(ByteBuffer buffer, int offset, int x, int y, int z)
+	{
+		double length = Math.sqrt((double) x * x + (double) y * y + (double) z * z);
+		if (length == 0)
+		{
+			buffer.putFloat(offset, 0f);
+			buffer.putFloat(offset + 4, 1f);
+			buffer.putFloat(offset + 8, 0f);
+			return;
+		}
+
+		buffer.putFloat(offset, (float) (x / length));
+		buffer.putFloat(offset + 4, (float) (y / length));
+		buffer.putFloat(offset + 8, (float) (z / length));
+	}
+
+	/**
+	 * Shifts a face's texture coordinates by whole tiles so that they start in the first
+	 * tile, and clamps them to it.
+	 */
+	private static void tile(float[] coordinates)
+	{
+		float shift = (float) Math.floor(Math.min(coordinates[0], Math.min(coordinates[1], coordinates[2])));
+		for (int i = 0; i < 3; ++i)
+		{
+			coordinates[i] = Math.max(0f, Math.min(1f, coordinates[i] - shift));
+		}
+	}
+
+	private static long pad(long length)
+	{
+		return (length + 3) & ~3;
+	}
+
+	private static JsonObject accessor(int bufferView, int count, int componentType, String type, boolean normalized)
+	{
+		JsonObject accessor = new JsonObject();
+		accessor.addProperty("bufferView", bufferView);
+		accessor.addProperty("componentType", componentType);
+		if (normalized)
+		{
+			accessor.addProperty("normalized", true);
+		}
+		accessor.addProperty("count", count);
+		accessor.addProperty("type", type);
+		return accessor;
+	}
+
+	private static JsonObject bufferView(long offset, int length)
+	{
+		JsonObject bufferView = new JsonObject();
+		bufferView.addProperty("buffer", 0);
+		bufferView.addProperty("byteOffset", offset);
+		bufferView.addProperty("byteLength", length);
+		bufferView.addProperty("target", GL_ARRAY_BUFFER);
+		return bufferView;
+	}
+
+	private static JsonObject material(String name, String alphaMode)
+	{
+		JsonObject baseColorTexture = new JsonObject();
+		baseColorTexture.addProperty("index", 0);
+		JsonObject pbr = new JsonObject();
+		pbr.add("baseColorTexture", baseColorTexture);
+		pbr.addProperty("metallicFactor", 0);
+		pbr.addProperty("roughnessFactor", 1);
+
+		JsonObject material = new JsonObject();
+		material.addProperty("name", name);
+		material.add("pbrMetallicRoughness", pbr);
+		material.addProperty("alphaMode", alphaMode);
+		material.addProperty("doubleSided", false);
+		return material;
+	}
+
+	private static JsonObject texture()
+	{
+		JsonObject texture = new JsonObject();
+		texture.addProperty("sampler", 0);
+		texture.addProperty("source", 0);
+		return texture;
+	}
+
+	private static JsonObject sampler()
+	{
+		JsonObject sampler = new JsonObject();
+		sampler.addProperty("magFilter", GL_NEAREST);
+		sampler.addProperty("minFilter", GL_NEAREST);
+		sampler.addProperty("wrapS", GL_CLAMP_TO_EDGE);
+		sampler.addProperty("wrapT", GL_CLAMP_TO_EDGE);
+		return sampler;
+	}
+
+	private static JsonArray array(float[] values)
+	{
+		JsonArray array = new JsonArray();
+		for (float value : values)
+		{
+			array.add(value);
+		}
+		return array;
+	}
+
+	private static JsonArray single(JsonObject object)
+	{
+		JsonArray array = new JsonArray();
+		array.add(object);
+		return array;
+	}
+
+	private static class Atlas
+	{
+		private final int columns;
+		private final int rows;
+		private final Map<Integer, Integer> slots = new HashMap<>();
+		private byte[] png;
+
+		Atlas(int columns, int rows)
+		{
+			this.columns = columns;
+			this.rows = rows;
+		}
+
+		float u(int slot, float u)
+		{
+			// keep half a texel away from the slot edges so neighbouring slots don't bleed in
+			float texel = 0.5f + u * (TEXTURE_SIZE - 1);
+			return ((slot % columns) * TEXTURE_SIZE + texel) / (columns * TEXTURE_SIZE);
+		}
+
+		float v(int slot, float v)
+		{
+			float texel = 0.5f + v * (TEXTURE_SIZE - 1);
+			return ((slot / columns) * TEXTURE_SIZE + texel) / (rows * TEXTURE_SIZE);
+		}
+	}
+
+	private static class Mesh
+	{
+		private final int id;
+		private final int vertexCount;
+		private final byte[] data;
+		private final float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+		private final float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+		private boolean transparent;
+
+		Mesh(int id, int vertexCount)
+		{
+			this.id = id;
+			this.vertexCount = vertexCount;
+			this.data = new byte[vertexCount * (12 + 12 + 8 + 4)];
+		}
+
+		void bound(float x, float y, float z)
+		{
+			min[0] = Math.min(min[0], x);
+			min[1] = Math.min(min[1], y);
+			min[2] = Math.min(min[2], z);
+			max[0] = Math.max(max[0], x);
+			max[1] = Math.max(max[1], y);
+			max[2] = Math.max(max[2], z);
+		}
+	}
+}
@@ -26,6 +26,8 @@
  */
 package net.runelite.cache.script;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -612,4 +614,9 @@ public class Instructions implements Opcodes
 	{
 		return instructionsByName.get(name);
 	}
+
+	public Collection<Instruction> getInstructions()
+	{
+		return Collections.unmodifiableCollection(instructions.values());
+	}
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.script;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers the inputs each script was last built from, so batch builds can skip
+ * scripts which have not changed since. Entries are only valid for the opcode table
+ * they were built with; loading the cache with a different table discards it.
+ */
+@Slf4j
+public class ScriptBuildCache
+{
+	private static final String HEADER = "scripts 1 ";
+
+	private final File file;
+	private final String fingerprint;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private static final class Entry
+	{
+		private final String digest;
+		private final int scriptId;
+
+		private Entry(String digest, int scriptId)
+		{
+			this.digest = digest;
+			this.scriptId = scriptId;
+		}
+	}
+
+	private ScriptBuildCache(File file, String fingerprint)
+	{
+		this.file = file;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Loads the cache stored in {@code file}. The cache is empty if the file does not exist,
+	 * cannot be read, or was written for a different opcode table.
+	 */
+	public static ScriptBuildCache load(File file, Instructions instructions)
+	{
+		ScriptBuildCache cache = new ScriptBuildCache(file, fingerprint(instructions));
+		if (!file.exists())
+		{
+			return cache;
+		}
+
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			if (!(HEADER + cache.fingerprint).equals(reader.readLine()))
+			{
+				log.debug("Script build cache {} is for a different opcode table", file);
+				return cache;
+			}
+
+			for (String line; (line = reader.readLine()) != null; )
+			{
+				// name digest scriptId, name may contain spaces
+				int s2 = line.lastIndexOf(' ');
+				int s1 = line.lastIndexOf(' ', s2 - 1);
+				cache.entries.put(line.substring(0, s1), new Entry(line.substring(s1 + 1, s2), Integer.parseInt(line.substring(s2 + 1))));
+			}
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			log.warn("Unable to read script build cache {}", file, ex);
+			cache.entries.clear();
+		}
+		return cache;
+	}
+
+	/**
+	 * Gets the id of the script built from {@code name}, if it was built from the same inputs.
+	 *
+	 * @return the script id, or -1 if the script must be rebuilt
+	 */
+	public int get(String name, String digest)
+	{
+		Entry entry = entries.get(name);
+		return entry != null && entry.digest.equals(digest) ? entry.scriptId : -1;
+	}
+
+	public void put(String name, String digest, int scriptId)
+	{
+		entries.put(name, new Entry(digest, scriptId));
+	}
+
+	public void save() throws IOException
+	{
+		File tmp = new File(file.getPath() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8))
+		{
+			writer.write(HEADER + fingerprint);
+			writer.newLine();
+			for (Map.Entry<String, Entry> e : new TreeMap<>(entries).entrySet())
+			{
+				writer.write(e.getKey() + " " + e.getValue().digest + " " + e.getValue().scriptId);
+				writer.newLine();
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Computes a digest of the given inputs, for use as a cache key.
+	 */
+	public static String digest(byte[]... inputs)
+	{
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (byte[] input : inputs)
+		{
+			hasher.putInt(input.length);
+			hasher.putBytes(input);
+		}
+		return hasher.hash().toString();
+	}
+
+	private static String fingerprint(Instructions instructions)
+	{
+		List<Instruction> list = new ArrayList<>(instructions.getInstructions());
+		list.sort(Comparator.comparingInt(Instruction::getOpcode));
+
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (Instruction instruction : list)
+		{
+			hasher.putInt(instruction.getOpcode());
+			hasher.putString(String.valueOf(instruction.getName()), StandardCharsets.UTF_8);
+		}
+		return hasher.hash().toString();
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.script.assembler;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.Setter;
+import lombok.Value;
+import net.runelite.cache.definitions.ScriptDefinition;
+import net.runelite.cache.script.Instructions;
+import net.runelite.cache.script.ScriptBuildCache;
+import net.runelite.cache.util.ParallelWorkers;
+
+/**
+ * Assembles many scripts in parallel. With a {@link ScriptBuildCache}, scripts whose
+ * source and dependencies are unchanged since the last build are not reassembled.
+ */
+public class BatchAssembler
+{
+	public interface Output
+	{
+		/**
+		 * Called from a worker thread with each assembled script.
+		 */
+		void write(File source, ScriptDefinition script) throws IOException;
+
+		/**
+		 * Checks if the output of a previous build of a script is still present.
+		 */
+		default boolean exists(File source, int scriptId)
+		{
+			return true;
+		}
+	}
+
+	@Value
+	public static class Result
+	{
+		int assembled;
+		int skipped;
+	}
+
+	private final Assembler assembler;
+
+	@Setter
+	private int threads = Runtime.getRuntime().availableProcessors();
+	@Setter
+	private ScriptBuildCache cache;
+	/**
+	 * Other files a script's output depends on, which are included in its cache key
+	 */
+	@Setter
+	private Function<File, Collection<File>> dependencies = source -> Collections.emptyList();
+
+	public BatchAssembler(Instructions instructions)
+	{
+		// the assembler only reads the instructions, so it can be shared between threads
+		this.assembler = new Assembler(instructions);
+	}
+
+	public Result assemble(List<File> sources, Output output) throws IOException
+	{
+		AtomicInteger assembled = new AtomicInteger();
+		AtomicInteger skipped = new AtomicInteger();
+
+		ParallelWorkers.forEach(threads, 0, sources.size(), i ->
+		{
+			File source = sources.get(i);
+			byte[] data = Files.readAllBytes(source.toPath());
+
+			String digest = null;
+			if (cache != null)
+			{
+				List<byte[]> inputs = new ArrayList<>();
+				inputs.add(data);
+				for (File dependency : dependencies.apply(source))
+				{
+					inputs.add(dependency.exists() ? Files.readAllBytes(dependency.toPath()) : new byte[0]);
+				}
+				digest = ScriptBuildCache.digest(inputs.toArray(new byte[0][]));
+
+				int scriptId = cache.get(source.getName(), digest);
+				if (scriptId != -1 && output.exists(source, scriptId))
+				{
+					skipped.incrementAndGet();
+					return;
+				}
+			}
+
+			ScriptDefinition script;
+			try
+			{
+				script = assembler.assemble(new ByteArrayInputStream(data));
+			}
+			catch (RuntimeException ex)
+			{
+				throw new IOException("unable to assemble " + source, ex);
+			}
+
+			output.write(source, script);
+			if (cache != null)
+			{
+				cache.put(source.getName(), digest, script.getId());
+			}
+			assembled.incrementAndGet();
+		});
+
+		// only saved after a successful build, so a failure to save can't hide the assembler's error
+		if (cache != null)
+		{
+			cache.save();
+		}
+
+		return new Result(assembled.get(), skipped.get());
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.script.disassembler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import lombok.Setter;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.definitions.ScriptDefinition;
+import net.runelite.cache.definitions.loaders.ScriptLoader;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.script.ScriptBuildCache;
+import net.runelite.cache.util.ParallelWorkers;
+
+/**
+ * Disassembles a whole script index into {@code <id>.rs2asm} files. Archives are read from
+ * the store on the calling thread and disassembled on a pool of workers. With a
+ * {@link ScriptBuildCache}, scripts whose archive is unchanged since the last run are skipped.
+ */
+public class BatchDisassembler
+{
+	private final Disassembler disassembler = new Disassembler();
+
+	@Setter
+	private int threads = Runtime.getRuntime().availableProcessors();
+	@Setter
+	private ScriptBuildCache cache;
+
+	/**
+	 * @return the number of scripts written
+	 */
+	public int disassemble(Store store, File outDir) throws IOException
+	{
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.CLIENTSCRIPT);
+		ScriptLoader loader = new ScriptLoader();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		// limits how many loaded scripts are waiting for a worker
+		Semaphore pending = new Semaphore(threads * 2);
+		List<Future<?>> futures = new ArrayList<>();
+		try
+		{
+			for (Archive archive : index.getArchives())
+			{
+				int id = archive.getArchiveId();
+				File outFile = new File(outDir, id + ".rs2asm");
+				String name = Integer.toString(id);
+				String digest = archive.getCrc() + "-" + archive.getRevision();
+				if (cache != null && cache.get(name, digest) == id && outFile.exists())
+				{
+					continue;
+				}
+
+				byte[] contents = archive.decompress(storage.loadArchive(archive));
+				if (contents == null)
+				{
+					continue;
+				}
+
+				ScriptDefinition script = loader.load(id, contents);
+				pending.acquire();
+				futures.add(executor.submit(() ->
+				{
+					try
+					{
+						String out = disassembler.disassemble(script);
+						Files.write(outFile.toPath(), out.getBytes(StandardCharsets.UTF_8));
+						if (cache != null)
+						{
+							cache.put(name, digest, id);
+						}
+					}
+					finally
+					{
+						pending.release();
+					}
+					return null;
+				}));
+			}
+
+			ParallelWorkers.await(futures);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		// only saved once every script has been written, so a failed run doesn't record
+		// scripts as up to date and a failure to save can't hide the original error
+		if (cache != null)
+		{
+			cache.save();
+		}
+
+		return futures.size();
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a task over a range of indices on a fixed number of workers. Each worker claims the
+ * next unclaimed index until the range is exhausted, so only one item per worker is in
+ * flight however large the range is.
+ */
+public final class ParallelWorkers
+{
+	@FunctionalInterface
+	public interface IndexTask
+	{
+		void run(int index) throws IOException;
+	}
+
+	private ParallelWorkers()
+	{
+	}
+
+	/**
+	 * Runs {@code task} for every index in {@code [start, end)} on a pool of {@code threads}
+	 * workers which is shut down before returning.
+	 */
+	public static void forEach(int threads, int start, int end, IndexTask task) throws IOException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			forEach(executor, threads, start, end, task);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs {@code task} for every index in {@code [start, end)} on {@code workers} tasks
+	 * submitted to {@code executor}. Once a task fails no further indices are claimed, and
+	 * the first failure is rethrown after every worker has stopped.
+	 */
+	public static void forEach(ExecutorService executor, int workers, int start, int end, IndexTask task) throws IOException
+	{
+		AtomicInteger next = new AtomicInteger(start);
+		Callable<Void> worker = () ->
+		{
+			for (int i = next.getAndIncrement(); i < end; i = next.getAndIncrement())
+			{
+				try
+				{
+					task.run(i);
+				}
+				catch (Throwable ex)
+				{
+					next.set(end);
+					throw ex;
+				}
+			}
+			return null;
+		};
+
+		List<Future<?>> futures = new ArrayList<>(workers);
+		for (int i = 0; i < workers; ++i)
+		{
+			futures.add(executor.submit(worker));
+		}
+		await(futures);
+	}
+
+	/**
+	 * Waits for every future to complete, then rethrows the first failure as an
+	 * {@link IOException}.
+	 */
+	public static void await(List<? extends Future<?>> futures) throws IOException
+	{
+		IOException failure = null;
+		for (Future<?> future : futures)
+		{
+			try
+			{
+				future.get();
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				for (Future<?> f : futures)
+				{
+					f.cancel(true);
+				}
+				throw new IOException(ex);
+			}
+			catch (ExecutionException ex)
+			{
+				if (failure == null)
+				{
+					failure = unwrap(ex);
+				}
+			}
+		}
+
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+
+	/**
+	 * Unwraps the failure of a worker, keeping an {@link IOException} as is.
+	 */
+	public static IOException unwrap(ExecutionException ex)
+	{
+		Throwable cause = ex.getCause();
+		return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+	}
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.cache.definitions.DBRowDefinition;
+import net.runelite.cache.definitions.DBTableDefinition;
+import net.runelite.cache.definitions.DBTableIndex;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.io.OutputStream;
+import net.runelite.cache.util.BaseVarType;
+import net.runelite.cache.util.ScriptVarType;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DBQueryEngineTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(DBQueryEngineTest.class);
+
+	private static final int TABLE = 7;
+
+	private DBQueryEngine engine;
+
+	@Before
+	public void before()
+	{
+		engine = new DBQueryEngine(null);
+
+		DBTableDefinition table = new DBTableDefinition(TABLE);
+		table.setTypes(new ScriptVarType[][]{
+			{ScriptVarType.INTEGER},
+			{ScriptVarType.STRING, ScriptVarType.INTEGER},
+		});
+		table.setDefaultColumnValues(new Object[][]{
+			null,
+			{"none", -1},
+		});
+		engine.addTable(table);
+
+		DBTableDefinition other = new DBTableDefinition(TABLE + 1);
+		other.setTypes(new ScriptVarType[][]{{ScriptVarType.INTEGER}});
+		engine.addTable(other);
+
+		// column 0 is indexed by the cache, column 1 is not
+		DBTableIndex column0 = new DBTableIndex(TABLE, 0);
+		column0.setTupleTypes(new BaseVarType[]{BaseVarType.INTEGER});
+		Map<Object, List<Integer>> values = new HashMap<>();
+		values.put(30, Arrays.asList(100, 103));
+		values.put(10, Collections.singletonList(101));
+		values.put(20, Collections.singletonList(102));
+		column0.setTupleIndexes(Collections.singletonList(values));
+		engine.addIndex(column0);
+
+		engine.addRow(100, row(30, "b", 2));
+		engine.addRow(101, row(10, "a", 1, "c", 3));
+		engine.addRow(102, row(20));
+		engine.addRow(103, row(30, "a", 5));
+		engine.addRow(200, encodeRow(TABLE + 1, 5, new Object[0]));
+	}
+
+	@Test
+	public void testFind()
+	{
+		assertEquals(Arrays.asList(100, 103), engine.find(TABLE, 0, 30));
+		assertEquals(Collections.singletonList(101), engine.find(TABLE, 0, 10));
+		assertEquals(Collections.emptyList(), engine.find(TABLE, 0, 15));
+	}
+
+	@Test
+	public void testFindRange()
+	{
+		assertEquals(Arrays.asList(101, 102), engine.findRange(TABLE, 0, 5, 25));
+		assertEquals(Arrays.asList(102, 100, 103), engine.findRange(TABLE, 0, 20, null));
+		assertEquals(Arrays.asList(101, 102, 100, 103), engine.findRange(TABLE, 0, null, null));
+		assertEquals(Collections.emptyList(), engine.findRange(TABLE, 0, 21, 29));
+	}
+
+	@Test
+	public void testSecondaryIndex()
+	{
+		// built from the rows, including repeated fields and table defaults
+		assertEquals(Arrays.asList(101, 103), engine.find(TABLE, 1, "a"));
+		assertEquals(Collections.singletonList(101), engine.find(TABLE, 1, "c"));
+		assertEquals(Collections.singletonList(102), engine.find(TABLE, 1, "none"));
+		assertEquals(Arrays.asList(101, 100, 103), engine.findRange(TABLE, 1, 1, 1, 5));
+		assertEquals(Collections.emptyList(), engine.find(TABLE + 1, 0, 6));
+		assertEquals(Collections.singletonList(200), engine.find(TABLE + 1, 0, 5));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongType()
+	{
+		engine.find(TABLE, 0, "30");
+	}
+
+	@Test
+	public void testGetRow()
+	{
+		DBRowDefinition row = engine.getRow(101);
+		assertEquals(TABLE, row.getTableId());
+		assertArrayEquals(new Object[]{"a", 1, "c", 3}, engine.getColumnValues(101, 1));
+		assertArrayEquals(new Object[]{"none", -1}, engine.getColumnValues(102, 1));
+		assertNull(engine.getRow(999));
+	}
+
+	@Test
+	@Ignore
+	public void testBenchmark() throws Exception
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			DBTableIndexManager indexManager = new DBTableIndexManager(store);
+			indexManager.load();
+			DBRowManager rowManager = new DBRowManager(store);
+			rowManager.load();
+
+			long start = System.nanoTime();
+			DBQueryEngine engine = new DBQueryEngine(store);
+			engine.load();
+			logger.info("Loaded engine in {}ms", (System.nanoTime() - start) / 1_000_000);
+
+			int lookups = 0;
+			long indexed = 0, scanned = 0;
+			for (DBTableIndex index : indexManager.getIndexes())
+			{
+				if (index.getColumnId() < 0)
+				{
+					continue;
+				}
+
+				for (int tuple = 0; tuple < index.getTupleIndexes().size(); ++tuple)
+				{
+					for (Object value : index.getTupleIndexes().get(tuple).keySet())
+					{
+						start = System.nanoTime();
+						List<Integer> found = engine.find(index.getTableId(), index.getColumnId(), tuple, value);
+						indexed += System.nanoTime() - start;
+
+						start = System.nanoTime();
+						int matches = scan(rowManager, index.getTableId(), index.getColumnId(), tuple, index.getTupleTypes().length, value);
+						scanned += System.nanoTime() - start;
+
+						assertEquals(matches, found.size());
+						++lookups;
+					}
+				}
+			}
+
+			logger.info("{} lookups: indexed {}ms, scanned {}ms", lookups, indexed / 1_000_000, scanned / 1_000_000);
+		}
+	}
+
+	private static int scan(DBRowManager rowManager, int tableId, int columnId, int tuple, int tupleSize, Object value)
+	{
+		int matches = 0;
+		for (DBRowDefinition row : rowManager.getRows())
+		{
+			if (row.getTableId() != tableId || row.getColumnValues() == null || columnId >= row.getColumnValues().length)
+			{
+				continue;
+			}
+
+			Object[] fields = row.getColumnValues()[columnId];
+			for (int i = tuple; fields != null && i < fields.length; i += tupleSize)
+			{
+				if (value.equals(fields[i]))
+				{
+					++matches;
+					break;
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Encodes a row of the test table. Column 0 holds the first value and column 1 holds
+	 * the (string, int) pairs that follow, or is omitted when there are none.
+	 */
+	private static byte[] row(int column0, Object... column1)
+	{
+		return encodeRow(TABLE, column0, column1);
+	}
+
+	private static byte[] encodeRow(int tableId, int column0, Object[] column1)
+	{
+		OutputStream out = new OutputStream();
+		out.writeByte(4);
+		out.writeByte(tableId);
+
+		out.writeByte(3);
+		out.writeByte(2);
+		out.writeByte(0);
+		out.writeByte(1);
+		out.writeShortSmart(ScriptVarType.INTEGER.getId());
+		out.writeShortSmart(1);
+		out.writeInt(column0);
+
+		if (column1.length > 0)
+		{
+			out.writeByte(1);
+			out.writeByte(2);
+			out.writeShortSmart(ScriptVarType.STRING.getId());
+			out.writeShortSmart(ScriptVarType.INTEGER.getId());
+			out.writeShortSmart(column1.length / 2);
+			for (int i = 0; i < column1.length; i += 2)
+			{
+				out.writeString((String) column1[i]);
+				out.writeInt((Integer) column1[i + 1]);
+			}
+		}
+		out.writeByte(255);
+
+		out.writeByte(0);
+		return out.flip();
+	}
+}
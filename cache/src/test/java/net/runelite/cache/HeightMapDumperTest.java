@@ -24,12 +24,19 @@
  */
 package net.runelite.cache;
 
+import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import javax.imageio.ImageIO;
+import net.runelite.cache.definitions.MapDefinition;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.region.Region;
+import static org.junit.Assert.assertEquals;
 import org.junit.Rule;
+import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,7 +59,7 @@ public class HeightMapDumperTest
 			store.load();
 
 			HeightMapDumper dumper = new HeightMapDumper(store);
-			dumper.load(null);
+			dumper.load();
 
 			BufferedImage image = dumper.drawHeightMap(0);
 
@@ -60,6 +67,73 @@ public class HeightMapDumperTest
 
 			ImageIO.write(image, "png", imageFile);
 			logger.info("Wrote image {}", imageFile);
+
+			File tileDir = new File(outDir, "heightmap-0");
+			tileDir.mkdir();
+			dumper.exportTiles(0, tileDir);
+			logger.info("Wrote height tiles to {}", tileDir);
+		}
+	}
+
+	@Test
+	public void testStitch() throws IOException
+	{
+		HeightMapDumper dumper = new HeightMapDumper(null);
+		dumper.setThreads(2);
+		dumper.addRegion(region(50, 51, 10));
+		dumper.addRegion(region(51, 50, 20));
+
+		BufferedImage image = dumper.drawHeightMap(1);
+		assertEquals(128, image.getWidth());
+		assertEquals(128, image.getHeight());
+
+		// region 50,51 is top left, with its north west tile at 0,0
+		assertEquals(color(10 + 63 + 2), image.getRGB(0, 0));
+		assertEquals(color(10 + 2), image.getRGB(0, 63));
+		// region 51,50 is bottom right
+		assertEquals(color(20 + 63 + 2), image.getRGB(64, 64));
+		assertEquals(color(20 + 2), image.getRGB(64, 127));
+		assertEquals(Color.BLACK.getRGB(), image.getRGB(0, 127));
+
+		File outDir = folder.newFolder();
+		dumper.exportTiles(1, outDir);
+		try (DataInputStream in = new DataInputStream(new FileInputStream(new File(outDir, "51_50.raw"))))
+		{
+			// first row is y = 63
+			assertEquals((20 + 63 + 2) * 8, in.readUnsignedShort());
+			assertEquals((21 + 63 + 2) * 8, in.readUnsignedShort());
 		}
+		assertEquals(64 * 64 * 2, new File(outDir, "50_51.raw").length());
+	}
+
+	/**
+	 * Creates a region where the plane 0 height of a tile is base + x + y, and every
+	 * other plane adds 2.
+	 */
+	private static Region region(int regionX, int regionY, int base)
+	{
+		MapDefinition map = new MapDefinition();
+		for (int z = 0; z < Region.Z; ++z)
+		{
+			for (int x = 0; x < Region.X; ++x)
+			{
+				for (int y = 0; y < Region.Y; ++y)
+				{
+					MapDefinition.Tile tile = new MapDefinition.Tile();
+					tile.height = z == 0 ? base + x + y : 2;
+					map.getTiles()[z][x][y] = tile;
+				}
+			}
+		}
+
+		Region region = new Region(regionX, regionY);
+		region.loadTerrain(map);
+		return region;
+	}
+
+	private static int color(int height)
+	{
+		float color = height * 8 / 2048f;
+		return new Color(color, color, color).getRGB();
 	}
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions.exporters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.definitions.ItemDefinition;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonExporterTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	private static List<ItemDefinition> items(int count)
+	{
+		List<ItemDefinition> items = new ArrayList<>(count);
+		for (int i = 0; i < count; ++i)
+		{
+			ItemDefinition def = new ItemDefinition(i);
+			// non-ascii names pin the output charset to utf-8
+			def.name = i % 3 == 0 ? "Item " + i : "Kebbit épée " + i;
+			def.cost = i * 7;
+			def.members = i % 2 == 0;
+			def.interfaceOptions = new String[]{null, "Wield", null, null, "Drop"};
+			if (i % 4 == 0)
+			{
+				def.colorFind = new short[]{(short) i, 10};
+				def.colorReplace = new short[]{20, (short) -i};
+			}
+			items.add(def);
+		}
+		return items;
+	}
+
+	@Test
+	public void testExportFiles() throws IOException
+	{
+		List<ItemDefinition> items = items(200);
+		File out = folder.newFolder();
+
+		JsonExporter exporter = new JsonExporter();
+		exporter.setThreads(4);
+		exporter.exportFiles(items, def -> new File(out, def.id + ".json"));
+
+		// the per-file output of the exporters before they were streamed
+		Gson gson = new GsonBuilder()
+			.setPrettyPrinting()
+			.create();
+		for (ItemDefinition def : items)
+		{
+			byte[] expected = gson.toJson(def).getBytes(StandardCharsets.UTF_8);
+			byte[] actual = Files.readAllBytes(new File(out, def.id + ".json").toPath());
+			assertArrayEquals("item " + def.id, expected, actual);
+		}
+	}
+
+	@Test
+	public void testExportNdjson() throws IOException
+	{
+		List<ItemDefinition> items = items(200);
+		File file = folder.newFile();
+
+		JsonExporter.exportNdjson(items, file);
+
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals(items.size(), lines.size());
+		Gson gson = new Gson();
+		for (int i = 0; i < items.size(); ++i)
+		{
+			assertEquals(items.get(i), gson.fromJson(lines.get(i), ItemDefinition.class));
+		}
+	}
+}
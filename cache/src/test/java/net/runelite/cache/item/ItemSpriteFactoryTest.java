@@ -27,6 +27,9 @@ package net.runelite.cache.item;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import javax.imageio.ImageIO;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.IndexType;
@@ -36,11 +39,19 @@ import net.runelite.cache.StoreLocation;
 import net.runelite.cache.TextureManager;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.SpriteDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
 import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.definitions.providers.ModelProvider;
+import net.runelite.cache.definitions.providers.SpriteProvider;
+import net.runelite.cache.definitions.providers.TextureProvider;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Store;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -49,9 +60,246 @@ import org.junit.rules.TemporaryFolder;
 @Slf4j
 public class ItemSpriteFactoryTest
 {
+	private static final int ITEMS = 120;
+	private static final int NOTE_TEMPLATE = 799;
+	private static final int NOTE_MODEL = 2429;
+	private static final int PLACEHOLDER_TEMPLATE = 14401;
+	private static final int TEXTURES = 3;
+
 	@Rule
 	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
 
+	/**
+	 * Items 0 until {@link #ITEMS} use synthetic models of varying size, and every
+	 * third one has a stack variant, a noted variant and a placeholder.
+	 */
+	private static Map<Integer, ItemDefinition> syntheticItems()
+	{
+		Map<Integer, ItemDefinition> items = new HashMap<>();
+		Random random = new Random(44);
+		for (int id = 0; id < ITEMS; ++id)
+		{
+			ItemDefinition item = new ItemDefinition(id);
+			item.inventoryModel = id;
+			item.zoom2d = 1200 + random.nextInt(1200);
+			item.xan2d = random.nextInt(2048);
+			item.yan2d = random.nextInt(2048);
+			item.zan2d = random.nextInt(4) == 0 ? random.nextInt(2048) : 0;
+			item.xOffset2d = random.nextInt(9) - 4;
+			item.yOffset2d = random.nextInt(9) - 4;
+			item.ambient = random.nextInt(40);
+			item.contrast = random.nextInt(40);
+			if (id % 5 == 0)
+			{
+				item.resizeX = 96 + random.nextInt(64);
+				item.resizeZ = 96 + random.nextInt(64);
+			}
+			if (id % 7 == 0)
+			{
+				item.colorFind = new short[]{(short) (id * 100)};
+				item.colorReplace = new short[]{(short) (id * 100 + 4000)};
+			}
+			items.put(id, item);
+
+			if (id % 3 == 0)
+			{
+				item.countObj = new int[10];
+				item.countCo = new int[10];
+				item.countObj[0] = (id + 1) % ITEMS;
+				item.countCo[0] = 5;
+
+				ItemDefinition noted = new ItemDefinition(ITEMS + id);
+				noted.inventoryModel = NOTE_MODEL;
+				noted.notedTemplate = NOTE_TEMPLATE;
+				noted.notedID = id;
+				items.put(noted.id, noted);
+
+				ItemDefinition placeholder = new ItemDefinition(ITEMS * 2 + id);
+				placeholder.inventoryModel = id;
+				placeholder.zoom2d = item.zoom2d;
+				placeholder.xan2d = item.xan2d;
+				placeholder.yan2d = item.yan2d;
+				placeholder.placeholderTemplateId = PLACEHOLDER_TEMPLATE;
+				placeholder.placeholderId = id;
+				items.put(placeholder.id, placeholder);
+			}
+		}
+		return items;
+	}
+
+	/**
+	 * A prism around the y axis with a random number of sides, with some faces flat
+	 * shaded, textured or transparent. A new definition is returned for every call.
+	 */
+	private static ModelDefinition syntheticModel(int modelId)
+	{
+		Random random = new Random(modelId);
+		int sides = modelId == NOTE_MODEL ? 4 : 3 + random.nextInt(60);
+
+		ModelDefinition def = new ModelDefinition();
+		def.id = modelId;
+		def.vertexCount = sides * 2;
+		def.vertexX = new int[def.vertexCount];
+		def.vertexY = new int[def.vertexCount];
+		def.vertexZ = new int[def.vertexCount];
+		int radius = 40 + random.nextInt(80);
+		int height = 20 + random.nextInt(100);
+		for (int i = 0; i < sides; ++i)
+		{
+			double angle = Math.PI * 2 * i / sides;
+			int r = radius - random.nextInt(radius / 3);
+			def.vertexX[i] = def.vertexX[sides + i] = (int) (Math.cos(angle) * r);
+			def.vertexZ[i] = def.vertexZ[sides + i] = (int) (Math.sin(angle) * r);
+			def.vertexY[i] = -height;
+			def.vertexY[sides + i] = height;
+		}
+
+		def.faceCount = sides * 2 + (sides - 2) * 2;
+		def.faceIndices1 = new int[def.faceCount];
+		def.faceIndices2 = new int[def.faceCount];
+		def.faceIndices3 = new int[def.faceCount];
+		int face = 0;
+		for (int i = 0; i < sides; ++i)
+		{
+			int next = (i + 1) % sides;
+			face = addFace(def, face, i, next, sides + i);
+			face = addFace(def, face, next, sides + next, sides + i);
+		}
+		for (int i = 1; i < sides - 1; ++i)
+		{
+			face = addFace(def, face, 0, i + 1, i);
+			face = addFace(def, face, sides, sides + i, sides + i + 1);
+		}
+
+		def.faceColors = new short[def.faceCount];
+		def.faceRenderTypes = new byte[def.faceCount];
+		def.faceTransparencies = new byte[def.faceCount];
+		def.faceTextures = new short[def.faceCount];
+		def.textureCoords = new byte[def.faceCount];
+		def.numTextureFaces = 1;
+		def.texIndices1 = new short[]{0};
+		def.texIndices2 = new short[]{1};
+		def.texIndices3 = new short[]{(short) sides};
+		def.textureRenderTypes = new byte[1];
+		if (modelId % 3 == 0)
+		{
+			def.faceRenderPriorities = new byte[def.faceCount];
+		}
+		for (int i = 0; i < def.faceCount; ++i)
+		{
+			def.faceColors[i] = (short) (modelId * 100 + random.nextInt(3) * 1000 + random.nextInt(128));
+			def.faceRenderTypes[i] = (byte) (random.nextInt(4) == 0 ? 1 : 0);
+			def.faceTransparencies[i] = (byte) (random.nextInt(6) == 0 ? random.nextInt(200) : 0);
+			boolean textured = random.nextInt(3) == 0;
+			def.faceTextures[i] = (short) (textured ? random.nextInt(TEXTURES) : -1);
+			def.textureCoords[i] = (byte) (textured && random.nextBoolean() ? 0 : -1);
+			if (def.faceRenderPriorities != null)
+			{
+				def.faceRenderPriorities[i] = (byte) random.nextInt(12);
+			}
+		}
+		return def;
+	}
+
+	private static int addFace(ModelDefinition def, int face, int a, int b, int c)
+	{
+		def.faceIndices1[face] = a;
+		def.faceIndices2[face] = b;
+		def.faceIndices3[face] = c;
+		return face + 1;
+	}
+
+	private static TextureDefinition[] syntheticTextures()
+	{
+		TextureDefinition[] textures = new TextureDefinition[TEXTURES];
+		for (int i = 0; i < TEXTURES; ++i)
+		{
+			TextureDefinition texture = new TextureDefinition();
+			texture.setId(i);
+			texture.setFileIds(new int[]{i});
+			texture.field1786 = new int[1];
+			texture.field1780 = new int[0];
+			texture.field1777 = 0x404040 * (i + 1);
+			textures[i] = texture;
+		}
+		return textures;
+	}
+
+	private static SpriteDefinition syntheticSprite(int spriteId, int frameId)
+	{
+		Random random = new Random(spriteId);
+		SpriteDefinition sprite = new SpriteDefinition();
+		sprite.setId(spriteId);
+		sprite.setFrame(frameId);
+		sprite.setWidth(128);
+		sprite.setHeight(128);
+		sprite.setMaxWidth(128);
+		sprite.setMaxHeight(128);
+		sprite.palette = new int[16];
+		for (int i = 1; i < sprite.palette.length; ++i)
+		{
+			sprite.palette[i] = random.nextInt(0x1000000);
+		}
+		sprite.pixelIdx = new byte[128 * 128];
+		for (int i = 0; i < sprite.pixelIdx.length; ++i)
+		{
+			sprite.pixelIdx[i] = (byte) ((i / 128 / 16 + i % 128 / 16) % sprite.palette.length);
+		}
+		return sprite;
+	}
+
+	@Test
+	public void testReusedFactoryMatchesFreshFactory() throws IOException
+	{
+		Map<Integer, ItemDefinition> items = syntheticItems();
+		ItemProvider itemProvider = items::get;
+		ModelProvider modelProvider = ItemSpriteFactoryTest::syntheticModel;
+		SpriteProvider spriteProvider = ItemSpriteFactoryTest::syntheticSprite;
+		// textures cache their pixels, so each factory gets its own definitions
+		TextureProvider textureProvider = ItemSpriteFactoryTest::syntheticTextures;
+
+		int[] itemIds = items.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+		int[][] fresh = new int[itemIds.length][];
+		for (int i = 0; i < itemIds.length; ++i)
+		{
+			ItemSpriteFactory factory = new ItemSpriteFactory(itemProvider, modelProvider, spriteProvider, textureProvider);
+			SpritePixels sprite = factory.createSpritePixels(itemIds[i], quantity(itemIds[i]), 1, 3153952, false);
+			assertNotNull("item " + itemIds[i], sprite);
+			fresh[i] = sprite.pixels;
+		}
+
+		int drawn = 0;
+		for (int[] pixels : fresh)
+		{
+			for (int pixel : pixels)
+			{
+				if (pixel != 0 && pixel != 1)
+				{
+					++drawn;
+					break;
+				}
+			}
+		}
+		assertTrue("only " + drawn + " sprites have model pixels", drawn > itemIds.length * 9 / 10);
+
+		// render forwards and then backwards, so every model follows both larger and smaller ones
+		ItemSpriteFactory reused = new ItemSpriteFactory(itemProvider, modelProvider, spriteProvider, textureProvider);
+		for (int pass = 0; pass < 2; ++pass)
+		{
+			for (int n = 0; n < itemIds.length; ++n)
+			{
+				int i = pass == 0 ? n : itemIds.length - 1 - n;
+				SpritePixels sprite = reused.createSpritePixels(itemIds[i], quantity(itemIds[i]), 1, 3153952, false);
+				assertArrayEquals("item " + itemIds[i] + " pass " + pass, fresh[i], sprite.pixels);
+			}
+		}
+	}
+
+	private static int quantity(int itemId)
+	{
+		return itemId % 2 == 0 ? 10 : 1;
+	}
+
 	@Test
 	@Ignore
 	public void test() throws IOException
@@ -116,4 +364,46 @@ public class ItemSpriteFactoryTest
 
 		log.info("Dumped {} item images to {}", count, outDir);
 	}
-}
\ No newline at end of file
+
+	@Test
+	@Ignore
+	public void testExportAtlas() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			ItemManager itemManager = new ItemManager(store);
+			itemManager.load();
+			itemManager.link();
+
+			ModelProvider modelProvider = modelId ->
+			{
+				Index models = store.getIndex(IndexType.MODELS);
+				Archive archive = models.getArchive(modelId);
+
+				byte[] data = archive.decompress(store.getStorage().loadArchive(archive));
+				return new ModelLoader().load(modelId, data);
+			};
+
+			SpriteManager spriteManager = new SpriteManager(store);
+			spriteManager.load();
+
+			TextureManager textureManager = new TextureManager(store);
+			textureManager.load();
+
+			int[] itemIds = itemManager.getItems().stream()
+				.filter(itemDef -> itemDef.name != null && !itemDef.name.equalsIgnoreCase("null"))
+				.mapToInt(itemDef -> itemDef.id)
+				.toArray();
+
+			ItemSpriteExporter exporter = new ItemSpriteExporter(itemManager, modelProvider, spriteManager, textureManager);
+			long start = System.nanoTime();
+			int count = exporter.exportAtlas(outDir, itemIds, 64, 64);
+			log.info("Packed {} item images into {} in {}ms", count, outDir, (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+}
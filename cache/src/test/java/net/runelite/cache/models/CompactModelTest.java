@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CompactModelTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(CompactModelTest.class);
+
+	private static ModelDefinition pyramid(int size)
+	{
+		ModelDefinition def = new ModelDefinition();
+		def.id = 1;
+		def.vertexCount = 5;
+		def.vertexX = new int[]{-size, size, size, -size, 0};
+		def.vertexY = new int[]{0, 0, 0, 0, -size * 2};
+		def.vertexZ = new int[]{-size, -size, size, size, 0};
+		def.faceCount = 6;
+		def.faceIndices1 = new int[]{0, 0, 1, 2, 3, 0};
+		def.faceIndices2 = new int[]{1, 2, 2, 3, 0, 4};
+		def.faceIndices3 = new int[]{2, 3, 4, 4, 4, 1};
+		def.faceColors = new short[]{10, 10, 20, 30, 40, 10};
+		def.faceRenderTypes = new byte[]{0, 0, 1, 0, 1, 0};
+		def.faceTransparencies = new byte[6];
+		return def;
+	}
+
+	@Test
+	public void testGeometry()
+	{
+		ModelDefinition def = pyramid(100000);
+		CompactModel model = CompactModel.of(def);
+
+		assertEquals(5, model.getVertexCount());
+		assertEquals(6, model.getFaceCount());
+		for (int i = 0; i < def.vertexCount; ++i)
+		{
+			assertEquals(def.vertexX[i], model.getVertexX(i));
+			assertEquals(def.vertexY[i], model.getVertexY(i));
+			assertEquals(def.vertexZ[i], model.getVertexZ(i));
+		}
+		for (int i = 0; i < def.faceCount; ++i)
+		{
+			assertEquals(def.faceIndices1[i], model.getFaceIndex1(i));
+			assertEquals(def.faceIndices2[i], model.getFaceIndex2(i));
+			assertEquals(def.faceIndices3[i], model.getFaceIndex3(i));
+			assertEquals(def.faceColors[i], model.getFaceColor(i));
+			assertEquals(def.faceRenderTypes[i], model.getFaceRenderType(i));
+			assertEquals(0, model.getFaceTransparency(i));
+			assertEquals(-1, model.getFaceTexture(i));
+		}
+	}
+
+	@Test
+	public void testNormals()
+	{
+		ModelDefinition def = pyramid(64);
+		CompactModel model = CompactModel.of(def);
+		def.computeNormals();
+
+		for (int i = 0; i < def.vertexCount; ++i)
+		{
+			assertEquals(def.vertexNormals[i].x, model.getVertexNormalX(i));
+			assertEquals(def.vertexNormals[i].y, model.getVertexNormalY(i));
+			assertEquals(def.vertexNormals[i].z, model.getVertexNormalZ(i));
+			assertEquals(def.vertexNormals[i].magnitude, model.getVertexNormalMagnitude(i));
+		}
+		for (int i = 0; i < def.faceCount; ++i)
+		{
+			if (def.faceRenderTypes[i] == 1)
+			{
+				assertEquals(def.faceNormals[i].x, model.getFaceNormalX(i));
+				assertEquals(def.faceNormals[i].y, model.getFaceNormalY(i));
+				assertEquals(def.faceNormals[i].z, model.getFaceNormalZ(i));
+			}
+		}
+	}
+
+	@Test
+	public void testTextureCoordinates()
+	{
+		ModelDefinition def = pyramid(64);
+		def.faceTextures = new short[]{-1, 5, 5, 7, 7, 7};
+		def.textureCoords = new byte[]{-1, -1, 0, 1, 0, -1};
+		def.numTextureFaces = 2;
+		def.texIndices1 = new short[]{0, 4};
+		def.texIndices2 = new short[]{1, 2};
+		def.texIndices3 = new short[]{3, 0};
+		CompactModel model = CompactModel.of(def);
+		def.computeTextureUVCoordinates();
+
+		float[] u = new float[3];
+		float[] v = new float[3];
+		for (int i = 1; i < def.faceCount; ++i)
+		{
+			model.getTextureCoordinates(i, u, v);
+			assertArrayEquals(def.faceTextureUCoordinates[i], u, 0f);
+			assertArrayEquals(def.faceTextureVCoordinates[i], v, 0f);
+		}
+	}
+
+	@Test
+	public void testCopyOnWrite()
+	{
+		ModelDefinition def = pyramid(64);
+		CompactModel model = CompactModel.of(def);
+
+		assertSame(model, model.recolor((short) 99, (short) 1));
+		assertSame(model, model.retexture((short) 1, (short) 2));
+		assertSame(model, model.resize(128, 128, 128));
+
+		model.getVertexNormalX(0);
+		CompactModel recolored = model.recolor((short) 10, (short) 11);
+		assertNotSame(model, recolored);
+		assertEquals(model.getVertexNormalX(0), recolored.getVertexNormalX(0));
+		assertEquals(model.getFaceNormalY(2), recolored.getFaceNormalY(2));
+		assertEquals(11, recolored.getFaceColor(0));
+		assertEquals(20, recolored.getFaceColor(2));
+		assertEquals(10, model.getFaceColor(0));
+
+		CompactModel resized = model.resize(256, 128, 64);
+		def.resize(256, 128, 64);
+		def.computeNormals();
+		for (int i = 0; i < def.vertexCount; ++i)
+		{
+			assertEquals(def.vertexX[i], resized.getVertexX(i));
+			assertEquals(def.vertexY[i], resized.getVertexY(i));
+			assertEquals(def.vertexZ[i], resized.getVertexZ(i));
+			assertEquals(def.vertexNormals[i].x, resized.getVertexNormalX(i));
+		}
+		assertEquals(-64, model.getVertexX(0));
+	}
+
+	@Test
+	@Ignore
+	public void testDecodeAll() throws Exception
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			Storage storage = store.getStorage();
+			Index index = store.getIndex(IndexType.MODELS);
+			List<Integer> ids = new ArrayList<>();
+			List<byte[]> contents = new ArrayList<>();
+			for (Archive archive : index.getArchives())
+			{
+				ids.add(archive.getArchiveId());
+				contents.add(archive.decompress(storage.loadArchive(archive)));
+			}
+
+			List<Object> definitions = new ArrayList<>(contents.size());
+			long heap = usedHeap();
+			long start = System.nanoTime();
+			for (int i = 0; i < contents.size(); ++i)
+			{
+				ModelDefinition def = new ModelLoader().load(ids.get(i), contents.get(i));
+				def.computeNormals();
+				definitions.add(def);
+			}
+			logger.info("ModelDefinition: {} models in {}ms, {}kb", definitions.size(),
+				(System.nanoTime() - start) / 1_000_000, (usedHeap() - heap) / 1024);
+
+			definitions.clear();
+			heap = usedHeap();
+			start = System.nanoTime();
+			for (int i = 0; i < contents.size(); ++i)
+			{
+				CompactModel model = CompactModel.of(new ModelLoader().load(ids.get(i), contents.get(i)));
+				if (model.getVertexCount() > 0)
+				{
+					model.getVertexNormalX(0);
+				}
+				definitions.add(model);
+			}
+			logger.info("CompactModel: {} models in {}ms, {}kb", definitions.size(),
+				(System.nanoTime() - start) / 1_000_000, (usedHeap() - heap) / 1024);
+		}
+	}
+
+	private static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; ++i)
+		{
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
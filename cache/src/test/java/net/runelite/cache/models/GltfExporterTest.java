@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.models;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.imageio.ImageIO;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.SpriteManager;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.TextureManager;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.SpriteDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import static org.junit.Assert.assertEquals;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class GltfExporterTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(GltfExporterTest.class);
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	private static ModelDefinition triangle(int id, short color, short texture, byte transparency)
+	{
+		ModelDefinition def = new ModelDefinition();
+		def.id = id;
+		def.vertexCount = 3;
+		def.vertexX = new int[]{0, 128, 0};
+		def.vertexY = new int[]{0, 0, -128};
+		def.vertexZ = new int[]{0, 0, 0};
+		def.faceCount = 1;
+		def.faceIndices1 = new int[]{0};
+		def.faceIndices2 = new int[]{1};
+		def.faceIndices3 = new int[]{2};
+		def.faceColors = new short[]{color};
+		def.faceTransparencies = new byte[]{transparency};
+		if (texture != -1)
+		{
+			def.faceTextures = new short[]{texture};
+		}
+		return def;
+	}
+
+	@Test
+	public void testExport() throws Exception
+	{
+		TextureDefinition texture = new TextureDefinition();
+		texture.setId(5);
+		texture.setFileIds(new int[]{50});
+		texture.field1786 = new int[]{0};
+
+		SpriteDefinition sprite = new SpriteDefinition();
+		sprite.setWidth(128);
+		sprite.setHeight(128);
+		sprite.setMaxWidth(128);
+		sprite.setMaxHeight(128);
+		sprite.pixelIdx = new byte[128 * 128];
+		Arrays.fill(sprite.pixelIdx, (byte) 1);
+		sprite.palette = new int[]{0, 0xFF0000};
+
+		GltfExporter exporter = new GltfExporter(() -> new TextureDefinition[]{texture}, (spriteId, frameId) -> sprite);
+		exporter.setThreads(2);
+
+		List<ModelDefinition> models = Arrays.asList(
+			triangle(1, (short) 0, (short) -1, (byte) 0),
+			triangle(2, (short) 0, (short) 5, (byte) 128),
+			new ModelDefinition());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(models, out);
+
+		ByteBuffer glb = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(0x46546C67, glb.getInt());
+		assertEquals(2, glb.getInt());
+		assertEquals(out.size(), glb.getInt());
+
+		int jsonLength = glb.getInt();
+		assertEquals(0x4E4F534A, glb.getInt());
+		byte[] jsonBytes = new byte[jsonLength];
+		glb.get(jsonBytes);
+		JsonObject json = new JsonParser().parse(new String(jsonBytes, StandardCharsets.UTF_8)).getAsJsonObject();
+
+		int binLength = glb.getInt();
+		assertEquals(0x004E4942, glb.getInt());
+		assertEquals(glb.remaining(), binLength);
+		ByteBuffer bin = glb.slice().order(ByteOrder.LITTLE_ENDIAN);
+
+		// the empty model has no mesh
+		assertEquals(2, json.getAsJsonArray("meshes").size());
+		assertEquals(2, json.getAsJsonArray("nodes").size());
+		// only the transparent model uses the blended material
+		JsonArray materials = json.getAsJsonArray("materials");
+		assertEquals("MASK", materials.get(0).getAsJsonObject().get("alphaMode").getAsString());
+		assertEquals("BLEND", materials.get(1).getAsJsonObject().get("alphaMode").getAsString());
+		JsonArray meshes = json.getAsJsonArray("meshes");
+		assertEquals(0, meshes.get(0).getAsJsonObject().getAsJsonArray("primitives").get(0).getAsJsonObject().get("material").getAsInt());
+		assertEquals(1, meshes.get(1).getAsJsonObject().getAsJsonArray("primitives").get(0).getAsJsonObject().get("material").getAsInt());
+		assertEquals(3, json.getAsJsonArray("accessors").get(0).getAsJsonObject().get("count").getAsInt());
+
+		// second vertex of the first model, with y and z flipped
+		assertEquals(128f, bin.getFloat(12), 0f);
+		assertEquals(0f, bin.getFloat(16), 0f);
+		// last vertex has y = -128
+		assertEquals(128f, bin.getFloat(28), 0f);
+
+		// second model's colors are white and half transparent
+		int colors = json.getAsJsonArray("bufferViews").get(7).getAsJsonObject().get("byteOffset").getAsInt();
+		assertEquals(0x7FFFFFFF, bin.getInt(colors));
+
+		JsonObject imageView = json.getAsJsonArray("bufferViews").get(8).getAsJsonObject();
+		byte[] png = new byte[imageView.get("byteLength").getAsInt()];
+		bin.position(imageView.get("byteOffset").getAsInt());
+		bin.get(png);
+		BufferedImage atlas = ImageIO.read(new ByteArrayInputStream(png));
+		assertEquals(256, atlas.getWidth());
+		assertEquals(128, atlas.getHeight());
+		assertEquals(0xFFFFFFFF, atlas.getRGB(10, 10));
+		assertEquals(0xFF, atlas.getRGB(138, 10) >>> 24);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExportWithoutFaces() throws Exception
+	{
+		// glTF needs at least one mesh and node
+		GltfExporter exporter = new GltfExporter(() -> new TextureDefinition[0], (spriteId, frameId) -> null);
+		exporter.export(Arrays.asList(new ModelDefinition(), new ModelDefinition()), new ByteArrayOutputStream());
+	}
+
+	@Test
+	@Ignore
+	public void testExportAll() throws Exception
+	{
+		File file = folder.newFile("models.glb");
+
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			TextureManager tm = new TextureManager(store);
+			tm.load();
+			SpriteManager sm = new SpriteManager(store);
+			sm.load();
+
+			Storage storage = store.getStorage();
+			Index index = store.getIndex(IndexType.MODELS);
+			List<ModelDefinition> models = new ArrayList<>();
+			for (Archive archive : index.getArchives())
+			{
+				byte[] contents = archive.decompress(storage.loadArchive(archive));
+				models.add(new ModelLoader().load(archive.getArchiveId(), contents));
+			}
+
+			long start = System.nanoTime();
+			new GltfExporter(tm, sm).export(models, file);
+			logger.info("Exported {} models to {} in {}ms ({} kb)", models.size(), file,
+				(System.nanoTime() - start) / 1_000_000, file.length() / 1024);
+		}
+	}
+}
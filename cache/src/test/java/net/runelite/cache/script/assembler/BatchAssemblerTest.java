@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.script.assembler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.runelite.cache.definitions.ScriptDefinition;
+import net.runelite.cache.definitions.savers.ScriptSaver;
+import net.runelite.cache.script.Instructions;
+import net.runelite.cache.script.RuneLiteInstructions;
+import net.runelite.cache.script.ScriptBuildCache;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BatchAssemblerTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<File> sources = new ArrayList<>();
+	private final Map<String, byte[]> written = new ConcurrentHashMap<>();
+	private File cacheFile;
+
+	@Before
+	public void before() throws IOException
+	{
+		File dir = folder.newFolder();
+		for (String name : new String[]{"91.rs2asm", "681.rs2asm", "Unicode.rs2asm"})
+		{
+			File file = new File(dir, name);
+			try (InputStream in = BatchAssemblerTest.class.getResourceAsStream(name))
+			{
+				Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			sources.add(file);
+		}
+		cacheFile = new File(folder.getRoot(), "cache.txt");
+	}
+
+	private BatchAssembler.Result assemble(Instructions instructions) throws IOException
+	{
+		written.clear();
+		BatchAssembler assembler = new BatchAssembler(instructions);
+		assembler.setThreads(2);
+		assembler.setCache(ScriptBuildCache.load(cacheFile, instructions));
+		return assembler.assemble(sources, (source, script) -> written.put(source.getName(), new ScriptSaver().save(script)));
+	}
+
+	@Test
+	public void testAssemble() throws IOException
+	{
+		Instructions instructions = new Instructions();
+		instructions.init();
+
+		BatchAssembler.Result result = assemble(instructions);
+		assertEquals(3, result.getAssembled());
+		assertEquals(0, result.getSkipped());
+		assertEquals(3, written.size());
+
+		// the packed scripts must match a sequential run of the single script assembler
+		for (File source : sources)
+		{
+			try (InputStream in = Files.newInputStream(source.toPath()))
+			{
+				ScriptDefinition script = new Assembler(instructions).assemble(in);
+				assertArrayEquals(source.getName(), new ScriptSaver().save(script), written.get(source.getName()));
+			}
+		}
+	}
+
+	@Test
+	public void testOutputFailure() throws IOException
+	{
+		Instructions instructions = new Instructions();
+		instructions.init();
+
+		BatchAssembler assembler = new BatchAssembler(instructions);
+		assembler.setThreads(2);
+		assembler.setCache(ScriptBuildCache.load(cacheFile, instructions));
+		try
+		{
+			assembler.assemble(sources, (source, script) ->
+			{
+				throw new IOException("disk full");
+			});
+			fail();
+		}
+		catch (IOException ex)
+		{
+			assertEquals("disk full", ex.getMessage());
+		}
+		// a failed build doesn't record anything as up to date
+		assertFalse(cacheFile.exists());
+	}
+
+	@Test
+	public void testIncremental() throws IOException
+	{
+		Instructions instructions = new Instructions();
+		instructions.init();
+
+		assemble(instructions);
+
+		BatchAssembler.Result result = assemble(instructions);
+		assertEquals(0, result.getAssembled());
+		assertEquals(3, result.getSkipped());
+
+		Files.write(sources.get(1).toPath(), "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		result = assemble(instructions);
+		assertEquals(1, result.getAssembled());
+		assertEquals(2, result.getSkipped());
+		assertEquals(1, written.size());
+	}
+
+	@Test
+	public void testOpcodeTableChange() throws IOException
+	{
+		Instructions instructions = new Instructions();
+		instructions.init();
+		assemble(instructions);
+
+		RuneLiteInstructions runeLiteInstructions = new RuneLiteInstructions();
+		runeLiteInstructions.init();
+
+		BatchAssembler.Result result = assemble(runeLiteInstructions);
+		assertEquals(3, result.getAssembled());
+		assertEquals(0, result.getSkipped());
+	}
+}
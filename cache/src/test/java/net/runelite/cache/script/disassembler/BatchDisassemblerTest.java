@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.script.disassembler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.definitions.ScriptDefinition;
+import net.runelite.cache.definitions.loaders.ScriptLoader;
+import net.runelite.cache.definitions.savers.ScriptSaver;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.script.Instructions;
+import net.runelite.cache.script.ScriptBuildCache;
+import net.runelite.cache.script.assembler.Assembler;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BatchDisassemblerTest
+{
+	private static final String[] SOURCES = {"91.rs2asm", "681.rs2asm", "Unicode.rs2asm"};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Map<Integer, byte[]> archives = new HashMap<>();
+	private final Instructions instructions = new Instructions();
+	private Store store;
+	private Index index;
+	private File outDir;
+	private File cacheFile;
+
+	@Before
+	public void before() throws IOException
+	{
+		instructions.init();
+		store = new Store(new MemoryStorage());
+		index = store.addIndex(IndexType.CLIENTSCRIPT.getNumber());
+
+		for (String name : SOURCES)
+		{
+			try (InputStream in = Assembler.class.getResourceAsStream(name))
+			{
+				ScriptDefinition script = new Assembler(instructions).assemble(in);
+				put(script.getId(), new ScriptSaver().save(script), 1);
+			}
+		}
+
+		outDir = folder.newFolder();
+		cacheFile = new File(folder.getRoot(), "cache.txt");
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		store.close();
+	}
+
+	private void put(int id, byte[] data, int revision) throws IOException
+	{
+		Archive archive = index.getArchive(id);
+		if (archive == null)
+		{
+			archive = index.addArchive(id);
+		}
+
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(data, null);
+		archive.setCrc(container.crc);
+		archive.setRevision(revision);
+		archives.put(id, container.data);
+	}
+
+	private int disassemble() throws IOException
+	{
+		BatchDisassembler disassembler = new BatchDisassembler();
+		disassembler.setThreads(2);
+		disassembler.setCache(ScriptBuildCache.load(cacheFile, instructions));
+		return disassembler.disassemble(store, outDir);
+	}
+
+	@Test
+	public void testDisassemble() throws IOException
+	{
+		assertEquals(3, disassemble());
+
+		// the output must match a sequential run of the single script disassembler
+		ScriptLoader loader = new ScriptLoader();
+		for (Archive archive : index.getArchives())
+		{
+			int id = archive.getArchiveId();
+			ScriptDefinition script = loader.load(id, archive.decompress(archives.get(id)));
+			String expected = new Disassembler().disassemble(script);
+			String actual = new String(Files.readAllBytes(new File(outDir, id + ".rs2asm").toPath()), StandardCharsets.UTF_8);
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testIncremental() throws IOException
+	{
+		assertEquals(3, disassemble());
+		assertEquals(0, disassemble());
+
+		// a missing output is rewritten
+		Archive first = index.getArchives().get(0);
+		assertTrue(new File(outDir, first.getArchiveId() + ".rs2asm").delete());
+		assertEquals(1, disassemble());
+
+		// as is a changed archive
+		Archive second = index.getArchives().get(1);
+		put(second.getArchiveId(), archive(second), 2);
+		assertEquals(1, disassemble());
+		assertEquals(0, disassemble());
+	}
+
+	@Test
+	public void testOutputFailure() throws IOException
+	{
+		outDir = new File(folder.getRoot(), "missing");
+		try
+		{
+			disassemble();
+			fail();
+		}
+		catch (IOException ex)
+		{
+			// expected
+		}
+		// a failed run doesn't record anything as up to date
+		assertFalse(cacheFile.exists());
+	}
+
+	private byte[] archive(Archive archive) throws IOException
+	{
+		return archive.decompress(archives.get(archive.getArchiveId()));
+	}
+
+	private class MemoryStorage implements Storage
+	{
+		@Override
+		public void init(Store store)
+		{
+		}
+
+		@Override
+		public void close()
+		{
+		}
+
+		@Override
+		public void load(Store store)
+		{
+		}
+
+		@Override
+		public void save(Store store)
+		{
+		}
+
+		@Override
+		public byte[] load(int index, int archive)
+		{
+			return archives.get(archive);
+		}
+
+		@Override
+		public void store(int index, int archive, byte[] data)
+		{
+			archives.put(archive, data);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.util;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class ParallelWorkersTest
+{
+	@Test
+	public void testForEach() throws IOException
+	{
+		AtomicIntegerArray runs = new AtomicIntegerArray(100);
+		ParallelWorkers.forEach(4, 10, 90, runs::incrementAndGet);
+
+		for (int i = 0; i < runs.length(); ++i)
+		{
+			assertEquals("index " + i, i >= 10 && i < 90 ? 1 : 0, runs.get(i));
+		}
+	}
+
+	@Test
+	public void testFailureStopsWorkers()
+	{
+		IOException failure = new IOException("boom");
+		AtomicInteger runs = new AtomicInteger();
+		try
+		{
+			ParallelWorkers.forEach(1, 0, 100, i ->
+			{
+				runs.incrementAndGet();
+				if (i == 5)
+				{
+					throw failure;
+				}
+			});
+			fail();
+		}
+		catch (IOException ex)
+		{
+			assertSame(failure, ex);
+		}
+		assertEquals(6, runs.get());
+	}
+
+	@Test
+	public void testUncheckedFailureIsWrapped()
+	{
+		try
+		{
+			ParallelWorkers.forEach(2, 0, 10, i ->
+			{
+				throw new IllegalStateException();
+			});
+			fail();
+		}
+		catch (IOException ex)
+		{
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+	}
+}
@@ -31,6 +31,7 @@ import java.awt.Shape;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -200,6 +201,140 @@ public class Perspective
 		return null;
 	}
 
+	/**
+	 * Translates many three-dimensional local coordinates to their corresponding coordinates on the
+	 * game screen, reading the camera once for all of them. This gives the same results as calling
+	 * {@link #localToCanvas(Client, int, int, int)} for each point, without allocating a {@link Point} for each.
+	 *
+	 * @param client the game client
+	 * @param count the number of points
+	 * @param x the x coordinate of each point
+	 * @param y the y coordinate of each point
+	 * @param z the z coordinate of each point
+	 * @param x2d receives the canvas x coordinate of each point, or {@link Integer#MIN_VALUE} if it can't be projected
+	 * @param y2d receives the canvas y coordinate of each point, or {@link Integer#MIN_VALUE} if it can't be projected
+	 * @return the number of points which were projected
+	 */
+	public static int localToCanvas(@Nonnull Client client, int count, int[] x, int[] y, int[] z, int[] x2d, int[] y2d)
+	{
+		final Projection projection = new Projection(client);
+		int projected = 0;
+		for (int i = 0; i < count; ++i)
+		{
+			if (projection.project(x[i], y[i], z[i], x2d, y2d, i))
+			{
+				++projected;
+			}
+		}
+		return projected;
+	}
+
+	/**
+	 * The camera and viewport, read once so that many points can be projected with the same setup.
+	 * Matches {@link #localToCanvasCpu(Client, int, int, int)} and {@link #localToCanvasGpu(Client, int, int, int)}.
+	 */
+	private static final class Projection
+	{
+		private final boolean gpu;
+		private final int cameraX, cameraY, cameraZ;
+		private final int pitchSin, pitchCos, yawSin, yawCos;
+		private final float fpCameraX, fpCameraY, fpCameraZ;
+		private final float fpPitchSin, fpPitchCos, fpYawSin, fpYawCos;
+		private final int scale, viewportWidth, viewportHeight, viewportXOffset, viewportYOffset;
+
+		private Projection(Client client)
+		{
+			gpu = client.isGpu();
+			if (gpu)
+			{
+				final double cameraPitch = client.getCameraFpPitch();
+				final double cameraYaw = client.getCameraFpYaw();
+				fpCameraX = (float) client.getCameraFpX();
+				fpCameraY = (float) client.getCameraFpY();
+				fpCameraZ = (float) client.getCameraFpZ();
+				fpPitchSin = (float) Math.sin(cameraPitch);
+				fpPitchCos = (float) Math.cos(cameraPitch);
+				fpYawSin = (float) Math.sin(cameraYaw);
+				fpYawCos = (float) Math.cos(cameraYaw);
+				cameraX = cameraY = cameraZ = pitchSin = pitchCos = yawSin = yawCos = 0;
+			}
+			else
+			{
+				final int cameraPitch = client.getCameraPitch();
+				final int cameraYaw = client.getCameraYaw();
+				cameraX = client.getCameraX();
+				cameraY = client.getCameraY();
+				cameraZ = client.getCameraZ();
+				pitchSin = SINE[cameraPitch];
+				pitchCos = COSINE[cameraPitch];
+				yawSin = SINE[cameraYaw];
+				yawCos = COSINE[cameraYaw];
+				fpCameraX = fpCameraY = fpCameraZ = fpPitchSin = fpPitchCos = fpYawSin = fpYawCos = 0;
+			}
+			scale = client.getScale();
+			viewportWidth = client.getViewportWidth();
+			viewportHeight = client.getViewportHeight();
+			viewportXOffset = client.getViewportXOffset();
+			viewportYOffset = client.getViewportYOffset();
+		}
+
+		/**
+		 * Project a point into {@code x2d[i]} and {@code y2d[i]}, or set them to {@link Integer#MIN_VALUE}
+		 *
+		 * @return whether the point was projected
+		 */
+		private boolean project(int x, int y, int z, int[] x2d, int[] y2d, int i)
+		{
+			if (x >= -ESCENE_OFFSET << LOCAL_COORD_BITS && y >= -ESCENE_OFFSET << LOCAL_COORD_BITS &&
+				x <= SCENE_SIZE + ESCENE_OFFSET << LOCAL_COORD_BITS && y <= SCENE_SIZE + ESCENE_OFFSET << LOCAL_COORD_BITS)
+			{
+				if (gpu)
+				{
+					final float
+						fx = x - fpCameraX,
+						fy = y - fpCameraY,
+						fz = z - fpCameraZ;
+
+					final float
+						x1 = fx * fpYawCos + fy * fpYawSin,
+						y1 = fy * fpYawCos - fx * fpYawSin,
+						y2 = fz * fpPitchCos - y1 * fpPitchSin,
+						z1 = y1 * fpPitchCos + fz * fpPitchSin;
+
+					if (z1 >= 50f)
+					{
+						x2d[i] = Math.round(viewportWidth / 2f + x1 * scale / z1) + viewportXOffset;
+						y2d[i] = Math.round(viewportHeight / 2f + y2 * scale / z1) + viewportYOffset;
+						return true;
+					}
+				}
+				else
+				{
+					x -= cameraX;
+					y -= cameraY;
+					z -= cameraZ;
+
+					final int
+						x1 = x * yawCos + y * yawSin >> 16,
+						y1 = y * yawCos - x * yawSin >> 16,
+						y2 = z * pitchCos - y1 * pitchSin >> 16,
+						z1 = y1 * pitchCos + z * pitchSin >> 16;
+
+					if (z1 >= 50)
+					{
+						x2d[i] = viewportWidth / 2 + x1 * scale / z1 + viewportXOffset;
+						y2d[i] = viewportHeight / 2 + y2 * scale / z1 + viewportYOffset;
+						return true;
+					}
+				}
+			}
+
+			x2d[i] = Integer.MIN_VALUE;
+			y2d[i] = Integer.MIN_VALUE;
+			return false;
+		}
+	}
+
 	/**
 	 * Translates a model's vertices into 2d space.
 	 */
@@ -544,6 +679,132 @@ public class Perspective
 		int sizeY,
 		int plane,
 		int zOffset)
+	{
+		final Polygon poly = new Polygon();
+		return getCanvasTileAreaPoly(client, localLocation, sizeX, sizeY, plane, zOffset, poly) ? poly : null;
+	}
+
+	/**
+	 * Calculates the polygon of an area into an existing polygon, so that one polygon can be
+	 * reused for many areas.
+	 *
+	 * @param client the game client
+	 * @param localLocation the center location of the AoE
+	 * @param sizeX the size of the area in tiles on the x axis
+	 * @param sizeY the size of the area in tiles on the y axis
+	 * @param plane the plane of the area
+	 * @param zOffset offset from ground plane
+	 * @param poly the polygon to reset and set to the area
+	 * @return true if the area is on screen, otherwise {@code poly} is left empty
+	 * @see #getCanvasTileAreaPoly(Client, LocalPoint, int, int, int, int)
+	 */
+	public static boolean getCanvasTileAreaPoly(
+		@Nonnull Client client,
+		@Nonnull LocalPoint localLocation,
+		int sizeX,
+		int sizeY,
+		int plane,
+		int zOffset,
+		@Nonnull Polygon poly)
+	{
+		poly.reset();
+
+		final int[] x2d = new int[4];
+		final int[] y2d = new int[4];
+		final int[] z = new int[4];
+		if (!getTileAreaCorners(client, localLocation, sizeX, sizeY, plane, zOffset, x2d, y2d, z, 0))
+		{
+			return false;
+		}
+
+		final Projection projection = new Projection(client);
+		for (int i = 0; i < 4; ++i)
+		{
+			if (!projection.project(x2d[i], y2d[i], z[i], x2d, y2d, i))
+			{
+				return false;
+			}
+		}
+
+		for (int i = 0; i < 4; ++i)
+		{
+			poly.addPoint(x2d[i], y2d[i]);
+		}
+		return true;
+	}
+
+	/**
+	 * Calculates the polygons of many areas of the same size, reading the camera once for all of them.
+	 * The four corners of area {@code i} are written to {@code x2d} and {@code y2d} from index {@code 4 * i},
+	 * in the same order as the points of {@link #getCanvasTileAreaPoly(Client, LocalPoint, int, int, int, int)}.
+	 * If an area is out of the scene or any of its corners can't be projected, all four of its corners are
+	 * set to {@link Integer#MIN_VALUE}.
+	 *
+	 * @param client the game client
+	 * @param count the number of areas
+	 * @param locations the center location of each area
+	 * @param sizeX the size of the areas in tiles on the x axis
+	 * @param sizeY the size of the areas in tiles on the y axis
+	 * @param plane the plane of the areas, or -1 for the plane of each area's world view
+	 * @param zOffset offset from ground plane
+	 * @param x2d receives the canvas x coordinates, at least {@code 4 * count} long
+	 * @param y2d receives the canvas y coordinates, at least {@code 4 * count} long
+	 * @return the number of areas which are on screen
+	 */
+	public static int getCanvasTileAreaPolys(
+		@Nonnull Client client,
+		int count,
+		@Nonnull LocalPoint[] locations,
+		int sizeX,
+		int sizeY,
+		int plane,
+		int zOffset,
+		int[] x2d,
+		int[] y2d)
+	{
+		final Projection projection = new Projection(client);
+		// the corners are staged in the output arrays' slots, with the heights kept separately
+		final int[] z = new int[4];
+		int projected = 0;
+		for (int i = 0; i < count; ++i)
+		{
+			final int off = i * 4;
+			boolean onScreen = getTileAreaCorners(client, locations[i], sizeX, sizeY, plane, zOffset, x2d, y2d, z, off);
+			for (int c = 0; c < 4 && onScreen; ++c)
+			{
+				onScreen = projection.project(x2d[off + c], y2d[off + c], z[c], x2d, y2d, off + c);
+			}
+
+			if (onScreen)
+			{
+				++projected;
+			}
+			else
+			{
+				Arrays.fill(x2d, off, off + 4, Integer.MIN_VALUE);
+				Arrays.fill(y2d, off, off + 4, Integer.MIN_VALUE);
+			}
+		}
+		return projected;
+	}
+
+	/**
+	 * Calculates the local coordinates of the corners of an area, in the order sw, nw, ne, se.
+	 * The x and y coordinates are written from {@code off}, and the heights from 0.
+	 *
+	 * @return false if the area is out of the scene
+	 */
+	private static boolean getTileAreaCorners(
+		Client client,
+		LocalPoint localLocation,
+		int sizeX,
+		int sizeY,
+		int plane,
+		int zOffset,
+		int[] x,
+		int[] y,
+		int[] z,
+		int off)
 	{
 		final int msx = localLocation.getSceneX() + ESCENE_OFFSET;
 		final int msy = localLocation.getSceneY() + ESCENE_OFFSET;
@@ -552,7 +813,7 @@ public class Perspective
 		if (msx < 0 || msy < 0 || msx >= EXTENDED_SCENE_SIZE || msy >= EXTENDED_SCENE_SIZE || wv == null)
 		{
 			// out of scene
-			return null;
+			return false;
 		}
 
 		if (plane == -1)
@@ -581,28 +842,19 @@ public class Perspective
 		final int nwX = neX;
 		final int nwY = swY;
 
-		final int swHeight = getHeight(scene, swX, swY, tilePlane) - zOffset;
-		final int nwHeight = getHeight(scene, nwX, nwY, tilePlane) - zOffset;
-		final int neHeight = getHeight(scene, neX, neY, tilePlane) - zOffset;
-		final int seHeight = getHeight(scene, seX, seY, tilePlane) - zOffset;
-
-		Point p1 = localToCanvas(client, swX, swY, swHeight);
-		Point p2 = localToCanvas(client, nwX, nwY, nwHeight);
-		Point p3 = localToCanvas(client, neX, neY, neHeight);
-		Point p4 = localToCanvas(client, seX, seY, seHeight);
-
-		if (p1 == null || p2 == null || p3 == null || p4 == null)
-		{
-			return null;
-		}
-
-		Polygon poly = new Polygon();
-		poly.addPoint(p1.getX(), p1.getY());
-		poly.addPoint(p2.getX(), p2.getY());
-		poly.addPoint(p3.getX(), p3.getY());
-		poly.addPoint(p4.getX(), p4.getY());
-
-		return poly;
+		x[off] = swX;
+		y[off] = swY;
+		z[0] = getHeight(scene, swX, swY, tilePlane) - zOffset;
+		x[off + 1] = nwX;
+		y[off + 1] = nwY;
+		z[1] = getHeight(scene, nwX, nwY, tilePlane) - zOffset;
+		x[off + 2] = neX;
+		y[off + 2] = neY;
+		z[2] = getHeight(scene, neX, neY, tilePlane) - zOffset;
+		x[off + 3] = seX;
+		y[off + 3] = seY;
+		z[3] = getHeight(scene, seX, seY, tilePlane) - zOffset;
+		return true;
 	}
 
 	/**
@@ -798,6 +1050,23 @@ public class Perspective
 		return bounds2d;
 	}
 
+	/**
+	 * Buffers reused between clickbox calculations, which are done for many models each frame
+	 */
+	private static final class ClickboxScratch
+	{
+		private final float[] xa = new float[8];
+		private final float[] ya = new float[8];
+		private final float[] za = new float[8];
+		private final int[] aabbX = new int[8];
+		private final int[] aabbY = new int[8];
+		private int[] x2d = new int[0];
+		private int[] y2d = new int[0];
+		private final List<RectangleUnion.Rectangle> rects = new ArrayList<>();
+	}
+
+	private static final ThreadLocal<ClickboxScratch> CLICKBOX_SCRATCH = ThreadLocal.withInitial(ClickboxScratch::new);
+
 	private static SimplePolygon calculateAABB(Client client, Model m, int jauOrient, int x, int y, int z)
 	{
 		AABB aabb = m.getAABB(jauOrient);
@@ -818,21 +1087,20 @@ public class Perspective
 		y1 -= ey;
 		z1 -= ez;
 
-		float[] xa = new float[]{
-			x1, x2, x1, x2,
-			x1, x2, x1, x2
-		};
-		float[] ya = new float[]{
-			y1, y1, y2, y2,
-			y1, y1, y2, y2
-		};
-		float[] za = new float[]{
-			z1, z1, z1, z1,
-			z2, z2, z2, z2
-		};
+		final ClickboxScratch scratch = CLICKBOX_SCRATCH.get();
+		final float[] xa = scratch.xa;
+		final float[] ya = scratch.ya;
+		final float[] za = scratch.za;
+		for (int i = 0; i < 8; ++i)
+		{
+			xa[i] = (i & 1) == 0 ? x1 : x2;
+			ya[i] = (i & 2) == 0 ? y1 : y2;
+			za[i] = (i & 4) == 0 ? z1 : z2;
+		}
 
-		int[] x2d = new int[8];
-		int[] y2d = new int[8];
+		// the hull is built from new arrays, so these can be reused
+		final int[] x2d = scratch.aabbX;
+		final int[] y2d = scratch.aabbY;
 
 		modelToCanvasCpu(client, 8, x, y, z, 0, xa, ya, za, x2d, y2d);
 
@@ -841,8 +1109,14 @@ public class Perspective
 
 	private static Shapes<SimplePolygon> calculate2DBounds(Client client, Model m, int jauOrient, int x, int y, int z)
 	{
-		int[] x2d = new int[m.getVerticesCount()];
-		int[] y2d = new int[m.getVerticesCount()];
+		final ClickboxScratch scratch = CLICKBOX_SCRATCH.get();
+		if (scratch.x2d.length < m.getVerticesCount())
+		{
+			scratch.x2d = new int[m.getVerticesCount()];
+			scratch.y2d = new int[m.getVerticesCount()];
+		}
+		final int[] x2d = scratch.x2d;
+		final int[] y2d = scratch.y2d;
 		final int[] faceColors3 = m.getFaceColors3();
 
 		Perspective.modelToCanvasCpu(client,
@@ -865,7 +1139,8 @@ public class Perspective
 		int vpX2 = vpX1 + client.getViewportWidth();
 		int vpY2 = vpY1 + client.getViewportHeight();
 
-		List<RectangleUnion.Rectangle> rects = new ArrayList<>(m.getFaceCount());
+		final List<RectangleUnion.Rectangle> rects = scratch.rects;
+		rects.clear();
 
 		nextTri:
 		for (int tri = 0; tri < m.getFaceCount(); tri++)
@@ -925,7 +1200,9 @@ public class Perspective
 			rects.add(r);
 		}
 
-		return RectangleUnion.union(rects);
+		final Shapes<SimplePolygon> union = RectangleUnion.union(rects);
+		rects.clear();
+		return union;
 	}
 
 	/**
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api;
+
+import java.awt.Polygon;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import static net.runelite.api.Perspective.LOCAL_HALF_TILE_SIZE;
+import static net.runelite.api.Perspective.LOCAL_TILE_SIZE;
+import static net.runelite.api.Perspective.SCENE_SIZE;
+import net.runelite.api.coords.LocalPoint;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class PerspectiveTest
+{
+	private static <T> T stub(Class<T> type, Map<String, Object> values)
+	{
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+		{
+			if (!values.containsKey(method.getName()))
+			{
+				throw new UnsupportedOperationException(method.getName());
+			}
+			return values.get(method.getName());
+		}));
+	}
+
+	private static Client client(boolean gpu)
+	{
+		final Random random = new Random(42);
+		final int[][][] tileHeights = new int[Constants.MAX_Z][Constants.EXTENDED_SCENE_SIZE + 1][Constants.EXTENDED_SCENE_SIZE + 1];
+		for (int[] row : tileHeights[0])
+		{
+			for (int i = 0; i < row.length; ++i)
+			{
+				row[i] = -random.nextInt(400);
+			}
+		}
+
+		final Map<String, Object> scene = new HashMap<>();
+		scene.put("getExtendedTileSettings", new byte[Constants.MAX_Z][Constants.EXTENDED_SCENE_SIZE][Constants.EXTENDED_SCENE_SIZE]);
+		scene.put("getTileHeights", tileHeights);
+
+		final Map<String, Object> worldView = new HashMap<>();
+		worldView.put("getPlane", 0);
+		worldView.put("getScene", stub(Scene.class, scene));
+
+		final int pitch = 300;
+		final int yaw = 1800;
+		final Map<String, Object> client = new HashMap<>();
+		client.put("isGpu", gpu);
+		client.put("getWorldView", stub(WorldView.class, worldView));
+		client.put("getCameraX", 6656);
+		client.put("getCameraY", 3000);
+		client.put("getCameraZ", -1800);
+		client.put("getCameraPitch", pitch);
+		client.put("getCameraYaw", yaw);
+		client.put("getCameraFpX", 6656.25);
+		client.put("getCameraFpY", 3000.5);
+		client.put("getCameraFpZ", -1800.0);
+		client.put("getCameraFpPitch", pitch * Perspective.UNIT);
+		client.put("getCameraFpYaw", yaw * Perspective.UNIT);
+		client.put("getScale", 512);
+		client.put("getViewportWidth", 765);
+		client.put("getViewportHeight", 503);
+		client.put("getViewportXOffset", 4);
+		client.put("getViewportYOffset", 4);
+		return stub(Client.class, client);
+	}
+
+	private static LocalPoint[] sceneTiles()
+	{
+		final LocalPoint[] tiles = new LocalPoint[SCENE_SIZE * SCENE_SIZE];
+		for (int x = 0; x < SCENE_SIZE; ++x)
+		{
+			for (int y = 0; y < SCENE_SIZE; ++y)
+			{
+				tiles[x * SCENE_SIZE + y] = new LocalPoint(x * LOCAL_TILE_SIZE + LOCAL_HALF_TILE_SIZE, y * LOCAL_TILE_SIZE + LOCAL_HALF_TILE_SIZE, 0);
+			}
+		}
+		return tiles;
+	}
+
+	@Test
+	public void testLocalToCanvas()
+	{
+		for (boolean gpu : new boolean[]{false, true})
+		{
+			final Client client = client(gpu);
+			final Random random = new Random(7);
+			final int count = 1000;
+			final int[] x = new int[count];
+			final int[] y = new int[count];
+			final int[] z = new int[count];
+			for (int i = 0; i < count; ++i)
+			{
+				x[i] = random.nextInt(SCENE_SIZE * LOCAL_TILE_SIZE * 2) - SCENE_SIZE * LOCAL_TILE_SIZE / 2;
+				y[i] = random.nextInt(SCENE_SIZE * LOCAL_TILE_SIZE * 2) - SCENE_SIZE * LOCAL_TILE_SIZE / 2;
+				z[i] = -random.nextInt(1000);
+			}
+
+			final int[] x2d = new int[count];
+			final int[] y2d = new int[count];
+			final int projected = Perspective.localToCanvas(client, count, x, y, z, x2d, y2d);
+			assertTrue(projected > 0 && projected < count);
+
+			for (int i = 0; i < count; ++i)
+			{
+				final Point p = Perspective.localToCanvas(client, x[i], y[i], z[i]);
+				if (p == null)
+				{
+					assertEquals(Integer.MIN_VALUE, x2d[i]);
+					assertEquals(Integer.MIN_VALUE, y2d[i]);
+				}
+				else
+				{
+					assertEquals(p.getX(), x2d[i]);
+					assertEquals(p.getY(), y2d[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTileAreaPolys()
+	{
+		for (boolean gpu : new boolean[]{false, true})
+		{
+			final Client client = client(gpu);
+			final LocalPoint[] tiles = sceneTiles();
+			final int[] xs = new int[tiles.length * 4];
+			final int[] ys = new int[tiles.length * 4];
+			final int projected = Perspective.getCanvasTileAreaPolys(client, tiles.length, tiles, 1, 1, -1, 0, xs, ys);
+			assertTrue(projected > 0 && projected < tiles.length);
+
+			final Polygon reused = new Polygon();
+			for (int i = 0; i < tiles.length; ++i)
+			{
+				final Polygon poly = Perspective.getCanvasTilePoly(client, tiles[i]);
+				assertEquals(poly != null, Perspective.getCanvasTileAreaPoly(client, tiles[i], 1, 1, -1, 0, reused));
+				if (poly == null)
+				{
+					assertEquals(Integer.MIN_VALUE, xs[i * 4]);
+					assertEquals(0, reused.npoints);
+					continue;
+				}
+
+				assertEquals(4, poly.npoints);
+				for (int c = 0; c < 4; ++c)
+				{
+					assertEquals(poly.xpoints[c], xs[i * 4 + c]);
+					assertEquals(poly.ypoints[c], ys[i * 4 + c]);
+				}
+				assertArrayEquals(poly.xpoints, reused.xpoints);
+				assertArrayEquals(poly.ypoints, reused.ypoints);
+			}
+		}
+
+		// out of scene
+		final int[] xs = new int[4];
+		final int[] ys = new int[4];
+		assertEquals(0, Perspective.getCanvasTileAreaPolys(client(false), 1, new LocalPoint[]{new LocalPoint(-100_000, 0, 0)}, 1, 1, -1, 0, xs, ys));
+		assertEquals(Integer.MIN_VALUE, xs[0]);
+		assertNull(Perspective.getCanvasTilePoly(client(false), new LocalPoint(-100_000, 0, 0)));
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkTileAreaPolys()
+	{
+		final Client client = client(false);
+		final LocalPoint[] tiles = sceneTiles();
+		final int[] xs = new int[tiles.length * 4];
+		final int[] ys = new int[tiles.length * 4];
+		final Polygon reused = new Polygon();
+
+		for (int pass = 0; pass < 5; ++pass)
+		{
+			long single = 0, into = 0, batch = 0;
+			int sink = 0;
+			for (int iter = 0; iter < 100; ++iter)
+			{
+				long start = System.nanoTime();
+				for (LocalPoint tile : tiles)
+				{
+					final Polygon poly = Perspective.getCanvasTilePoly(client, tile);
+					sink += poly == null ? 0 : poly.xpoints[0];
+				}
+				single += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (LocalPoint tile : tiles)
+				{
+					if (Perspective.getCanvasTileAreaPoly(client, tile, 1, 1, -1, 0, reused))
+					{
+						sink += reused.xpoints[0];
+					}
+				}
+				into += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				Perspective.getCanvasTileAreaPolys(client, tiles.length, tiles, 1, 1, -1, 0, xs, ys);
+				sink += xs[0];
+				batch += System.nanoTime() - start;
+			}
+			log.info("{} tiles: getCanvasTilePoly {}us, into polygon {}us, batch {}us ({})",
+				tiles.length, single / 100_000, into / 100_000, batch / 100_000, sink);
+		}
+	}
+}
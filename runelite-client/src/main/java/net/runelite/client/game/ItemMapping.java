@@ -26,9 +26,12 @@
 package net.runelite.client.game;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import javax.annotation.Nullable;
 import lombok.Getter;
 import static net.runelite.api.ItemID.*;
@@ -398,8 +401,11 @@ public enum ItemMapping
 	ITEM_SNAIL_SHELL(COINS_995, true, 600L, SNAIL_SHELL),
 	ITEM_TORTOISE_SHELL(COINS_995, true, 250L, TORTOISE_SHELL);
 
+	// sorted untradeable item ids, and the mappings for each
 	@VisibleForTesting
-	static final Multimap<Integer, ItemMapping> MAPPINGS = HashMultimap.create();
+	static final int[] MAPPED_IDS;
+	@VisibleForTesting
+	static final List<ItemMapping>[] MAPPINGS;
 	private final int tradeableItem;
 	private final int[] untradableItems;
 	private final long quantity;
@@ -407,6 +413,7 @@ public enum ItemMapping
 
 	static
 	{
+		final TreeMap<Integer, ImmutableSet.Builder<ItemMapping>> mappings = new TreeMap<>();
 		for (final ItemMapping item : values())
 		{
 			for (int itemId : item.untradableItems)
@@ -417,16 +424,27 @@ public enum ItemMapping
 					{
 						if (variation != item.tradeableItem)
 						{
-							MAPPINGS.put(variation, item);
+							mappings.computeIfAbsent(variation, k -> ImmutableSet.builder()).add(item);
 						}
 					}
 				}
 				else
 				{
-					MAPPINGS.put(itemId, item);
+					mappings.computeIfAbsent(itemId, k -> ImmutableSet.builder()).add(item);
 				}
 			}
 		}
+
+		MAPPED_IDS = new int[mappings.size()];
+		@SuppressWarnings("unchecked")
+		final List<ItemMapping>[] lists = new List[mappings.size()];
+		int i = 0;
+		for (Map.Entry<Integer, ImmutableSet.Builder<ItemMapping>> entry : mappings.entrySet())
+		{
+			MAPPED_IDS[i] = entry.getKey();
+			lists[i++] = entry.getValue().build().asList();
+		}
+		MAPPINGS = lists;
 	}
 
 	ItemMapping(int tradeableItem, boolean includeVariations, long quantity, int... untradableItems)
@@ -456,13 +474,7 @@ public enum ItemMapping
 	@Nullable
 	public static Collection<ItemMapping> map(int itemId)
 	{
-		final Collection<ItemMapping> mapping = MAPPINGS.get(itemId);
-
-		if (mapping.isEmpty())
-		{
-			return null;
-		}
-
-		return mapping;
+		final int idx = Arrays.binarySearch(MAPPED_IDS, itemId);
+		return idx >= 0 ? MAPPINGS[idx] : null;
 	}
 }
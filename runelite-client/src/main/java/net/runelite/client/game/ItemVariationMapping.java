@@ -25,64 +25,62 @@
 
 package net.runelite.client.game;
 
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.RandomAccess;
 
 /**
  * Converts variation items to it's base item counterparts
  */
 public class ItemVariationMapping
 {
-	private static final Map<Integer, Integer> MAPPINGS;
-	private static final Multimap<Integer, Integer> INVERTED_MAPPINGS;
+	// variation id -> base id, sorted by variation id
+	private static final int[] VARIATION_IDS;
+	private static final int[] VARIATION_BASES;
+	// base id -> variation ids, sorted by base id. The variations of BASE_IDS[i] are
+	// VARIATIONS[BASE_OFFSETS[i]] to VARIATIONS[BASE_OFFSETS[i + 1]]
+	private static final int[] BASE_IDS;
+	private static final int[] BASE_OFFSETS;
+	private static final int[] VARIATIONS;
 
 	static
 	{
-		final Gson gson = new Gson();
-		// CHECKSTYLE:OFF
-		final TypeToken<Map<String, Collection<Integer>>> typeToken = new TypeToken<>(){};
-		// CHECKSTYLE:ON
-
-		final Map<String, Collection<Integer>> itemVariations;
-		try (InputStream geLimitData = ItemVariationMapping.class.getResourceAsStream("/item_variations.json"))
+		// item_variations.dat is packed from item_variations.json at build time by the pack-item-variations goal
+		final IntBuffer buffer;
+		try (InputStream in = ItemVariationMapping.class.getResourceAsStream("/item_variations.dat"))
 		{
-			itemVariations = gson.fromJson(new InputStreamReader(geLimitData, StandardCharsets.UTF_8), typeToken.getType());
+			if (in == null)
+			{
+				throw new IllegalStateException("item_variations.dat is missing, it is generated by the pack-item-variations goal of the runelite-client build");
+			}
+			buffer = ByteBuffer.wrap(in.readAllBytes()).asIntBuffer();
 		}
 		catch (IOException e)
 		{
 			throw new RuntimeException(e);
 		}
 
-		ImmutableMap.Builder<Integer, Integer> builder = new ImmutableMap.Builder<>();
-		ImmutableMultimap.Builder<Integer, Integer> invertedBuilder = new ImmutableMultimap.Builder<>();
-		for (Collection<Integer> value : itemVariations.values())
-		{
-			final Iterator<Integer> iterator = value.iterator();
-			final int base = iterator.next();
-
-			while (iterator.hasNext())
-			{
-				final int id = iterator.next();
-				builder.put(id, base);
-				invertedBuilder.put(base, id);
-			}
+		final int n = buffer.get();
+		VARIATION_IDS = read(buffer, n);
+		VARIATION_BASES = read(buffer, n);
 
-			invertedBuilder.put(base, base);
-		}
+		final int m = buffer.get();
+		BASE_IDS = read(buffer, m);
+		BASE_OFFSETS = read(buffer, m + 1);
+		VARIATIONS = read(buffer, BASE_OFFSETS[m]);
+	}
 
-		INVERTED_MAPPINGS = invertedBuilder.build();
-		MAPPINGS = builder.build();
+	private static int[] read(IntBuffer buffer, int length)
+	{
+		final int[] array = new int[length];
+		buffer.get(array);
+		return array;
 	}
 
 	/**
@@ -93,7 +91,8 @@ public class ItemVariationMapping
 	 */
 	public static int map(int itemId)
 	{
-		return MAPPINGS.getOrDefault(itemId, itemId);
+		final int idx = Arrays.binarySearch(VARIATION_IDS, itemId);
+		return idx >= 0 ? VARIATION_BASES[idx] : itemId;
 	}
 
 	/**
@@ -104,6 +103,68 @@ public class ItemVariationMapping
 	 */
 	public static Collection<Integer> getVariations(int itemId)
 	{
-		return INVERTED_MAPPINGS.asMap().getOrDefault(itemId, Collections.singletonList(itemId));
+		final int idx = Arrays.binarySearch(BASE_IDS, itemId);
+		if (idx < 0)
+		{
+			return Collections.singletonList(itemId);
+		}
+
+		return new IntList(VARIATIONS, BASE_OFFSETS[idx], BASE_OFFSETS[idx + 1]);
+	}
+
+	/**
+	 * Read-only view of a range of an int array
+	 */
+	private static class IntList extends AbstractList<Integer> implements RandomAccess
+	{
+		private final int[] array;
+		private final int start;
+		private final int end;
+
+		private IntList(int[] array, int start, int end)
+		{
+			this.array = array;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Integer get(int index)
+		{
+			if (index < 0 || index >= size())
+			{
+				throw new IndexOutOfBoundsException("index " + index + " size " + size());
+			}
+			return array[start + index];
+		}
+
+		@Override
+		public int size()
+		{
+			return end - start;
+		}
+
+		@Override
+		public int indexOf(Object o)
+		{
+			if (o instanceof Integer)
+			{
+				final int value = (Integer) o;
+				for (int i = start; i < end; ++i)
+				{
+					if (array[i] == value)
+					{
+						return i - start;
+					}
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean contains(Object o)
+		{
+			return indexOf(o) != -1;
+		}
 	}
 }
@@ -64,9 +64,18 @@ class NpcOverlay extends Overlay
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
-		for (HighlightedNpc highlightedNpc : highlightedNpcs.values())
+		// outlines of all npcs are drawn together once the loop is done
+		modelOutlineRenderer.startBatch();
+		try
 		{
-			renderNpcOverlay(graphics, highlightedNpc);
+			for (HighlightedNpc highlightedNpc : highlightedNpcs.values())
+			{
+				renderNpcOverlay(graphics, highlightedNpc);
+			}
+		}
+		finally
+		{
+			modelOutlineRenderer.endBatch();
 		}
 
 		return null;
@@ -26,12 +26,21 @@
 package net.runelite.client.game.npcoverlay;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.NPC;
@@ -45,14 +54,65 @@ import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.ui.overlay.outline.ModelOutlineRenderer;
 
+/**
+ * Tracks which NPCs are highlighted by the registered highlighters. Highlighter results are memoized per
+ * npc (keyed by index and composition id), and are only re-evaluated when the npc spawns or changes, or when
+ * the highlighter is explicitly rebuilt.
+ */
 @Singleton
+@Slf4j
 public class NpcOverlayService
 {
+	/**
+	 * Marks a highlighter result which has not been computed yet. Results are computed lazily, since only the
+	 * first highlighter to match an npc determines its highlight.
+	 */
+	private static final Object NOT_EVALUATED = new Object();
+
 	private final Client client;
 	private final ClientThread clientThread;
-	private final List<Function<NPC, HighlightedNpc>> highlightFunctions = new ArrayList<>();
+	private final List<Highlighter> highlighters = new ArrayList<>();
+	private final Map<Integer, Slot> slots = new HashMap<>();
+	@Getter(AccessLevel.PACKAGE)
 	private final Map<NPC, HighlightedNpc> highlightedNpcs = new HashMap<>();
 
+	@RequiredArgsConstructor
+	private static class Highlighter
+	{
+		private final Function<NPC, HighlightedNpc> function;
+		private long evaluations;
+		private long nanos;
+	}
+
+	private static class Slot
+	{
+		private final NPC npc;
+		private int id;
+		private Object[] results;
+
+		private Slot(NPC npc, int size)
+		{
+			this.npc = npc;
+			this.id = npc.getId();
+			this.results = new Object[size];
+			Arrays.fill(results, NOT_EVALUATED);
+		}
+	}
+
+	@Value
+	public static class HighlighterStats
+	{
+		String name;
+		/**
+		 * The number of times the highlighter has been applied to an npc
+		 */
+		long evaluations;
+		/**
+		 * The total time spent in the highlighter, in nanoseconds
+		 */
+		long nanos;
+	}
+
 	@Inject
 	private NpcOverlayService(Client client, ClientThread clientThread,
 		OverlayManager overlayManager, ModelOutlineRenderer modelOutlineRenderer, EventBus eventBus)
@@ -70,6 +130,7 @@ public class NpcOverlayService
 		if (event.getGameState() == GameState.LOGIN_SCREEN ||
 			event.getGameState() == GameState.HOPPING)
 		{
+			slots.clear();
 			highlightedNpcs.clear();
 		}
 	}
@@ -81,16 +142,13 @@ public class NpcOverlayService
 	private void onNpcSpawned(NpcSpawned npcSpawned)
 	{
 		final NPC npc = npcSpawned.getNpc();
-
-		for (Function<NPC, HighlightedNpc> f : highlightFunctions)
+		final Slot slot = new Slot(npc, highlighters.size());
+		final Slot old = slots.put(npc.getIndex(), slot);
+		if (old != null)
 		{
-			HighlightedNpc highlightedNpc = f.apply(npc);
-			if (highlightedNpc != null)
-			{
-				highlightedNpcs.put(npc, highlightedNpc);
-				return;
-			}
+			highlightedNpcs.remove(old.npc);
 		}
+		update(slot);
 	}
 
 	@Subscribe(
@@ -99,6 +157,11 @@ public class NpcOverlayService
 	private void onNpcDespawned(NpcDespawned npcDespawned)
 	{
 		final NPC npc = npcDespawned.getNpc();
+		final Slot slot = slots.get(npc.getIndex());
+		if (slot != null && slot.npc == npc)
+		{
+			slots.remove(npc.getIndex());
+		}
 		highlightedNpcs.remove(npc);
 	}
 
@@ -108,51 +171,200 @@ public class NpcOverlayService
 	private void onNpcChanged(NpcChanged event)
 	{
 		final NPC npc = event.getNpc();
+		Slot slot = slots.get(npc.getIndex());
+		if (slot == null || slot.npc != npc)
+		{
+			slot = new Slot(npc, highlighters.size());
+			slots.put(npc.getIndex(), slot);
+		}
+		else if (slot.id != npc.getId())
+		{
+			slot.id = npc.getId();
+			Arrays.fill(slot.results, NOT_EVALUATED);
+		}
+		update(slot);
+	}
 
-		highlightedNpcs.remove(npc);
+	/**
+	 * Re-evaluate all highlighters for all npcs
+	 */
+	public void rebuild()
+	{
+		clientThread.invoke(() ->
+		{
+			sync();
+			for (Slot slot : slots.values())
+			{
+				Arrays.fill(slot.results, NOT_EVALUATED);
+				update(slot);
+			}
+		});
+	}
 
-		for (Function<NPC, HighlightedNpc> f : highlightFunctions)
+	/**
+	 * Re-evaluate the given highlighter for all npcs, keeping the memoized results of the others.
+	 * This should be used in preference to {@link #rebuild()} when only one highlighter has changed.
+	 *
+	 * @param highlighter a registered highlighter
+	 */
+	public void rebuild(Function<NPC, HighlightedNpc> highlighter)
+	{
+		clientThread.invoke(() ->
 		{
-			HighlightedNpc highlightedNpc = f.apply(npc);
-			if (highlightedNpc != null)
+			final int idx = indexOf(highlighter);
+			if (idx == -1)
 			{
-				highlightedNpcs.put(npc, highlightedNpc);
 				return;
 			}
-		}
+
+			sync();
+			for (Slot slot : slots.values())
+			{
+				slot.results[idx] = NOT_EVALUATED;
+				update(slot);
+			}
+		});
 	}
 
-	public void rebuild()
+	public void registerHighlighter(Function<NPC, HighlightedNpc> p)
 	{
 		clientThread.invoke(() ->
 		{
-			highlightedNpcs.clear();
+			highlighters.add(new Highlighter(p));
+			sync();
+			for (Slot slot : slots.values())
+			{
+				slot.results = Arrays.copyOf(slot.results, highlighters.size());
+				slot.results[highlighters.size() - 1] = NOT_EVALUATED;
+				update(slot);
+			}
+		});
+	}
+
+	public void unregisterHighlighter(Function<NPC, HighlightedNpc> p)
+	{
+		clientThread.invoke(() ->
+		{
+			final int idx = indexOf(p);
+			if (idx == -1)
+			{
+				return;
+			}
+
+			final Highlighter highlighter = highlighters.remove(idx);
+			log.debug("Highlighter {} made {} evaluations in {}ms", name(highlighter), highlighter.evaluations, highlighter.nanos / 1_000_000);
 
-			outer:
-			for (NPC npc : client.getNpcs())
+			sync();
+			for (Slot slot : slots.values())
 			{
-				for (Function<NPC, HighlightedNpc> f : highlightFunctions)
+				final Object[] results = new Object[highlighters.size()];
+				System.arraycopy(slot.results, 0, results, 0, idx);
+				System.arraycopy(slot.results, idx + 1, results, idx, results.length - idx);
+				slot.results = results;
+				update(slot);
+			}
+		});
+	}
+
+	/**
+	 * Get the evaluation count and time spent in each registered highlighter. Must be called on the client thread.
+	 */
+	public List<HighlighterStats> getHighlighterStats()
+	{
+		final List<HighlighterStats> stats = new ArrayList<>(highlighters.size());
+		for (Highlighter highlighter : highlighters)
+		{
+			stats.add(new HighlighterStats(name(highlighter), highlighter.evaluations, highlighter.nanos));
+		}
+		return stats;
+	}
+
+	/**
+	 * Add slots for npcs which were missed, such as those which spawned before the service was created,
+	 * and drop slots for npcs which are gone.
+	 */
+	private void sync()
+	{
+		final Set<Integer> seen = new HashSet<>();
+		for (NPC npc : client.getNpcs())
+		{
+			seen.add(npc.getIndex());
+			final Slot slot = slots.get(npc.getIndex());
+			if (slot == null || slot.npc != npc)
+			{
+				if (slot != null)
 				{
-					HighlightedNpc highlightedNpc = f.apply(npc);
-					if (highlightedNpc != null)
-					{
-						highlightedNpcs.put(npc, highlightedNpc);
-						continue outer;
-					}
+					highlightedNpcs.remove(slot.npc);
 				}
+				slots.put(npc.getIndex(), new Slot(npc, highlighters.size()));
 			}
-		});
+		}
+
+		for (Iterator<Slot> it = slots.values().iterator(); it.hasNext(); )
+		{
+			final Slot slot = it.next();
+			if (!seen.contains(slot.npc.getIndex()))
+			{
+				highlightedNpcs.remove(slot.npc);
+				it.remove();
+			}
+		}
 	}
 
-	public void registerHighlighter(Function<NPC, HighlightedNpc> p)
+	private void update(Slot slot)
 	{
-		highlightFunctions.add(p);
-		rebuild();
+		HighlightedNpc highlightedNpc = null;
+		for (int i = 0; i < slot.results.length; ++i)
+		{
+			Object result = slot.results[i];
+			if (result == NOT_EVALUATED)
+			{
+				result = slot.results[i] = evaluate(highlighters.get(i), slot.npc);
+			}
+
+			if (result != null)
+			{
+				highlightedNpc = (HighlightedNpc) result;
+				break;
+			}
+		}
+
+		if (highlightedNpc != null)
+		{
+			highlightedNpcs.put(slot.npc, highlightedNpc);
+		}
+		else
+		{
+			highlightedNpcs.remove(slot.npc);
+		}
 	}
 
-	public void unregisterHighlighter(Function<NPC, HighlightedNpc> p)
+	private static HighlightedNpc evaluate(Highlighter highlighter, NPC npc)
+	{
+		final long start = System.nanoTime();
+		final HighlightedNpc highlightedNpc = highlighter.function.apply(npc);
+		highlighter.nanos += System.nanoTime() - start;
+		++highlighter.evaluations;
+		return highlightedNpc;
+	}
+
+	private int indexOf(Function<NPC, HighlightedNpc> function)
+	{
+		for (int i = 0; i < highlighters.size(); ++i)
+		{
+			if (highlighters.get(i).function == function)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String name(Highlighter highlighter)
 	{
-		highlightFunctions.remove(p);
-		rebuild();
+		// strip the synthetic lambda suffix, leaving the class which declared the highlighter
+		final String name = highlighter.function.getClass().getName();
+		final int idx = name.indexOf("$$");
+		return idx == -1 ? name : name.substring(0, idx);
 	}
 }
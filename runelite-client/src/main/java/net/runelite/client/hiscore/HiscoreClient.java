@@ -88,12 +88,16 @@ public class HiscoreClient
 			}
 
 			@Override
-			public void onResponse(Call call, Response response) throws IOException
+			public void onResponse(Call call, Response response)
 			{
 				try (response)
 				{
 					future.complete(processResponse(username, response));
 				}
+				catch (IOException e)
+				{
+					future.completeExceptionally(e);
+				}
 			}
 		});
 
@@ -24,17 +24,49 @@
  */
 package net.runelite.client.hiscore;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
 
+/**
+ * Caches hiscore lookups in memory and on disk. Results are served for {@link #MAX_STALE} after being fetched,
+ * and are revalidated in the background once they are older than {@link #FRESH_TTL}. Concurrent lookups of the
+ * same player share a single request, and requests to the hiscore endpoints are rate limited, with lookups
+ * failing once too many requests are waiting.
+ */
+@Slf4j
 @Singleton
 public class HiscoreManager
 {
@@ -46,20 +78,71 @@ public class HiscoreManager
 		HiscoreEndpoint type;
 	}
 
-	static final HiscoreResult EMPTY = new HiscoreResult(null, ImmutableMap.of());
-	static final HiscoreResult NONE = new HiscoreResult(null, ImmutableMap.of());
+	/**
+	 * A cached lookup
+	 */
+	@Value
+	@With
+	static class Entry
+	{
+		String username;
+		HiscoreEndpoint type;
+		/**
+		 * The result, or null if the player was not found
+		 */
+		HiscoreResult result;
+		/**
+		 * When the result was fetched, or 0 if it has never been fetched successfully
+		 */
+		long fetchedAt;
+		/**
+		 * When the last lookup failed
+		 */
+		long failedAt;
+	}
 
-	private final LoadingCache<HiscoreKey, HiscoreResult> hiscoreCache;
+	private static final File CACHE_FILE = new File(RuneLite.CACHE_DIR, "hiscores.json");
+	private static final int MAX_ENTRIES = 128;
+	private static final long FRESH_TTL = TimeUnit.HOURS.toMillis(1);
+	private static final long MAX_STALE = TimeUnit.DAYS.toMillis(1);
+	private static final long RETRY_DELAY = TimeUnit.MINUTES.toMillis(5);
+	private static final long REQUEST_INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+	/**
+	 * The most requests which may be waiting for a slot, beyond which lookups fail immediately
+	 */
+	static final int MAX_BACKLOG = 40;
+	private static final long SAVE_DELAY = 10; // seconds
+
+	private final ScheduledExecutorService executor;
 	private final HiscoreClient hiscoreClient;
+	private final Gson gson;
+	private final File cacheFile;
+	private final LongSupplier clock;
+	private final long requestInterval;
+
+	private final Cache<HiscoreKey, Entry> hiscoreCache = CacheBuilder.newBuilder()
+		.maximumSize(MAX_ENTRIES)
+		.build();
+	private final ConcurrentHashMap<HiscoreKey, CompletableFuture<HiscoreResult>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicBoolean savePending = new AtomicBoolean();
+	private long nextRequest;
 
 	@Inject
-	private HiscoreManager(ScheduledExecutorService executor, HiscoreClient hiscoreClient)
+	private HiscoreManager(ScheduledExecutorService executor, HiscoreClient hiscoreClient, Gson gson)
 	{
+		this(executor, hiscoreClient, gson, CACHE_FILE, System::currentTimeMillis, REQUEST_INTERVAL);
+	}
+
+	HiscoreManager(ScheduledExecutorService executor, HiscoreClient hiscoreClient, Gson gson,
+		File cacheFile, LongSupplier clock, long requestInterval)
+	{
+		this.executor = executor;
 		this.hiscoreClient = hiscoreClient;
-		hiscoreCache = CacheBuilder.newBuilder()
-			.maximumSize(128L)
-			.expireAfterWrite(1, TimeUnit.HOURS)
-			.build(new HiscoreLoader(executor, hiscoreClient));
+		this.gson = gson;
+		this.cacheFile = cacheFile;
+		this.clock = clock;
+		this.requestInterval = requestInterval;
+		executor.execute(this::load);
 	}
 
 	/**
@@ -72,22 +155,41 @@ public class HiscoreManager
 	 */
 	public HiscoreResult lookup(String username, HiscoreEndpoint endpoint) throws IOException
 	{
-		HiscoreKey hiscoreKey = new HiscoreKey(username, endpoint);
-		HiscoreResult hiscoreResult = hiscoreCache.getIfPresent(hiscoreKey);
-		if (hiscoreResult != null && hiscoreResult != EMPTY)
+		final HiscoreKey hiscoreKey = new HiscoreKey(username, endpoint);
+		final Entry entry = hiscoreCache.getIfPresent(hiscoreKey);
+		final long now = clock.getAsLong();
+		if (entry != null && isServable(entry, now))
 		{
-			return hiscoreResult == NONE ? null : hiscoreResult;
+			if (needsRefresh(entry, now))
+			{
+				fetch(hiscoreKey);
+			}
+			return entry.result;
 		}
 
-		hiscoreResult = hiscoreClient.lookup(username, endpoint);
-		if (hiscoreResult == null)
+		// fetches never wait on the executor, so this is safe to do from the executor thread
+		return await(fetch(hiscoreKey));
+	}
+
+	private static HiscoreResult await(CompletableFuture<HiscoreResult> future) throws IOException
+	{
+		try
 		{
-			hiscoreCache.put(hiscoreKey, NONE);
-			return null;
+			return future.get();
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof IOException)
+			{
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
 		}
-
-		hiscoreCache.put(hiscoreKey, hiscoreResult);
-		return hiscoreResult;
 	}
 
 	/**
@@ -99,14 +201,198 @@ public class HiscoreManager
 	 */
 	public HiscoreResult lookupAsync(String username, HiscoreEndpoint endpoint)
 	{
-		HiscoreKey hiscoreKey = new HiscoreKey(username, endpoint);
-		HiscoreResult hiscoreResult = hiscoreCache.getIfPresent(hiscoreKey);
-		if (hiscoreResult != null && hiscoreResult != EMPTY)
+		final HiscoreKey hiscoreKey = new HiscoreKey(username, endpoint);
+		final Entry entry = hiscoreCache.getIfPresent(hiscoreKey);
+		final long now = clock.getAsLong();
+		if (entry == null || needsRefresh(entry, now))
+		{
+			fetch(hiscoreKey);
+		}
+
+		return entry != null && isServable(entry, now) ? entry.result : null;
+	}
+
+	/**
+	 * Fetch a players hiscore from a specified endpoint, bypassing the cache. If a lookup of the player
+	 * is already in progress, its result is shared.
+	 *
+	 * @param username Players username
+	 * @param endpoint Hiscore endpoint
+	 * @return a future completed with the HiscoreResult, or null if the player was not found
+	 */
+	public CompletableFuture<HiscoreResult> fetch(String username, HiscoreEndpoint endpoint)
+	{
+		return fetch(new HiscoreKey(username, endpoint));
+	}
+
+	private CompletableFuture<HiscoreResult> fetch(HiscoreKey hiscoreKey)
+	{
+		final CompletableFuture<HiscoreResult> future = new CompletableFuture<>();
+		final CompletableFuture<HiscoreResult> existing = inFlight.putIfAbsent(hiscoreKey, future);
+		if (existing != null)
+		{
+			return existing;
+		}
+
+		final long delay = reserveRequest();
+		if (delay < 0)
+		{
+			log.debug("Hiscore lookup backlog is full, dropping lookup for {} type {}", hiscoreKey.getUsername(), hiscoreKey.getType());
+			inFlight.remove(hiscoreKey, future);
+			future.completeExceptionally(new IOException("too many hiscore lookups are queued"));
+			return future;
+		}
+
+		log.debug("Submitting hiscore lookup for {} type {} in {}ms", hiscoreKey.getUsername(), hiscoreKey.getType(), TimeUnit.NANOSECONDS.toMillis(delay));
+
+		// the delay is not scheduled on the executor, so that blocking lookups made on it can wait for this one
+		CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS)
+			.execute(() -> hiscoreClient.lookupAsync(hiscoreKey.getUsername(), hiscoreKey.getType())
+				.whenComplete((result, ex) -> complete(hiscoreKey, future, result, ex)));
+		return future;
+	}
+
+	private void complete(HiscoreKey hiscoreKey, CompletableFuture<HiscoreResult> future, HiscoreResult result, Throwable ex)
+	{
+		final long now = clock.getAsLong();
+		if (ex != null)
+		{
+			log.warn("Unable to look up hiscore!", ex);
+
+			// keep serving the old result, if any, until it is too stale
+			final Entry entry = hiscoreCache.getIfPresent(hiscoreKey);
+			hiscoreCache.put(hiscoreKey, entry != null
+				? entry.withFailedAt(now)
+				: new Entry(hiscoreKey.getUsername(), hiscoreKey.getType(), null, 0, now));
+		}
+		else
+		{
+			hiscoreCache.put(hiscoreKey, new Entry(hiscoreKey.getUsername(), hiscoreKey.getType(), result, now, 0));
+			scheduleSave();
+		}
+
+		// remove before completing, so lookups made after completion see the cached entry
+		inFlight.remove(hiscoreKey, future);
+		if (ex != null)
+		{
+			future.completeExceptionally(ex);
+		}
+		else
+		{
+			future.complete(result);
+		}
+	}
+
+	/**
+	 * Reserve the next request slot, returning how long to wait for it in nanoseconds, or -1 if
+	 * {@link #MAX_BACKLOG} requests are already waiting
+	 */
+	private synchronized long reserveRequest()
+	{
+		final long now = System.nanoTime();
+		final long next = nextRequest - now > 0 ? nextRequest : now;
+		if (next - now > (MAX_BACKLOG - 1) * requestInterval)
 		{
-			return hiscoreResult == NONE ? null : hiscoreResult;
+			return -1;
 		}
+		nextRequest = next + requestInterval;
+		return next - now;
+	}
 
-		hiscoreCache.refresh(hiscoreKey);
-		return null;
+	private static boolean isServable(Entry entry, long now)
+	{
+		return entry.fetchedAt > 0 && now - entry.fetchedAt < MAX_STALE;
+	}
+
+	private static boolean needsRefresh(Entry entry, long now)
+	{
+		return now - entry.fetchedAt >= FRESH_TTL && now - entry.failedAt >= RETRY_DELAY;
+	}
+
+	private void scheduleSave()
+	{
+		if (savePending.compareAndSet(false, true))
+		{
+			executor.schedule(() ->
+			{
+				savePending.set(false);
+				save();
+			}, SAVE_DELAY, TimeUnit.SECONDS);
+		}
+	}
+
+	void load()
+	{
+		final Entry[] entries;
+		try (Reader reader = new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8))
+		{
+			entries = gson.fromJson(reader, Entry[].class);
+		}
+		catch (FileNotFoundException ex)
+		{
+			return;
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load hiscore cache", ex);
+			return;
+		}
+
+		if (entries == null)
+		{
+			return;
+		}
+
+		final long now = clock.getAsLong();
+		int loaded = 0;
+		for (Entry entry : entries)
+		{
+			if (entry == null || entry.username == null || entry.type == null || !isServable(entry, now))
+			{
+				continue;
+			}
+
+			if (hiscoreCache.asMap().putIfAbsent(new HiscoreKey(entry.username, entry.type), entry.withFailedAt(0)) == null)
+			{
+				++loaded;
+			}
+		}
+		log.debug("Loaded {} cached hiscores", loaded);
+	}
+
+	void save()
+	{
+		final long now = clock.getAsLong();
+		final List<Entry> entries = new ArrayList<>();
+		for (Entry entry : hiscoreCache.asMap().values())
+		{
+			if (isServable(entry, now))
+			{
+				entries.add(entry);
+			}
+		}
+
+		try
+		{
+			final File tempFile = File.createTempFile("hiscores", null, cacheFile.getParentFile());
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8))
+			{
+				gson.toJson(entries, writer);
+			}
+
+			try
+			{
+				Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				log.debug("atomic move not supported", ex);
+				Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save hiscore cache", ex);
+		}
 	}
 }
@@ -58,6 +58,7 @@ import net.runelite.api.TileObject;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.ui.FontManager;
+import net.runelite.client.ui.overlay.GeometryCache;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
@@ -84,9 +85,10 @@ class DevToolsOverlay extends Overlay
 	private final Client client;
 	private final DevToolsPlugin plugin;
 	private final TooltipManager toolTipManager;
+	private final GeometryCache geometryCache;
 
 	@Inject
-	private DevToolsOverlay(Client client, DevToolsPlugin plugin, TooltipManager toolTipManager)
+	private DevToolsOverlay(Client client, DevToolsPlugin plugin, TooltipManager toolTipManager, GeometryCache geometryCache)
 	{
 		setPosition(OverlayPosition.DYNAMIC);
 		setLayer(OverlayLayer.ABOVE_WIDGETS);
@@ -94,6 +96,7 @@ class DevToolsOverlay extends Overlay
 		this.client = client;
 		this.plugin = plugin;
 		this.toolTipManager = toolTipManager;
+		this.geometryCache = geometryCache;
 	}
 
 	@Override
@@ -299,7 +302,7 @@ class DevToolsOverlay extends Overlay
 	private void renderTileTooltip(Graphics2D graphics, Tile tile)
 	{
 		final LocalPoint tileLocalLocation = tile.getLocalLocation();
-		Polygon poly = Perspective.getCanvasTilePoly(client, tileLocalLocation);
+		Polygon poly = geometryCache.getCanvasTilePoly(tileLocalLocation);
 		if (poly != null && poly.contains(client.getMouseCanvasPosition().getX(), client.getMouseCanvasPosition().getY()))
 		{
 			WorldPoint worldLocation = WorldPoint.fromLocalInstance(client, tileLocalLocation);
@@ -315,7 +318,7 @@ class DevToolsOverlay extends Overlay
 
 	private void renderMovementInfo(Graphics2D graphics, Tile tile)
 	{
-		Polygon poly = Perspective.getCanvasTilePoly(client, tile.getLocalLocation());
+		Polygon poly = geometryCache.getCanvasTilePoly(tile.getLocalLocation());
 
 		if (poly == null || !poly.contains(client.getMouseCanvasPosition().getX(), client.getMouseCanvasPosition().getY()))
 		{
@@ -117,6 +117,8 @@ class DevToolsPanel extends PluginPanel
 		container.add(plugin.getWorldMapLocation());
 		container.add(plugin.getTileLocation());
 		container.add(plugin.getCameraPosition());
+		container.add(plugin.getGeometryCache());
+		container.add(plugin.getNpcHighlighters());
 
 		container.add(plugin.getChunkBorders());
 		container.add(plugin.getMapSquares());
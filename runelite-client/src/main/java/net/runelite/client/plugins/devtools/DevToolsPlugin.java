@@ -115,6 +115,12 @@ public class DevToolsPlugin extends Plugin
 	@Inject
 	private CameraOverlay cameraOverlay;
 
+	@Inject
+	private GeometryCacheOverlay geometryCacheOverlay;
+
+	@Inject
+	private NpcHighlighterOverlay npcHighlighterOverlay;
+
 	@Inject
 	private WorldMapLocationOverlay worldMapLocationOverlay;
 
@@ -153,6 +159,8 @@ public class DevToolsPlugin extends Plugin
 	private DevToolsButton movementFlags;
 	private DevToolsButton lineOfSight;
 	private DevToolsButton cameraPosition;
+	private DevToolsButton geometryCache;
+	private DevToolsButton npcHighlighters;
 	private DevToolsButton worldMapLocation;
 	private DevToolsButton tileLocation;
 	private DevToolsButton interacting;
@@ -247,6 +255,8 @@ public class DevToolsPlugin extends Plugin
 		worldMapLocation = new DevToolsButton("World Map Location");
 		tileLocation = new DevToolsButton("Tile Location");
 		cameraPosition = new DevToolsButton("Camera Position");
+		geometryCache = new DevToolsButton("Geometry Cache");
+		npcHighlighters = new DevToolsButton("Npc Highlighters");
 
 		chunkBorders = new DevToolsButton("Chunk Borders");
 		mapSquares = new DevToolsButton("Map Squares");
@@ -274,6 +284,8 @@ public class DevToolsPlugin extends Plugin
 		overlayManager.add(locationOverlay);
 		overlayManager.add(sceneOverlay);
 		overlayManager.add(cameraOverlay);
+		overlayManager.add(geometryCacheOverlay);
+		overlayManager.add(npcHighlighterOverlay);
 		overlayManager.add(worldMapLocationOverlay);
 		overlayManager.add(mapRegionOverlay);
 		overlayManager.add(soundEffectOverlay);
@@ -304,6 +316,8 @@ public class DevToolsPlugin extends Plugin
 		overlayManager.remove(locationOverlay);
 		overlayManager.remove(sceneOverlay);
 		overlayManager.remove(cameraOverlay);
+		overlayManager.remove(geometryCacheOverlay);
+		overlayManager.remove(npcHighlighterOverlay);
 		overlayManager.remove(worldMapLocationOverlay);
 		overlayManager.remove(mapRegionOverlay);
 		overlayManager.remove(soundEffectOverlay);
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.client.ui.overlay.GeometryCache;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+
+public class GeometryCacheOverlay extends OverlayPanel
+{
+	private final GeometryCache geometryCache;
+	private final DevToolsPlugin plugin;
+	private boolean active;
+
+	@Inject
+	GeometryCacheOverlay(GeometryCache geometryCache, DevToolsPlugin plugin)
+	{
+		this.geometryCache = geometryCache;
+		this.plugin = plugin;
+		setPosition(OverlayPosition.TOP_LEFT);
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		if (!plugin.getGeometryCache().isActive())
+		{
+			active = false;
+			return null;
+		}
+
+		if (!active)
+		{
+			// count from when the overlay is turned on
+			geometryCache.resetStats();
+			active = true;
+		}
+
+		panelComponent.setPreferredSize(new Dimension(175, 0));
+
+		panelComponent.getChildren().add(LineComponent.builder()
+				.left("Clickboxes")
+				.right(ratio(geometryCache.getClickboxHits(), geometryCache.getClickboxMisses()))
+				.build());
+
+		panelComponent.getChildren().add(LineComponent.builder()
+				.left("Tiles")
+				.right(ratio(geometryCache.getTileHits(), geometryCache.getTileMisses()))
+				.build());
+
+		panelComponent.getChildren().add(LineComponent.builder()
+				.left("Entries")
+				.right("" + geometryCache.size())
+				.build());
+
+		panelComponent.getChildren().add(LineComponent.builder()
+				.left("Invalidations")
+				.right("" + geometryCache.getInvalidations())
+				.build());
+
+		return super.render(graphics);
+	}
+
+	private static String ratio(long hits, long misses)
+	{
+		long total = hits + misses;
+		if (total == 0)
+		{
+			return "-";
+		}
+		return String.format("%.1f%% of %d", hits * 100.0 / total, total);
+	}
+}
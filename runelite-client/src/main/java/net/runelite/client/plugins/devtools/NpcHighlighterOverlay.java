@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.client.game.npcoverlay.NpcOverlayService;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+public class NpcHighlighterOverlay extends OverlayPanel
+{
+	private final NpcOverlayService npcOverlayService;
+	private final DevToolsPlugin plugin;
+
+	@Inject
+	NpcHighlighterOverlay(NpcOverlayService npcOverlayService, DevToolsPlugin plugin)
+	{
+		this.npcOverlayService = npcOverlayService;
+		this.plugin = plugin;
+		setPosition(OverlayPosition.TOP_LEFT);
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		if (!plugin.getNpcHighlighters().isActive())
+		{
+			return null;
+		}
+
+		panelComponent.setPreferredSize(new Dimension(225, 0));
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text("Npc highlighters")
+			.build());
+
+		for (NpcOverlayService.HighlighterStats stats : npcOverlayService.getHighlighterStats())
+		{
+			String name = stats.getName();
+			panelComponent.getChildren().add(LineComponent.builder()
+				.left(name.substring(name.lastIndexOf('.') + 1))
+				.right(String.format("%d in %.1fms", stats.getEvaluations(), stats.getNanos() / 1_000_000.0))
+				.build());
+		}
+
+		return super.render(graphics);
+	}
+}
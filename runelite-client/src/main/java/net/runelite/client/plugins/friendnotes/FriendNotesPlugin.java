@@ -233,7 +233,7 @@ public class FriendNotesPlugin extends Plugin
 				(groupId == InterfaceID.IGNORE_LIST && event.getOption().equals("Delete")))
 		{
 			// Friends have color tags
-			setHoveredFriend(Text.toJagexName(Text.removeTags(event.getTarget())));
+			setHoveredFriend(Text.toJagexName(Text.removeTagsCached(event.getTarget())));
 
 			// Build "Add Note" or "Edit Note" menu entry
 			client.createMenuEntry(-1)
@@ -243,7 +243,7 @@ public class FriendNotesPlugin extends Plugin
 				.onClick(e ->
 				{
 					//Friends have color tags
-					final String sanitizedTarget = Text.toJagexName(Text.removeTags(e.getTarget()));
+					final String sanitizedTarget = Text.toJagexName(Text.removeTagsCached(e.getTarget()));
 					final String note = getFriendNote(sanitizedTarget);
 
 					// Open the new chatbox input dialog
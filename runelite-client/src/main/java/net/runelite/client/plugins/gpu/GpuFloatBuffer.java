@@ -30,7 +30,22 @@ import java.nio.FloatBuffer;
 
 class GpuFloatBuffer
 {
-	private FloatBuffer buffer = allocateDirect(65536);
+	private FloatBuffer buffer;
+
+	GpuFloatBuffer()
+	{
+		this(65536);
+	}
+
+	GpuFloatBuffer(int size)
+	{
+		this(allocateDirect(size));
+	}
+
+	private GpuFloatBuffer(FloatBuffer buffer)
+	{
+		this.buffer = buffer;
+	}
 
 	void put(float s, float t, float p, float q)
 	{
@@ -66,6 +81,17 @@ class GpuFloatBuffer
 		}
 	}
 
+	/**
+	 * Create a buffer sharing this buffer's storage, positioned at the given offset.
+	 * Writes through the view are visible in this buffer, but the view has its own position.
+	 */
+	GpuFloatBuffer view(int position)
+	{
+		FloatBuffer b = buffer.duplicate();
+		b.position(position);
+		return new GpuFloatBuffer(b);
+	}
+
 	FloatBuffer getBuffer()
 	{
 		return buffer;
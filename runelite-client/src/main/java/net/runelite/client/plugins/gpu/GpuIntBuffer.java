@@ -30,7 +30,22 @@ import java.nio.IntBuffer;
 
 class GpuIntBuffer
 {
-	private IntBuffer buffer = allocateDirect(65536);
+	private IntBuffer buffer;
+
+	GpuIntBuffer()
+	{
+		this(65536);
+	}
+
+	GpuIntBuffer(int size)
+	{
+		this(allocateDirect(size));
+	}
+
+	private GpuIntBuffer(IntBuffer buffer)
+	{
+		this.buffer = buffer;
+	}
 
 	void put(float x, float y, float z, int w)
 	{
@@ -69,6 +84,17 @@ class GpuIntBuffer
 		}
 	}
 
+	/**
+	 * Create a buffer sharing this buffer's storage, positioned at the given offset.
+	 * Writes through the view are visible in this buffer, but the view has its own position.
+	 */
+	GpuIntBuffer view(int position)
+	{
+		IntBuffer b = buffer.duplicate();
+		b.position(position);
+		return new GpuIntBuffer(b);
+	}
+
 	IntBuffer getBuffer()
 	{
 		return buffer;
@@ -24,7 +24,10 @@
  */
 package net.runelite.client.plugins.gpu;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Provides;
 import java.awt.Canvas;
 import java.awt.Dimension;
@@ -38,6 +41,9 @@ import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.swing.SwingUtilities;
@@ -278,8 +284,8 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 
 	private int sceneId;
 	private int nextSceneId;
-	private GpuIntBuffer nextSceneVertexBuffer;
-	private GpuFloatBuffer nextSceneTexBuffer;
+	private CompletableFuture<SceneSnapshot> nextScene;
+	private ExecutorService sceneUploadExecutor;
 
 	@Override
 	protected void startUp()
@@ -291,6 +297,11 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 				fboScene = rboColorBuffer = -1;
 				targetBufferOffset = 0;
 				unorderedModels = smallModels = largeModels = 0;
+				sceneUploadExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+					new ThreadFactoryBuilder()
+						.setNameFormat("scene-upload-%d")
+						.setDaemon(true)
+						.build());
 
 				AWTContext.loadNatives();
 
@@ -448,6 +459,13 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 
 			sceneUploader.releaseSortingBuffers();
 
+			nextScene = null;
+			if (sceneUploadExecutor != null)
+			{
+				sceneUploadExecutor.shutdown();
+				sceneUploadExecutor = null;
+			}
+
 			if (lwjglInitted)
 			{
 				if (textureArrayId != -1)
@@ -1504,17 +1522,12 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 			return;
 		}
 
-		GpuIntBuffer vertexBuffer = new GpuIntBuffer();
-		GpuFloatBuffer uvBuffer = new GpuFloatBuffer();
-
-		sceneUploader.upload(scene, vertexBuffer, uvBuffer);
+		SceneSnapshot snapshot = sceneUploader.snapshot(scene);
 
-		vertexBuffer.flip();
-		uvBuffer.flip();
-
-		nextSceneVertexBuffer = vertexBuffer;
-		nextSceneTexBuffer = uvBuffer;
-		nextSceneId = sceneUploader.sceneId;
+		// with async scene upload, the geometry is laid out and packed while the client finishes loading
+		// the scene, and swapScene() waits for it
+		nextScene = snapshot.pack(config.asyncSceneUpload() ? sceneUploadExecutor : MoreExecutors.directExecutor());
+		nextSceneId = snapshot.sceneId;
 	}
 
 	private void uploadTileHeights(Scene scene)
@@ -1582,12 +1595,16 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 			uploadTileHeights(scene);
 		}
 
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		SceneSnapshot snapshot = nextScene.join();
+		log.debug("Waited {} for scene packing", stopwatch);
+		snapshot.applyOffsets();
+
 		sceneId = nextSceneId;
-		updateBuffer(sceneVertexBuffer, GL43C.GL_ARRAY_BUFFER, nextSceneVertexBuffer.getBuffer(), GL43C.GL_STATIC_COPY, CL12.CL_MEM_READ_ONLY);
-		updateBuffer(sceneUvBuffer, GL43C.GL_ARRAY_BUFFER, nextSceneTexBuffer.getBuffer(), GL43C.GL_STATIC_COPY, CL12.CL_MEM_READ_ONLY);
+		updateBuffer(sceneVertexBuffer, GL43C.GL_ARRAY_BUFFER, snapshot.vertexBuffer.getBuffer(), GL43C.GL_STATIC_COPY, CL12.CL_MEM_READ_ONLY);
+		updateBuffer(sceneUvBuffer, GL43C.GL_ARRAY_BUFFER, snapshot.uvBuffer.getBuffer(), GL43C.GL_STATIC_COPY, CL12.CL_MEM_READ_ONLY);
 
-		nextSceneVertexBuffer = null;
-		nextSceneTexBuffer = null;
+		nextScene = null;
 		nextSceneId = -1;
 
 		checkGLErrors();
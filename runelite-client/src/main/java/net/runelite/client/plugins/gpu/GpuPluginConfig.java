@@ -228,4 +228,15 @@ public interface GpuPluginConfig extends Config
 	{
 		return true;
 	}
+
+	@ConfigItem(
+		keyName = "asyncSceneUpload",
+		name = "Async scene upload",
+		description = "Packs scene geometry on background threads while the scene loads, reducing the stutter when changing regions",
+		position = 14
+	)
+	default boolean asyncSceneUpload()
+	{
+		return false;
+	}
 }
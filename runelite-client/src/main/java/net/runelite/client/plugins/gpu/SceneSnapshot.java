@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.gpu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Model;
+import net.runelite.api.SceneTileModel;
+import net.runelite.api.SceneTilePaint;
+
+/**
+ * The static geometry of a scene, captured on the client thread so that it can be
+ * packed into the scene buffers on other threads.
+ * <p>
+ * Buffer offsets are assigned by {@link #layout()} on the packing executor before any zone
+ * is packed, so every zone knows where its geometry goes and zones can be packed
+ * concurrently into disjoint ranges of the same buffers. The offsets are handed to the
+ * client's tiles and models by {@link #applyOffsets()} once packing is done. The geometry
+ * arrays are referenced rather than copied; the client does not modify the static scene
+ * models once the scene has been loaded.
+ */
+@Slf4j
+class SceneSnapshot
+{
+	static final int ZONE_SIZE = 8;
+
+	final int sceneId;
+	final List<Zone> zones = new ArrayList<>();
+
+	/**
+	 * Number of vertices in the vertex buffer
+	 */
+	int vertexCount;
+	/**
+	 * Number of vertices in the uv buffer
+	 */
+	int uvCount;
+	/**
+	 * The largest capacity any single geometry asks for before packing, which is
+	 * kept free past the end of the buffers so that the views never reallocate
+	 */
+	int reserve;
+
+	/**
+	 * Number of models sharing the geometry of an earlier model
+	 */
+	int dedupedModels;
+	/**
+	 * Number of buffer bytes saved by sharing model geometry
+	 */
+	long bytesSaved;
+
+	GpuIntBuffer vertexBuffer;
+	GpuFloatBuffer uvBuffer;
+
+	SceneSnapshot(int sceneId)
+	{
+		this.sceneId = sceneId;
+	}
+
+	/**
+	 * Assign the buffer offsets of every zone and piece of geometry. Identical scene models
+	 * are packed once and share their buffer offsets; comparing them by content hashes all
+	 * of their arrays, which is why this runs on the packing executor rather than while the
+	 * snapshot is taken on the client thread.
+	 */
+	void layout()
+	{
+		vertexCount = 0;
+		uvCount = 0;
+		reserve = 0;
+		dedupedModels = 0;
+		bytesSaved = 0;
+		int uniqueModels = 0;
+
+		Map<ModelGeometry, ModelGeometry> uniqueGeometry = new HashMap<>();
+		for (Zone zone : zones)
+		{
+			zone.vertexOffset = vertexCount;
+			zone.uvOffset = uvCount;
+
+			for (Geometry geometry : zone.geometry)
+			{
+				boolean textured = geometry.isTextured();
+				int len = geometry.length();
+				geometry.bufferLen = len;
+				geometry.shared = false;
+
+				if (geometry instanceof ModelGeometry)
+				{
+					// orientation is applied when the model is drawn, and lighting is baked into the face colors,
+					// so models with identical geometry can share the same buffer range
+					ModelGeometry existing = uniqueGeometry.putIfAbsent((ModelGeometry) geometry, (ModelGeometry) geometry);
+					if (existing != null)
+					{
+						geometry.vertexOffset = existing.vertexOffset;
+						geometry.uvOffset = existing.uvOffset;
+						geometry.shared = true;
+						++dedupedModels;
+						bytesSaved += (long) len * (textured ? 32 : 16);
+						continue;
+					}
+					++uniqueModels;
+				}
+
+				geometry.vertexOffset = vertexCount;
+				geometry.uvOffset = textured ? uvCount : -1;
+				vertexCount += len;
+				if (textured)
+				{
+					uvCount += len;
+				}
+
+				if (len > 0)
+				{
+					reserve = Math.max(reserve, geometry.reserve());
+				}
+			}
+
+			zone.vertexEnd = vertexCount;
+			zone.uvEnd = uvCount;
+		}
+
+		log.debug("Scene layout: unique models: {} zones: {} length: {}KB", uniqueModels, zones.size(), (vertexCount * 16) / 1024);
+		log.debug("Shared geometry of {} duplicate models, saving {}KB", dedupedModels, bytesSaved / 1024);
+	}
+
+	/**
+	 * Hand the buffer offsets assigned by {@link #layout()} to the tiles and models the
+	 * geometry was captured from. This must be called on the client thread, after packing
+	 * has completed.
+	 */
+	void applyOffsets()
+	{
+		for (Zone zone : zones)
+		{
+			for (Geometry geometry : zone.geometry)
+			{
+				geometry.applyOffsets();
+			}
+		}
+	}
+
+	/**
+	 * Lay out and pack all zones into newly allocated buffers, using one task per zone.
+	 *
+	 * @param executor executor to pack the zones on
+	 * @return a future completing with this snapshot once both buffers are filled and flipped
+	 */
+	CompletableFuture<SceneSnapshot> pack(Executor executor)
+	{
+		return CompletableFuture.runAsync(() ->
+			{
+				layout();
+				vertexBuffer = new GpuIntBuffer(vertexCount * 4 + reserve);
+				uvBuffer = new GpuFloatBuffer(uvCount * 4 + reserve);
+			}, executor)
+			.thenCompose(v ->
+			{
+				CompletableFuture<?>[] futures = new CompletableFuture[zones.size()];
+				for (int i = 0; i < futures.length; ++i)
+				{
+					Zone zone = zones.get(i);
+					futures[i] = CompletableFuture.runAsync(() -> zone.pack(vertexBuffer, uvBuffer), executor);
+				}
+				return CompletableFuture.allOf(futures);
+			})
+			.thenApply(v ->
+			{
+				vertexBuffer.getBuffer().position(vertexCount * 4);
+				uvBuffer.getBuffer().position(uvCount * 4);
+				vertexBuffer.flip();
+				uvBuffer.flip();
+				return this;
+			});
+	}
+
+	static class Zone
+	{
+		final List<Geometry> geometry = new ArrayList<>();
+		int vertexOffset;
+		int uvOffset;
+		int vertexEnd;
+		int uvEnd;
+
+		void pack(GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+		{
+			GpuIntBuffer vb = vertexBuffer.view(vertexOffset * 4);
+			GpuFloatBuffer uvb = uvBuffer.view(uvOffset * 4);
+			for (Geometry g : geometry)
+			{
+				if (!g.shared)
+				{
+					g.pack(vb, uvb);
+				}
+			}
+
+			if (vb.getBuffer().position() != vertexEnd * 4 || uvb.getBuffer().position() != uvEnd * 4)
+			{
+				throw new IllegalStateException("zone packed to " + vb.getBuffer().position() / 4 + "/" + uvb.getBuffer().position() / 4
+					+ ", expected " + vertexEnd + "/" + uvEnd);
+			}
+		}
+	}
+
+	abstract static class Geometry
+	{
+		// assigned by layout(), not part of the content
+		int vertexOffset;
+		int uvOffset;
+		int bufferLen;
+		// whether the geometry uses the buffer range of an identical, earlier geometry
+		boolean shared;
+
+		abstract int length();
+
+		abstract boolean isTextured();
+
+		/**
+		 * The capacity this geometry asks for before packing
+		 */
+		abstract int reserve();
+
+		abstract int pack(GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer);
+
+		abstract void applyOffsets();
+	}
+
+	static class TilePaint extends Geometry
+	{
+		int swHeight, seHeight, neHeight, nwHeight;
+		int swColor, seColor, neColor, nwColor;
+		int texture;
+		boolean flat;
+		SceneTilePaint target;
+
+		TilePaint load(SceneTilePaint paint, int[][] tileHeights, int tileX, int tileY)
+		{
+			swHeight = tileHeights[tileX][tileY];
+			seHeight = tileHeights[tileX + 1][tileY];
+			neHeight = tileHeights[tileX + 1][tileY + 1];
+			nwHeight = tileHeights[tileX][tileY + 1];
+			swColor = paint.getSwColor();
+			seColor = paint.getSeColor();
+			neColor = paint.getNeColor();
+			nwColor = paint.getNwColor();
+			texture = paint.getTexture();
+			flat = paint.isFlat();
+			return this;
+		}
+
+		@Override
+		int length()
+		{
+			return neColor == 12345678 ? 0 : 6;
+		}
+
+		@Override
+		boolean isTextured()
+		{
+			return texture != -1;
+		}
+
+		@Override
+		int reserve()
+		{
+			return 24;
+		}
+
+		@Override
+		int pack(GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+		{
+			return SceneUploader.pushTilePaint(this, 0, 0, false, vertexBuffer, uvBuffer);
+		}
+
+		@Override
+		void applyOffsets()
+		{
+			target.setBufferOffset(vertexOffset);
+			target.setUvBufferOffset(uvOffset);
+			target.setBufferLen(bufferLen);
+		}
+	}
+
+	static class TileModel extends Geometry
+	{
+		int[] faceX, faceY, faceZ;
+		int[] vertexX, vertexY, vertexZ;
+		int[] triangleColorA, triangleColorB, triangleColorC;
+		int[] triangleTextures;
+		boolean flat;
+		int lx, lz;
+		SceneTileModel target;
+
+		TileModel load(SceneTileModel model)
+		{
+			faceX = model.getFaceX();
+			faceY = model.getFaceY();
+			faceZ = model.getFaceZ();
+			vertexX = model.getVertexX();
+			vertexY = model.getVertexY();
+			vertexZ = model.getVertexZ();
+			triangleColorA = model.getTriangleColorA();
+			triangleColorB = model.getTriangleColorB();
+			triangleColorC = model.getTriangleColorC();
+			triangleTextures = model.getTriangleTextureId();
+			flat = model.isFlat();
+			return this;
+		}
+
+		@Override
+		int length()
+		{
+			int len = 0;
+			for (int i = 0; i < faceX.length; ++i)
+			{
+				if (triangleColorA[i] != 12345678)
+				{
+					len += 3;
+				}
+			}
+			return len;
+		}
+
+		@Override
+		boolean isTextured()
+		{
+			return triangleTextures != null;
+		}
+
+		@Override
+		int reserve()
+		{
+			return faceX.length * 12;
+		}
+
+		@Override
+		int pack(GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+		{
+			return SceneUploader.pushTileModel(this, lx, lz, false, vertexBuffer, uvBuffer);
+		}
+
+		@Override
+		void applyOffsets()
+		{
+			target.setBufferOffset(vertexOffset);
+			target.setUvBufferOffset(uvOffset);
+			target.setBufferLen(bufferLen);
+		}
+	}
+
+	static class ModelGeometry extends Geometry
+	{
+		int triangleCount;
+		float[] vertexX, vertexY, vertexZ;
+		int[] indices1, indices2, indices3;
+		int[] color1s, color2s, color3s;
+		short[] faceTextures;
+		byte[] textureFaces;
+		int[] texIndices1, texIndices2, texIndices3;
+		byte[] transparencies;
+		byte[] facePriorities;
+		byte overrideAmount, overrideHue, overrideSat, overrideLum;
+		Model target;
+
+		private int hash;
+
+		ModelGeometry load(Model model)
+		{
+			hash = 0;
+			triangleCount = Math.min(model.getFaceCount(), GpuPlugin.MAX_TRIANGLE);
+			vertexX = model.getVerticesX();
+			vertexY = model.getVerticesY();
+			vertexZ = model.getVerticesZ();
+			indices1 = model.getFaceIndices1();
+			indices2 = model.getFaceIndices2();
+			indices3 = model.getFaceIndices3();
+			color1s = model.getFaceColors1();
+			color2s = model.getFaceColors2();
+			color3s = model.getFaceColors3();
+			faceTextures = model.getFaceTextures();
+			textureFaces = model.getTextureFaces();
+			texIndices1 = model.getTexIndices1();
+			texIndices2 = model.getTexIndices2();
+			texIndices3 = model.getTexIndices3();
+			transparencies = model.getFaceTransparencies();
+			facePriorities = model.getFaceRenderPriorities();
+			overrideAmount = model.getOverrideAmount();
+			overrideHue = model.getOverrideHue();
+			overrideSat = model.getOverrideSaturation();
+			overrideLum = model.getOverrideLuminance();
+			return this;
+		}
+
+		@Override
+		int length()
+		{
+			return triangleCount * 3;
+		}
+
+		@Override
+		boolean isTextured()
+		{
+			return faceTextures != null;
+		}
+
+		@Override
+		int reserve()
+		{
+			return triangleCount * 12;
+		}
+
+		@Override
+		int pack(GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+		{
+			return SceneUploader.pushModel(this, vertexBuffer, uvBuffer);
+		}
+
+		@Override
+		void applyOffsets()
+		{
+			target.setBufferOffset(vertexOffset);
+			target.setUvBufferOffset(uvOffset);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int h = hash;
+			if (h == 0)
+			{
+				h = triangleCount;
+				h = h * 31 + Arrays.hashCode(vertexX);
+				h = h * 31 + Arrays.hashCode(vertexY);
+				h = h * 31 + Arrays.hashCode(vertexZ);
+				h = h * 31 + Arrays.hashCode(indices1);
+				h = h * 31 + Arrays.hashCode(indices2);
+				h = h * 31 + Arrays.hashCode(indices3);
+				h = h * 31 + Arrays.hashCode(color1s);
+				h = h * 31 + Arrays.hashCode(color2s);
+				h = h * 31 + Arrays.hashCode(color3s);
+				h = h * 31 + Arrays.hashCode(faceTextures);
+				h = h * 31 + Arrays.hashCode(textureFaces);
+				h = h * 31 + Arrays.hashCode(texIndices1);
+				h = h * 31 + Arrays.hashCode(texIndices2);
+				h = h * 31 + Arrays.hashCode(texIndices3);
+				h = h * 31 + Arrays.hashCode(transparencies);
+				h = h * 31 + Arrays.hashCode(facePriorities);
+				h = h * 31 + (overrideAmount << 24 | (overrideHue & 0xff) << 16 | (overrideSat & 0xff) << 8 | (overrideLum & 0xff));
+				hash = h;
+			}
+			return h;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (!(o instanceof ModelGeometry))
+			{
+				return false;
+			}
+
+			ModelGeometry other = (ModelGeometry) o;
+			return hashCode() == other.hashCode()
+				&& triangleCount == other.triangleCount
+				&& overrideAmount == other.overrideAmount
+				&& overrideHue == other.overrideHue
+				&& overrideSat == other.overrideSat
+				&& overrideLum == other.overrideLum
+				&& Arrays.equals(vertexX, other.vertexX)
+				&& Arrays.equals(vertexY, other.vertexY)
+				&& Arrays.equals(vertexZ, other.vertexZ)
+				&& Arrays.equals(indices1, other.indices1)
+				&& Arrays.equals(indices2, other.indices2)
+				&& Arrays.equals(indices3, other.indices3)
+				&& Arrays.equals(color1s, other.color1s)
+				&& Arrays.equals(color2s, other.color2s)
+				&& Arrays.equals(color3s, other.color3s)
+				&& Arrays.equals(faceTextures, other.faceTextures)
+				&& Arrays.equals(textureFaces, other.textureFaces)
+				&& Arrays.equals(texIndices1, other.texIndices1)
+				&& Arrays.equals(texIndices2, other.texIndices2)
+				&& Arrays.equals(texIndices3, other.texIndices3)
+				&& Arrays.equals(transparencies, other.transparencies)
+				&& Arrays.equals(facePriorities, other.facePriorities);
+		}
+	}
+}
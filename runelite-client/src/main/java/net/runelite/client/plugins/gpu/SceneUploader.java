@@ -57,9 +57,11 @@ class SceneUploader
 	private final Regions regions;
 
 	int sceneId = (int) System.nanoTime();
-	private int offset;
-	private int uvoffset;
-	private int uniqueModels;
+
+	// scratch geometry for the client thread upload paths
+	private final SceneSnapshot.TilePaint streamPaint = new SceneSnapshot.TilePaint();
+	private final SceneSnapshot.TileModel streamTileModel = new SceneSnapshot.TileModel();
+	private final SceneSnapshot.ModelGeometry streamModel = new SceneSnapshot.ModelGeometry();
 
 	@Inject
 	SceneUploader(
@@ -80,14 +82,14 @@ class SceneUploader
 		}
 	}
 
-	void upload(Scene scene, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	/**
+	 * Capture the static geometry of the scene. This must be called on the client thread;
+	 * the returned snapshot can then be laid out and packed on any thread, after which
+	 * {@link SceneSnapshot#applyOffsets()} hands the buffer offsets to the tiles and models.
+	 */
+	SceneSnapshot snapshot(Scene scene)
 	{
 		++sceneId;
-		offset = 0;
-		uvoffset = 0;
-		uniqueModels = 0;
-		vertexBuffer.clear();
-		uvBuffer.clear();
 
 		Stopwatch stopwatch = Stopwatch.createStarted();
 		prepare(scene);
@@ -95,80 +97,69 @@ class SceneUploader
 		log.debug("Scene preparation time: {}", stopwatch);
 
 		stopwatch = Stopwatch.createStarted();
+		SceneSnapshot snapshot = new SceneSnapshot(sceneId);
+		Tile[][][] tiles = scene.getExtendedTiles();
 		for (int z = 0; z < Constants.MAX_Z; ++z)
 		{
-			for (int x = 0; x < Constants.EXTENDED_SCENE_SIZE; ++x)
+			for (int zx = 0; zx < Constants.EXTENDED_SCENE_SIZE; zx += SceneSnapshot.ZONE_SIZE)
 			{
-				for (int y = 0; y < Constants.EXTENDED_SCENE_SIZE; ++y)
+				for (int zy = 0; zy < Constants.EXTENDED_SCENE_SIZE; zy += SceneSnapshot.ZONE_SIZE)
 				{
-					Tile tile = scene.getExtendedTiles()[z][x][y];
-					if (tile != null)
+					SceneSnapshot.Zone zone = new SceneSnapshot.Zone();
+
+					for (int x = zx; x < Math.min(zx + SceneSnapshot.ZONE_SIZE, Constants.EXTENDED_SCENE_SIZE); ++x)
+					{
+						for (int y = zy; y < Math.min(zy + SceneSnapshot.ZONE_SIZE, Constants.EXTENDED_SCENE_SIZE); ++y)
+						{
+							Tile tile = tiles[z][x][y];
+							if (tile != null)
+							{
+								snapshot(scene, tile, zone);
+							}
+						}
+					}
+
+					if (!zone.geometry.isEmpty())
 					{
-						upload(scene, tile, vertexBuffer, uvBuffer);
+						snapshot.zones.add(zone);
 					}
 				}
 			}
 		}
 
 		stopwatch.stop();
-		log.debug("Scene upload time: {} unique models: {} length: {}KB", stopwatch, uniqueModels, (offset * 16) / 1024);
+		log.debug("Scene snapshot time: {} zones: {}", stopwatch, snapshot.zones.size());
+		return snapshot;
 	}
 
-	private void upload(Scene scene, Tile tile, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	private void snapshot(Scene scene, Tile tile, SceneSnapshot.Zone zone)
 	{
 		Tile bridge = tile.getBridge();
 		if (bridge != null)
 		{
-			upload(scene, bridge, vertexBuffer, uvBuffer);
+			snapshot(scene, bridge, zone);
 		}
 
 		SceneTilePaint sceneTilePaint = tile.getSceneTilePaint();
 		if (sceneTilePaint != null)
 		{
-			sceneTilePaint.setBufferOffset(offset);
-			if (sceneTilePaint.getTexture() != -1)
-			{
-				sceneTilePaint.setUvBufferOffset(uvoffset);
-			}
-			else
-			{
-				sceneTilePaint.setUvBufferOffset(-1);
-			}
 			Point tilePoint = tile.getSceneLocation();
-			int len = upload(scene, sceneTilePaint,
-				tile.getRenderLevel(), tilePoint.getX(), tilePoint.getY(),
-				vertexBuffer, uvBuffer,
-				0, 0, false);
-			sceneTilePaint.setBufferLen(len);
-			offset += len;
-			if (sceneTilePaint.getTexture() != -1)
-			{
-				uvoffset += len;
-			}
+			SceneSnapshot.TilePaint paint = new SceneSnapshot.TilePaint().load(sceneTilePaint,
+				scene.getTileHeights()[tile.getRenderLevel()],
+				tilePoint.getX() + GpuPlugin.SCENE_OFFSET, tilePoint.getY() + GpuPlugin.SCENE_OFFSET);
+			paint.target = sceneTilePaint;
+			zone.geometry.add(paint);
 		}
 
 		SceneTileModel sceneTileModel = tile.getSceneTileModel();
 		if (sceneTileModel != null)
 		{
-			sceneTileModel.setBufferOffset(offset);
-			if (sceneTileModel.getTriangleTextureId() != null)
-			{
-				sceneTileModel.setUvBufferOffset(uvoffset);
-			}
-			else
-			{
-				sceneTileModel.setUvBufferOffset(-1);
-			}
 			Point tilePoint = tile.getSceneLocation();
-			int len = upload(sceneTileModel,
-				tilePoint.getX() << Perspective.LOCAL_COORD_BITS, tilePoint.getY() << Perspective.LOCAL_COORD_BITS,
-				vertexBuffer, uvBuffer, false);
-			sceneTileModel.setBufferLen(len);
-			offset += len;
-			if (sceneTileModel.getTriangleTextureId() != null)
-			{
-				uvoffset += len;
-			}
+			SceneSnapshot.TileModel model = new SceneSnapshot.TileModel().load(sceneTileModel);
+			model.lx = tilePoint.getX() << Perspective.LOCAL_COORD_BITS;
+			model.lz = tilePoint.getY() << Perspective.LOCAL_COORD_BITS;
+			model.target = sceneTileModel;
+			zone.geometry.add(model);
 		}
 
 		WallObject wallObject = tile.getWallObject();
@@ -177,13 +168,13 @@ class SceneUploader
 			Renderable renderable1 = wallObject.getRenderable1();
 			if (renderable1 instanceof Model)
 			{
-				uploadSceneModel((Model) renderable1, vertexBuffer, uvBuffer);
+				snapshotSceneModel((Model) renderable1, zone);
 			}
 
 			Renderable renderable2 = wallObject.getRenderable2();
 			if (renderable2 instanceof Model)
 			{
-				uploadSceneModel((Model) renderable2, vertexBuffer, uvBuffer);
+				snapshotSceneModel((Model) renderable2, zone);
 			}
 		}
 
@@ -193,7 +184,7 @@ class SceneUploader
 			Renderable renderable = groundObject.getRenderable();
 			if (renderable instanceof Model)
 			{
-				uploadSceneModel((Model) renderable, vertexBuffer, uvBuffer);
+				snapshotSceneModel((Model) renderable, zone);
 			}
 		}
 
@@ -203,13 +194,13 @@ class SceneUploader
 			Renderable renderable = decorativeObject.getRenderable();
 			if (renderable instanceof Model)
 			{
-				uploadSceneModel((Model) renderable, vertexBuffer, uvBuffer);
+				snapshotSceneModel((Model) renderable, zone);
 			}
 
 			Renderable renderable2 = decorativeObject.getRenderable2();
 			if (renderable2 instanceof Model)
 			{
-				uploadSceneModel((Model) renderable2, vertexBuffer, uvBuffer);
+				snapshotSceneModel((Model) renderable2, zone);
 			}
 		}
 
@@ -224,27 +215,53 @@ class SceneUploader
 			Renderable renderable = gameObject.getRenderable();
 			if (renderable instanceof Model)
 			{
-				uploadSceneModel((Model) gameObject.getRenderable(), vertexBuffer, uvBuffer);
+				snapshotSceneModel((Model) gameObject.getRenderable(), zone);
 			}
 		}
 	}
 
+	private void snapshotSceneModel(Model model, SceneSnapshot.Zone zone)
+	{
+		// deduplicate hillskewed models
+		if (model.getUnskewedModel() != null)
+		{
+			model = model.getUnskewedModel();
+		}
+
+		if (model.getSceneId() == sceneId)
+		{
+			return; // model has already been uploaded
+		}
+
+		// models with identical content are shared when the snapshot is laid out, off the client thread
+		SceneSnapshot.ModelGeometry geometry = new SceneSnapshot.ModelGeometry().load(model);
+		geometry.target = model;
+		model.setSceneId(sceneId);
+		zone.geometry.add(geometry);
+	}
+
 	int upload(Scene scene, SceneTilePaint tile, int tileZ, int tileX, int tileY, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer,
 		int lx, int lz, boolean stream)
 	{
 		tileX += GpuPlugin.SCENE_OFFSET;
 		tileY += GpuPlugin.SCENE_OFFSET;
 
-		final int[][][] tileHeights = scene.getTileHeights();
-		final int swHeight = tileHeights[tileZ][tileX][tileY];
-		final int seHeight = tileHeights[tileZ][tileX + 1][tileY];
-		final int neHeight = tileHeights[tileZ][tileX + 1][tileY + 1];
-		final int nwHeight = tileHeights[tileZ][tileX][tileY + 1];
+		return pushTilePaint(streamPaint.load(tile, scene.getTileHeights()[tileZ], tileX, tileY),
+			lx, lz, stream, vertexBuffer, uvBuffer);
+	}
+
+	static int pushTilePaint(SceneSnapshot.TilePaint tile, int lx, int lz, boolean stream,
+		GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	{
+		final int swHeight = tile.swHeight;
+		final int seHeight = tile.seHeight;
+		final int neHeight = tile.neHeight;
+		final int nwHeight = tile.nwHeight;
 
-		final int swColor = tile.getSwColor();
-		final int seColor = tile.getSeColor();
-		final int neColor = tile.getNeColor();
-		final int nwColor = tile.getNwColor();
+		final int swColor = tile.swColor;
+		final int seColor = tile.seColor;
+		final int neColor = tile.neColor;
+		final int nwColor = tile.nwColor;
 
 		if (neColor == 12345678)
 		{
@@ -286,10 +303,10 @@ class SceneUploader
 		vertexBuffer.put((float) lx1, ly1, lz1, hsl1);
 		vertexBuffer.put((float) lx3, ly3, lz3, hsl3);
 
-		if (stream || tile.getTexture() != -1)
+		if (stream || tile.texture != -1)
 		{
-			int tex = tile.getTexture() + 1;
-			if (tile.isFlat())
+			int tex = tile.texture + 1;
+			if (tile.flat)
 			{
 				uvBuffer.put(tex, lx0, ly0, lz0);
 				uvBuffer.put(tex, lx1, ly1, lz1);
@@ -313,19 +330,25 @@ class SceneUploader
 	int upload(SceneTileModel sceneTileModel, int lx, int lz,
 		GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer, boolean stream)
 	{
-		final int[] faceX = sceneTileModel.getFaceX();
-		final int[] faceY = sceneTileModel.getFaceY();
-		final int[] faceZ = sceneTileModel.getFaceZ();
+		return pushTileModel(streamTileModel.load(sceneTileModel), lx, lz, stream, vertexBuffer, uvBuffer);
+	}
+
+	static int pushTileModel(SceneSnapshot.TileModel sceneTileModel, int lx, int lz, boolean stream,
+		GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	{
+		final int[] faceX = sceneTileModel.faceX;
+		final int[] faceY = sceneTileModel.faceY;
+		final int[] faceZ = sceneTileModel.faceZ;
 
-		final int[] vertexX = sceneTileModel.getVertexX();
-		final int[] vertexY = sceneTileModel.getVertexY();
-		final int[] vertexZ = sceneTileModel.getVertexZ();
+		final int[] vertexX = sceneTileModel.vertexX;
+		final int[] vertexY = sceneTileModel.vertexY;
+		final int[] vertexZ = sceneTileModel.vertexZ;
 
-		final int[] triangleColorA = sceneTileModel.getTriangleColorA();
-		final int[] triangleColorB = sceneTileModel.getTriangleColorB();
-		final int[] triangleColorC = sceneTileModel.getTriangleColorC();
+		final int[] triangleColorA = sceneTileModel.triangleColorA;
+		final int[] triangleColorB = sceneTileModel.triangleColorB;
+		final int[] triangleColorC = sceneTileModel.triangleColorC;
 
-		final int[] triangleTextures = sceneTileModel.getTriangleTextureId();
+		final int[] triangleTextures = sceneTileModel.triangleTextures;
 
 		final int faceCount = faceX.length;
 
@@ -372,7 +395,7 @@ class SceneUploader
 				if (triangleTextures != null && triangleTextures[i] != -1)
 				{
 					int tex = triangleTextures[i] + 1;
-					if (sceneTileModel.isFlat())
+					if (sceneTileModel.flat)
 					{
 						uvBuffer.put(tex, vertexX[0] - lx, vertexY[0], vertexZ[0] - lz);
 						uvBuffer.put(tex, vertexX[1] - lx, vertexY[1], vertexZ[1] - lz);
@@ -397,72 +420,43 @@ class SceneUploader
 		return cnt;
 	}
 
-	private void uploadSceneModel(Model model, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	public int pushModel(Model model, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
 	{
-		// deduplicate hillskewed models
-		if (model.getUnskewedModel() != null)
-		{
-			model = model.getUnskewedModel();
-		}
-
-		if (model.getSceneId() == sceneId)
-		{
-			return; // model has already been uploaded
-		}
-
-		model.setBufferOffset(offset);
-		if (model.getFaceTextures() != null)
-		{
-			model.setUvBufferOffset(uvoffset);
-		}
-		else
-		{
-			model.setUvBufferOffset(-1);
-		}
-		model.setSceneId(sceneId);
-		++uniqueModels;
-
-		int len = pushModel(model, vertexBuffer, uvBuffer);
-
-		offset += len;
-		if (model.getFaceTextures() != null)
-		{
-			uvoffset += len;
-		}
+		return pushModel(streamModel.load(model), vertexBuffer, uvBuffer);
 	}
 
-	public int pushModel(Model model, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	static int pushModel(SceneSnapshot.ModelGeometry model, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
 	{
-		final int triangleCount = Math.min(model.getFaceCount(), GpuPlugin.MAX_TRIANGLE);
+		final int triangleCount = model.triangleCount;
 
 		vertexBuffer.ensureCapacity(triangleCount * 12);
 		uvBuffer.ensureCapacity(triangleCount * 12);
 
-		final float[] vertexX = model.getVerticesX();
-		final float[] vertexY = model.getVerticesY();
-		final float[] vertexZ = model.getVerticesZ();
+		final float[] vertexX = model.vertexX;
+		final float[] vertexY = model.vertexY;
+		final float[] vertexZ = model.vertexZ;
 
-		final int[] indices1 = model.getFaceIndices1();
-		final int[] indices2 = model.getFaceIndices2();
-		final int[] indices3 = model.getFaceIndices3();
+		final int[] indices1 = model.indices1;
+		final int[] indices2 = model.indices2;
+		final int[] indices3 = model.indices3;
 
-		final int[] color1s = model.getFaceColors1();
-		final int[] color2s = model.getFaceColors2();
-		final int[] color3s = model.getFaceColors3();
+		final int[] color1s = model.color1s;
+		final int[] color2s = model.color2s;
+		final int[] color3s = model.color3s;
 
-		final short[] faceTextures = model.getFaceTextures();
-		final byte[] textureFaces = model.getTextureFaces();
-		final int[] texIndices1 = model.getTexIndices1();
-		final int[] texIndices2 = model.getTexIndices2();
-		final int[] texIndices3 = model.getTexIndices3();
+		final short[] faceTextures = model.faceTextures;
+		final byte[] textureFaces = model.textureFaces;
+		final int[] texIndices1 = model.texIndices1;
+		final int[] texIndices2 = model.texIndices2;
+		final int[] texIndices3 = model.texIndices3;
 
-		final byte[] transparencies = model.getFaceTransparencies();
-		final byte[] facePriorities = model.getFaceRenderPriorities();
+		final byte[] transparencies = model.transparencies;
+		final byte[] facePriorities = model.facePriorities;
 
-		final byte overrideAmount = model.getOverrideAmount();
-		final byte overrideHue = model.getOverrideHue();
-		final byte overrideSat = model.getOverrideSaturation();
-		final byte overrideLum = model.getOverrideLuminance();
+		final byte overrideAmount = model.overrideAmount;
+		final byte overrideHue = model.overrideHue;
+		final byte overrideSat = model.overrideSat;
+		final byte overrideLum = model.overrideLum;
 
 		int len = 0;
 		for (int face = 0; face < triangleCount; ++face)
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.grounditems;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Matches ground items against the highlight and hidden lists. Item names are matched
+ * against the lists once per item id, so each lookup only has to check the quantity
+ * thresholds. A new classifier is built whenever the lists change.
+ */
+class GroundItemClassifier
+{
+	private static class Matches
+	{
+		private ItemThreshold[] highlighted;
+		private ItemThreshold[] hidden;
+	}
+
+	private final WildcardMatchLoader highlightedItems;
+	private final WildcardMatchLoader hiddenItems;
+	private Matches[] matches = new Matches[0];
+
+	GroundItemClassifier(List<String> highlightedItems, List<String> hiddenItems)
+	{
+		this.highlightedItems = new WildcardMatchLoader(highlightedItems);
+		this.hiddenItems = new WildcardMatchLoader(hiddenItems);
+	}
+
+	boolean isHighlighted(GroundItem item)
+	{
+		return holds(matches(item).highlighted, item.getQuantity());
+	}
+
+	boolean isHidden(GroundItem item)
+	{
+		return holds(matches(item).hidden, item.getQuantity());
+	}
+
+	private Matches matches(GroundItem item)
+	{
+		final int id = item.getId();
+		if (id >= matches.length)
+		{
+			matches = Arrays.copyOf(matches, Math.max(id + 1, matches.length * 2));
+		}
+
+		Matches m = matches[id];
+		if (m == null)
+		{
+			m = new Matches();
+			m.highlighted = highlightedItems.matchingThresholds(item.getName());
+			m.hidden = hiddenItems.matchingThresholds(item.getName());
+			matches[id] = m;
+		}
+		return m;
+	}
+
+	private static boolean holds(ItemThreshold[] thresholds, int quantity)
+	{
+		for (ItemThreshold threshold : thresholds)
+		{
+			if (threshold.quantityHolds(quantity))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.grounditems;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Ground items by tile and item id. Tiles are keyed by their packed coordinate, and all
+ * items are also kept in a flat list so the overlay can walk them without going through
+ * the per-tile buckets.
+ */
+class GroundItemIndex
+{
+	private final Map<Integer, List<GroundItem>> tiles = new HashMap<>();
+	private final List<GroundItem> items = new ArrayList<>();
+
+	static int pack(WorldPoint point)
+	{
+		return pack(point.getX(), point.getY(), point.getPlane());
+	}
+
+	static int pack(int x, int y, int plane)
+	{
+		return (plane & 3) << 28 | (x & 0x3FFF) << 14 | (y & 0x3FFF);
+	}
+
+	GroundItem get(WorldPoint point, int itemId)
+	{
+		return get(pack(point), itemId);
+	}
+
+	GroundItem get(int packedPoint, int itemId)
+	{
+		List<GroundItem> tile = tiles.get(packedPoint);
+		if (tile == null)
+		{
+			return null;
+		}
+
+		for (int i = 0; i < tile.size(); ++i)
+		{
+			GroundItem item = tile.get(i);
+			if (item.getId() == itemId)
+			{
+				return item;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Add an item to the index. There must not already be an item with the same id on its tile.
+	 */
+	void put(GroundItem item)
+	{
+		tiles.computeIfAbsent(pack(item.getLocation()), k -> new ArrayList<>(2)).add(item);
+		items.add(item);
+	}
+
+	GroundItem remove(WorldPoint point, int itemId)
+	{
+		final int packedPoint = pack(point);
+		List<GroundItem> tile = tiles.get(packedPoint);
+		if (tile == null)
+		{
+			return null;
+		}
+
+		for (int i = 0; i < tile.size(); ++i)
+		{
+			GroundItem item = tile.get(i);
+			if (item.getId() == itemId)
+			{
+				tile.remove(i);
+				if (tile.isEmpty())
+				{
+					tiles.remove(packedPoint);
+				}
+				// GroundItem equality is by value, so remove by identity
+				for (int j = items.size() - 1; j >= 0; --j)
+				{
+					if (items.get(j) == item)
+					{
+						items.remove(j);
+						break;
+					}
+				}
+				return item;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the items on a tile
+	 */
+	List<GroundItem> getTile(WorldPoint point)
+	{
+		List<GroundItem> tile = tiles.get(pack(point));
+		return tile == null ? Collections.emptyList() : Collections.unmodifiableList(tile);
+	}
+
+	/**
+	 * Get the items of each non-empty tile
+	 */
+	Collection<List<GroundItem>> tiles()
+	{
+		return Collections.unmodifiableCollection(tiles.values());
+	}
+
+	Collection<GroundItem> values()
+	{
+		return Collections.unmodifiableList(items);
+	}
+
+	int size()
+	{
+		return items.size();
+	}
+
+	void clear()
+	{
+		tiles.clear();
+		items.clear();
+	}
+}
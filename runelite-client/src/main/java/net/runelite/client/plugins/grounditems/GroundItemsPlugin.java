@@ -26,29 +26,22 @@
 package net.runelite.client.plugins.grounditems;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Table;
 import com.google.inject.Provides;
 import java.applet.Applet;
 import java.awt.Color;
 import java.awt.Rectangle;
-import static java.lang.Boolean.FALSE;
-import static java.lang.Boolean.TRUE;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
@@ -67,6 +60,7 @@ import net.runelite.api.MenuEntry;
 import net.runelite.api.Tile;
 import net.runelite.api.TileItem;
 import net.runelite.api.Varbits;
+import net.runelite.api.WorldView;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.FocusChanged;
@@ -183,11 +177,12 @@ public class GroundItemsPlugin extends Plugin
 	@Inject
 	private ColorPickerManager colorPickerManager;
 
-	@Getter
-	private final Table<WorldPoint, Integer, GroundItem> collectedGroundItems = HashBasedTable.create();
+	@Getter(AccessLevel.PACKAGE)
+	private final GroundItemIndex collectedGroundItems = new GroundItemIndex();
 	private List<PriceHighlight> priceChecks = ImmutableList.of();
-	private LoadingCache<NamedQuantity, Boolean> highlightedItems;
-	private LoadingCache<NamedQuantity, Boolean> hiddenItems;
+	private GroundItemClassifier classifier;
+	private MenuEntry[] collapsedEntries = new MenuEntry[0];
+	private int[] collapsedCounts = new int[0];
 	private final Map<WorldPoint, Lootbeam> lootbeams = new HashMap<>();
 
 	@Provides
@@ -211,10 +206,7 @@ public class GroundItemsPlugin extends Plugin
 		overlayManager.remove(overlay);
 		mouseManager.unregisterMouseListener(mouseAdapter);
 		keyManager.unregisterKeyListener(hotkeyListener);
-		highlightedItems.invalidateAll();
-		highlightedItems = null;
-		hiddenItems.invalidateAll();
-		hiddenItems = null;
+		classifier = null;
 		hiddenItemList = null;
 		highlightedItemsList = null;
 		collectedGroundItems.clear();
@@ -256,7 +248,7 @@ public class GroundItemsPlugin extends Plugin
 		}
 		else
 		{
-			collectedGroundItems.put(tile.getWorldLocation(), item.getId(), groundItem);
+			collectedGroundItems.put(groundItem);
 		}
 
 		if (groundItem.isMine() || !config.onlyShowOwnItems())
@@ -339,44 +331,65 @@ public class GroundItemsPlugin extends Plugin
 		}
 
 		final MenuEntry[] menuEntries = client.getMenuEntries();
-		final List<MenuEntryWithCount> newEntries = new ArrayList<>(menuEntries.length);
+		if (collapsedEntries.length < menuEntries.length)
+		{
+			collapsedEntries = new MenuEntry[menuEntries.length];
+			collapsedCounts = new int[menuEntries.length];
+		}
 
+		// Collapse from the top of the menu down, so the topmost of each duplicate is kept
+		int collapsed = 0;
+		boolean hasDuplicates = false;
 		outer:
 		for (int i = menuEntries.length - 1; i >= 0; i--)
 		{
 			MenuEntry menuEntry = menuEntries[i];
 
-			MenuAction menuType = menuEntry.getType();
-			if (menuType == MenuAction.GROUND_ITEM_FIRST_OPTION || menuType == MenuAction.GROUND_ITEM_SECOND_OPTION
-				|| menuType == MenuAction.GROUND_ITEM_THIRD_OPTION || menuType == MenuAction.GROUND_ITEM_FOURTH_OPTION
-				|| menuType == MenuAction.GROUND_ITEM_FIFTH_OPTION || menuType == MenuAction.EXAMINE_ITEM_GROUND)
+			if (isGroundItemEntry(menuEntry.getType()))
 			{
-				for (MenuEntryWithCount entryWCount : newEntries)
+				for (int j = 0; j < collapsed; j++)
 				{
-					if (entryWCount.getEntry().equals(menuEntry))
+					if (collapsedEntries[j].equals(menuEntry))
 					{
-						entryWCount.increment();
+						collapsedCounts[j]++;
+						hasDuplicates = true;
 						continue outer;
 					}
 				}
 			}
 
-			newEntries.add(new MenuEntryWithCount(menuEntry));
+			collapsedEntries[collapsed] = menuEntry;
+			collapsedCounts[collapsed] = 1;
+			collapsed++;
 		}
 
-		Collections.reverse(newEntries);
-
-		client.setMenuEntries(newEntries.stream().map(e ->
+		if (hasDuplicates)
 		{
-			final MenuEntry entry = e.getEntry();
-			final int count = e.getCount();
-			if (count > 1)
+			final MenuEntry[] newEntries = new MenuEntry[collapsed];
+			for (int j = 0; j < collapsed; j++)
 			{
-				entry.setTarget(entry.getTarget() + " x " + count);
+				final MenuEntry entry = collapsedEntries[j];
+				final int count = collapsedCounts[j];
+				if (count > 1)
+				{
+					entry.setTarget(entry.getTarget() + " x " + count);
+				}
+
+				newEntries[collapsed - 1 - j] = entry;
 			}
 
-			return entry;
-		}).toArray(MenuEntry[]::new));
+			client.setMenuEntries(newEntries);
+		}
+
+		// don't hold on to the entries of old menus
+		Arrays.fill(collapsedEntries, 0, collapsed, null);
+	}
+
+	private static boolean isGroundItemEntry(MenuAction menuType)
+	{
+		return menuType == MenuAction.GROUND_ITEM_FIRST_OPTION || menuType == MenuAction.GROUND_ITEM_SECOND_OPTION
+			|| menuType == MenuAction.GROUND_ITEM_THIRD_OPTION || menuType == MenuAction.GROUND_ITEM_FOURTH_OPTION
+			|| menuType == MenuAction.GROUND_ITEM_FIFTH_OPTION || menuType == MenuAction.EXAMINE_ITEM_GROUND;
 	}
 
 	private GroundItem buildGroundItem(final Tile tile, final TileItem item)
@@ -438,15 +451,7 @@ public class GroundItemsPlugin extends Plugin
 		// gets the highlighted items from the text box in the config
 		highlightedItemsList = Text.fromCSV(config.getHighlightItems());
 
-		highlightedItems = CacheBuilder.newBuilder()
-			.maximumSize(512L)
-			.expireAfterAccess(10, TimeUnit.MINUTES)
-			.build(new WildcardMatchLoader(highlightedItemsList));
-
-		hiddenItems = CacheBuilder.newBuilder()
-			.maximumSize(512L)
-			.expireAfterAccess(10, TimeUnit.MINUTES)
-			.build(new WildcardMatchLoader(hiddenItemList));
+		classifier = new GroundItemClassifier(highlightedItemsList, hiddenItemList);
 
 		// Cache colors
 		ImmutableList.Builder<PriceHighlight> priceCheckBuilder = ImmutableList.builder();
@@ -493,8 +498,9 @@ public class GroundItemsPlugin extends Plugin
 			MenuEntry[] menuEntries = client.getMenuEntries();
 			MenuEntry lastEntry = menuEntries[menuEntries.length - 1];
 
-			final WorldPoint worldPoint = WorldPoint.fromScene(client, sceneX, sceneY, client.getPlane());
-			GroundItem groundItem = collectedGroundItems.get(worldPoint, itemId);
+			final WorldView worldView = client.getTopLevelWorldView();
+			GroundItem groundItem = collectedGroundItems.get(
+				GroundItemIndex.pack(sceneX + worldView.getBaseX(), sceneY + worldView.getBaseY(), client.getPlane()), itemId);
 
 			updateItemColor(groundItem);
 
@@ -612,14 +618,13 @@ public class GroundItemsPlugin extends Plugin
 	private Color getHighlighted(GroundItem groundItem)
 	{
 		Color itemColor = getItemColor(groundItem.getItemId());
-		var item = new NamedQuantity(groundItem);
-		if (TRUE.equals(highlightedItems.getUnchecked(item)))
+		if (classifier.isHighlighted(groundItem))
 		{
 			return itemColor != null ? itemColor : config.highlightedColor();
 		}
 
 		// Explicit hide takes priority over implicit highlight
-		if (TRUE.equals(hiddenItems.getUnchecked(item)))
+		if (classifier.isHidden(groundItem))
 		{
 			return null;
 		}
@@ -644,9 +649,8 @@ public class GroundItemsPlugin extends Plugin
 
 	private Color getHidden(GroundItem groundItem)
 	{
-		var item = new NamedQuantity(groundItem);
-		final boolean isExplicitHidden = TRUE.equals(hiddenItems.getUnchecked(item));
-		final boolean isExplicitHighlight = TRUE.equals(highlightedItems.getUnchecked(item));
+		final boolean isExplicitHidden = classifier.isHidden(groundItem);
+		final boolean isExplicitHighlight = classifier.isHighlighted(groundItem);
 		final boolean canBeHidden = groundItem.getGePrice() > 0 || groundItem.isTradeable() || !config.dontHideUntradeables();
 		final boolean underGe = groundItem.getGePrice() < config.getHideUnderValue();
 		final boolean underHa = groundItem.getHaPrice() < config.getHideUnderValue();
@@ -684,11 +688,11 @@ public class GroundItemsPlugin extends Plugin
 	private void notifyHighlightedItem(GroundItem item)
 	{
 		final boolean shouldNotifyHighlighted = config.notifyHighlightedDrops() &&
-			TRUE.equals(highlightedItems.getUnchecked(new NamedQuantity(item)));
+			classifier.isHighlighted(item);
 
 		final boolean shouldNotifyTier = config.notifyTier() != HighlightTier.OFF &&
 			getValueByMode(item.getGePrice(), item.getHaPrice()) > config.notifyTier().getValueFromTier(config) &&
-			FALSE.equals(hiddenItems.getUnchecked(new NamedQuantity(item)));
+			!classifier.isHidden(item);
 
 		final String dropType;
 		if (shouldNotifyHighlighted)
@@ -747,7 +751,7 @@ public class GroundItemsPlugin extends Plugin
 
 		int highestPrice = -1;
 		GroundItem highestItem = null;
-		Collection<GroundItem> groundItems = collectedGroundItems.row(worldPoint).values();
+		Collection<GroundItem> groundItems = collectedGroundItems.getTile(worldPoint);
 		for (GroundItem groundItem : groundItems)
 		{
 			if ((config.onlyShowOwnItems() && !groundItem.isMine()))
@@ -759,9 +763,8 @@ public class GroundItemsPlugin extends Plugin
 			 * highlighted items have the highest priority so if an item is highlighted at this location
 			 * we can early return
 			 */
-			NamedQuantity item = new NamedQuantity(groundItem);
 			if (config.showLootbeamForHighlighted()
-				&& TRUE.equals(highlightedItems.getUnchecked(item)))
+				&& classifier.isHighlighted(groundItem))
 			{
 				addLootbeam(worldPoint,
 					MoreObjects.firstNonNull(getItemColor(groundItem.getItemId()), config.highlightedColor()));
@@ -769,7 +772,7 @@ public class GroundItemsPlugin extends Plugin
 			}
 
 			// Explicit hide takes priority over implicit highlight
-			if (TRUE.equals(hiddenItems.getUnchecked(item)))
+			if (classifier.isHidden(groundItem))
 			{
 				continue;
 			}
@@ -801,9 +804,9 @@ public class GroundItemsPlugin extends Plugin
 
 	private void handleLootbeams()
 	{
-		for (WorldPoint worldPoint : collectedGroundItems.rowKeySet())
+		for (List<GroundItem> tile : collectedGroundItems.tiles())
 		{
-			handleLootbeam(worldPoint);
+			handleLootbeam(tile.get(0).getLocation());
 		}
 	}
 
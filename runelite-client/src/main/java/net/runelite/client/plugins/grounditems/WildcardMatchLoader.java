@@ -26,6 +26,7 @@ package net.runelite.client.plugins.grounditems;
 
 import com.google.common.base.Strings;
 import com.google.common.cache.CacheLoader;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -34,7 +35,10 @@ import net.runelite.client.util.WildcardMatcher;
 
 class WildcardMatchLoader extends CacheLoader<NamedQuantity, Boolean>
 {
+	private static final ItemThreshold[] NO_THRESHOLDS = new ItemThreshold[0];
+
 	private final List<ItemThreshold> itemThresholds;
+	private final WildcardMatcher[] matchers;
 
 	WildcardMatchLoader(List<String> configEntries)
 	{
@@ -42,27 +46,51 @@ class WildcardMatchLoader extends CacheLoader<NamedQuantity, Boolean>
 			.map(ItemThreshold::fromConfigEntry)
 			.filter(Objects::nonNull)
 			.collect(Collectors.toList());
+		this.matchers = itemThresholds.stream()
+			.map(entry -> WildcardMatcher.compile(entry.getItemName()))
+			.toArray(WildcardMatcher[]::new);
 	}
 
 	@Override
 	public Boolean load(@Nonnull final NamedQuantity key)
 	{
-		if (Strings.isNullOrEmpty(key.getName()))
+		for (final ItemThreshold entry : matchingThresholds(key.getName()))
 		{
-			return false;
+			if (entry.quantityHolds(key.getQuantity()))
+			{
+				return true;
+			}
 		}
 
-		final String filteredName = key.getName().trim();
+		return false;
+	}
 
-		for (final ItemThreshold entry : itemThresholds)
+	/**
+	 * Get the entries whose name pattern matches the given item name, ignoring their quantities
+	 */
+	ItemThreshold[] matchingThresholds(String name)
+	{
+		if (Strings.isNullOrEmpty(name))
 		{
-			if (WildcardMatcher.matches(entry.getItemName(), filteredName)
-				&& entry.quantityHolds(key.getQuantity()))
+			return NO_THRESHOLDS;
+		}
+
+		final String filteredName = name.trim();
+
+		List<ItemThreshold> matches = null;
+		for (int i = 0; i < matchers.length; ++i)
+		{
+			if (matchers[i].matches(filteredName))
 			{
-				return true;
+				final ItemThreshold entry = itemThresholds.get(i);
+				if (matches == null)
+				{
+					matches = new ArrayList<>(1);
+				}
+				matches.add(entry);
 			}
 		}
 
-		return false;
+		return matches == null ? NO_THRESHOLDS : matches.toArray(NO_THRESHOLDS);
 	}
 }
@@ -32,8 +32,8 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Polygon;
 import java.awt.Stroke;
+import java.util.Arrays;
 import java.util.Collection;
-import javax.annotation.Nullable;
 import javax.inject.Inject;
 import net.runelite.api.Client;
 import net.runelite.api.Perspective;
@@ -53,6 +53,13 @@ public class GroundMarkerOverlay extends Overlay
 	private final GroundMarkerConfig config;
 	private final GroundMarkerPlugin plugin;
 
+	// reused between frames
+	private final Polygon poly = new Polygon();
+	private ColorTileMarker[] markers = new ColorTileMarker[16];
+	private LocalPoint[] locations = new LocalPoint[16];
+	private int[] xs = new int[16 * 4];
+	private int[] ys = new int[16 * 4];
+
 	@Inject
 	private GroundMarkerOverlay(Client client, GroundMarkerConfig config, GroundMarkerPlugin plugin)
 	{
@@ -73,56 +80,73 @@ public class GroundMarkerOverlay extends Overlay
 			return null;
 		}
 
-		Stroke stroke = new BasicStroke((float) config.borderWidth());
+		final WorldPoint playerLocation = client.getLocalPlayer().getWorldLocation();
+		int count = 0;
 		for (final ColorTileMarker point : points)
 		{
 			WorldPoint worldPoint = point.getWorldPoint();
-			if (worldPoint.getPlane() != client.getPlane())
+			if (worldPoint.getPlane() != client.getPlane() || worldPoint.distanceTo(playerLocation) >= MAX_DRAW_DISTANCE)
 			{
 				continue;
 			}
 
-			Color tileColor = point.getColor();
-			if (tileColor == null)
+			LocalPoint lp = LocalPoint.fromWorld(client, worldPoint);
+			if (lp == null)
 			{
-				// If this is an old tile which has no color, use marker color
-				tileColor = config.markerColor();
+				continue;
 			}
 
-			drawTile(graphics, worldPoint, tileColor, point.getLabel(), stroke);
+			if (count == markers.length)
+			{
+				markers = Arrays.copyOf(markers, count * 2);
+				locations = Arrays.copyOf(locations, count * 2);
+				xs = new int[count * 2 * 4];
+				ys = new int[count * 2 * 4];
+			}
+			markers[count] = point;
+			locations[count] = lp;
+			++count;
 		}
 
-		return null;
-	}
-
-	private void drawTile(Graphics2D graphics, WorldPoint point, Color color, @Nullable String label, Stroke borderStroke)
-	{
-		WorldPoint playerLocation = client.getLocalPlayer().getWorldLocation();
-
-		if (point.distanceTo(playerLocation) >= MAX_DRAW_DISTANCE)
-		{
-			return;
-		}
+		// project all of the tiles at once, then draw them with a single polygon
+		Perspective.getCanvasTileAreaPolys(client, count, locations, 1, 1, -1, 0, xs, ys);
 
-		LocalPoint lp = LocalPoint.fromWorld(client, point);
-		if (lp == null)
+		final Stroke stroke = new BasicStroke((float) config.borderWidth());
+		final Color fillColor = new Color(0, 0, 0, config.fillOpacity());
+		for (int i = 0; i < count; ++i)
 		{
-			return;
-		}
+			final ColorTileMarker point = markers[i];
+			Color tileColor = point.getColor();
+			if (tileColor == null)
+			{
+				// If this is an old tile which has no color, use marker color
+				tileColor = config.markerColor();
+			}
 
-		Polygon poly = Perspective.getCanvasTilePoly(client, lp);
-		if (poly != null)
-		{
-			OverlayUtil.renderPolygon(graphics, poly, color, new Color(0, 0, 0, config.fillOpacity()), borderStroke);
-		}
+			if (xs[i * 4] != Integer.MIN_VALUE)
+			{
+				poly.reset();
+				for (int c = i * 4; c < i * 4 + 4; ++c)
+				{
+					poly.addPoint(xs[c], ys[c]);
+				}
+				OverlayUtil.renderPolygon(graphics, poly, tileColor, fillColor, stroke);
+			}
 
-		if (!Strings.isNullOrEmpty(label))
-		{
-			Point canvasTextLocation = Perspective.getCanvasTextLocation(client, graphics, lp, label, 0);
-			if (canvasTextLocation != null)
+			final String label = point.getLabel();
+			if (!Strings.isNullOrEmpty(label))
 			{
-				OverlayUtil.renderTextLocation(graphics, canvasTextLocation, label, color);
+				Point canvasTextLocation = Perspective.getCanvasTextLocation(client, graphics, locations[i], label, 0);
+				if (canvasTextLocation != null)
+				{
+					OverlayUtil.renderTextLocation(graphics, canvasTextLocation, label, tileColor);
+				}
 			}
 		}
+
+		// don't hold on to markers which may be removed
+		Arrays.fill(markers, 0, count, null);
+		Arrays.fill(locations, 0, count, null);
+		return null;
 	}
 }
@@ -108,7 +108,7 @@ public class ImplingsPlugin extends Plugin
 			return;
 		}
 
-		npcOverlayService.rebuild();
+		npcOverlayService.rebuild(isTarget);
 	}
 
 	@Subscribe
@@ -0,0 +1,741 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.loottracker;
+
+import com.google.common.io.CountingInputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Local loot for one RuneScape profile. Loot is kept in memory as columns of rows, each row being the
+ * source, time span and kill count of one save, with the row's items in parallel item id and quantity
+ * columns. Totals for a source are summed from the columns, so loading doesn't create an object per save.
+ * <p>
+ * The file is append-only: a source record is written the first time a source is seen, then each save
+ * appends a row referencing it, and removals append a tombstone. Once enough rows have accumulated the file
+ * is compacted by rewriting it with a single row per source, dropping any sources older than the max age.
+ */
+@Slf4j
+class LootStore
+{
+	private static final int MAGIC = 0x6c6f6f74;
+	private static final int SOURCE_RECORD = 1;
+	private static final int ROW_RECORD = 2;
+	private static final int REMOVE_RECORD = 3;
+	// rows appended beyond one per source before the file is compacted
+	static final int COMPACT_SLACK = 512;
+
+	@Value
+	private static class Source
+	{
+		LootRecordType type;
+		String name;
+	}
+
+	private final File file;
+	private final Duration maxAge;
+
+	private final List<Source> sources = new ArrayList<>();
+	private final Map<Source, Integer> sourceIds = new HashMap<>();
+	private int[] sourceRows = new int[16];
+	private int liveSources;
+
+	private int rows;
+	private int[] rowSource = new int[64];
+	private long[] rowFirst = new long[64];
+	private long[] rowLast = new long[64];
+	private int[] rowKills = new int[64];
+	// end offset of each row's items in the item columns
+	private int[] rowItemEnd = new int[64];
+
+	private int items;
+	private int[] itemId = new int[256];
+	private int[] itemQty = new int[256];
+
+	private DataOutputStream out;
+	// rows appended to the file since it was last compacted
+	private int appended;
+
+	LootStore(File file, Duration maxAge)
+	{
+		this.file = file;
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Open the store, replacing any loot in memory with the file's contents. The file is compacted
+	 * if it has grown enough since it was last compacted.
+	 *
+	 * @param now the current time
+	 */
+	synchronized void open(Instant now)
+	{
+		close();
+		clear();
+
+		long length = replay();
+		try
+		{
+			file.getParentFile().mkdirs();
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+			{
+				// drop any partially written record from a crash
+				raf.setLength(length);
+			}
+
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+			if (length == 0)
+			{
+				out.writeInt(MAGIC);
+				out.flush();
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to open loot store {}", file, ex);
+			close();
+			return;
+		}
+
+		if (appended > liveSources + COMPACT_SLACK)
+		{
+			compact(now);
+		}
+	}
+
+	/**
+	 * Replay the file into memory
+	 *
+	 * @return the length of the file up to the end of the last complete record
+	 */
+	private long replay()
+	{
+		try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+			DataInputStream in = new DataInputStream(counter))
+		{
+			if (in.readInt() != MAGIC)
+			{
+				log.warn("loot store {} is not valid, discarding", file);
+				return 0;
+			}
+
+			for (;;)
+			{
+				final long length = counter.getCount();
+				final int type = in.read();
+				try
+				{
+					if (type == -1)
+					{
+						return length;
+					}
+					else if (type == SOURCE_RECORD)
+					{
+						final String typeName = in.readUTF();
+						final String name = in.readUTF();
+						addSource(new Source(parseType(typeName), name));
+					}
+					else if (type == ROW_RECORD)
+					{
+						if (!readRow(in))
+						{
+							log.warn("loot store {} has a row for an unknown source, discarding the remainder", file);
+							return length;
+						}
+						++appended;
+					}
+					else if (type == REMOVE_RECORD)
+					{
+						removeRows((int) readVarLong(in));
+					}
+					else
+					{
+						log.warn("loot store {} has an unknown record {}, discarding the remainder", file, type);
+						return length;
+					}
+				}
+				catch (EOFException ex)
+				{
+					return length;
+				}
+			}
+		}
+		catch (FileNotFoundException | EOFException ex)
+		{
+			return 0;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to read loot store {}", file, ex);
+			return 0;
+		}
+	}
+
+	private boolean readRow(DataInputStream in) throws IOException
+	{
+		final int source = (int) readVarLong(in);
+		final long first = readVarLong(in);
+		final long last = first + readVarLong(in);
+		final int kills = (int) readVarLong(in);
+		final int count = (int) readVarLong(in);
+		if (source >= sources.size())
+		{
+			return false;
+		}
+
+		ensureItemCapacity(items + count);
+		for (int i = 0; i < count; ++i)
+		{
+			itemId[items + i] = (int) readVarLong(in);
+		}
+		for (int i = 0; i < count; ++i)
+		{
+			itemQty[items + i] = (int) readVarLong(in);
+		}
+		// only commit the row once it has been fully read
+		items += count;
+		addRow(source, first, last, kills);
+		return true;
+	}
+
+	private static LootRecordType parseType(String name)
+	{
+		try
+		{
+			return LootRecordType.valueOf(name);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			return LootRecordType.UNKNOWN;
+		}
+	}
+
+	synchronized void close()
+	{
+		if (out == null)
+		{
+			return;
+		}
+
+		try
+		{
+			out.close();
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to close loot store {}", file, ex);
+		}
+		out = null;
+	}
+
+	private void clear()
+	{
+		sources.clear();
+		sourceIds.clear();
+		Arrays.fill(sourceRows, 0);
+		liveSources = 0;
+		rows = 0;
+		items = 0;
+		appended = 0;
+	}
+
+	/**
+	 * Add loot to the store
+	 *
+	 * @param loot the loot, with its first and last times set to the span it covers
+	 */
+	synchronized void add(ConfigLoot loot)
+	{
+		add(out, loot);
+		if (out != null)
+		{
+			try
+			{
+				out.flush();
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to write loot store {}", file, ex);
+				close();
+			}
+		}
+
+		if (appended > liveSources + COMPACT_SLACK)
+		{
+			compact(loot.last);
+		}
+	}
+
+	private void add(@Nullable DataOutputStream out, ConfigLoot loot)
+	{
+		final Source source = new Source(loot.type, loot.name);
+		Integer id = sourceIds.get(source);
+		final boolean newSource = id == null;
+		if (newSource)
+		{
+			id = addSource(source);
+		}
+
+		final int count = loot.numDrops();
+		ensureItemCapacity(items + count);
+		for (int i = 0; i < count; ++i)
+		{
+			itemId[items + i] = loot.drops[i * 2];
+			itemQty[items + i] = loot.drops[i * 2 + 1];
+		}
+		final long last = loot.last.toEpochMilli();
+		final long first = loot.first != null ? Math.min(loot.first.toEpochMilli(), last) : last;
+		items += count;
+		addRow(id, first, last, loot.kills);
+		++appended;
+
+		if (out == null)
+		{
+			return;
+		}
+
+		try
+		{
+			if (newSource)
+			{
+				out.writeByte(SOURCE_RECORD);
+				out.writeUTF(source.type.name());
+				out.writeUTF(source.name);
+			}
+
+			out.writeByte(ROW_RECORD);
+			writeVarLong(out, id);
+			writeVarLong(out, first);
+			writeVarLong(out, last - first);
+			writeVarLong(out, loot.kills);
+			writeVarLong(out, count);
+			for (int i = 0; i < count; ++i)
+			{
+				writeVarLong(out, loot.drops[i * 2]);
+			}
+			for (int i = 0; i < count; ++i)
+			{
+				writeVarLong(out, loot.drops[i * 2 + 1]);
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to write loot store {}", file, ex);
+			close();
+		}
+	}
+
+	private int addSource(Source source)
+	{
+		final int id = sources.size();
+		sources.add(source);
+		sourceIds.put(source, id);
+		if (id >= sourceRows.length)
+		{
+			sourceRows = Arrays.copyOf(sourceRows, sourceRows.length * 2);
+		}
+		return id;
+	}
+
+	private void addRow(int source, long first, long last, int kills)
+	{
+		if (rows == rowSource.length)
+		{
+			final int capacity = rows * 2;
+			rowSource = Arrays.copyOf(rowSource, capacity);
+			rowFirst = Arrays.copyOf(rowFirst, capacity);
+			rowLast = Arrays.copyOf(rowLast, capacity);
+			rowKills = Arrays.copyOf(rowKills, capacity);
+			rowItemEnd = Arrays.copyOf(rowItemEnd, capacity);
+		}
+
+		rowSource[rows] = source;
+		rowFirst[rows] = first;
+		rowLast[rows] = last;
+		rowKills[rows] = kills;
+		rowItemEnd[rows] = items;
+		++rows;
+
+		if (sourceRows[source]++ == 0)
+		{
+			++liveSources;
+		}
+	}
+
+	private void ensureItemCapacity(int capacity)
+	{
+		if (capacity > itemId.length)
+		{
+			final int length = Math.max(capacity, itemId.length * 2);
+			itemId = Arrays.copyOf(itemId, length);
+			itemQty = Arrays.copyOf(itemQty, length);
+		}
+	}
+
+	/**
+	 * Remove all loot for a source
+	 */
+	synchronized void remove(LootRecordType type, String name)
+	{
+		final Integer id = sourceIds.get(new Source(type, name));
+		if (id == null || sourceRows[id] == 0)
+		{
+			return;
+		}
+
+		removeRows(id);
+
+		if (out == null)
+		{
+			return;
+		}
+
+		try
+		{
+			out.writeByte(REMOVE_RECORD);
+			writeVarLong(out, id);
+			out.flush();
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to write loot store {}", file, ex);
+			close();
+		}
+	}
+
+	private void removeRows(int source)
+	{
+		if (source >= sources.size() || sourceRows[source] == 0)
+		{
+			return;
+		}
+
+		// shift the remaining rows, and their items, down over the removed ones
+		int row = 0;
+		int item = 0;
+		int start = 0;
+		for (int r = 0; r < rows; ++r)
+		{
+			// read the end before it is overwritten below
+			final int end = rowItemEnd[r];
+			if (rowSource[r] == source)
+			{
+				start = end;
+				continue;
+			}
+
+			System.arraycopy(itemId, start, itemId, item, end - start);
+			System.arraycopy(itemQty, start, itemQty, item, end - start);
+			item += end - start;
+
+			rowSource[row] = rowSource[r];
+			rowFirst[row] = rowFirst[r];
+			rowLast[row] = rowLast[r];
+			rowKills[row] = rowKills[r];
+			rowItemEnd[row] = item;
+			++row;
+			start = end;
+		}
+
+		rows = row;
+		items = item;
+		sourceRows[source] = 0;
+		--liveSources;
+	}
+
+	/**
+	 * Remove all loot
+	 */
+	synchronized void removeAll()
+	{
+		clear();
+		rewrite();
+	}
+
+	/**
+	 * Rewrite the file with a single row per source, dropping sources with no loot since the max age
+	 *
+	 * @param now the current time
+	 */
+	synchronized void compact(Instant now)
+	{
+		final List<ConfigLoot> loots = aggregate(now.minus(maxAge));
+		log.debug("Compacting loot store {} from {} rows to {}", file, rows, loots.size());
+
+		clear();
+		for (ConfigLoot loot : loots)
+		{
+			add(null, loot);
+		}
+		rewrite();
+	}
+
+	/**
+	 * Replace the file with the loot in memory, and reopen it for appending
+	 */
+	private void rewrite()
+	{
+		close();
+
+		// rows are written from the columns, so the sources are renumbered in the order they are first used
+		final List<Source> used = new ArrayList<>(liveSources);
+		final int[] ids = new int[sources.size()];
+		Arrays.fill(ids, -1);
+		for (int r = 0; r < rows; ++r)
+		{
+			final int source = rowSource[r];
+			if (ids[source] == -1)
+			{
+				ids[source] = used.size();
+				used.add(sources.get(source));
+			}
+		}
+
+		try
+		{
+			file.getParentFile().mkdirs();
+			final File tempFile = File.createTempFile("loot", null, file.getParentFile());
+			try (DataOutputStream tmp = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+			{
+				tmp.writeInt(MAGIC);
+				for (Source source : used)
+				{
+					tmp.writeByte(SOURCE_RECORD);
+					tmp.writeUTF(source.type.name());
+					tmp.writeUTF(source.name);
+				}
+
+				for (int r = 0, start = 0; r < rows; start = rowItemEnd[r++])
+				{
+					final int end = rowItemEnd[r];
+					tmp.writeByte(ROW_RECORD);
+					writeVarLong(tmp, ids[rowSource[r]]);
+					writeVarLong(tmp, rowFirst[r]);
+					writeVarLong(tmp, rowLast[r] - rowFirst[r]);
+					writeVarLong(tmp, rowKills[r]);
+					writeVarLong(tmp, end - start);
+					for (int i = start; i < end; ++i)
+					{
+						writeVarLong(tmp, itemId[i]);
+					}
+					for (int i = start; i < end; ++i)
+					{
+						writeVarLong(tmp, itemQty[i]);
+					}
+				}
+			}
+
+			try
+			{
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				log.debug("atomic move not supported", ex);
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to rewrite loot store {}", file, ex);
+			close();
+			return;
+		}
+
+		// match the in memory source ids to the file
+		for (int r = 0; r < rows; ++r)
+		{
+			rowSource[r] = ids[rowSource[r]];
+		}
+		sources.clear();
+		sourceIds.clear();
+		Arrays.fill(sourceRows, 0);
+		for (Source source : used)
+		{
+			addSource(source);
+		}
+		for (int r = 0; r < rows; ++r)
+		{
+			++sourceRows[rowSource[r]];
+		}
+		appended = rows;
+	}
+
+	/**
+	 * Get the total loot for each source with loot since a given time. The first and last times are
+	 * those of the source's earliest and latest rows.
+	 *
+	 * @param since the time to get sources since
+	 * @return the totals, one per source
+	 */
+	synchronized List<ConfigLoot> aggregate(Instant since)
+	{
+		final int n = sources.size();
+		final long sinceMillis = since.toEpochMilli();
+		final long[] first = new long[n];
+		final long[] last = new long[n];
+		Arrays.fill(first, Long.MAX_VALUE);
+		Arrays.fill(last, Long.MIN_VALUE);
+		for (int r = 0; r < rows; ++r)
+		{
+			final int source = rowSource[r];
+			first[source] = Math.min(first[source], rowFirst[r]);
+			last[source] = Math.max(last[source], rowLast[r]);
+		}
+
+		final ConfigLoot[] totals = new ConfigLoot[n];
+		for (int r = 0, start = 0; r < rows; start = rowItemEnd[r++])
+		{
+			final int source = rowSource[r];
+			if (last[source] < sinceMillis)
+			{
+				continue;
+			}
+
+			ConfigLoot loot = totals[source];
+			if (loot == null)
+			{
+				final Source s = sources.get(source);
+				loot = totals[source] = new ConfigLoot(s.type, s.name);
+				loot.first = Instant.ofEpochMilli(first[source]);
+				loot.last = Instant.ofEpochMilli(last[source]);
+			}
+
+			loot.kills += rowKills[r];
+			for (int i = start; i < rowItemEnd[r]; ++i)
+			{
+				loot.add(itemId[i], itemQty[i]);
+			}
+		}
+
+		final List<ConfigLoot> loots = new ArrayList<>(liveSources);
+		for (ConfigLoot loot : totals)
+		{
+			if (loot != null)
+			{
+				loots.add(loot);
+			}
+		}
+		return loots;
+	}
+
+	/**
+	 * Get the total loot for a source
+	 *
+	 * @return the total, or null if there is no loot for the source
+	 */
+	@Nullable
+	synchronized ConfigLoot get(LootRecordType type, String name)
+	{
+		final Integer id = sourceIds.get(new Source(type, name));
+		if (id == null || sourceRows[id] == 0)
+		{
+			return null;
+		}
+
+		final ConfigLoot loot = new ConfigLoot(type, name);
+		long first = Long.MAX_VALUE;
+		long last = Long.MIN_VALUE;
+		for (int r = 0, start = 0; r < rows; start = rowItemEnd[r++])
+		{
+			if (rowSource[r] != id)
+			{
+				continue;
+			}
+
+			first = Math.min(first, rowFirst[r]);
+			last = Math.max(last, rowLast[r]);
+			loot.kills += rowKills[r];
+			for (int i = start; i < rowItemEnd[r]; ++i)
+			{
+				loot.add(itemId[i], itemQty[i]);
+			}
+		}
+		loot.first = Instant.ofEpochMilli(first);
+		loot.last = Instant.ofEpochMilli(last);
+		return loot;
+	}
+
+	synchronized int getRowCount()
+	{
+		return rows;
+	}
+
+	private static void writeVarLong(OutputStream out, long value) throws IOException
+	{
+		while ((value & ~0x7fL) != 0)
+		{
+			out.write((int) (value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long readVarLong(InputStream in) throws IOException
+	{
+		long value = 0;
+		for (int shift = 0; ; shift += 7)
+		{
+			final int b = in.read();
+			if (b == -1)
+			{
+				throw new EOFException();
+			}
+
+			value |= (long) (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+	}
+}
@@ -38,6 +38,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -91,6 +92,7 @@ import net.runelite.api.events.NpcDespawned;
 import net.runelite.api.events.PostClientTick;
 import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.widgets.InterfaceID;
+import net.runelite.client.RuneLite;
 import net.runelite.client.account.AccountSession;
 import net.runelite.client.account.SessionManager;
 import net.runelite.client.callback.ClientThread;
@@ -135,6 +137,7 @@ public class LootTrackerPlugin extends Plugin
 {
 	private static final int MAX_DROPS = 1024;
 	private static final Duration MAX_AGE = Duration.ofDays(365L);
+	private static final File LOOT_DIR = new File(RuneLite.RUNELITE_DIR, "loots");
 
 	// Activity/Event loot handling
 	private static final Pattern CLUE_SCROLL_PATTERN = Pattern.compile("You have completed [0-9]+ ([a-z]+) Treasure Trails?\\.");
@@ -380,6 +383,7 @@ public class LootTrackerPlugin extends Plugin
 
 	private final List<LootRecord> queuedLoots = new ArrayList<>();
 	private String profileKey;
+	private volatile LootStore lootStore;
 
 	private static Collection<ItemStack> stack(Collection<ItemStack> items)
 	{
@@ -470,6 +474,7 @@ public class LootTrackerPlugin extends Plugin
 			submitLoot();
 
 			this.profileKey = profileKey;
+			LootStore store = openStore(profileKey);
 
 			log.debug("Switched to profile {}", profileKey);
 
@@ -478,47 +483,22 @@ public class LootTrackerPlugin extends Plugin
 				return;
 			}
 
+			// the store has every source, but only the most recent are shown
+			List<ConfigLoot> all = store.aggregate(Instant.now().minus(MAX_AGE));
+			all.sort(Comparator.comparing(ConfigLoot::getLast).reversed());
 			int drops = 0;
-			List<ConfigLoot> loots = new ArrayList<>();
-			Instant old = Instant.now().minus(MAX_AGE);
-			for (String key : configManager.getRSProfileConfigurationKeys(LootTrackerConfig.GROUP, profileKey, "drops_"))
+			int count = 0;
+			for (ConfigLoot loot : all)
 			{
-				String json = configManager.getConfiguration(LootTrackerConfig.GROUP, profileKey, key);
-				ConfigLoot configLoot;
-
-				try
-				{
-					configLoot = gson.fromJson(json, ConfigLoot.class);
-				}
-				catch (JsonSyntaxException ex)
-				{
-					log.warn("Removing loot with malformed json: {}", json, ex);
-					configManager.unsetConfiguration(LootTrackerConfig.GROUP, profileKey, key);
-					continue;
-				}
-
-				if (configLoot.last.isBefore(old))
-				{
-					log.debug("Removing old loot for {} {}", configLoot.type, configLoot.name);
-					configManager.unsetConfiguration(LootTrackerConfig.GROUP, profileKey, key);
-					continue;
-				}
-
-				if (drops >= MAX_DROPS && !loots.isEmpty() && loots.get(0).last.isAfter(configLoot.last))
-				{
-					// fast drop
-					continue;
-				}
-
-				sortedInsert(loots, configLoot, Comparator.comparing(ConfigLoot::getLast));
-				drops += configLoot.numDrops();
-
+				drops += loot.numDrops();
 				if (drops >= MAX_DROPS)
 				{
-					ConfigLoot top = loots.remove(0);
-					drops -= top.numDrops();
+					break;
 				}
+				++count;
 			}
+			List<ConfigLoot> loots = new ArrayList<>(all.subList(0, count));
+			Collections.reverse(loots);
 
 			log.debug("Loaded {} records", loots.size());
 
@@ -546,10 +526,69 @@ public class LootTrackerPlugin extends Plugin
 		});
 	}
 
-	private static <T> void sortedInsert(List<T> list, T value, Comparator<? super T> c)
+	private LootStore openStore(String profileKey)
 	{
-		int idx = Collections.binarySearch(list, value, c);
-		list.add(idx < 0 ? -idx - 1 : idx, value);
+		closeStore();
+
+		File file = new File(LOOT_DIR, profileKey + ".dat");
+		boolean exists = file.exists();
+		LootStore store = new LootStore(file, MAX_AGE);
+		store.open(Instant.now());
+		if (!exists)
+		{
+			importConfigLoot(store, profileKey);
+		}
+		lootStore = store;
+		return store;
+	}
+
+	private void closeStore()
+	{
+		LootStore store = lootStore;
+		lootStore = null;
+		if (store != null)
+		{
+			store.close();
+		}
+	}
+
+	/**
+	 * Import loot saved in the profile configuration, from before loot was kept in the store.
+	 * Each key is removed once it is imported, since the store now holds the loot.
+	 */
+	private void importConfigLoot(LootStore store, String profileKey)
+	{
+		int imported = 0;
+		Instant old = Instant.now().minus(MAX_AGE);
+		for (String key : configManager.getRSProfileConfigurationKeys(LootTrackerConfig.GROUP, profileKey, "drops_"))
+		{
+			String json = configManager.getConfiguration(LootTrackerConfig.GROUP, profileKey, key);
+			ConfigLoot configLoot;
+
+			try
+			{
+				configLoot = gson.fromJson(json, ConfigLoot.class);
+			}
+			catch (JsonSyntaxException ex)
+			{
+				log.warn("Removing loot with malformed json: {}", json, ex);
+				configManager.unsetConfiguration(LootTrackerConfig.GROUP, profileKey, key);
+				continue;
+			}
+
+			if (configLoot.last.isBefore(old))
+			{
+				log.debug("Removing old loot for {} {}", configLoot.type, configLoot.name);
+				configManager.unsetConfiguration(LootTrackerConfig.GROUP, profileKey, key);
+				continue;
+			}
+
+			store.add(configLoot);
+			configManager.unsetConfiguration(LootTrackerConfig.GROUP, profileKey, key);
+			++imported;
+		}
+
+		log.debug("Imported {} records from the configuration", imported);
 	}
 
 	@Subscribe
@@ -603,6 +642,8 @@ public class LootTrackerPlugin extends Plugin
 	protected void shutDown()
 	{
 		submitLoot();
+		// closed on the executor, after any profile switch which is still queued
+		executor.execute(this::closeStore);
 		clientToolbar.removeNavigation(navButton);
 		lootTrackerClient.setUuid(null);
 		chestLooted = false;
@@ -1343,25 +1384,19 @@ public class LootTrackerPlugin extends Plugin
 
 	private void saveLoot(List<LootRecord> records)
 	{
+		LootStore store = lootStore;
+		if (store == null)
+		{
+			log.debug("Trying to save loot with no profile!");
+			return;
+		}
+
 		Instant now = Instant.now();
 		Collection<ConfigLoot> combinedRecords = combine(records);
 		for (ConfigLoot record : combinedRecords)
 		{
-			ConfigLoot lootConfig = getLootConfig(record.type, record.name);
-			if (lootConfig == null)
-			{
-				lootConfig = record;
-			}
-			else
-			{
-				lootConfig.kills += record.kills;
-				for (int i = 0; i < record.drops.length; i += 2)
-				{
-					lootConfig.add(record.drops[i], record.drops[i + 1]);
-				}
-			}
-			lootConfig.last = now;
-			setLootConfig(lootConfig.type, lootConfig.name, lootConfig);
+			record.first = record.last = now;
+			store.add(record);
 		}
 	}
 
@@ -1588,37 +1623,6 @@ public class LootTrackerPlugin extends Plugin
 				.build());
 	}
 
-	ConfigLoot getLootConfig(LootRecordType type, String name)
-	{
-		String profile = profileKey;
-		if (Strings.isNullOrEmpty(profile))
-		{
-			log.debug("Trying to get loot with no profile!");
-			return null;
-		}
-
-		String json = configManager.getConfiguration(LootTrackerConfig.GROUP, profile, "drops_" + type + "_" + name);
-		if (json == null)
-		{
-			return null;
-		}
-
-		return gson.fromJson(json, ConfigLoot.class);
-	}
-
-	void setLootConfig(LootRecordType type, String name, ConfigLoot loot)
-	{
-		String profile = profileKey;
-		if (Strings.isNullOrEmpty(profile))
-		{
-			log.debug("Trying to set loot with no profile!");
-			return;
-		}
-
-		String json = gson.toJson(loot);
-		configManager.setConfiguration(LootTrackerConfig.GROUP, profile, "drops_" + type + "_" + name, json);
-	}
-
 	void removeLootConfig(LootRecordType type, String name)
 	{
 		String profile = profileKey;
@@ -1628,7 +1632,15 @@ public class LootTrackerPlugin extends Plugin
 			return;
 		}
 
-		configManager.unsetConfiguration(LootTrackerConfig.GROUP, profile, "drops_" + type + "_" + name);
+		executor.execute(() ->
+		{
+			LootStore store = lootStore;
+			if (store != null)
+			{
+				store.remove(type, name);
+			}
+			configManager.unsetConfiguration(LootTrackerConfig.GROUP, profile, "drops_" + type + "_" + name);
+		});
 	}
 
 	void removeAllLoot()
@@ -1640,9 +1652,19 @@ public class LootTrackerPlugin extends Plugin
 			return;
 		}
 
-		for (String key : configManager.getRSProfileConfigurationKeys(LootTrackerConfig.GROUP, profile, "drops_"))
+		// clearing the store rewrites its file, so keep it off the EDT
+		executor.execute(() ->
 		{
-			configManager.unsetConfiguration(LootTrackerConfig.GROUP, profile, key);
-		}
+			LootStore store = lootStore;
+			if (store != null)
+			{
+				store.removeAll();
+			}
+
+			for (String key : configManager.getRSProfileConfigurationKeys(LootTrackerConfig.GROUP, profile, "drops_"))
+			{
+				configManager.unsetConfiguration(LootTrackerConfig.GROUP, profile, key);
+			}
+		});
 	}
 }
@@ -32,19 +32,24 @@ import static com.google.common.base.Predicates.alwaysTrue;
 import static com.google.common.base.Predicates.equalTo;
 import com.google.common.base.Strings;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Table;
 import com.google.inject.Provides;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.LongFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -77,6 +82,8 @@ import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.QueuedMessage;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.ProfileChanged;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.ItemVariationMapping;
 import net.runelite.client.game.NpcUtil;
@@ -166,6 +173,14 @@ public class MenuEntrySwapperPlugin extends Plugin
 	private final Multimap<Integer, TeleportSwap> teleportSwaps = HashMultimap.create();
 	private boolean lastShift, curShift;
 
+	// bumped on any change to the swap config, invalidating the compiled swaps and cached custom swaps
+	private final AtomicInteger swapConfigVersion = new AtomicInteger();
+	private SwapIndex leftClickSwaps, shiftClickSwaps;
+	private int swapIndexVersion;
+	private Boolean compileShift;
+	private final Table<String, String, Map<Long, Integer>> swapConfigCache = HashBasedTable.create();
+	private int swapConfigCacheVersion;
+
 	@Provides
 	MenuEntrySwapperConfig provideConfig(ConfigManager configManager)
 	{
@@ -185,6 +200,23 @@ public class MenuEntrySwapperPlugin extends Plugin
 	{
 		swaps.clear();
 		teleportSwaps.clear();
+		leftClickSwaps = shiftClickSwaps = null;
+		swapConfigCache.clear();
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (event.getGroup().equals(MenuEntrySwapperConfig.GROUP) || event.getGroup().equals(SHIFTCLICK_CONFIG_GROUP))
+		{
+			swapConfigVersion.incrementAndGet();
+		}
+	}
+
+	@Subscribe
+	public void onProfileChanged(ProfileChanged event)
+	{
+		swapConfigVersion.incrementAndGet();
 	}
 
 	@VisibleForTesting
@@ -424,13 +456,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 	private Integer getItemSwapConfig(boolean shift, int itemId)
 	{
 		itemId = ItemVariationMapping.map(itemId);
-		String config = configManager.getConfiguration(shift ? SHIFTCLICK_CONFIG_GROUP : MenuEntrySwapperConfig.GROUP, ITEM_KEY_PREFIX + itemId);
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
-
-		return Integer.parseInt(config);
+		return getSwapConfig(shift ? SHIFTCLICK_CONFIG_GROUP : MenuEntrySwapperConfig.GROUP, ITEM_KEY_PREFIX, itemId, String::valueOf);
 	}
 
 	private void setItemSwapConfig(boolean shift, int itemId, int index)
@@ -448,14 +474,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 	private Integer getWornItemSwapConfig(boolean shift, int itemId)
 	{
 		itemId = ItemVariationMapping.map(itemId);
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP,
-			(shift ? WORN_ITEM_SHIFT_KEY_PREFIX : WORN_ITEM_KEY_PREFIX) + itemId);
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
-
-		return Integer.parseInt(config);
+		return getSwapConfig(MenuEntrySwapperConfig.GROUP, shift ? WORN_ITEM_SHIFT_KEY_PREFIX : WORN_ITEM_KEY_PREFIX, itemId, String::valueOf);
 	}
 
 	private void setWornItemSwapConfig(boolean shift, int itemId, int index)
@@ -1458,8 +1477,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 	{
 		final int eventId = menuEntry.getIdentifier();
 		final MenuAction menuAction = menuEntry.getType();
-		final String option = Text.removeTags(menuEntry.getOption()).toLowerCase();
-		final String target = Text.removeTags(menuEntry.getTarget()).toLowerCase();
+		final String option = Text.removeTagsCached(menuEntry.getOption()).toLowerCase();
+		final String target = Text.removeTagsCached(menuEntry.getTarget()).toLowerCase();
 
 		final Widget w = menuEntry.getParent() != null ? menuEntry.getParent().getWidget() : menuEntry.getWidget();
 		// Custom item swap
@@ -1590,17 +1609,35 @@ public class MenuEntrySwapperPlugin extends Plugin
 		}
 
 		// Built-in swaps
-		Collection<Swap> swaps = this.swaps.get(option);
-		for (Swap swap : swaps)
+		for (Swap swap : getSwapIndex(shiftModifier()).get(option, target))
 		{
-			if (swap.getTargetPredicate().test(target) && swap.getEnabled().get())
+			if (swap(menuEntries, swap.getSwappedOption(), target, index, swap.isStrict()))
 			{
-				if (swap(menuEntries, swap.getSwappedOption(), target, index, swap.isStrict()))
-				{
-					break;
-				}
+				break;
+			}
+		}
+	}
+
+	private SwapIndex getSwapIndex(boolean shift)
+	{
+		final int version = swapConfigVersion.get();
+		if (leftClickSwaps == null || swapIndexVersion != version)
+		{
+			// compile for both shift states up front, so holding shift doesn't cause a recompile
+			try
+			{
+				compileShift = false;
+				leftClickSwaps = new SwapIndex(swaps);
+				compileShift = true;
+				shiftClickSwaps = new SwapIndex(swaps);
 			}
+			finally
+			{
+				compileShift = null;
+			}
+			swapIndexVersion = version;
 		}
+		return shift ? shiftClickSwaps : leftClickSwaps;
 	}
 
 	@Subscribe
@@ -1691,7 +1728,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 		optionIndexes.clear();
 		for (MenuEntry entry : menuEntries)
 		{
-			String option = Text.removeTags(entry.getOption()).toLowerCase();
+			String option = Text.removeTagsCached(entry.getOption()).toLowerCase();
 			optionIndexes.put(option, idx++);
 		}
 
@@ -1750,7 +1787,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 			{
 				int idx = indexes.get(i);
 				MenuEntry entry = entries[idx];
-				String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
+				String entryTarget = Text.removeTagsCached(entry.getTarget()).toLowerCase();
 
 				// Limit to the last index which is prior to the current entry
 				if (idx < limit && entryTarget.equals(target))
@@ -1765,8 +1802,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 			for (int i = limit - 1; i >= 0; i--)
 			{
 				MenuEntry entry = entries[i];
-				String entryOption = Text.removeTags(entry.getOption()).toLowerCase();
-				String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
+				String entryOption = Text.removeTagsCached(entry.getOption()).toLowerCase();
+				String entryTarget = Text.removeTagsCached(entry.getTarget()).toLowerCase();
 
 				if (entryOption.contains(option.toLowerCase()) && entryTarget.equals(target))
 				{
@@ -1806,8 +1843,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 		client.setMenuEntries(entries);
 
 		// Update optionIndexes
-		String option1 = Text.removeTags(entry1.getOption()).toLowerCase(),
-			option2 = Text.removeTags(entry2.getOption()).toLowerCase();
+		String option1 = Text.removeTagsCached(entry1.getOption()).toLowerCase(),
+			option2 = Text.removeTagsCached(entry2.getOption()).toLowerCase();
 
 		List<Integer> list1 = optionIndexes.get(option1),
 			list2 = optionIndexes.get(option2);
@@ -1828,18 +1865,46 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private boolean shiftModifier()
 	{
+		if (compileShift != null)
+		{
+			return compileShift;
+		}
 		return client.isKeyPressed(KeyCode.KC_SHIFT);
 	}
 
-	private Integer getObjectSwapConfig(boolean shift, int objectId)
+	/**
+	 * Get a custom swap. These are looked up for most menu entries every frame, so the parsed
+	 * values are cached by key prefix and id until the swap config next changes.
+	 */
+	private Integer getSwapConfig(String group, String prefix, long id, LongFunction<String> keySuffix)
 	{
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP, (shift ? OBJECT_SHIFT_KEY_PREFIX : OBJECT_KEY_PREFIX) + objectId);
-		if (config == null || config.isEmpty())
+		final int version = swapConfigVersion.get();
+		if (swapConfigCacheVersion != version)
+		{
+			swapConfigCache.clear();
+			swapConfigCacheVersion = version;
+		}
+
+		Map<Long, Integer> cache = swapConfigCache.get(group, prefix);
+		if (cache == null)
 		{
-			return null;
+			cache = new HashMap<>();
+			swapConfigCache.put(group, prefix, cache);
 		}
 
-		return Integer.parseInt(config);
+		Integer op = cache.get(id);
+		if (op == null && !cache.containsKey(id))
+		{
+			String config = configManager.getConfiguration(group, prefix + keySuffix.apply(id));
+			op = Strings.isNullOrEmpty(config) ? null : Integer.valueOf(config);
+			cache.put(id, op);
+		}
+		return op;
+	}
+
+	private Integer getObjectSwapConfig(boolean shift, int objectId)
+	{
+		return getSwapConfig(MenuEntrySwapperConfig.GROUP, shift ? OBJECT_SHIFT_KEY_PREFIX : OBJECT_KEY_PREFIX, objectId, String::valueOf);
 	}
 
 	private void setObjectSwapConfig(boolean shift, int objectId, int index)
@@ -1869,14 +1934,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private Integer getNpcSwapConfig(boolean shift, int npcId)
 	{
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP,
-			(shift ? NPC_SHIFT_KEY_PREFIX : NPC_KEY_PREFIX) + npcId);
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
-
-		return Integer.parseInt(config);
+		return getSwapConfig(MenuEntrySwapperConfig.GROUP, shift ? NPC_SHIFT_KEY_PREFIX : NPC_KEY_PREFIX, npcId, String::valueOf);
 	}
 
 	private void setNpcSwapConfig(boolean shift, int npcId, int index)
@@ -1929,14 +1987,15 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private Integer getUiSwapConfig(boolean shift, int componentId, int itemId)
 	{
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP,
-			(shift ? UI_SHIFT_KEY_PREFIX : UI_KEY_PREFIX) + componentId + (itemId != -1 ? "_" + itemId : ""));
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
+		return getSwapConfig(MenuEntrySwapperConfig.GROUP, shift ? UI_SHIFT_KEY_PREFIX : UI_KEY_PREFIX,
+			(long) componentId << 32 | (itemId & 0xffffffffL), MenuEntrySwapperPlugin::uiSwapKeySuffix);
+	}
 
-		return Integer.parseInt(config);
+	private static String uiSwapKeySuffix(long id)
+	{
+		final int componentId = (int) (id >>> 32);
+		final int itemId = (int) id;
+		return componentId + (itemId != -1 ? "_" + itemId : "");
 	}
 
 	private void setUiSwapConfig(boolean shift, int componentId, int itemId, int op)
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.menuentryswapper;
+
+import com.google.common.collect.Multimap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The enabled built-in swaps for a single shift state, indexed by option. The swaps which
+ * apply to a given option and target are computed on first use and memoized, so that repeat
+ * lookups for the same menu entry don't retest the target predicates.
+ */
+class SwapIndex
+{
+	private static final Swap[] NONE = new Swap[0];
+	private static final int MAX_TARGETS = 4096;
+
+	private final Map<String, Swap[]> swapsByOption = new HashMap<>();
+	private final Map<String, Map<String, Swap[]>> swapsByTarget = new HashMap<>();
+	private int targets;
+
+	/**
+	 * Compile the index from the registered swaps. {@link Swap#getEnabled()} is evaluated once
+	 * for each swap here, so the index must be rebuilt when the config it reads changes.
+	 *
+	 * @param swaps the registered swaps, keyed by option, in priority order
+	 */
+	SwapIndex(Multimap<String, Swap> swaps)
+	{
+		for (Map.Entry<String, Collection<Swap>> entry : swaps.asMap().entrySet())
+		{
+			List<Swap> enabled = new ArrayList<>();
+			for (Swap swap : entry.getValue())
+			{
+				if (swap.getEnabled().get())
+				{
+					enabled.add(swap);
+				}
+			}
+
+			if (!enabled.isEmpty())
+			{
+				swapsByOption.put(entry.getKey(), enabled.toArray(NONE));
+			}
+		}
+	}
+
+	/**
+	 * Get the enabled swaps for a menu entry, in priority order
+	 *
+	 * @param option the lowercase entry option, without tags
+	 * @param target the lowercase entry target, without tags
+	 * @return the swaps
+	 */
+	Swap[] get(String option, String target)
+	{
+		final Swap[] swaps = swapsByOption.get(option);
+		if (swaps == null)
+		{
+			return NONE;
+		}
+
+		Map<String, Swap[]> byTarget = swapsByTarget.get(option);
+		if (byTarget == null)
+		{
+			byTarget = new HashMap<>();
+			swapsByTarget.put(option, byTarget);
+		}
+
+		Swap[] matched = byTarget.get(target);
+		if (matched == null)
+		{
+			List<Swap> list = new ArrayList<>(swaps.length);
+			for (Swap swap : swaps)
+			{
+				if (swap.getTargetPredicate().test(target))
+				{
+					list.add(swap);
+				}
+			}
+			matched = list.isEmpty() ? NONE : list.toArray(NONE);
+
+			// targets include player and item names, so bound the memo rather than letting it grow all session
+			if (++targets > MAX_TARGETS)
+			{
+				swapsByTarget.clear();
+				targets = 1;
+				byTarget = new HashMap<>();
+				swapsByTarget.put(option, byTarget);
+			}
+			byTarget.put(target, matched);
+		}
+		return matched;
+	}
+}
@@ -76,6 +76,7 @@ import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.ColorUtil;
 import net.runelite.client.util.Text;
 import net.runelite.client.util.WildcardMatcher;
+import net.runelite.client.util.WildcardMatcherSet;
 
 @PluginDescriptor(
 	name = "NPC Indicators",
@@ -157,6 +158,11 @@ public class NpcIndicatorsPlugin extends Plugin
 	 */
 	private List<String> highlights = new ArrayList<>();
 
+	/**
+	 * Compiled {@link #highlights}
+	 */
+	private WildcardMatcherSet highlightMatcher = WildcardMatcher.compile(highlights);
+
 	/**
 	 * NPC ids marked with the Tag option
 	 */
@@ -276,9 +282,7 @@ public class NpcIndicatorsPlugin extends Plugin
 			final String npcName = npc.getName();
 			final boolean nameMatch = highlights.stream().anyMatch(npcName::equalsIgnoreCase);
 			final boolean idMatch = npcTags.contains(npc.getIndex());
-			final boolean wildcardMatch = highlights.stream()
-				.filter(highlight -> !highlight.equalsIgnoreCase(npcName))
-				.anyMatch(highlight -> WildcardMatcher.matches(highlight, npcName));
+			final boolean wildcardMatch = highlightMatcher.matchesWildcard(npcName);
 			int idx = -1;
 
 			client.createMenuEntry(idx--)
@@ -321,7 +325,7 @@ public class NpcIndicatorsPlugin extends Plugin
 
 			if (color != null)
 			{
-				final String target = ColorUtil.prependColorTag(Text.removeTags(event.getTarget()), color);
+				final String target = ColorUtil.prependColorTag(Text.removeTagsCached(event.getTarget()), color);
 				menuEntry.setTarget(target);
 			}
 		}
@@ -462,7 +466,7 @@ public class NpcIndicatorsPlugin extends Plugin
 				highlightedNpcs.put(npc, highlightedNpc(npc));
 			}
 
-			npcOverlayService.rebuild();
+			npcOverlayService.rebuild(isHighlighted);
 		}
 		else
 		{
@@ -636,6 +640,7 @@ public class NpcIndicatorsPlugin extends Plugin
 	void rebuild()
 	{
 		highlights = getHighlights();
+		highlightMatcher = WildcardMatcher.compile(highlights);
 		highlightedNpcs.clear();
 
 		if (client.getGameState() != GameState.LOGGED_IN &&
@@ -675,20 +680,12 @@ public class NpcIndicatorsPlugin extends Plugin
 			memorizedNpcs.remove(npc.getIndex());
 		}
 
-		npcOverlayService.rebuild();
+		npcOverlayService.rebuild(isHighlighted);
 	}
 
 	private boolean highlightMatchesNPCName(String npcName)
 	{
-		for (String highlight : highlights)
-		{
-			if (WildcardMatcher.matches(highlight, npcName))
-			{
-				return true;
-			}
-		}
-
-		return false;
+		return highlightMatcher.matches(npcName);
 	}
 
 	private void validateSpawnedNpcs()
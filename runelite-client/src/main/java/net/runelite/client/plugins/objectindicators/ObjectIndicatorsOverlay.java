@@ -45,6 +45,7 @@ import static net.runelite.client.plugins.objectindicators.ColorTileObject.HF_CL
 import static net.runelite.client.plugins.objectindicators.ColorTileObject.HF_HULL;
 import static net.runelite.client.plugins.objectindicators.ColorTileObject.HF_OUTLINE;
 import static net.runelite.client.plugins.objectindicators.ColorTileObject.HF_TILE;
+import net.runelite.client.ui.overlay.GeometryCache;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
@@ -58,15 +59,17 @@ class ObjectIndicatorsOverlay extends Overlay
 	private final ObjectIndicatorsConfig config;
 	private final ObjectIndicatorsPlugin plugin;
 	private final ModelOutlineRenderer modelOutlineRenderer;
+	private final GeometryCache geometryCache;
 
 	@Inject
 	private ObjectIndicatorsOverlay(Client client, ObjectIndicatorsConfig config, ObjectIndicatorsPlugin plugin,
-		ModelOutlineRenderer modelOutlineRenderer)
+		ModelOutlineRenderer modelOutlineRenderer, GeometryCache geometryCache)
 	{
 		this.client = client;
 		this.config = config;
 		this.plugin = plugin;
 		this.modelOutlineRenderer = modelOutlineRenderer;
+		this.geometryCache = geometryCache;
 		setPosition(OverlayPosition.DYNAMIC);
 		setPriority(PRIORITY_LOW);
 		setLayer(OverlayLayer.ABOVE_SCENE);
@@ -87,70 +90,79 @@ class ObjectIndicatorsOverlay extends Overlay
 			(config.highlightOutline() ? HF_OUTLINE : 0) |
 			(config.highlightClickbox() ? HF_CLICKBOX : 0) |
 			(config.highlightTile() ? HF_TILE : 0);
-		for (ColorTileObject obj : objects)
+		// outlines of all objects are drawn together once the loop is done
+		modelOutlineRenderer.startBatch();
+		try
 		{
-			TileObject object = obj.getTileObject();
-
-			if (object.getPlane() != client.getPlane())
+			for (ColorTileObject obj : objects)
 			{
-				continue;
-			}
+				TileObject object = obj.getTileObject();
 
-			ObjectComposition composition = obj.getComposition();
-			if (composition.getImpostorIds() != null)
-			{
-				// This is a multiloc
-				composition = composition.getImpostor();
-				// Only mark the object if the name still matches
-				if (composition == null
-					|| Strings.isNullOrEmpty(composition.getName())
-					|| "null".equals(composition.getName())
-					|| !composition.getName().equals(obj.getName()))
+				if (object.getPlane() != client.getPlane())
 				{
 					continue;
 				}
-			}
 
-			Color borderColor = obj.getBorderColor();
-			if (borderColor == null)
-			{
-				// Fallback to the current config if the object is marked before the addition of multiple colors
-				borderColor = config.markerColor();
-			}
+				ObjectComposition composition = obj.getComposition();
+				if (composition.getImpostorIds() != null)
+				{
+					// This is a multiloc
+					composition = composition.getImpostor();
+					// Only mark the object if the name still matches
+					if (composition == null
+						|| Strings.isNullOrEmpty(composition.getName())
+						|| "null".equals(composition.getName())
+						|| !composition.getName().equals(obj.getName()))
+					{
+						continue;
+					}
+				}
 
-			final var flags = obj.getHighlightFlags() != 0 ? obj.getHighlightFlags() : defaultFlags;
-			if ((flags & HF_HULL) != 0)
-			{
-				// default hull fill color is a=50 while the clickbox and tiles are a/12
-				Color fillColor = MoreObjects.firstNonNull(obj.getFillColor(), new Color(0, 0, 0, 50));
-				renderConvexHull(graphics, object, borderColor, fillColor, stroke);
-			}
+				Color borderColor = obj.getBorderColor();
+				if (borderColor == null)
+				{
+					// Fallback to the current config if the object is marked before the addition of multiple colors
+					borderColor = config.markerColor();
+				}
 
-			if ((flags & HF_OUTLINE) != 0)
-			{
-				modelOutlineRenderer.drawOutline(object, (int)config.borderWidth(), borderColor, config.outlineFeather());
-			}
+				final var flags = obj.getHighlightFlags() != 0 ? obj.getHighlightFlags() : defaultFlags;
+				if ((flags & HF_HULL) != 0)
+				{
+					// default hull fill color is a=50 while the clickbox and tiles are a/12
+					Color fillColor = MoreObjects.firstNonNull(obj.getFillColor(), new Color(0, 0, 0, 50));
+					renderConvexHull(graphics, object, borderColor, fillColor, stroke);
+				}
 
-			if ((flags & HF_CLICKBOX) != 0)
-			{
-				Shape clickbox = object.getClickbox();
-				if (clickbox != null)
+				if ((flags & HF_OUTLINE) != 0)
 				{
-					Color fillColor = MoreObjects.firstNonNull(obj.getFillColor(), ColorUtil.colorWithAlpha(borderColor, borderColor.getAlpha() / 12));
-					OverlayUtil.renderPolygon(graphics, clickbox, borderColor, fillColor, stroke);
+					modelOutlineRenderer.drawOutline(object, (int)config.borderWidth(), borderColor, config.outlineFeather());
 				}
-			}
 
-			if ((flags & HF_TILE) != 0)
-			{
-				Polygon tilePoly = object.getCanvasTilePoly();
-				if (tilePoly != null)
+				if ((flags & HF_CLICKBOX) != 0)
+				{
+					Shape clickbox = geometryCache.getClickbox(object);
+					if (clickbox != null)
+					{
+						Color fillColor = MoreObjects.firstNonNull(obj.getFillColor(), ColorUtil.colorWithAlpha(borderColor, borderColor.getAlpha() / 12));
+						OverlayUtil.renderPolygon(graphics, clickbox, borderColor, fillColor, stroke);
+					}
+				}
+
+				if ((flags & HF_TILE) != 0)
 				{
-					Color fillColor = MoreObjects.firstNonNull(obj.getFillColor(), ColorUtil.colorWithAlpha(borderColor, borderColor.getAlpha() / 12));
-					OverlayUtil.renderPolygon(graphics, tilePoly, borderColor, fillColor, stroke);
+					Polygon tilePoly = geometryCache.getCanvasTilePoly(object);
+					if (tilePoly != null)
+					{
+						Color fillColor = MoreObjects.firstNonNull(obj.getFillColor(), ColorUtil.colorWithAlpha(borderColor, borderColor.getAlpha() / 12));
+						OverlayUtil.renderPolygon(graphics, tilePoly, borderColor, fillColor, stroke);
+					}
 				}
 			}
 		}
+		finally
+		{
+			modelOutlineRenderer.endBatch();
+		}
 
 		return null;
 	}
@@ -180,7 +192,7 @@ class ObjectIndicatorsOverlay extends Overlay
 		}
 		else
 		{
-			polygon = object.getCanvasTilePoly();
+			polygon = geometryCache.getCanvasTilePoly(object);
 		}
 
 		if (polygon != null)
@@ -137,6 +137,7 @@ public class TimeTrackingPlugin extends Plugin
 		birdHouseTracker.loadFromConfig();
 		farmingTracker.loadCompletionTimes();
 
+		eventBus.register(farmingTracker);
 		eventBus.register(compostTracker);
 		eventBus.register(paymentTracker);
 
@@ -165,6 +166,7 @@ public class TimeTrackingPlugin extends Plugin
 
 		eventBus.unregister(paymentTracker);
 		eventBus.unregister(compostTracker);
+		eventBus.unregister(farmingTracker);
 
 		if (panelUpdateFuture != null)
 		{
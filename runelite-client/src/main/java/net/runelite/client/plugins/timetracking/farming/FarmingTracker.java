@@ -34,10 +34,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
@@ -49,6 +51,9 @@ import net.runelite.client.Notifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.config.RuneScapeProfile;
 import net.runelite.client.config.RuneScapeProfileType;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.ProfileChanged;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.plugins.timetracking.SummaryState;
 import net.runelite.client.plugins.timetracking.Tab;
@@ -85,6 +90,37 @@ public class FarmingTracker
 	private Collection<FarmingRegion> lastRegions;
 	private boolean firstNotifyCheck = true;
 
+	/**
+	 * Parsed farming config for each profile, invalidated as the config changes
+	 */
+	private final Map<String, ProfileData> profiles = new ConcurrentHashMap<>();
+
+	@RequiredArgsConstructor
+	private static class ProfileData
+	{
+		private static final ProfileData NONE = new ProfileData(false, null, null);
+
+		private final boolean autoweed;
+		@Nullable
+		private final Integer offsetPrecisionMins;
+		@Nullable
+		private final Integer offsetTimeMins;
+		// keyed by patch config key
+		private final Map<String, StoredPatch> patches = new ConcurrentHashMap<>();
+		// keyed by patch notify config key
+		private final Map<String, Boolean> notify = new ConcurrentHashMap<>();
+	}
+
+	@Value
+	private static class StoredPatch
+	{
+		private static final StoredPatch UNKNOWN = new StoredPatch(null, 0);
+
+		@Nullable
+		PatchState state;
+		long unixTime;
+	}
+
 	public FarmingTabPanel createTabPanel(Tab tab, FarmingContractManager farmingContractManager)
 	{
 		return new FarmingTabPanel(this, compostTracker, paymentTracker, itemManager, configManager, config, farmingWorld.getTabs().get(tab), farmingContractManager);
@@ -286,42 +322,16 @@ public class FarmingTracker
 	@Nullable
 	public PatchPrediction predictPatch(FarmingPatch patch, String profile)
 	{
-		long unixNow = Instant.now().getEpochSecond();
-
-		boolean autoweed = Integer.toString(Autoweed.ON.ordinal())
-			.equals(configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile, TimeTrackingConfig.AUTOWEED));
-
-		String key = patch.configKey();
-		String storedValue = configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile, key);
-
-		if (storedValue == null)
+		if (profile == null)
 		{
 			return null;
 		}
 
-		long unixTime = 0;
-		int value = 0;
-		{
-			String[] parts = storedValue.split(":");
-			if (parts.length == 2)
-			{
-				try
-				{
-					value = Integer.parseInt(parts[0]);
-					unixTime = Long.parseLong(parts[1]);
-				}
-				catch (NumberFormatException e)
-				{
-				}
-			}
-		}
-
-		if (unixTime <= 0)
-		{
-			return null;
-		}
+		long unixNow = Instant.now().getEpochSecond();
 
-		PatchState state = patch.getImplementation().forVarbitValue(value);
+		ProfileData data = getProfileData(profile);
+		StoredPatch stored = getStoredPatch(data, profile, patch);
+		PatchState state = stored.getState();
 
 		if (state == null)
 		{
@@ -332,7 +342,7 @@ public class FarmingTracker
 		int stages = state.getStages();
 		int tickrate = state.getTickRate();
 
-		if (autoweed && state.getProduce() == Produce.WEEDS)
+		if (data.autoweed && state.getProduce() == Produce.WEEDS)
 		{
 			stage = 0;
 			stages = 1;
@@ -342,11 +352,11 @@ public class FarmingTracker
 		long doneEstimate = 0;
 		if (tickrate > 0)
 		{
-			long tickNow = getTickTime(tickrate, 0, unixNow, profile);
-			long tickTime = getTickTime(tickrate, 0, unixTime, profile);
+			long tickNow = getTickTime(tickrate, 0, unixNow, data);
+			long tickTime = getTickTime(tickrate, 0, stored.getUnixTime(), data);
 			int delta = (int) (tickNow - tickTime) / (tickrate * 60);
 
-			doneEstimate = getTickTime(tickrate, stages - 1 - stage, tickTime, profile);
+			doneEstimate = getTickTime(tickrate, stages - 1 - stage, tickTime, data);
 
 			stage += delta;
 			if (stage >= stages)
@@ -371,8 +381,13 @@ public class FarmingTracker
 
 	public long getTickTime(int tickRate, int ticks, long requestedTime, String profile)
 	{
-		Integer offsetPrecisionMins = configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile, TimeTrackingConfig.FARM_TICK_OFFSET_PRECISION, int.class);
-		Integer offsetTimeMins = configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile, TimeTrackingConfig.FARM_TICK_OFFSET, int.class);
+		return getTickTime(tickRate, ticks, requestedTime, profile == null ? ProfileData.NONE : getProfileData(profile));
+	}
+
+	private static long getTickTime(int tickRate, int ticks, long requestedTime, ProfileData data)
+	{
+		Integer offsetPrecisionMins = data.offsetPrecisionMins;
+		Integer offsetTimeMins = data.offsetTimeMins;
 
 		//All offsets are negative but are stored as positive
 		long calculatedOffsetTime = 0L;
@@ -392,8 +407,121 @@ public class FarmingTracker
 		return timeOfGoalTick - calculatedOffsetTime;
 	}
 
+	private ProfileData getProfileData(String profile)
+	{
+		ProfileData data = profiles.get(profile);
+		if (data == null)
+		{
+			// loaded under the map's lock, so an invalidation for a concurrent config change can't be lost
+			data = profiles.computeIfAbsent(profile, p -> new ProfileData(
+				Integer.toString(Autoweed.ON.ordinal())
+					.equals(configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, p, TimeTrackingConfig.AUTOWEED)),
+				configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, p, TimeTrackingConfig.FARM_TICK_OFFSET_PRECISION, int.class),
+				configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, p, TimeTrackingConfig.FARM_TICK_OFFSET, int.class)
+			));
+		}
+		return data;
+	}
+
+	private StoredPatch getStoredPatch(ProfileData data, String profile, FarmingPatch patch)
+	{
+		String key = patch.configKey();
+		StoredPatch stored = data.patches.get(key);
+		if (stored == null)
+		{
+			stored = data.patches.computeIfAbsent(key, k -> loadStoredPatch(profile, patch, k));
+		}
+		return stored;
+	}
+
+	private StoredPatch loadStoredPatch(String profile, FarmingPatch patch, String key)
+	{
+		String storedValue = configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile, key);
+
+		if (storedValue == null)
+		{
+			return StoredPatch.UNKNOWN;
+		}
+
+		long unixTime = 0;
+		int value = 0;
+		{
+			String[] parts = storedValue.split(":");
+			if (parts.length == 2)
+			{
+				try
+				{
+					value = Integer.parseInt(parts[0]);
+					unixTime = Long.parseLong(parts[1]);
+				}
+				catch (NumberFormatException e)
+				{
+				}
+			}
+		}
+
+		if (unixTime <= 0)
+		{
+			return StoredPatch.UNKNOWN;
+		}
+
+		PatchState state = patch.getImplementation().forVarbitValue(value);
+		return state == null ? StoredPatch.UNKNOWN : new StoredPatch(state, unixTime);
+	}
+
+	private boolean shouldNotify(ProfileData data, String profile, FarmingPatch patch)
+	{
+		String key = patch.notifyConfigKey();
+		Boolean notify = data.notify.get(key);
+		if (notify == null)
+		{
+			notify = data.notify.computeIfAbsent(key, k -> Boolean.TRUE
+				.equals(configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile, k, Boolean.class)));
+		}
+		return notify;
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged e)
+	{
+		if (!TimeTrackingConfig.CONFIG_GROUP.equals(e.getGroup()) || e.getProfile() == null)
+		{
+			return;
+		}
+
+		ProfileData data = profiles.get(e.getProfile());
+		if (data == null)
+		{
+			return;
+		}
+
+		String key = e.getKey();
+		if (key.equals(TimeTrackingConfig.AUTOWEED)
+			|| key.equals(TimeTrackingConfig.FARM_TICK_OFFSET)
+			|| key.equals(TimeTrackingConfig.FARM_TICK_OFFSET_PRECISION))
+		{
+			profiles.remove(e.getProfile());
+		}
+		else if (key.startsWith(TimeTrackingConfig.NOTIFY + "."))
+		{
+			data.notify.remove(key);
+		}
+		else
+		{
+			data.patches.remove(key);
+		}
+	}
+
+	@Subscribe
+	public void onProfileChanged(ProfileChanged e)
+	{
+		// switching profiles replaces the config without a change event for each key
+		profiles.clear();
+	}
+
 	public void loadCompletionTimes()
 	{
+		profiles.clear();
 		summaries.clear();
 		completionTimes.clear();
 		lastRegions = null;
@@ -492,8 +620,9 @@ public class FarmingTracker
 
 		for (RuneScapeProfile profile : rsProfiles)
 		{
-			Integer offsetPrecisionMins = configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile.getKey(), TimeTrackingConfig.FARM_TICK_OFFSET_PRECISION, int.class);
-			Integer offsetTimeMins = configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile.getKey(), TimeTrackingConfig.FARM_TICK_OFFSET, int.class);
+			ProfileData data = getProfileData(profile.getKey());
+			Integer offsetPrecisionMins = data.offsetPrecisionMins;
+			Integer offsetTimeMins = data.offsetTimeMins;
 
 			for (Map.Entry<Tab, Set<FarmingPatch>> tab : farmingWorld.getTabs().entrySet())
 			{
@@ -501,9 +630,7 @@ public class FarmingTracker
 				{
 					ProfilePatch profilePatch = new ProfilePatch(patch, profile.getKey());
 					boolean patchNotified = wasNotified.getOrDefault(profilePatch, false);
-					String configKey = patch.notifyConfigKey();
-					boolean shouldNotify = Boolean.TRUE
-						.equals(configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, profile.getKey(), configKey, Boolean.class));
+					boolean shouldNotify = shouldNotify(data, profile.getKey(), patch);
 					PatchPrediction prediction = predictPatch(patch, profile.getKey());
 
 					if (prediction == null)
@@ -24,6 +24,9 @@
  */
 package net.runelite.client.plugins.timetracking.farming;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -36,7 +39,7 @@ public enum PatchImplementation
 	BELLADONNA(Tab.SPECIAL, "", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -74,7 +77,7 @@ public enum PatchImplementation
 	MUSHROOM(Tab.SPECIAL, "", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -112,7 +115,7 @@ public enum PatchImplementation
 	HESPORI(Tab.SPECIAL, "", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -140,7 +143,7 @@ public enum PatchImplementation
 	ALLOTMENT(Tab.ALLOTMENT, "", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -473,7 +476,7 @@ public enum PatchImplementation
 	HERB(Tab.HERB, "", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -741,7 +744,7 @@ public enum PatchImplementation
 	FLOWER(Tab.FLOWER, "", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -1014,7 +1017,7 @@ public enum PatchImplementation
 	BUSH(Tab.BUSH, "", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -1247,7 +1250,7 @@ public enum PatchImplementation
 	FRUIT_TREE(Tab.FRUIT_TREE, "", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -1530,7 +1533,7 @@ public enum PatchImplementation
 	HOPS(Tab.HOPS, "", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -1833,7 +1836,7 @@ public enum PatchImplementation
 	TREE(Tab.TREE, "", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2116,7 +2119,7 @@ public enum PatchImplementation
 	HARDWOOD_TREE(Tab.TREE, "Hardwood Trees", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2199,7 +2202,7 @@ public enum PatchImplementation
 	REDWOOD(Tab.TREE, "Redwood Trees", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2247,7 +2250,7 @@ public enum PatchImplementation
 	SPIRIT_TREE(Tab.TREE, "Spirit Trees", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2295,7 +2298,7 @@ public enum PatchImplementation
 	ANIMA(Tab.SPECIAL, "", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2342,7 +2345,7 @@ public enum PatchImplementation
 	CACTUS(Tab.SPECIAL, "Cactus", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2415,7 +2418,7 @@ public enum PatchImplementation
 	SEAWEED(Tab.SPECIAL, "Seaweed", false)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2453,7 +2456,7 @@ public enum PatchImplementation
 	CALQUAT(Tab.FRUIT_TREE, "Calquat", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2496,7 +2499,7 @@ public enum PatchImplementation
 	CELASTRUS(Tab.FRUIT_TREE, "Celastrus", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2554,7 +2557,7 @@ public enum PatchImplementation
 	GRAPES(Tab.GRAPE, "", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 1)
 				{
@@ -2579,7 +2582,7 @@ public enum PatchImplementation
 	CRYSTAL_TREE(Tab.FRUIT_TREE, "Crystal Tree", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value >= 0 && value <= 3)
 				{
@@ -2607,7 +2610,7 @@ public enum PatchImplementation
 	COMPOST(Tab.SPECIAL, "Compost Bin", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value == 0)
 				{
@@ -2680,7 +2683,7 @@ public enum PatchImplementation
 	BIG_COMPOST(Tab.SPECIAL, "Big Compost Bin", true)
 		{
 			@Override
-			PatchState forVarbitValue(int value)
+			PatchState decode(int value)
 			{
 				if (value == 0)
 				{
@@ -2781,8 +2784,48 @@ public enum PatchImplementation
 			}
 		};
 
+	/**
+	 * Every varbit value which decodes to a state is below this
+	 */
+	private static final int VARBIT_VALUES = 256;
+
+	/**
+	 * The decoded states for each patch type and varbit value, built on first use since the
+	 * states reference {@link Produce}, which in turn references this.
+	 */
+	private static class StateTable
+	{
+		private static final PatchState[][] STATES = build();
+
+		private static PatchState[][] build()
+		{
+			// states are immutable, so equal states are shared between patch types
+			final Map<PatchState, PatchState> interned = new HashMap<>();
+			final PatchImplementation[] impls = values();
+			final PatchState[][] states = new PatchState[impls.length][VARBIT_VALUES];
+			for (PatchImplementation impl : impls)
+			{
+				for (int value = 0; value < VARBIT_VALUES; ++value)
+				{
+					final PatchState state = impl.decode(value);
+					if (state != null)
+					{
+						states[impl.ordinal()][value] = interned.computeIfAbsent(state, Function.identity());
+					}
+				}
+			}
+			return states;
+		}
+	}
+
+	@Nullable
+	abstract PatchState decode(int value);
+
 	@Nullable
-	abstract PatchState forVarbitValue(int value);
+	PatchState forVarbitValue(int value)
+	{
+		return value >= 0 && value < VARBIT_VALUES ? StateTable.STATES[ordinal()][value] : null;
+	}
 
 	private final Tab tab;
 
@@ -82,6 +82,7 @@ import net.runelite.client.input.KeyManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.worldhopper.ping.Ping;
+import net.runelite.client.plugins.worldhopper.ping.PingStats;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.overlay.OverlayManager;
@@ -162,7 +163,9 @@ public class WorldHopperPlugin extends Plugin
 	@Getter(AccessLevel.PACKAGE)
 	private int currentPing;
 
-	private final Map<Integer, Integer> storedPings = new HashMap<>();
+	private final Map<Integer, PingStats> storedPings = new HashMap<>();
+	// tcp pings from the initial sweep, shown until a world has been pinged on its own
+	private final Map<Integer, Integer> sweptPings = new HashMap<>();
 
 	private final HotkeyListener previousKeyListener = new HotkeyListener(() -> config.previousKey())
 	{
@@ -808,7 +811,7 @@ public class WorldHopperPlugin extends Plugin
 	}
 
 	/**
-	 * Ping all worlds. This takes a long time and is only run on first run.
+	 * Ping all worlds. This is only run on first run.
 	 */
 	private void pingInitialWorlds()
 	{
@@ -820,11 +823,12 @@ public class WorldHopperPlugin extends Plugin
 
 		Stopwatch stopwatch = Stopwatch.createStarted();
 
-		for (World world : worldResult.getWorlds())
+		Ping.ping(worldResult.getWorlds(), (world, rtt) ->
 		{
-			int ping = ping(world);
-			SwingUtilities.invokeLater(() -> panel.updatePing(world.getId(), ping));
-		}
+			// the sweep pings over tcp, so it isn't mixed into the stats of the single world pings
+			sweptPings.put(world.getId(), rtt);
+			SwingUtilities.invokeLater(() -> panel.updatePing(world.getId(), rtt));
+		});
 
 		stopwatch.stop();
 
@@ -914,13 +918,17 @@ public class WorldHopperPlugin extends Plugin
 			return null;
 		}
 
-		return storedPings.get(world.getId());
+		PingStats stats = storedPings.get(world.getId());
+		return stats != null ? stats.getPing() : sweptPings.get(world.getId());
 	}
 
+	/**
+	 * Ping the world, returning the smoothed ping
+	 */
 	private int ping(World world)
 	{
-		int ping = Ping.ping(world);
-		storedPings.put(world.getId(), ping);
-		return ping;
+		PingStats stats = storedPings.computeIfAbsent(world.getId(), k -> new PingStats());
+		stats.update(Ping.ping(world));
+		return stats.getPing();
 	}
 }
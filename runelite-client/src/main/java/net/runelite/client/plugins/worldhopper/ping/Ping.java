@@ -35,6 +35,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.util.function.ObjIntConsumer;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.util.OSType;
 import net.runelite.http.api.worlds.World;
@@ -46,6 +47,7 @@ public class Ping
 	private static final int TIMEOUT = 2000; // ms
 	private static final int PORT = 43594;
 	private static final int MAX_IPV4_HEADER_SIZE = 60;
+	private static final int SWEEP_MAX_IN_FLIGHT = 32;
 
 	private static short seq;
 
@@ -96,6 +98,46 @@ public class Ping
 		}
 	}
 
+	/**
+	 * Ping many worlds concurrently. This always uses a tcp ping, as icmp pings are blocking.
+	 *
+	 * @param worlds   worlds to ping
+	 * @param callback called on the calling thread with each world's ping, or -1 on failure
+	 */
+	public static void ping(Iterable<World> worlds, ObjIntConsumer<World> callback)
+	{
+		try
+		{
+			new PingSweep(SWEEP_MAX_IN_FLIGHT, TIMEOUT).sweep(worlds, Ping::resolve, callback);
+		}
+		catch (IOException ex)
+		{
+			log.warn("error pinging", ex);
+		}
+	}
+
+	private static InetSocketAddress resolve(World world)
+	{
+		InetAddress inetAddress;
+		try
+		{
+			inetAddress = InetAddress.getByName(world.getAddress());
+		}
+		catch (UnknownHostException ex)
+		{
+			log.debug("error resolving host for world ping", ex);
+			return null;
+		}
+
+		if (!(inetAddress instanceof Inet4Address))
+		{
+			log.debug("Only ipv4 ping is supported");
+			return null;
+		}
+
+		return new InetSocketAddress(inetAddress, PORT);
+	}
+
 	private static int windowsPing(InetAddress inetAddress)
 	{
 		IPHlpAPI ipHlpAPI = IPHlpAPI.INSTANCE;
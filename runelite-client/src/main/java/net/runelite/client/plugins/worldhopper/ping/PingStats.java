@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, Tomas Slusny <slusnucky@gmail.com>
+ * Copyright (c) 2024, RuneLite
  * All rights reserved.
  *
  * Redistribution and use in source and binary forms, with or without
@@ -22,24 +22,51 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package net.runelite.client.plugins.grounditems;
+package net.runelite.client.plugins.worldhopper.ping;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import net.runelite.api.MenuEntry;
 
-@RequiredArgsConstructor
-class MenuEntryWithCount
+/**
+ * Round trip time statistics for a single world, smoothed the same way TCP smooths its RTT estimate
+ * (RFC 6298). Samples should all come from the same kind of ping, since tcp and icmp round trips differ.
+ */
+@Getter
+public class PingStats
 {
-	@Getter
-	private final MenuEntry entry;
+	private static final float ALPHA = 1 / 8f;
 
-	@Getter
-	private int count = 1;
+	/**
+	 * The last sample, or -1 if the last ping failed
+	 */
+	private int last = -1;
+	private int samples;
+	private int failures;
+	private float smoothedRtt;
 
-	void increment()
+	public void update(int rtt)
 	{
-		count++;
+		last = rtt;
+		if (rtt < 0)
+		{
+			++failures;
+			return;
+		}
+
+		if (samples++ == 0)
+		{
+			smoothedRtt = rtt;
+		}
+		else
+		{
+			smoothedRtt = (1 - ALPHA) * smoothedRtt + ALPHA * rtt;
+		}
 	}
-}
 
+	/**
+	 * The ping to display, which is the smoothed rtt, or -1 if the last ping failed
+	 */
+	public int getPing()
+	{
+		return last < 0 ? -1 : Math.round(smoothedRtt);
+	}
+}
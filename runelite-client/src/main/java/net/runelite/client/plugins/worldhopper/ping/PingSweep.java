@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.worldhopper.ping;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pings many hosts concurrently by timing non-blocking TCP connects on a single selector, so that
+ * a slow or unreachable host only costs its own timeout instead of stalling the rest of the sweep.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PingSweep
+{
+	private static final int MAX_RESOLVER_THREADS = 8;
+
+	/**
+	 * Maximum number of connects in flight at once
+	 */
+	private final int maxInFlight;
+	/**
+	 * Per-host timeout, in milliseconds
+	 */
+	private final int timeout;
+
+	@RequiredArgsConstructor
+	private static class Pending<T>
+	{
+		private final T target;
+		private final SocketChannel channel;
+		private final long start;
+		private boolean done;
+	}
+
+	@RequiredArgsConstructor
+	private static class Resolved<T>
+	{
+		private final T target;
+		private final InetSocketAddress address;
+	}
+
+	/**
+	 * Ping each of the targets, blocking until all of them have completed or timed out. The callback is
+	 * run on the calling thread with the round trip time in milliseconds, or -1 on failure.
+	 * <p>
+	 * Targets are resolved on a separate pool, so a slow lookup doesn't hold up pings of other targets.
+	 * Each target is pinged as soon as it is resolved, and one which can't be resolved fails.
+	 *
+	 * @param targets  hosts to ping
+	 * @param resolver maps a target to its address, may return null if it can't be resolved
+	 * @param callback called once for each target
+	 */
+	public <T> void sweep(Iterable<T> targets, Function<T, InetSocketAddress> resolver, ObjIntConsumer<T> callback) throws IOException
+	{
+		final long timeoutNanos = timeout * 1_000_000L;
+		// pings all share the same timeout, so they expire in the order they were started
+		final ArrayDeque<Pending<T>> pending = new ArrayDeque<>();
+		final Queue<Resolved<T>> resolved = new ConcurrentLinkedQueue<>();
+		int unresolved = 0;
+		int inFlight = 0;
+
+		final ExecutorService resolvers = Executors.newFixedThreadPool(Math.min(maxInFlight, MAX_RESOLVER_THREADS));
+		try (Selector selector = Selector.open())
+		{
+			try
+			{
+				for (T target : targets)
+				{
+					++unresolved;
+					resolvers.execute(() ->
+					{
+						InetSocketAddress address = null;
+						try
+						{
+							address = resolver.apply(target);
+						}
+						catch (RuntimeException ex)
+						{
+							log.debug("error resolving {}", target, ex);
+						}
+						resolved.add(new Resolved<>(target, address));
+						selector.wakeup();
+					});
+				}
+
+				while (!Thread.currentThread().isInterrupted())
+				{
+					for (Resolved<T> r; inFlight < maxInFlight && (r = resolved.poll()) != null; )
+					{
+						--unresolved;
+						final Pending<T> p = connect(selector, r.target, r.address);
+						if (p == null)
+						{
+							callback.accept(r.target, -1);
+						}
+						else if (p.done)
+						{
+							callback.accept(r.target, elapsed(p, System.nanoTime()));
+						}
+						else
+						{
+							pending.add(p);
+							++inFlight;
+						}
+					}
+
+					if (inFlight == 0 && unresolved == 0)
+					{
+						break;
+					}
+
+					if (inFlight == 0)
+					{
+						// nothing to time out, so wait for the next resolve to wake the selector
+						selector.select();
+					}
+					else
+					{
+						final long wait = pending.peekFirst().start + timeoutNanos - System.nanoTime();
+						if (wait > 0)
+						{
+							selector.select(Math.max(1, wait / 1_000_000));
+						}
+					}
+
+					final long now = System.nanoTime();
+					for (Iterator<SelectionKey> keys = selector.selectedKeys().iterator(); keys.hasNext(); )
+					{
+						final SelectionKey key = keys.next();
+						keys.remove();
+
+						@SuppressWarnings("unchecked")
+						final Pending<T> p = (Pending<T>) key.attachment();
+						int rtt;
+						try
+						{
+							p.channel.finishConnect();
+							rtt = elapsed(p, now);
+						}
+						catch (IOException ex)
+						{
+							log.debug("error pinging {}", p.target, ex);
+							rtt = -1;
+						}
+
+						close(p);
+						--inFlight;
+						callback.accept(p.target, rtt);
+					}
+
+					for (Pending<T> p; (p = pending.peekFirst()) != null && (p.done || now - p.start >= timeoutNanos); )
+					{
+						pending.pollFirst();
+						if (!p.done)
+						{
+							close(p);
+							--inFlight;
+							callback.accept(p.target, -1);
+						}
+					}
+				}
+			}
+			finally
+			{
+				for (Pending<T> p : pending)
+				{
+					close(p);
+				}
+			}
+		}
+		finally
+		{
+			resolvers.shutdownNow();
+		}
+	}
+
+	private static <T> Pending<T> connect(Selector selector, T target, InetSocketAddress address)
+	{
+		if (address == null || address.isUnresolved())
+		{
+			return null;
+		}
+
+		SocketChannel channel = null;
+		try
+		{
+			channel = SocketChannel.open();
+			channel.configureBlocking(false);
+			final Pending<T> p = new Pending<>(target, channel, System.nanoTime());
+			if (channel.connect(address))
+			{
+				close(p);
+			}
+			else
+			{
+				channel.register(selector, SelectionKey.OP_CONNECT, p);
+			}
+			return p;
+		}
+		catch (IOException ex)
+		{
+			log.debug("error pinging {}", target, ex);
+			if (channel != null)
+			{
+				try
+				{
+					channel.close();
+				}
+				catch (IOException ignored)
+				{
+				}
+			}
+			return null;
+		}
+	}
+
+	private static int elapsed(Pending<?> p, long now)
+	{
+		return (int) ((now - p.start) / 1_000_000L);
+	}
+
+	private static void close(Pending<?> p)
+	{
+		p.done = true;
+		try
+		{
+			// closing the channel also cancels its selection key
+			p.channel.close();
+		}
+		catch (IOException ex)
+		{
+			log.debug("error closing ping channel", ex);
+		}
+	}
+}
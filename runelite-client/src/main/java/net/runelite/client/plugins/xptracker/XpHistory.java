@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.xptracker;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.CountingInputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+
+/**
+ * Recent xp drops for each skill. Each skill keeps a ring of its cumulative xp at the end of fixed width
+ * buckets, so the xp gained over any window up to {@link #MAX_WINDOW} is the difference of two entries.
+ * <p>
+ * Drops are also appended to a file, as a time record written on open followed by
+ * (skill, time delta, xp) records. The file is replayed when it is reopened, so recent
+ * rates survive a restart and the full history is available for later analysis.
+ * <p>
+ * Recording a drop only updates memory and queues the drop, so it is cheap enough for the client
+ * thread. Opening, flushing and closing do the file io and should be done on the executor.
+ */
+@Slf4j
+class XpHistory
+{
+	static final Duration MAX_WINDOW = Duration.ofHours(1);
+	static final long BUCKET_MILLIS = 6_000;
+	private static final int BUCKETS = (int) (MAX_WINDOW.toMillis() / BUCKET_MILLIS) + 1;
+	// rates over shorter periods than this are too noisy to be useful
+	private static final long MIN_RATE_MILLIS = 60_000;
+
+	private static final int MAGIC = 0x78706831;
+	private static final int TIME_RECORD = 0xff;
+	private static final long MAX_FILE_SIZE = 8 << 20;
+
+	private static class Series
+	{
+		// cumulative xp at the end of each bucket, indexed by the bucket number modulo BUCKETS
+		private final long[] cumulative = new long[BUCKETS];
+		private final long firstBucket;
+		private long bucket;
+		private long total;
+
+		private Series(long bucket)
+		{
+			this.firstBucket = this.bucket = bucket;
+		}
+
+		private void advance(long to)
+		{
+			// buckets with no drops have the same total as the last; anything older than the ring is overwritten
+			for (long b = Math.max(bucket + 1, to - BUCKETS + 1); b <= to; ++b)
+			{
+				cumulative[(int) (b % BUCKETS)] = total;
+			}
+			bucket = Math.max(bucket, to);
+		}
+
+		private void add(int xp)
+		{
+			total += xp;
+			cumulative[(int) (bucket % BUCKETS)] = total;
+		}
+
+		private long gainedSince(long from)
+		{
+			return from < firstBucket ? total : total - cumulative[(int) (from % BUCKETS)];
+		}
+	}
+
+	private static class Drop
+	{
+		private final Skill skill;
+		private final int xp;
+		private final long time;
+
+		private Drop(Skill skill, int xp, long time)
+		{
+			this.skill = skill;
+			this.xp = xp;
+			this.time = time;
+		}
+	}
+
+	// the in memory history is guarded by this, and is never held during file io
+	private Series[] series = new Series[Skill.values().length];
+	private long startMillis;
+
+	// drops waiting to be written to the file
+	private final Queue<Drop> pending = new ConcurrentLinkedQueue<>();
+
+	// the file is guarded by fileLock
+	private final Object fileLock = new Object();
+	private DataOutputStream out;
+	private long lastRecordMillis;
+
+	/**
+	 * Open a history file, replacing any history in memory with the file's contents.
+	 * Drops recorded before this are written to the previously open file, if any.
+	 *
+	 * @param file the history file, which is created if it doesn't exist
+	 * @param now  the current time in millis
+	 */
+	void open(File file, long now)
+	{
+		synchronized (fileLock)
+		{
+			close();
+
+			final Series[] replayed = new Series[Skill.values().length];
+			final long[] start = {now};
+			long length = replay(file, replayed, start);
+
+			synchronized (this)
+			{
+				series = replayed;
+				startMillis = start[0];
+				// drops recorded while replaying are in memory, and written to the new file below
+				for (Drop drop : pending)
+				{
+					add(series, drop.skill, drop.xp, drop.time);
+				}
+			}
+
+			try
+			{
+				if (length >= MAX_FILE_SIZE)
+				{
+					// keep one previous file around, rather than growing without bound
+					Files.move(file.toPath(), new File(file.getPath() + ".old").toPath(), StandardCopyOption.REPLACE_EXISTING);
+					length = 0;
+				}
+
+				file.getParentFile().mkdirs();
+				try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+				{
+					// drop any partially written record from a crash
+					raf.setLength(length);
+				}
+
+				out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+				if (length == 0)
+				{
+					out.writeInt(MAGIC);
+					synchronized (this)
+					{
+						startMillis = now;
+					}
+				}
+				out.writeByte(TIME_RECORD);
+				writeVarLong(out, now);
+				lastRecordMillis = now;
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to open xp history {}", file, ex);
+				close();
+			}
+		}
+	}
+
+	/**
+	 * Replay a history file
+	 *
+	 * @param into  the series to replay the drops into
+	 * @param start set to the time the history began, if the file has any
+	 * @return the length of the file up to the end of the last complete record
+	 */
+	private static long replay(File file, Series[] into, long[] start)
+	{
+		try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+			DataInputStream in = new DataInputStream(counter))
+		{
+			if (in.readInt() != MAGIC)
+			{
+				log.warn("xp history {} is not valid, discarding", file);
+				return 0;
+			}
+
+			final Skill[] skills = Skill.values();
+			long time = 0;
+			boolean first = true;
+			for (;;)
+			{
+				final long length = counter.getCount();
+				final int type = in.read();
+				try
+				{
+					if (type == -1)
+					{
+						return length;
+					}
+					else if (type == TIME_RECORD)
+					{
+						time = readVarLong(in);
+						if (first)
+						{
+							start[0] = time;
+							first = false;
+						}
+					}
+					else if (type < skills.length)
+					{
+						time += readVarLong(in);
+						add(into, skills[type], (int) readVarLong(in), time);
+					}
+					else
+					{
+						log.warn("xp history {} has an unknown record {}, discarding the remainder", file, type);
+						return length;
+					}
+				}
+				catch (EOFException ex)
+				{
+					return length;
+				}
+			}
+		}
+		catch (FileNotFoundException | EOFException ex)
+		{
+			return 0;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to read xp history {}", file, ex);
+			return 0;
+		}
+	}
+
+	/**
+	 * Write recorded drops to the file. This does file io, so should not be called from the client thread.
+	 */
+	void flush()
+	{
+		synchronized (fileLock)
+		{
+			if (writePending())
+			{
+				try
+				{
+					out.flush();
+				}
+				catch (IOException ex)
+				{
+					log.warn("unable to write xp history", ex);
+					close();
+				}
+			}
+		}
+	}
+
+	void close()
+	{
+		synchronized (fileLock)
+		{
+			if (!writePending())
+			{
+				return;
+			}
+
+			try
+			{
+				out.close();
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to close xp history", ex);
+			}
+			out = null;
+		}
+	}
+
+	/**
+	 * Write the pending drops to the file, or discard them if no file is open
+	 *
+	 * @return if a file is open
+	 */
+	private boolean writePending()
+	{
+		assert Thread.holdsLock(fileLock);
+
+		Drop drop;
+		while ((drop = pending.poll()) != null)
+		{
+			if (out == null)
+			{
+				continue;
+			}
+
+			try
+			{
+				out.writeByte(drop.skill.ordinal());
+				writeVarLong(out, Math.max(0, drop.time - lastRecordMillis));
+				writeVarLong(out, drop.xp);
+				lastRecordMillis = Math.max(lastRecordMillis, drop.time);
+			}
+			catch (IOException ex)
+			{
+				try
+				{
+					out.close();
+				}
+				catch (IOException closeEx)
+				{
+					ex.addSuppressed(closeEx);
+				}
+				out = null;
+				log.warn("unable to write xp history", ex);
+			}
+		}
+		return out != null;
+	}
+
+	/**
+	 * Record an xp drop. The drop is written to the file on the next {@link #flush()}.
+	 *
+	 * @param skill the skill
+	 * @param xp    the amount of xp gained
+	 * @param now   the current time in millis
+	 */
+	synchronized void record(Skill skill, int xp, long now)
+	{
+		add(series, skill, xp, now);
+		pending.add(new Drop(skill, xp, now));
+	}
+
+	private static void add(Series[] series, Skill skill, int xp, long time)
+	{
+		final long bucket = time / BUCKET_MILLIS;
+		Series s = series[skill.ordinal()];
+		if (s == null)
+		{
+			s = series[skill.ordinal()] = new Series(bucket);
+		}
+		s.advance(bucket);
+		s.add(xp);
+	}
+
+	/**
+	 * Get the xp gained in a skill over a recent window
+	 *
+	 * @param skill  the skill
+	 * @param window the window, up to {@link #MAX_WINDOW}
+	 * @param now    the current time in millis
+	 * @return the xp gained
+	 */
+	synchronized long getXpGained(Skill skill, Duration window, long now)
+	{
+		Preconditions.checkArgument(!window.isNegative() && window.compareTo(MAX_WINDOW) <= 0, "window must be at most %s", MAX_WINDOW);
+
+		final Series s = series[skill.ordinal()];
+		if (s == null)
+		{
+			return 0;
+		}
+
+		final long bucket = now / BUCKET_MILLIS;
+		s.advance(bucket);
+		return s.gainedSince(bucket - (window.toMillis() + BUCKET_MILLIS - 1) / BUCKET_MILLIS);
+	}
+
+	/**
+	 * Get the xp per hour in a skill over a recent window. If history began within the window,
+	 * the rate is over the time since then instead.
+	 *
+	 * @param skill  the skill
+	 * @param window the window, up to {@link #MAX_WINDOW}
+	 * @param now    the current time in millis
+	 * @return the xp per hour
+	 */
+	synchronized int getXpHr(Skill skill, Duration window, long now)
+	{
+		final long gained = getXpGained(skill, window, now);
+		final long millis = Math.max(MIN_RATE_MILLIS, Math.min(window.toMillis(), now - startMillis));
+		return (int) (gained * Duration.ofHours(1).toMillis() / millis);
+	}
+
+	private static void writeVarLong(OutputStream out, long value) throws IOException
+	{
+		while ((value & ~0x7fL) != 0)
+		{
+			out.write((int) (value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long readVarLong(InputStream in) throws IOException
+	{
+		long value = 0;
+		for (int shift = 0; ; shift += 7)
+		{
+			final int b = in.read();
+			if (b == -1)
+			{
+				throw new EOFException();
+			}
+
+			value |= (long) (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+	}
+}
@@ -31,9 +31,13 @@ import com.google.common.collect.ImmutableList;
 import com.google.inject.Binder;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.time.temporal.ChronoUnit;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Inject;
 import lombok.AccessLevel;
 import lombok.Setter;
@@ -56,6 +60,7 @@ import net.runelite.api.events.NpcDespawned;
 import net.runelite.api.events.StatChanged;
 import net.runelite.api.widgets.InterfaceID;
 import net.runelite.api.widgets.WidgetUtil;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
@@ -87,6 +92,8 @@ public class XpTrackerPlugin extends Plugin
 	private static final String MENUOP_ADD_CANVAS_TRACKER = "Add to canvas";
 	private static final String MENUOP_REMOVE_CANVAS_TRACKER = "Remove from canvas";
 
+	private static final File HISTORY_DIR = new File(RuneLite.RUNELITE_DIR, "xptracker");
+
 	static final List<Skill> COMBAT = ImmutableList.of(
 		Skill.ATTACK,
 		Skill.STRENGTH,
@@ -122,6 +129,12 @@ public class XpTrackerPlugin extends Plugin
 	@Inject
 	private XpState xpState;
 
+	@Inject
+	private XpHistory xpHistory;
+
+	@Inject
+	private ScheduledExecutorService executor;
+
 	private NavigationButton navButton;
 	@Setter(AccessLevel.PACKAGE)
 	@VisibleForTesting
@@ -134,6 +147,8 @@ public class XpTrackerPlugin extends Plugin
 	private boolean initializeTracker;
 
 	private final XpPauseState xpPauseState = new XpPauseState();
+	// snapshots are rebuilt when the state changes, and at least once a second, rather than on each read
+	private final Map<Skill, XpSnapshotSingle> skillSnapshots = new ConcurrentHashMap<>();
 
 	@Provides
 	XpTrackerConfig provideConfig(ConfigManager configManager)
@@ -173,6 +188,7 @@ public class XpTrackerPlugin extends Plugin
 			{
 				lastAccount = client.getAccountHash();
 				lastWorldType = worldSetToType(client.getWorldType());
+				openHistory();
 			}
 		});
 	}
@@ -182,6 +198,8 @@ public class XpTrackerPlugin extends Plugin
 	{
 		overlayManager.removeIf(e -> e instanceof XpInfoBoxOverlay);
 		xpState.reset();
+		skillSnapshots.clear();
+		executor.execute(xpHistory::close);
 		clientToolbar.removeNavigation(navButton);
 	}
 
@@ -208,6 +226,7 @@ public class XpTrackerPlugin extends Plugin
 				fetchXp = true;
 				lastWorldType = type;
 				resetState();
+				openHistory();
 				// Must be set from hitting the LOGGING_IN or HOPPING case below
 				assert initializeTracker;
 			}
@@ -240,6 +259,13 @@ public class XpTrackerPlugin extends Plugin
 		}
 	}
 
+	private void openHistory()
+	{
+		final String name = lastWorldType == NORMAL ? Long.toString(lastAccount) : lastAccount + "-" + lastWorldType.name().toLowerCase();
+		final File file = new File(HISTORY_DIR, name + ".dat");
+		executor.execute(() -> xpHistory.open(file, System.currentTimeMillis()));
+	}
+
 	private XpWorldType worldSetToType(EnumSet<WorldType> types)
 	{
 		XpWorldType xpType = NORMAL;
@@ -303,6 +329,7 @@ public class XpTrackerPlugin extends Plugin
 		}
 
 		xpState.initializeOverall(client.getOverallExperience());
+		skillSnapshots.clear();
 	}
 
 	/**
@@ -312,6 +339,7 @@ public class XpTrackerPlugin extends Plugin
 	private void resetState()
 	{
 		xpState.reset();
+		skillSnapshots.clear();
 		xpPanel.resetAllInfoBoxes();
 		xpPanel.updateTotal(new XpSnapshotSingle.XpSnapshotSingleBuilder().build());
 		overlayManager.removeIf(e -> e instanceof XpInfoBoxOverlay);
@@ -327,6 +355,7 @@ public class XpTrackerPlugin extends Plugin
 	{
 		int currentXp = client.getSkillExperience(skill);
 		xpState.initializeSkill(skill, currentXp);
+		skillSnapshots.remove(skill);
 		xpPanel.resetSkill(skill);
 		removeOverlay(skill);
 	}
@@ -356,6 +385,7 @@ public class XpTrackerPlugin extends Plugin
 	void resetSkillPerHourState(Skill skill)
 	{
 		xpState.resetSkillPerHour(skill);
+		skillSnapshots.remove(skill);
 	}
 
 	/**
@@ -369,6 +399,7 @@ public class XpTrackerPlugin extends Plugin
 			xpState.resetSkillPerHour(skill);
 		}
 		xpState.resetOverallPerHour();
+		skillSnapshots.clear();
 	}
 
 	@Subscribe
@@ -396,6 +427,7 @@ public class XpTrackerPlugin extends Plugin
 		}
 
 		final XpStateSingle state = xpState.getSkill(skill);
+		final long previousXp = state.getCurrentXp();
 		state.setActionType(XpActionType.EXPERIENCE);
 
 		final Actor interacting = client.getLocalPlayer().getInteracting();
@@ -407,7 +439,11 @@ public class XpTrackerPlugin extends Plugin
 		}
 
 		final XpUpdateResult updateResult = xpState.updateSkill(skill, currentXp, startGoalXp, endGoalXp);
-		xpPanel.updateSkillExperience(updateResult == XpUpdateResult.UPDATED, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
+		if (updateResult == XpUpdateResult.UPDATED)
+		{
+			xpHistory.record(skill, (int) (currentXp - previousXp), System.currentTimeMillis());
+		}
+		xpPanel.updateSkillExperience(updateResult == XpUpdateResult.UPDATED, xpPauseState.isPaused(skill), skill, updateSkillSnapshot(skill));
 
 		// Also update the total experience
 		xpState.updateOverall(client.getOverallExperience());
@@ -428,7 +464,7 @@ public class XpTrackerPlugin extends Plugin
 		{
 			final XpUpdateResult updateResult = xpState.updateNpcKills(skill, npc, npcManager.getHealth(npc.getId()));
 			final boolean updated = XpUpdateResult.UPDATED.equals(updateResult);
-			xpPanel.updateSkillExperience(updated, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
+			xpPanel.updateSkillExperience(updated, xpPauseState.isPaused(skill), skill, updateSkillSnapshot(skill));
 		}
 
 		xpPanel.updateTotal(xpState.getTotalSnapshot());
@@ -486,6 +522,8 @@ public class XpTrackerPlugin extends Plugin
 				log.debug("Initializing XP tracker with {} overall exp", overallXp);
 				xpState.initializeOverall(overallXp);
 			}
+
+			skillSnapshots.clear();
 		}
 
 		if (fetchXp)
@@ -543,7 +581,19 @@ public class XpTrackerPlugin extends Plugin
 
 	XpSnapshotSingle getSkillSnapshot(Skill skill)
 	{
-		return xpState.getSkillSnapshot(skill);
+		return skillSnapshots.computeIfAbsent(skill, xpState::getSkillSnapshot);
+	}
+
+	private XpSnapshotSingle updateSkillSnapshot(Skill skill)
+	{
+		final XpSnapshotSingle snapshot = xpState.getSkillSnapshot(skill);
+		skillSnapshots.put(skill, snapshot);
+		return snapshot;
+	}
+
+	XpHistory getXpHistory()
+	{
+		return xpHistory;
 	}
 
 	private static @Varp int startGoalVarpForSkill(final Skill skill)
@@ -697,6 +747,7 @@ public class XpTrackerPlugin extends Plugin
 		}
 
 		rebuildSkills();
+		executor.execute(xpHistory::flush);
 	}
 
 	private void rebuildSkills()
@@ -704,7 +755,7 @@ public class XpTrackerPlugin extends Plugin
 		// Rebuild calculated values like xp/hr in panel
 		for (Skill skill : Skill.values())
 		{
-			xpPanel.updateSkillExperience(false, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
+			xpPanel.updateSkillExperience(false, xpPauseState.isPaused(skill), skill, updateSkillSnapshot(skill));
 		}
 
 		xpPanel.updateTotal(xpState.getTotalSnapshot());
@@ -714,7 +765,7 @@ public class XpTrackerPlugin extends Plugin
 	{
 		if (pause ? xpPauseState.pauseSkill(skill) : xpPauseState.unpauseSkill(skill))
 		{
-			xpPanel.updateSkillExperience(false, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
+			xpPanel.updateSkillExperience(false, xpPauseState.isPaused(skill), skill, updateSkillSnapshot(skill));
 		}
 	}
 
@@ -24,6 +24,7 @@
  */
 package net.runelite.client.plugins.xptracker;
 
+import java.time.Duration;
 import net.runelite.api.Skill;
 
 public interface XpTrackerService
@@ -53,6 +54,22 @@ public interface XpTrackerService
 	 */
 	int getXpHr(Skill skill);
 
+	/**
+	 * Get the amount of xp gained over a recent window
+	 *
+	 * @param skill  the skill
+	 * @param window the window, up to an hour
+	 */
+	long getXpGained(Skill skill, Duration window);
+
+	/**
+	 * Get the amount of xp per hour over a recent window, such as the last 5, 15 or 60 minutes
+	 *
+	 * @param skill  the skill
+	 * @param window the window, up to an hour
+	 */
+	int getXpHr(Skill skill, Duration window);
+
 	/**
 	 * Get the start goal XP
 	 */
@@ -24,6 +24,7 @@
  */
 package net.runelite.client.plugins.xptracker;
 
+import java.time.Duration;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Skill;
@@ -69,6 +70,18 @@ class XpTrackerServiceImpl implements XpTrackerService
 		return plugin.getSkillSnapshot(skill).getXpPerHour();
 	}
 
+	@Override
+	public long getXpGained(Skill skill, Duration window)
+	{
+		return plugin.getXpHistory().getXpGained(skill, window, System.currentTimeMillis());
+	}
+
+	@Override
+	public int getXpHr(Skill skill, Duration window)
+	{
+		return plugin.getXpHistory().getXpHr(skill, window, System.currentTimeMillis());
+	}
+
 	@Override
 	public int getStartGoalXp(Skill skill)
 	{
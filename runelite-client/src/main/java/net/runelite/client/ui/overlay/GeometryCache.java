@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import java.awt.Polygon;
+import java.awt.Shape;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.DecorativeObject;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.GroundObject;
+import net.runelite.api.Model;
+import net.runelite.api.Perspective;
+import net.runelite.api.TileObject;
+import net.runelite.api.WallObject;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+
+/**
+ * Memoizes the canvas clickboxes and tile polygons of scene geometry between frames.
+ * <p>
+ * Entries are kept until the camera moves, the viewport changes or a scene is loaded.
+ * Clickboxes are additionally keyed by the object's model, so objects whose model
+ * is rebuilt every frame (eg. animated objects) are only shared within a single frame.
+ * <p>
+ * The returned shapes are shared between callers and must not be modified. This
+ * class must only be used from the client thread.
+ */
+@Singleton
+public class GeometryCache
+{
+	private static final int PRUNE_INTERVAL = 50;
+
+	private final Client client;
+
+	private final Map<TileObject, ObjectEntry> objects = new IdentityHashMap<>();
+	private final Map<LocalPoint, TileEntry> tiles = new HashMap<>();
+
+	private int frame;
+	private double cameraX, cameraY, cameraZ, cameraPitch, cameraYaw;
+	private int scale, viewportX, viewportY, viewportWidth, viewportHeight, plane;
+
+	@Getter
+	private long clickboxHits;
+	@Getter
+	private long clickboxMisses;
+	@Getter
+	private long tileHits;
+	@Getter
+	private long tileMisses;
+	@Getter
+	private long invalidations;
+
+	private static final class ObjectEntry
+	{
+		private Object model1, model2;
+		private int frame;
+		private int lastUsed;
+		private boolean hasClickbox;
+		private Shape clickbox;
+		private boolean hasTilePoly;
+		private Polygon tilePoly;
+	}
+
+	private static final class TileEntry
+	{
+		private int lastUsed;
+		private Polygon poly;
+	}
+
+	@Inject
+	private GeometryCache(Client client, EventBus eventBus)
+	{
+		this.client = client;
+		eventBus.register(this);
+	}
+
+	/**
+	 * Gets the clickbox of a tile object, see {@link TileObject#getClickbox()}.
+	 *
+	 * @param object the object
+	 * @return the clickbox, or null if it is not on screen
+	 */
+	@Nullable
+	public Shape getClickbox(TileObject object)
+	{
+		ObjectEntry entry = getEntry(object);
+		if (entry == null)
+		{
+			++clickboxMisses;
+			return object.getClickbox();
+		}
+
+		boolean valid = entry.hasClickbox && (entry.frame == frame || isStatic(entry));
+		if (!valid)
+		{
+			++clickboxMisses;
+			entry.clickbox = object.getClickbox();
+			entry.hasClickbox = true;
+			entry.frame = frame;
+			return entry.clickbox;
+		}
+
+		++clickboxHits;
+		return entry.clickbox;
+	}
+
+	/**
+	 * Gets the polygon of the tiles under a tile object, see {@link TileObject#getCanvasTilePoly()}.
+	 *
+	 * @param object the object
+	 * @return the polygon, or null if it is not on screen
+	 */
+	@Nullable
+	public Polygon getCanvasTilePoly(TileObject object)
+	{
+		ObjectEntry entry = getEntry(object);
+		if (entry == null)
+		{
+			++tileMisses;
+			return object.getCanvasTilePoly();
+		}
+
+		if (!entry.hasTilePoly)
+		{
+			++tileMisses;
+			entry.tilePoly = object.getCanvasTilePoly();
+			entry.hasTilePoly = true;
+			return entry.tilePoly;
+		}
+
+		++tileHits;
+		return entry.tilePoly;
+	}
+
+	/**
+	 * Gets the polygon of a single tile, see {@link Perspective#getCanvasTilePoly(Client, LocalPoint)}.
+	 *
+	 * @param localLocation the center of the tile
+	 * @return the polygon, or null if it is not on screen
+	 */
+	@Nullable
+	public Polygon getCanvasTilePoly(LocalPoint localLocation)
+	{
+		WorldView wv = client.getTopLevelWorldView();
+		if (wv == null || localLocation.getWorldView() != wv.getId())
+		{
+			// sub world views move independently of the camera
+			++tileMisses;
+			return Perspective.getCanvasTilePoly(client, localLocation);
+		}
+
+		TileEntry entry = tiles.get(localLocation);
+		if (entry == null)
+		{
+			++tileMisses;
+			entry = new TileEntry();
+			entry.poly = Perspective.getCanvasTilePoly(client, localLocation);
+			tiles.put(localLocation, entry);
+		}
+		else
+		{
+			++tileHits;
+		}
+
+		entry.lastUsed = frame;
+		return entry.poly;
+	}
+
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	public void resetStats()
+	{
+		clickboxHits = clickboxMisses = 0;
+		tileHits = tileMisses = 0;
+		invalidations = 0;
+	}
+
+	/**
+	 * Gets the number of objects and tiles currently memoized.
+	 *
+	 * @return the number of entries
+	 */
+	public int size()
+	{
+		return objects.size() + tiles.size();
+	}
+
+	/**
+	 * Discards all memoized geometry.
+	 */
+	public void invalidate()
+	{
+		if (!objects.isEmpty() || !tiles.isEmpty())
+		{
+			objects.clear();
+			tiles.clear();
+			++invalidations;
+		}
+	}
+
+	@Subscribe
+	public void onBeforeRender(BeforeRender event)
+	{
+		++frame;
+
+		if (cameraChanged())
+		{
+			invalidate();
+		}
+		else if (frame % PRUNE_INTERVAL == 0)
+		{
+			// drop geometry which is no longer being drawn, eg. despawned objects
+			int stale = frame - PRUNE_INTERVAL;
+			objects.values().removeIf(e -> e.lastUsed < stale);
+			tiles.values().removeIf(e -> e.lastUsed < stale);
+		}
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		if (event.getGameState() == GameState.LOADING || event.getGameState() == GameState.LOGIN_SCREEN)
+		{
+			invalidate();
+		}
+	}
+
+	private boolean cameraChanged()
+	{
+		double camX = client.getCameraFpX();
+		double camY = client.getCameraFpY();
+		double camZ = client.getCameraFpZ();
+		double pitch = client.getCameraFpPitch();
+		double yaw = client.getCameraFpYaw();
+		int scale = client.getScale();
+		int vpX = client.getViewportXOffset();
+		int vpY = client.getViewportYOffset();
+		int vpW = client.getViewportWidth();
+		int vpH = client.getViewportHeight();
+		int plane = client.getPlane();
+
+		if (camX == cameraX && camY == cameraY && camZ == cameraZ
+			&& pitch == cameraPitch && yaw == cameraYaw
+			&& scale == this.scale && plane == this.plane
+			&& vpX == viewportX && vpY == viewportY && vpW == viewportWidth && vpH == viewportHeight)
+		{
+			return false;
+		}
+
+		cameraX = camX;
+		cameraY = camY;
+		cameraZ = camZ;
+		cameraPitch = pitch;
+		cameraYaw = yaw;
+		this.scale = scale;
+		this.plane = plane;
+		viewportX = vpX;
+		viewportY = vpY;
+		viewportWidth = vpW;
+		viewportHeight = vpH;
+		return true;
+	}
+
+	@Nullable
+	private ObjectEntry getEntry(TileObject object)
+	{
+		WorldView wv = object.getWorldView();
+		if (wv == null || !wv.isTopLevel())
+		{
+			return null;
+		}
+
+		Object model1 = null, model2 = null;
+		if (object instanceof GameObject)
+		{
+			model1 = ((GameObject) object).getRenderable();
+		}
+		else if (object instanceof WallObject)
+		{
+			model1 = ((WallObject) object).getRenderable1();
+			model2 = ((WallObject) object).getRenderable2();
+		}
+		else if (object instanceof DecorativeObject)
+		{
+			model1 = ((DecorativeObject) object).getRenderable();
+			model2 = ((DecorativeObject) object).getRenderable2();
+		}
+		else if (object instanceof GroundObject)
+		{
+			model1 = ((GroundObject) object).getRenderable();
+		}
+		else
+		{
+			// item layers and other objects have no stable model to key on
+			model1 = object;
+			model2 = object;
+		}
+
+		ObjectEntry entry = objects.get(object);
+		if (entry == null)
+		{
+			entry = new ObjectEntry();
+			objects.put(object, entry);
+		}
+
+		if (entry.model1 != model1 || entry.model2 != model2)
+		{
+			entry.model1 = model1;
+			entry.model2 = model2;
+			entry.hasClickbox = false;
+			entry.clickbox = null;
+		}
+
+		entry.lastUsed = frame;
+		return entry;
+	}
+
+	private static boolean isStatic(ObjectEntry entry)
+	{
+		// non-model renderables, such as animated objects, build a new model each frame
+		return (entry.model1 == null || entry.model1 instanceof Model)
+			&& (entry.model2 == null || entry.model2 instanceof Model)
+			&& (entry.model1 != null || entry.model2 != null);
+	}
+}
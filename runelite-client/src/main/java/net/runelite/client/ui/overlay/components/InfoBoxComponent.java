@@ -32,9 +32,12 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.Value;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.overlay.infobox.InfoBox;
 
@@ -61,6 +64,26 @@ public class InfoBoxComponent implements LayoutableRenderableEntity
 	@Getter
 	private InfoBox infoBox;
 
+	// the box is drawn once into an image, and only redrawn when something drawn in it changes
+	@Setter(AccessLevel.NONE)
+	private CacheKey cacheKey;
+	@Setter(AccessLevel.NONE)
+	private BufferedImage cache;
+	private final Point cacheOffset = new Point();
+
+	@Value
+	private static class CacheKey
+	{
+		String text;
+		Color color;
+		Font font;
+		boolean outline;
+		Color backgroundColor;
+		BufferedImage image;
+		int size;
+		Object textAntialiasing;
+	}
+
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
@@ -69,42 +92,73 @@ public class InfoBoxComponent implements LayoutableRenderableEntity
 			return new Dimension();
 		}
 
-		graphics.setFont(getSize() < DEFAULT_SIZE ? FontManager.getRunescapeSmallFont() : font);
+		final int size = getSize();
+		final Font captionFont = size < DEFAULT_SIZE ? FontManager.getRunescapeSmallFont() : font;
+		final CacheKey key = new CacheKey(text, color, captionFont != null ? captionFont : graphics.getFont(), outline, backgroundColor,
+			image, size, graphics.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING));
+		if (!key.equals(cacheKey))
+		{
+			renderCache(graphics, key);
+			cacheKey = key;
+		}
 
 		final int baseX = preferredLocation.x;
 		final int baseY = preferredLocation.y;
+		graphics.drawImage(cache, baseX + cacheOffset.x, baseY + cacheOffset.y, null);
 
-		// Calculate dimensions
-		final FontMetrics metrics = graphics.getFontMetrics();
-		final int size = getSize();
-		final Rectangle bounds = new Rectangle(baseX, baseY, size, size);
+		bounds.setBounds(baseX, baseY, size, size);
+		return bounds.getSize();
+	}
+
+	private void renderCache(Graphics2D graphics, CacheKey key)
+	{
+		final int size = key.getSize();
+		final FontMetrics metrics = graphics.getFontMetrics(key.getFont());
+		final int imageX = (size - image.getWidth(null)) / 2;
+		final int imageY = (size - image.getHeight(null)) / 2;
+		final boolean hasText = !Strings.isNullOrEmpty(text);
+		final int textX = hasText ? (size - metrics.stringWidth(text)) / 2 : 0;
+		final int textY = size - SEPARATOR;
+
+		// the image and caption can overhang the box, so cover everything which is drawn
+		final Rectangle area = new Rectangle(0, 0, size, size);
+		area.add(new Rectangle(imageX, imageY, image.getWidth(null), image.getHeight(null)));
+		if (hasText)
+		{
+			// the outline and shadow are offset by a pixel
+			area.add(new Rectangle(textX - 1, textY - metrics.getMaxAscent() - 1,
+				metrics.stringWidth(text) + 2, metrics.getMaxAscent() + metrics.getMaxDescent() + 2));
+		}
+
+		cache = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_ARGB);
+		cacheOffset.setLocation(area.x, area.y);
+
+		final Graphics2D g = cache.createGraphics();
+		g.setRenderingHints(graphics.getRenderingHints());
+		g.translate(-area.x, -area.y);
+		g.setFont(key.getFont());
 
 		// Render background
 		final BackgroundComponent backgroundComponent = new BackgroundComponent();
 		backgroundComponent.setBackgroundColor(backgroundColor);
-		backgroundComponent.setRectangle(bounds);
-		backgroundComponent.render(graphics);
+		backgroundComponent.setRectangle(new Rectangle(0, 0, size, size));
+		backgroundComponent.render(g);
 
 		// Render image
-		graphics.drawImage(
-			image,
-			baseX + (size - image.getWidth(null)) / 2,
-			baseY + (size - image.getHeight(null)) / 2,
-			null);
+		g.drawImage(image, imageX, imageY, null);
 
 		// Render caption
-		if (!Strings.isNullOrEmpty(text))
+		if (hasText)
 		{
 			final TextComponent textComponent = new TextComponent();
 			textComponent.setColor(color);
 			textComponent.setOutline(outline);
 			textComponent.setText(text);
-			textComponent.setPosition(new Point(baseX + ((size - metrics.stringWidth(text)) / 2), baseY + size - SEPARATOR));
-			textComponent.render(graphics);
+			textComponent.setPosition(new Point(textX, textY));
+			textComponent.render(g);
 		}
 
-		this.bounds.setBounds(bounds);
-		return bounds.getSize();
+		g.dispose();
 	}
 
 	private int getSize()
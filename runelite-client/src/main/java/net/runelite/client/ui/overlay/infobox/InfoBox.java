@@ -46,9 +46,15 @@ public abstract class InfoBox
 	private BufferedImage image;
 
 	@Getter(AccessLevel.PACKAGE)
-	@Setter(AccessLevel.PACKAGE)
 	private BufferedImage scaledImage;
 
+	/**
+	 * Bumped each time the scaled image is set, since an image which finishes loading
+	 * later is set again as the same instance.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int scaledImageRevision;
+
 	@Getter(AccessLevel.PACKAGE)
 	@Setter
 	private InfoBoxPriority priority;
@@ -70,6 +76,12 @@ public abstract class InfoBox
 		setPriority(InfoBoxPriority.NONE);
 	}
 
+	void setScaledImage(BufferedImage scaledImage)
+	{
+		this.scaledImage = scaledImage;
+		++scaledImageRevision;
+	}
+
 	public abstract String getText();
 
 	public abstract Color getTextColor();
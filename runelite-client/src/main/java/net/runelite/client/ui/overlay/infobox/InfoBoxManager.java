@@ -73,6 +73,12 @@ public class InfoBoxManager
 	private static final OverlayMenuEntry FLIP_ME = new OverlayMenuEntry(MenuAction.RUNELITE_INFOBOX, FLIP, "InfoBox Group");
 	private static final OverlayMenuEntry DELETE_ME = new OverlayMenuEntry(MenuAction.RUNELITE_INFOBOX, DELETE, "InfoBox Group");
 
+	private static final Comparator<InfoBox> PRIORITY_ORDER = (b1, b2) -> ComparisonChain
+		.start()
+		.compare(b1.getPriority(), b2.getPriority())
+		.compare(b1.getPlugin().getName(), b2.getPlugin().getName())
+		.result();
+
 	private final Map<String, InfoBoxOverlay> layers = new ConcurrentHashMap<>();
 
 	private final RuneLiteConfig runeLiteConfig;
@@ -154,7 +160,6 @@ public class InfoBoxManager
 
 		String layerName = getLayer(infoBox);
 		infoBox.layer = layerName;
-		InfoBoxOverlay overlay = layers.computeIfAbsent(layerName, this::makeOverlay);
 		List<OverlayMenuEntry> menuEntries = infoBox.getMenuEntries();
 		menuEntries.add(DETACH_ME);
 		menuEntries.add(FLIP_ME);
@@ -166,12 +171,10 @@ public class InfoBoxManager
 
 		synchronized (this)
 		{
-			int idx = findInsertionIndex(overlay.getInfoBoxes(), infoBox, (b1, b2) -> ComparisonChain
-				.start()
-				.compare(b1.getPriority(), b2.getPriority())
-				.compare(b1.getPlugin().getName(), b2.getPlugin().getName())
-				.result());
-			overlay.getInfoBoxes().add(idx, infoBox);
+			InfoBoxOverlay overlay = layers.computeIfAbsent(layerName, this::makeOverlay);
+			List<InfoBox> infoBoxes = new ArrayList<>(overlay.getInfoBoxes());
+			infoBoxes.add(infoBox);
+			setInfoBoxes(overlay, infoBoxes);
 		}
 
 		BufferedImage image = infoBox.getImage();
@@ -190,8 +193,11 @@ public class InfoBoxManager
 			return;
 		}
 
-		if (layers.get(infoBox.layer).getInfoBoxes().remove(infoBox))
+		InfoBoxOverlay overlay = layers.get(infoBox.layer);
+		List<InfoBox> infoBoxes = new ArrayList<>(overlay.getInfoBoxes());
+		if (infoBoxes.remove(infoBox))
 		{
+			overlay.setInfoBoxes(infoBoxes);
 			log.debug("Removed InfoBox {}", infoBox);
 		}
 
@@ -206,8 +212,10 @@ public class InfoBoxManager
 	{
 		for (InfoBoxOverlay overlay : layers.values())
 		{
-			if (overlay.getInfoBoxes().removeIf(filter))
+			List<InfoBox> infoBoxes = new ArrayList<>(overlay.getInfoBoxes());
+			if (infoBoxes.removeIf(filter))
 			{
+				overlay.setInfoBoxes(infoBoxes);
 				log.debug("Removed InfoBoxes for filter {} from {}", filter, overlay);
 			}
 		}
@@ -218,9 +226,20 @@ public class InfoBoxManager
 		return layers.values().stream().map(InfoBoxOverlay::getInfoBoxes).flatMap(Collection::stream).collect(Collectors.toList());
 	}
 
-	public synchronized void cull()
+	public void cull()
 	{
-		layers.values().forEach(l -> l.getInfoBoxes().removeIf(InfoBox::cull));
+		// this runs every frame, so only take the lock when there is something to remove
+		for (InfoBoxOverlay overlay : layers.values())
+		{
+			for (InfoBox infoBox : overlay.getInfoBoxes())
+			{
+				if (infoBox.cull())
+				{
+					removeIf(InfoBox::cull);
+					return;
+				}
+			}
+		}
 	}
 
 	public void updateInfoBoxImage(final InfoBox infoBox)
@@ -306,8 +325,10 @@ public class InfoBoxManager
 		Collection<InfoBox> filtered = oldOverlay.getInfoBoxes().stream()
 			.filter(i -> i.getName().equals(infoBox.getName())).collect(Collectors.toList());
 
-		oldOverlay.getInfoBoxes().removeAll(filtered);
-		if (oldOverlay.getInfoBoxes().isEmpty())
+		List<InfoBox> remaining = new ArrayList<>(oldOverlay.getInfoBoxes());
+		remaining.removeAll(filtered);
+		oldOverlay.setInfoBoxes(remaining);
+		if (remaining.isEmpty())
 		{
 			log.debug("Deleted layer: {}", oldOverlay.getName());
 			unsetOrientation(oldOverlay.getName());
@@ -315,7 +336,9 @@ public class InfoBoxManager
 		}
 
 		InfoBoxOverlay newOverlay = layers.computeIfAbsent(newLayer, this::makeOverlay);
-		newOverlay.getInfoBoxes().addAll(filtered);
+		List<InfoBox> infoBoxes = new ArrayList<>(newOverlay.getInfoBoxes());
+		infoBoxes.addAll(filtered);
+		setInfoBoxes(newOverlay, infoBoxes);
 
 		// Adjust config for new infoboxes
 		for (InfoBox i : filtered)
@@ -350,8 +373,10 @@ public class InfoBoxManager
 			}
 		}
 
-		dest.getInfoBoxes().addAll(infoBoxesToMove);
-		source.getInfoBoxes().clear();
+		List<InfoBox> infoBoxes = new ArrayList<>(dest.getInfoBoxes());
+		infoBoxes.addAll(infoBoxesToMove);
+		setInfoBoxes(dest, infoBoxes);
+		source.setInfoBoxes(Collections.emptyList());
 
 		// remove source
 		unsetOrientation(source.getName());
@@ -398,36 +423,12 @@ public class InfoBoxManager
 	}
 
 	/**
-	 * Find insertion point for the given key into the given sorted list. If key already exists in the list,
-	 * return the index after the last occurrence.
-	 * @param list
-	 * @param key
-	 * @param c
-	 * @param <T>
-	 * @return
+	 * Publish a new set of infoboxes for a layer, sorted by priority. The sort is stable, so
+	 * infoboxes with the same priority and plugin stay in the order they were added.
 	 */
-	private static <T> int findInsertionIndex(List<? extends T> list, T key, Comparator<? super T> c)
+	private static void setInfoBoxes(InfoBoxOverlay overlay, List<InfoBox> infoBoxes)
 	{
-		int idx = Collections.binarySearch(list, key, c);
-
-		if (idx < 0)
-		{
-			// key isn't found in the list
-			return -idx - 1;
-		}
-
-		// list(idx) is equal to key, so it is not necessary to recheck it
-		for (int i = idx + 1; i < list.size(); ++i)
-		{
-			T cur = list.get(i);
-			int cmp = c.compare(cur, key);
-			if (cmp > 0)
-			{
-				// this is the first element which is greater
-				return i;
-			}
-		}
-
-		return list.size();
+		infoBoxes.sort(PRIORITY_ORDER);
+		overlay.setInfoBoxes(infoBoxes);
 	}
 }
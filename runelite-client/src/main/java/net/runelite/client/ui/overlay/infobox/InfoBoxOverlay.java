@@ -33,10 +33,12 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import net.runelite.api.Client;
 import net.runelite.api.MenuAction;
 import net.runelite.api.events.MenuOptionClicked;
@@ -67,11 +69,26 @@ public class InfoBoxOverlay extends OverlayPanel
 	private final String name;
 	private ComponentOrientation orientation;
 
+	/**
+	 * The infoboxes in this layer, sorted by priority. This is replaced rather than modified
+	 * by {@link InfoBoxManager}, so rendering can iterate it without locking.
+	 */
 	@Getter
-	private final List<InfoBox> infoBoxes = new CopyOnWriteArrayList<>();
+	private volatile List<InfoBox> infoBoxes = Collections.emptyList();
+
+	// components are kept between frames so they can reuse their rendered image
+	private final Map<InfoBox, CachedComponent> components = new HashMap<>();
+	private List<InfoBox> componentsFor = Collections.emptyList();
 
 	private InfoBoxComponent hoveredComponent;
 
+	@RequiredArgsConstructor
+	private static class CachedComponent
+	{
+		private final InfoBoxComponent component;
+		private final int imageRevision;
+	}
+
 	InfoBoxOverlay(
 		InfoBoxManager infoboxManager,
 		TooltipManager tooltipManager,
@@ -113,6 +130,13 @@ public class InfoBoxOverlay extends OverlayPanel
 			hoveredComponent = null;
 		}
 
+		final List<InfoBox> infoBoxes = this.infoBoxes;
+		if (infoBoxes != componentsFor)
+		{
+			components.keySet().retainAll(infoBoxes);
+			componentsFor = infoBoxes;
+		}
+
 		if (infoBoxes.isEmpty())
 		{
 			return null;
@@ -137,13 +161,17 @@ public class InfoBoxOverlay extends OverlayPanel
 			final String text = box.getText();
 			final Color color = box.getTextColor();
 
-			final InfoBoxComponent infoBoxComponent = new InfoBoxComponent();
-			infoBoxComponent.setText(text);
-			infoBoxComponent.setFont(font);
-			if (color != null)
+			CachedComponent cached = components.get(box);
+			if (cached == null || cached.imageRevision != box.getScaledImageRevision())
 			{
-				infoBoxComponent.setColor(color);
+				cached = new CachedComponent(new InfoBoxComponent(), box.getScaledImageRevision());
+				components.put(box, cached);
 			}
+
+			final InfoBoxComponent infoBoxComponent = cached.component;
+			infoBoxComponent.setText(text);
+			infoBoxComponent.setFont(font);
+			infoBoxComponent.setColor(color != null ? color : Color.WHITE);
 			infoBoxComponent.setOutline(infoBoxTextOutline);
 			infoBoxComponent.setImage(box.getScaledImage());
 			infoBoxComponent.setTooltip(box.getTooltip());
@@ -224,6 +252,11 @@ public class InfoBoxOverlay extends OverlayPanel
 		return true;
 	}
 
+	void setInfoBoxes(List<InfoBox> infoBoxes)
+	{
+		this.infoBoxes = Collections.unmodifiableList(infoBoxes);
+	}
+
 	ComponentOrientation flip()
 	{
 		return orientation = orientation == ComponentOrientation.HORIZONTAL ? ComponentOrientation.VERTICAL : ComponentOrientation.HORIZONTAL;
@@ -32,10 +32,15 @@ import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.Value;
 import net.runelite.api.Client;
 import net.runelite.api.DecorativeObject;
 import net.runelite.api.GameObject;
@@ -73,15 +78,58 @@ public class ModelOutlineRenderer
 		private final double alphaMultiply;
 	}
 
+	@Value
+	private static class OutlineStyle
+	{
+		int outlineWidth;
+		Color color;
+		int feather;
+	}
+
+	@AllArgsConstructor
+	private static class BatchedModel
+	{
+		// Range of the model's faces in the batch face buffers
+		private final int faceStart;
+		private final int faceEnd;
+		// Screen bounds of the projected vertices
+		private final int x1;
+		private final int y1;
+		private final int x2;
+		private final int y2;
+	}
+
 	private static final int MAX_OUTLINE_WIDTH = 50;
 	private static final int MAX_FEATHER = 4;
 	private static final int DIRECT_WRITE_OUTLINE_WIDTH_THRESHOLD = 10;
 
+	// Batched outlines are rasterized in parallel horizontal bands of the screen when
+	// there are enough faces for the split to be worth the synchronization.
+	private static final int PARALLEL_RASTER_FACE_THRESHOLD = 20_000;
+	private static final int MIN_RASTER_BAND_HEIGHT = 64;
+	private static final int MAX_RASTER_BANDS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+	// Pool for the raster bands, so outlines don't compete with other users of the common pool.
+	// Created on first use, since most clients never draw batches large enough to need it.
+	private ForkJoinPool rasterPool;
+
 	private final Client client;
 
-	// Vertex positions projected on the screen.
-	private final int[] projectedVerticesX = new int[6500];
-	private final int[] projectedVerticesY = new int[6500];
+	// Vertex positions projected on the screen. Grown as larger models are drawn.
+	private int[] projectedVerticesX = new int[6500];
+	private int[] projectedVerticesY = new int[6500];
+
+	// Projected vertices and faces of the current batch, and its models grouped by outline style.
+	// Faces are copied since models returned by the client may be reused for other actors.
+	private boolean batching;
+	private int[] batchVerticesX = new int[0];
+	private int[] batchVerticesY = new int[0];
+	private int batchVertexCount;
+	private int[] batchFaceIndices1 = new int[0];
+	private int[] batchFaceIndices2 = new int[0];
+	private int[] batchFaceIndices3 = new int[0];
+	private int batchFaceCount;
+	private final Map<OutlineStyle, List<BatchedModel>> batchedModels = new LinkedHashMap<>();
 
 	// Window boundaries for the ingame world
 	private int clipX1;
@@ -142,6 +190,44 @@ public class ModelOutlineRenderer
 		return value;
 	}
 
+	/**
+	 * Ensures the projected vertex buffers can hold a certain amount of vertices.
+	 *
+	 * @param vertexCount The amount of vertices needed.
+	 */
+	private void ensureProjectedVerticesCapacity(int vertexCount)
+	{
+		if (projectedVerticesX.length < vertexCount)
+		{
+			int size = nextPowerOfTwo(vertexCount);
+			projectedVerticesX = new int[size];
+			projectedVerticesY = new int[size];
+		}
+	}
+
+	/**
+	 * Ensures the batch buffers can hold a certain amount of vertices and faces, keeping their contents.
+	 *
+	 * @param vertexCount The amount of vertices needed.
+	 * @param faceCount The amount of faces needed.
+	 */
+	private void ensureBatchCapacity(int vertexCount, int faceCount)
+	{
+		if (batchVerticesX.length < vertexCount)
+		{
+			int size = nextPowerOfTwo(vertexCount);
+			batchVerticesX = Arrays.copyOf(batchVerticesX, size);
+			batchVerticesY = Arrays.copyOf(batchVerticesY, size);
+		}
+		if (batchFaceIndices1.length < faceCount)
+		{
+			int size = nextPowerOfTwo(faceCount);
+			batchFaceIndices1 = Arrays.copyOf(batchFaceIndices1, size);
+			batchFaceIndices2 = Arrays.copyOf(batchFaceIndices2, size);
+			batchFaceIndices3 = Arrays.copyOf(batchFaceIndices3, size);
+		}
+	}
+
 	/**
 	 * Determine if a triangle goes counter clockwise
 	 *
@@ -289,7 +375,8 @@ public class ModelOutlineRenderer
 	 */
 	private void resetVisited(int pixelAmount)
 	{
-		int size = (pixelAmount >>> 5);
+		// One extra segment since a line ending on the last pixel touches the segment after it
+		int size = (pixelAmount >>> 5) + 1;
 		if (visited.length < size)
 		{
 			visited = new int[nextPowerOfTwo(size)];
@@ -369,7 +456,12 @@ public class ModelOutlineRenderer
 		else
 		{
 			visited[pixelPosIndex1] |= -(1 << (pixelPos1 & 31));
-			visited[pixelPosIndex2] |= (1 << (pixelPos2 & 31)) - 1;
+			// a line ending on a segment boundary must not touch the next segment, which may be
+			// the start of a row being rasterized by another band
+			if ((pixelPos2 & 31) != 0)
+			{
+				visited[pixelPosIndex2] |= (1 << (pixelPos2 & 31)) - 1;
+			}
 			for (int i = pixelPosIndex1 + 1; i < pixelPosIndex2; i++)
 			{
 				visited[i] = 0xFFFFFFFF;
@@ -386,9 +478,11 @@ public class ModelOutlineRenderer
 	 * @param y2 The y position of the second vertex in the triangle
 	 * @param x3 The x position of the third vertex in the triangle
 	 * @param y3 The y position of the third vertex in the triangle
+	 * @param minY The first row to rasterize to
+	 * @param maxY The row after the last row to rasterize to
 	 */
 	private void simulateTriangleRasterizationForOutline(
-		int x1, int y1, int x2, int y2, int x3, int y3)
+		int x1, int y1, int x2, int y2, int x3, int y3, int minY, int maxY)
 	{
 		// Swap vertices so y1 <= y2 <= y3 using bubble sort
 		if (y1 > y2)
@@ -419,7 +513,7 @@ public class ModelOutlineRenderer
 			x2 = xp;
 		}
 
-		if (y1 > clipY2)
+		if (y1 > maxY)
 		{
 			// All points are outside clip boundaries
 			return;
@@ -443,15 +537,15 @@ public class ModelOutlineRenderer
 			slope3 = (x1 - x3 << 14) / (y1 - y3);
 		}
 
-		if (y2 > clipY2)
+		if (y2 > maxY)
 		{
-			y2 = clipY2;
+			y2 = maxY;
 		}
-		if (y3 > clipY2)
+		if (y3 > maxY)
 		{
-			y3 = clipY2;
+			y3 = maxY;
 		}
-		if (y1 == y3 || y3 < clipY1)
+		if (y1 == y3 || y3 < minY)
 		{
 			return;
 		}
@@ -460,16 +554,16 @@ public class ModelOutlineRenderer
 		x2 <<= 14;
 		x3 = x1;
 
-		if (y1 < clipY1)
+		if (y1 < minY)
 		{
-			x3 -= (y1 - clipY1) * slope3;
-			x1 -= (y1 - clipY1) * slope1;
-			y1 = clipY1;
+			x3 -= (y1 - minY) * slope3;
+			x1 -= (y1 - minY) * slope1;
+			y1 = minY;
 		}
-		if (y2 < clipY1)
+		if (y2 < minY)
 		{
-			x2 -= (y2 - clipY1) * slope2;
-			y2 = clipY1;
+			x2 -= (y2 - minY) * slope2;
+			y2 = minY;
 		}
 
 		int pixelY = y1;
@@ -520,24 +614,42 @@ public class ModelOutlineRenderer
 	 * @param localY The local y position of the vertices.
 	 * @param localZ The local z position of the vertices.
 	 * @param vertexOrientation The orientation of the vertices.
+	 * @param verticesX The buffer to write the projected x positions to.
+	 * @param verticesY The buffer to write the projected y positions to.
+	 * @param offset The position in the buffers to write the first vertex to.
 	 * @return Returns true if any of them are inside the clip area, otherwise false.
 	 */
-	private boolean projectVertices(Model model, int localX, int localY, int localZ, final int vertexOrientation)
+	private boolean projectVertices(Model model, int localX, int localY, int localZ, final int vertexOrientation,
+		int[] verticesX, int[] verticesY, int offset)
 	{
 		final int vertexCount = model.getVerticesCount();
-		Perspective.modelToCanvas(client,
-			vertexCount,
-			localX, localY, localZ,
-			vertexOrientation,
-			model.getVerticesX(), model.getVerticesZ(), model.getVerticesY(),
-			projectedVerticesX, projectedVerticesY);
+		if (offset == 0)
+		{
+			Perspective.modelToCanvas(client,
+				vertexCount,
+				localX, localY, localZ,
+				vertexOrientation,
+				model.getVerticesX(), model.getVerticesZ(), model.getVerticesY(),
+				verticesX, verticesY);
+		}
+		else
+		{
+			Perspective.modelToCanvas(client,
+				vertexCount,
+				localX, localY, localZ,
+				vertexOrientation,
+				model.getVerticesX(), model.getVerticesZ(), model.getVerticesY(),
+				projectedVerticesX, projectedVerticesY);
+			System.arraycopy(projectedVerticesX, 0, verticesX, offset, vertexCount);
+			System.arraycopy(projectedVerticesY, 0, verticesY, offset, vertexCount);
+		}
 
 		boolean anyVisible = false;
 
-		for (int i = 0; i < vertexCount; i++)
+		for (int i = offset; i < offset + vertexCount; i++)
 		{
-			int x = projectedVerticesX[i];
-			int y = projectedVerticesY[i];
+			int x = verticesX[i];
+			int y = verticesY[i];
 
 			if (y != Integer.MIN_VALUE)
 			{
@@ -553,7 +665,7 @@ public class ModelOutlineRenderer
 			else
 			{
 				// Vertex is too close or behind camera and isn't rendered
-				projectedVerticesY[i] = Integer.MIN_VALUE;
+				verticesY[i] = Integer.MIN_VALUE;
 			}
 		}
 
@@ -591,12 +703,71 @@ public class ModelOutlineRenderer
 
 				if (!cullFace(v1x, v1y, v2x, v2y, v3x, v3y))
 				{
-					simulateTriangleRasterizationForOutline(v1x, v1y, v2x, v2y, v3x, v3y);
+					simulateTriangleRasterizationForOutline(v1x, v1y, v2x, v2y, v3x, v3y, clipY1, clipY2);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Copies the faces of a model which would be rendered to the batch face buffers.
+	 *
+	 * @param vertexOffset The position of the model's first vertex in the batch vertex buffers.
+	 */
+	private void batchModelFaces(Model model, int vertexOffset)
+	{
+		final int triangleCount = model.getFaceCount();
+		final int[] indices1 = model.getFaceIndices1();
+		final int[] indices2 = model.getFaceIndices2();
+		final int[] indices3 = model.getFaceIndices3();
+		final byte[] triangleTransparencies = model.getFaceTransparencies();
+
+		for (int i = 0; i < triangleCount; i++)
+		{
+			final int index1 = indices1[i] + vertexOffset;
+			final int index2 = indices2[i] + vertexOffset;
+			final int index3 = indices3[i] + vertexOffset;
+
+			if (batchVerticesY[index1] != Integer.MIN_VALUE &&
+				batchVerticesY[index2] != Integer.MIN_VALUE &&
+				batchVerticesY[index3] != Integer.MIN_VALUE &&
+				// 254 and 255 counts as fully transparent
+				(triangleTransparencies == null || (triangleTransparencies[i] & 255) < 254) &&
+				!cullFace(batchVerticesX[index1], batchVerticesY[index1],
+					batchVerticesX[index2], batchVerticesY[index2],
+					batchVerticesX[index3], batchVerticesY[index3]))
+			{
+				batchFaceIndices1[batchFaceCount] = index1;
+				batchFaceIndices2[batchFaceCount] = index2;
+				batchFaceIndices3[batchFaceCount] = index3;
+				batchFaceCount++;
+			}
+		}
+	}
+
+	/**
+	 * Simulates rendering of a range of batched faces and marks every pixel visited.
+	 *
+	 * @param faceStart The first face in the batch face buffers
+	 * @param faceEnd The face after the last face in the batch face buffers
+	 * @param minY The first row to rasterize to
+	 * @param maxY The row after the last row to rasterize to
+	 */
+	private void simulateBatchRasterizationForOutline(int faceStart, int faceEnd, int minY, int maxY)
+	{
+		for (int i = faceStart; i < faceEnd; i++)
+		{
+			final int index1 = batchFaceIndices1[i];
+			final int index2 = batchFaceIndices2[i];
+			final int index3 = batchFaceIndices3[i];
+			simulateTriangleRasterizationForOutline(
+				batchVerticesX[index1], batchVerticesY[index1],
+				batchVerticesX[index2], batchVerticesY[index2],
+				batchVerticesX[index3], batchVerticesY[index3],
+				minY, maxY);
+		}
+	}
+
 	/**
 	 * Draws the outline of a pixel according to the distance deltas of an outline.
 	 *
@@ -928,13 +1099,47 @@ public class ModelOutlineRenderer
 		clipX2 = client.getViewportWidth() + clipX1;
 		clipY2 = client.getViewportHeight() + clipY1;
 
-		if (!projectVertices(model, localX, localY, localZ, orientation))
+		final int vertexCount = model.getVerticesCount();
+		ensureProjectedVerticesCapacity(vertexCount);
+
+		if (batching)
+		{
+			ensureBatchCapacity(batchVertexCount + vertexCount, batchFaceCount + model.getFaceCount());
+			if (projectVertices(model, localX, localY, localZ, orientation, batchVerticesX, batchVerticesY, batchVertexCount))
+			{
+				int faceStart = batchFaceCount;
+				batchModelFaces(model, batchVertexCount);
+				batchedModels.computeIfAbsent(new OutlineStyle(outlineWidth, color, feather), k -> new ArrayList<>())
+					.add(new BatchedModel(faceStart, batchFaceCount, croppedX1, croppedY1, croppedX2, croppedY2));
+				batchVertexCount += vertexCount;
+			}
+			return;
+		}
+
+		if (!projectVertices(model, localX, localY, localZ, orientation, projectedVerticesX, projectedVerticesY, 0))
 		{
 			// No vertex of the model is visible on the screen, so we can
 			// assume there are no parts of the model to outline.
 			return;
 		}
 
+		cropToOutline(outlineWidth);
+
+		resetVisited(croppedWidth * croppedHeight);
+
+		simulateModelRasterizationForOutline(model);
+
+		drawVisitedOutline(outlineWidth, color, feather);
+	}
+
+	/**
+	 * Expands the cropped area by the outline width, clamps it to the clip area and
+	 * aligns its width so bitset segments align.
+	 *
+	 * @param outlineWidth The width of the outline
+	 */
+	private void cropToOutline(int outlineWidth)
+	{
 		croppedX1 = Math.max(croppedX1 - outlineWidth, clipX1);
 		croppedX2 = Math.min(croppedX2 + outlineWidth, clipX2);
 		croppedX2 += ~(croppedX2 - croppedX1 - 1) & 31; // Increases width to next multiple of 32 so bitset segments align
@@ -942,11 +1147,17 @@ public class ModelOutlineRenderer
 		croppedY2 = Math.min(croppedY2 + outlineWidth, clipY2);
 		croppedWidth = croppedX2 - croppedX1;
 		croppedHeight = croppedY2 - croppedY1;
+	}
 
-		resetVisited(croppedWidth * croppedHeight);
-
-		simulateModelRasterizationForOutline(model);
-
+	/**
+	 * Draws an outline around the pixels marked visited to the client image buffer
+	 *
+	 * @param outlineWidth The width of the outline
+	 * @param color The color of the outline
+	 * @param feather The feather of the outline
+	 */
+	private void drawVisitedOutline(int outlineWidth, Color color, int feather)
+	{
 		// We can improve performance and reduce memory needed when drawing
 		// only a small outline around the model by skipping the pixel queueing
 		// and instead raster pixels directly. This only looks right for opaque
@@ -981,6 +1192,102 @@ public class ModelOutlineRenderer
 		}
 	}
 
+	/**
+	 * Starts collecting outlines instead of drawing them immediately. Outlines requested until
+	 * {@link #endBatch()} is called are grouped by width, color and feather, and each group is
+	 * rasterized into a shared coverage buffer and outlined once. Models in the same group which
+	 * overlap on screen therefore share a single outline.
+	 * <p>
+	 * This must be called from the client thread, and must be followed by {@link #endBatch()}.
+	 */
+	public void startBatch()
+	{
+		batching = true;
+	}
+
+	/**
+	 * Draws all outlines collected since {@link #startBatch()}
+	 */
+	public void endBatch()
+	{
+		if (!batching)
+		{
+			return;
+		}
+
+		batching = false;
+
+		try
+		{
+			for (Map.Entry<OutlineStyle, List<BatchedModel>> entry : batchedModels.entrySet())
+			{
+				OutlineStyle style = entry.getKey();
+				drawBatchedOutlines(entry.getValue(), style.outlineWidth, style.color, style.feather);
+			}
+		}
+		finally
+		{
+			batchedModels.clear();
+			batchVertexCount = 0;
+			batchFaceCount = 0;
+		}
+	}
+
+	private void drawBatchedOutlines(List<BatchedModel> models, int outlineWidth, Color color, int feather)
+	{
+		croppedX1 = Integer.MAX_VALUE;
+		croppedX2 = Integer.MIN_VALUE;
+		croppedY1 = Integer.MAX_VALUE;
+		croppedY2 = Integer.MIN_VALUE;
+
+		int faceCount = 0;
+		for (BatchedModel m : models)
+		{
+			croppedX1 = Math.min(croppedX1, m.x1);
+			croppedX2 = Math.max(croppedX2, m.x2);
+			croppedY1 = Math.min(croppedY1, m.y1);
+			croppedY2 = Math.max(croppedY2, m.y2);
+			faceCount += m.faceEnd - m.faceStart;
+		}
+
+		cropToOutline(outlineWidth);
+
+		resetVisited(croppedWidth * croppedHeight);
+
+		// Rows of the visited bitset never share a segment since the cropped width is a multiple of 32,
+		// so horizontal bands of the cropped area can be rasterized concurrently.
+		final int bands = Math.min(MAX_RASTER_BANDS, croppedHeight / MIN_RASTER_BAND_HEIGHT);
+		if (bands > 1 && faceCount >= PARALLEL_RASTER_FACE_THRESHOLD)
+		{
+			if (rasterPool == null)
+			{
+				rasterPool = new ForkJoinPool(MAX_RASTER_BANDS);
+			}
+
+			rasterPool.submit(() -> IntStream.range(0, bands).parallel().forEach(band ->
+			{
+				int minY = croppedY1 + croppedHeight * band / bands;
+				int maxY = croppedY1 + croppedHeight * (band + 1) / bands;
+				for (BatchedModel m : models)
+				{
+					if (m.y2 > minY && m.y1 < maxY)
+					{
+						simulateBatchRasterizationForOutline(m.faceStart, m.faceEnd, minY, maxY);
+					}
+				}
+			})).join();
+		}
+		else
+		{
+			for (BatchedModel m : models)
+			{
+				simulateBatchRasterizationForOutline(m.faceStart, m.faceEnd, clipY1, clipY2);
+			}
+		}
+
+		drawVisitedOutline(outlineWidth, color, feather);
+	}
+
 	public void drawOutline(NPC npc, int outlineWidth, Color color, int feather)
 	{
 		int size = 1;
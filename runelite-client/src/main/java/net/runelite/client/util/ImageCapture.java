@@ -26,6 +26,7 @@
 package net.runelite.client.util;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Insets;
@@ -41,9 +42,18 @@ import java.lang.reflect.InvocationTargetException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
@@ -66,6 +76,30 @@ public class ImageCapture
 {
 	private static final DateFormat TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
 
+	/**
+	 * Number of threads encoding screenshots at once
+	 */
+	private static final int ENCODER_THREADS = 2;
+	/**
+	 * Number of screenshots which may wait for an encoder thread before new screenshots are dropped.
+	 * Each pending screenshot holds a full frame, which is ~33mb at 4k.
+	 */
+	private static final int MAX_PENDING_SCREENSHOTS = 4;
+	/**
+	 * PNG compression quality. The JDK writer maps this to a deflate level of 9 - round(9 * quality), so this
+	 * selects deflate level 1 which is faster than the default level at the cost of slightly larger files.
+	 */
+	private static final float PNG_COMPRESSION_QUALITY = 8f / 9f;
+
+	private final ExecutorService encoderExecutor = new ThreadPoolExecutor(
+		ENCODER_THREADS, ENCODER_THREADS,
+		0L, TimeUnit.MILLISECONDS,
+		new ArrayBlockingQueue<>(MAX_PENDING_SCREENSHOTS),
+		new ThreadFactoryBuilder()
+			.setNameFormat("screenshot-encoder-%d")
+			.setDaemon(true)
+			.build());
+
 	private final Client client;
 	private final Notifier notifier;
 	private final ClientUI clientUi;
@@ -163,6 +197,8 @@ public class ImageCapture
 
 	/**
 	 * Save a screenshot to disk. And optionally send a notification and copy it to clipboard.
+	 * The screenshot is encoded asynchronously, and is dropped if too many screenshots are already
+	 * waiting to be encoded. The image must not be modified after calling this.
 	 *
 	 * @param screenshot screenshot
 	 * @param fileName Filename to use, without file extension.
@@ -207,22 +243,51 @@ public class ImageCapture
 			playerFolder = SCREENSHOT_DIR;
 		}
 
-		playerFolder.mkdirs();
-
-		fileName += (fileName.isEmpty() ? "" : " ") + format(new Date());
+		final String name = fileName + (fileName.isEmpty() ? "" : " ") + format(new Date());
 
-		File screenshotFile = new File(playerFolder, fileName + ".png");
-		// To make sure that screenshots don't get overwritten, check if file exists,
-		// and if it does create file with same name and suffix.
-		int i = 1;
-		while (screenshotFile.exists())
+		// Encoding large frames is slow, so it is done on the encoder threads. If they are backed up,
+		// drop the screenshot instead of queueing more frames in memory.
+		try
+		{
+			encoderExecutor.execute(RunnableExceptionLogger.wrap(() ->
+				writeScreenshot(screenshot, playerFolder, name, notify, saveToClipboard)));
+		}
+		catch (RejectedExecutionException ex)
 		{
-			screenshotFile = new File(playerFolder, fileName + String.format("(%d)", i++) + ".png");
+			log.warn("Dropping screenshot {}, {} screenshots are already pending", name, MAX_PENDING_SCREENSHOTS);
 		}
+	}
+
+	private void writeScreenshot(BufferedImage screenshot, File playerFolder, String fileName, boolean notify, boolean saveToClipboard)
+	{
+		playerFolder.mkdirs();
 
+		File screenshotFile;
 		try
 		{
-			ImageIO.write(screenshot, "PNG", screenshotFile);
+			screenshotFile = new File(playerFolder, fileName + ".png");
+			// To make sure that screenshots don't get overwritten, check if file exists,
+			// and if it does create file with same name and suffix. The file is created
+			// atomically so concurrent encoders can't claim the same name.
+			int i = 1;
+			while (!screenshotFile.createNewFile())
+			{
+				screenshotFile = new File(playerFolder, fileName + String.format("(%d)", i++) + ".png");
+			}
+
+			try
+			{
+				writePng(screenshot, screenshotFile);
+			}
+			catch (IOException | RuntimeException ex)
+			{
+				// don't leave the empty or partially written file behind
+				if (!screenshotFile.delete())
+				{
+					log.warn("unable to delete incomplete screenshot {}", screenshotFile);
+				}
+				throw ex;
+			}
 		}
 		catch (IOException ex)
 		{
@@ -253,6 +318,34 @@ public class ImageCapture
 		eventBus.post(screenshotTaken);
 	}
 
+	/**
+	 * Write an image as a PNG using a fast compression level
+	 *
+	 * @param image image to write
+	 * @param file destination file
+	 * @throws IOException if the file can't be written
+	 */
+	private static void writePng(BufferedImage image, File file) throws IOException
+	{
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("PNG").next();
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(file))
+		{
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (param.canWriteCompressed())
+			{
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(PNG_COMPRESSION_QUALITY);
+			}
+
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		}
+		finally
+		{
+			writer.dispose();
+		}
+	}
+
 	/**
 	 * Saves a screenshot to the screenshots folder as a PNG, and fires a ScreenshotTaken
 	 * event afterward.
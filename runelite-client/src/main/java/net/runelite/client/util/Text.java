@@ -30,8 +30,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import java.util.Collection;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.UnaryOperator;
 import org.apache.commons.text.WordUtils;
 import org.apache.commons.text.similarity.JaroWinklerDistance;
 
@@ -41,7 +40,8 @@ import org.apache.commons.text.similarity.JaroWinklerDistance;
 public class Text
 {
 	private static final JaroWinklerDistance DISTANCE = new JaroWinklerDistance();
-	private static final Pattern TAG_REGEXP = Pattern.compile("<[^>]*>");
+	private static final StringCache REMOVE_TAGS_CACHE = new StringCache(Text::removeTags);
+	private static final StringCache STANDARDIZE_CACHE = new StringCache(Text::standardize);
 	private static final Splitter COMMA_SPLITTER = Splitter
 		.on(",")
 		.omitEmptyStrings()
@@ -81,7 +81,7 @@ public class Text
 	 */
 	public static String removeTags(String str)
 	{
-		return TAG_REGEXP.matcher(str).replaceAll("");
+		return stripTags(str, false);
 	}
 
 	/**
@@ -92,22 +92,20 @@ public class Text
 	 */
 	public static String removeFormattingTags(String str)
 	{
-		StringBuffer stringBuffer = new StringBuffer();
-		Matcher matcher = TAG_REGEXP.matcher(str);
-		while (matcher.find())
-		{
-			matcher.appendReplacement(stringBuffer, "");
-			String match = matcher.group(0);
-			switch (match)
-			{
-				case "<lt>":
-				case "<gt>":
-					stringBuffer.append(match);
-					break;
-			}
-		}
-		matcher.appendTail(stringBuffer);
-		return stringBuffer.toString();
+		return stripTags(str, true);
+	}
+
+	/**
+	 * Removes all tags from the given string, memoizing the result. This is intended for the small set of
+	 * strings which are stripped over and over, such as menu options and targets, and should not be used
+	 * for free-form text like chat messages.
+	 *
+	 * @param str The string to remove tags from.
+	 * @return The given string with all tags removed from it.
+	 */
+	public static String removeTagsCached(String str)
+	{
+		return REMOVE_TAGS_CACHE.get(str);
 	}
 
 	/**
@@ -121,6 +119,61 @@ public class Text
 		return removeTags(str).replace('\u00A0', ' ').trim().toLowerCase();
 	}
 
+	/**
+	 * Memoizing variant of {@link #standardize(String)}, see {@link #removeTagsCached(String)}.
+	 *
+	 * @param str The string to standardize
+	 * @return The given `str` that is standardized
+	 */
+	public static String standardizeCached(String str)
+	{
+		return STANDARDIZE_CACHE.get(str);
+	}
+
+	/**
+	 * Strips tags in a single pass, matching the semantics of the regex {@code <[^>]*>}. Returns the
+	 * input string unchanged if it contains no tags.
+	 */
+	private static String stripTags(String str, boolean keepEscapes)
+	{
+		int open = str.indexOf('<');
+		if (open == -1)
+		{
+			return str;
+		}
+
+		int close = str.indexOf('>', open + 1);
+		if (close == -1)
+		{
+			return str;
+		}
+
+		final int len = str.length();
+		final StringBuilder sb = new StringBuilder(len);
+		int start = 0;
+		do
+		{
+			sb.append(str, start, open);
+			if (keepEscapes && close - open == 3
+				&& (str.startsWith("lt", open + 1) || str.startsWith("gt", open + 1)))
+			{
+				sb.append(str, open, close + 1);
+			}
+			start = close + 1;
+
+			open = str.indexOf('<', start);
+			if (open == -1)
+			{
+				break;
+			}
+			close = str.indexOf('>', open + 1);
+		}
+		while (close != -1);
+
+		sb.append(str, start, len);
+		return sb.toString();
+	}
+
 	/**
 	 * Convert a string into Jagex username format
 	 * Remove all non-ascii characters, replace nbsp with space, replace _- with spaces, and trim
@@ -233,4 +286,55 @@ public class Text
 		}
 		return true;
 	}
+
+	/**
+	 * A small direct-mapped cache of string transformations. Entries are immutable so that
+	 * the table can be read and written from any thread without locking; a racing write
+	 * only costs a recomputation.
+	 */
+	private static final class StringCache
+	{
+		private static final int SIZE = 1024;
+		private static final int MAX_LENGTH = 256;
+
+		private final UnaryOperator<String> function;
+		private final Entry[] entries = new Entry[SIZE];
+
+		StringCache(UnaryOperator<String> function)
+		{
+			this.function = function;
+		}
+
+		String get(String str)
+		{
+			if (str.length() > MAX_LENGTH)
+			{
+				return function.apply(str);
+			}
+
+			final int hash = str.hashCode();
+			final int idx = (hash ^ (hash >>> 16)) & (SIZE - 1);
+			Entry entry = entries[idx];
+			if (entry != null && (entry.key == str || entry.key.equals(str)))
+			{
+				return entry.value;
+			}
+
+			final String value = function.apply(str);
+			entries[idx] = new Entry(str, value);
+			return value;
+		}
+
+		private static final class Entry
+		{
+			private final String key;
+			private final String value;
+
+			private Entry(String key, String value)
+			{
+				this.key = key;
+				this.value = value;
+			}
+		}
+	}
 }
@@ -24,34 +24,168 @@
  */
 package net.runelite.client.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
-public class WildcardMatcher
+/**
+ * Case insensitive matching of text against patterns where {@code *} matches any sequence
+ * of characters. Patterns are compiled into their literal segments and matched without
+ * regular expressions.
+ */
+public final class WildcardMatcher
 {
-	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
+	private final String pattern;
+	// the literal parts of the pattern between the *s
+	private final String[] segments;
+	private final boolean anchoredStart;
+	private final boolean anchoredEnd;
+	private final int minLength;
+
+	private WildcardMatcher(String pattern)
+	{
+		this.pattern = pattern;
+
+		List<String> parts = new ArrayList<>();
+		int start = 0;
+		int star;
+		while ((star = pattern.indexOf('*', start)) != -1)
+		{
+			if (star > start)
+			{
+				parts.add(pattern.substring(start, star));
+			}
+			start = star + 1;
+		}
+		if (start < pattern.length())
+		{
+			parts.add(pattern.substring(start));
+		}
+
+		segments = parts.toArray(new String[0]);
+		anchoredStart = !pattern.startsWith("*");
+		anchoredEnd = !pattern.endsWith("*");
+
+		int length = 0;
+		for (String segment : segments)
+		{
+			length += segment.length();
+		}
+		minLength = length;
+	}
+
+	/**
+	 * Compile a pattern for repeated matching
+	 */
+	public static WildcardMatcher compile(String pattern)
+	{
+		return new WildcardMatcher(pattern);
+	}
+
+	/**
+	 * Compile a list of patterns into a single matcher which matches text matching any of them
+	 */
+	public static WildcardMatcherSet compile(Collection<String> patterns)
+	{
+		return new WildcardMatcherSet(patterns);
+	}
 
 	public static boolean matches(String pattern, String text)
 	{
-		final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
-		final StringBuffer buffer = new StringBuffer();
+		return compile(pattern).matches(text);
+	}
+
+	public String getPattern()
+	{
+		return pattern;
+	}
+
+	/**
+	 * Whether this pattern has no wildcards, and so only matches text equal to it ignoring case
+	 */
+	public boolean isLiteral()
+	{
+		return anchoredStart && anchoredEnd && segments.length <= 1;
+	}
 
-		buffer.append("(?i)");
-		while (matcher.find())
+	public boolean matches(String text)
+	{
+		final int length = text.length();
+		if (length < minLength)
+		{
+			return false;
+		}
+
+		if (segments.length == 0)
+		{
+			// either empty, which only matches empty text, or only *s, which matches anything
+			return !anchoredStart || length == 0;
+		}
+
+		int first = 0;
+		int last = segments.length;
+		int from = 0;
+		int to = length;
+
+		if (anchoredStart)
 		{
-			if (matcher.group(1) != null)
+			final String segment = segments[0];
+			if (!text.regionMatches(true, 0, segment, 0, segment.length()))
 			{
-				matcher.appendReplacement(buffer, ".*");
+				return false;
 			}
-			else
+			from = segment.length();
+			first = 1;
+		}
+
+		if (anchoredEnd && last > first)
+		{
+			final String segment = segments[last - 1];
+			final int start = length - segment.length();
+			if (start < from || !text.regionMatches(true, start, segment, 0, segment.length()))
 			{
-				matcher.appendReplacement(buffer, Matcher.quoteReplacement(Pattern.quote(matcher.group(0))));
+				return false;
 			}
+			to = start;
+			--last;
+		}
+		else if (anchoredEnd)
+		{
+			// the whole pattern is a single literal segment, which must be the whole text
+			return from == length;
 		}
 
-		matcher.appendTail(buffer);
-		final String replaced = buffer.toString();
+		// the remaining segments are surrounded by *s, so taking the earliest match of each is always safe
+		for (int i = first; i < last; ++i)
+		{
+			final String segment = segments[i];
+			final int idx = indexOfIgnoreCase(text, segment, from, to);
+			if (idx == -1)
+			{
+				return false;
+			}
+			from = idx + segment.length();
+		}
 
-		return text.matches(replaced);
+		return true;
+	}
+
+	private static int indexOfIgnoreCase(String text, String segment, int from, int to)
+	{
+		final int segmentLength = segment.length();
+		for (int i = from; i + segmentLength <= to; ++i)
+		{
+			if (text.regionMatches(true, i, segment, 0, segmentLength))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString()
+	{
+		return pattern;
 	}
 }
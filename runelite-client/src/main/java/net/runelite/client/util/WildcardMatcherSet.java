@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A list of wildcard patterns, compiled for testing text against all of them at once.
+ * Patterns without wildcards are looked up in a case insensitive set, and only the
+ * remaining patterns are matched one by one.
+ *
+ * @see WildcardMatcher#compile(Collection)
+ */
+public final class WildcardMatcherSet
+{
+	private final Set<String> literals = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+	private final WildcardMatcher[] wildcards;
+
+	WildcardMatcherSet(Collection<String> patterns)
+	{
+		List<WildcardMatcher> wildcards = new ArrayList<>();
+		for (String pattern : patterns)
+		{
+			WildcardMatcher matcher = WildcardMatcher.compile(pattern);
+			if (matcher.isLiteral())
+			{
+				literals.add(pattern);
+			}
+			else
+			{
+				wildcards.add(matcher);
+			}
+		}
+		this.wildcards = wildcards.toArray(new WildcardMatcher[0]);
+	}
+
+	public boolean isEmpty()
+	{
+		return literals.isEmpty() && wildcards.length == 0;
+	}
+
+	/**
+	 * Test if the text matches any of the patterns
+	 */
+	public boolean matches(String text)
+	{
+		if (!literals.isEmpty() && literals.contains(text))
+		{
+			return true;
+		}
+
+		for (WildcardMatcher wildcard : wildcards)
+		{
+			if (wildcard.matches(text))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Test if the text matches any of the patterns which contain a wildcard
+	 */
+	public boolean matchesWildcard(String text)
+	{
+		for (WildcardMatcher wildcard : wildcards)
+		{
+			if (wildcard.matches(text))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
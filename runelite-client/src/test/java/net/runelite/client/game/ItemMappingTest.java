@@ -24,11 +24,9 @@
  */
 package net.runelite.client.game;
 
-import com.google.common.collect.Multimap;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableGraph;
-import java.util.Map;
 import static org.junit.Assert.assertFalse;
 import org.junit.Test;
 
@@ -37,14 +35,15 @@ public class ItemMappingTest
 	@Test
 	public void testCycles()
 	{
-		Multimap<Integer, ItemMapping> mappings = ItemMapping.MAPPINGS;
-
 		MutableGraph<Integer> graph = GraphBuilder
 			.directed()
 			.build();
-		for (Map.Entry<Integer, ItemMapping> entry : mappings.entries())
+		for (int i = 0; i < ItemMapping.MAPPED_IDS.length; ++i)
 		{
-			graph.putEdge(entry.getKey(), entry.getValue().getTradeableItem());
+			for (ItemMapping mapping : ItemMapping.MAPPINGS[i])
+			{
+				graph.putEdge(ItemMapping.MAPPED_IDS[i], mapping.getTradeableItem());
+			}
 		}
 
 		assertFalse("item mapping contains a cycle", Graphs.hasCycle(graph));
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ItemVariationMappingTest
+{
+	@Test
+	public void testMatchesJson() throws IOException
+	{
+		final Map<String, Collection<Integer>> itemVariations;
+		try (InputStream in = ItemVariationMappingTest.class.getResourceAsStream("/item_variations.json"))
+		{
+			// CHECKSTYLE:OFF
+			itemVariations = new Gson().fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), new TypeToken<Map<String, Collection<Integer>>>(){}.getType());
+			// CHECKSTYLE:ON
+		}
+
+		for (Collection<Integer> value : itemVariations.values())
+		{
+			final Iterator<Integer> iterator = value.iterator();
+			final int base = iterator.next();
+			final List<Integer> expected = new ArrayList<>();
+			while (iterator.hasNext())
+			{
+				final int id = iterator.next();
+				assertEquals(base, ItemVariationMapping.map(id));
+				expected.add(id);
+			}
+			expected.add(base);
+
+			assertEquals(base, ItemVariationMapping.map(base));
+			assertEquals(expected, new ArrayList<>(ItemVariationMapping.getVariations(base)));
+			for (int id : expected)
+			{
+				assertTrue(ItemVariationMapping.getVariations(base).contains(id));
+			}
+			assertFalse(ItemVariationMapping.getVariations(base).contains(-1));
+		}
+
+		assertEquals(List.of(-1), ItemVariationMapping.getVariations(-1));
+		assertEquals(-1, ItemVariationMapping.map(-1));
+	}
+}
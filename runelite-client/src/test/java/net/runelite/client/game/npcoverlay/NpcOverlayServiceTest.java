@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game.npcoverlay;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import net.runelite.api.Client;
+import net.runelite.api.NPC;
+import net.runelite.api.events.NpcChanged;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.ui.overlay.outline.ModelOutlineRenderer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NpcOverlayServiceTest
+{
+	@Inject
+	private NpcOverlayService npcOverlayService;
+
+	@Mock
+	@Bind
+	private Client client;
+
+	@Mock
+	@Bind
+	private ClientThread clientThread;
+
+	@Mock
+	@Bind
+	private OverlayManager overlayManager;
+
+	@Mock
+	@Bind
+	private ModelOutlineRenderer modelOutlineRenderer;
+
+	@Bind
+	private EventBus eventBus = new EventBus();
+
+	private final List<NPC> npcs = new ArrayList<>();
+	private NPC goblin, guard, cow;
+	private int goblinCalls, guardCalls;
+
+	private final Function<NPC, HighlightedNpc> goblins = npc ->
+	{
+		++goblinCalls;
+		return npc.getId() == 1 ? highlight(npc, Color.RED) : null;
+	};
+
+	private final Function<NPC, HighlightedNpc> guards = npc ->
+	{
+		++guardCalls;
+		return npc.getId() == 1 || npc.getId() == 2 ? highlight(npc, Color.BLUE) : null;
+	};
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		doAnswer(a ->
+		{
+			a.<Runnable>getArgument(0).run();
+			return null;
+		}).when(clientThread).invoke(any(Runnable.class));
+		when(client.getNpcs()).thenReturn(npcs);
+
+		goblin = npc(0, 1);
+		guard = npc(1, 2);
+		cow = npc(2, 3);
+
+		npcOverlayService.registerHighlighter(goblins);
+		npcOverlayService.registerHighlighter(guards);
+		for (NPC npc : Arrays.asList(goblin, guard, cow))
+		{
+			npcs.add(npc);
+			eventBus.post(new NpcSpawned(npc));
+		}
+	}
+
+	@Test
+	public void testSpawn()
+	{
+		assertEquals(Color.RED, highlightColor(goblin));
+		assertEquals(Color.BLUE, highlightColor(guard));
+		assertNull(highlightColor(cow));
+		assertEquals(3, goblinCalls);
+		// the goblin was matched by the first highlighter, so the second isn't needed
+		assertEquals(2, guardCalls);
+	}
+
+	@Test
+	public void testRebuildHighlighter()
+	{
+		goblinCalls = guardCalls = 0;
+		npcOverlayService.rebuild(guards);
+		assertEquals(0, goblinCalls);
+		assertEquals(2, guardCalls);
+		assertEquals(Color.BLUE, highlightColor(guard));
+
+		goblinCalls = guardCalls = 0;
+		npcOverlayService.rebuild();
+		assertEquals(3, goblinCalls);
+		assertEquals(2, guardCalls);
+	}
+
+	@Test
+	public void testChanged()
+	{
+		goblinCalls = guardCalls = 0;
+		// composition is unchanged, so the memoized results are used
+		eventBus.post(new NpcChanged(cow, null));
+		assertEquals(0, goblinCalls);
+		assertEquals(0, guardCalls);
+
+		when(cow.getId()).thenReturn(2);
+		eventBus.post(new NpcChanged(cow, null));
+		assertEquals(1, goblinCalls);
+		assertEquals(1, guardCalls);
+		assertEquals(Color.BLUE, highlightColor(cow));
+	}
+
+	@Test
+	public void testDespawnAndUnregister()
+	{
+		npcs.remove(guard);
+		eventBus.post(new NpcDespawned(guard));
+		assertNull(highlightColor(guard));
+
+		goblinCalls = guardCalls = 0;
+		npcOverlayService.unregisterHighlighter(goblins);
+		// the goblin falls through to the guard highlighter, the cow's result is memoized
+		assertEquals(Color.BLUE, highlightColor(goblin));
+		assertNull(highlightColor(cow));
+		assertEquals(1, guardCalls);
+
+		List<NpcOverlayService.HighlighterStats> stats = npcOverlayService.getHighlighterStats();
+		assertEquals(1, stats.size());
+		assertEquals(NpcOverlayServiceTest.class.getName(), stats.get(0).getName());
+		assertEquals(3, stats.get(0).getEvaluations());
+	}
+
+	private Color highlightColor(NPC npc)
+	{
+		HighlightedNpc highlightedNpc = npcOverlayService.getHighlightedNpcs().get(npc);
+		return highlightedNpc != null ? highlightedNpc.getHighlightColor() : null;
+	}
+
+	private static NPC npc(int index, int id)
+	{
+		NPC npc = mock(NPC.class);
+		when(npc.getIndex()).thenReturn(index);
+		when(npc.getId()).thenReturn(id);
+		return npc;
+	}
+
+	private static HighlightedNpc highlight(NPC npc, Color color)
+	{
+		return HighlightedNpc.builder()
+			.npc(npc)
+			.highlightColor(color)
+			.build();
+	}
+}
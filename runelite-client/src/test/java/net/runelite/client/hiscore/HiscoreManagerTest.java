@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.hiscore;
+
+import com.google.gson.Gson;
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HiscoreManagerTest
+{
+	@Rule
+	public final MockWebServer server = new MockWebServer();
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Bind
+	private OkHttpClient okHttpClient;
+
+	@Bind
+	private Gson gson = new Gson();
+
+	private HiscoreClient hiscoreClient;
+	private ScheduledExecutorService executor;
+	private File cacheFile;
+	private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(365));
+	// the overall level to respond with, 0 for not found and -1 for a server error
+	private final AtomicInteger level = new AtomicInteger(1);
+
+	@Before
+	public void before() throws IOException
+	{
+		// redirect the hiscore endpoints to the mock server
+		okHttpClient = new OkHttpClient.Builder()
+			.addInterceptor(chain ->
+			{
+				Request request = chain.request();
+				HttpUrl url = request.url().newBuilder()
+					.scheme("http")
+					.host(server.getHostName())
+					.port(server.getPort())
+					.build();
+				return chain.proceed(request.newBuilder().url(url).build());
+			})
+			.build();
+		hiscoreClient = Guice.createInjector(BoundFieldModule.of(this)).getInstance(HiscoreClient.class);
+
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request)
+			{
+				int l = level.get();
+				if (l == 0)
+				{
+					return new MockResponse().setResponseCode(404);
+				}
+				if (l < 0)
+				{
+					return new MockResponse().setResponseCode(500);
+				}
+				return new MockResponse()
+					.setBodyDelay(50, TimeUnit.MILLISECONDS)
+					.setBody("{\"skills\":[{\"name\":\"Overall\",\"rank\":1,\"level\":" + l + ",\"xp\":100}],\"activities\":[]}");
+			}
+		});
+
+		executor = Executors.newSingleThreadScheduledExecutor();
+		cacheFile = new File(folder.getRoot(), "hiscores.json");
+	}
+
+	@After
+	public void after()
+	{
+		executor.shutdownNow();
+	}
+
+	private HiscoreManager manager(long requestInterval)
+	{
+		return new HiscoreManager(executor, hiscoreClient, gson, cacheFile, now::get, requestInterval);
+	}
+
+	private static int overall(HiscoreResult result)
+	{
+		return result.getSkill(HiscoreSkill.OVERALL).getLevel();
+	}
+
+	@Test
+	public void testCoalesce() throws Exception
+	{
+		HiscoreManager hiscoreManager = manager(0);
+
+		assertNull(hiscoreManager.lookupAsync("zezima", HiscoreEndpoint.NORMAL));
+		assertNull(hiscoreManager.lookupAsync("zezima", HiscoreEndpoint.NORMAL));
+		assertEquals(1, overall(hiscoreManager.lookup("zezima", HiscoreEndpoint.NORMAL)));
+		assertEquals(1, overall(hiscoreManager.lookupAsync("zezima", HiscoreEndpoint.NORMAL)));
+		assertEquals(1, server.getRequestCount());
+
+		// a different endpoint is a different player
+		hiscoreManager.lookup("zezima", HiscoreEndpoint.IRONMAN);
+		assertEquals(2, server.getRequestCount());
+	}
+
+	@Test
+	public void testStaleWhileRevalidate() throws Exception
+	{
+		HiscoreManager hiscoreManager = manager(0);
+		HiscoreResult first = hiscoreManager.lookup("zezima", HiscoreEndpoint.NORMAL);
+		assertEquals(1, server.getRequestCount());
+
+		level.set(2);
+		now.addAndGet(TimeUnit.HOURS.toMillis(2));
+		// the stale result is returned immediately, and refreshed in the background
+		assertSame(first, hiscoreManager.lookupAsync("zezima", HiscoreEndpoint.NORMAL));
+		assertEquals(2, overall(hiscoreManager.fetch("zezima", HiscoreEndpoint.NORMAL).get(5, TimeUnit.SECONDS)));
+		assertEquals(2, server.getRequestCount());
+		assertEquals(2, overall(hiscoreManager.lookupAsync("zezima", HiscoreEndpoint.NORMAL)));
+
+		// too stale to be served at all
+		now.addAndGet(TimeUnit.DAYS.toMillis(2));
+		level.set(3);
+		assertEquals(3, overall(hiscoreManager.lookup("zezima", HiscoreEndpoint.NORMAL)));
+		assertEquals(3, server.getRequestCount());
+	}
+
+	@Test
+	public void testNotFound() throws Exception
+	{
+		level.set(0);
+		HiscoreManager hiscoreManager = manager(0);
+		assertNull(hiscoreManager.lookup("nobody", HiscoreEndpoint.NORMAL));
+		assertNull(hiscoreManager.lookupAsync("nobody", HiscoreEndpoint.NORMAL));
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testError() throws Exception
+	{
+		level.set(-1);
+		HiscoreManager hiscoreManager = manager(0);
+		try
+		{
+			hiscoreManager.lookup("zezima", HiscoreEndpoint.NORMAL);
+			fail();
+		}
+		catch (IOException ex)
+		{
+			// expected
+		}
+
+		// failures aren't retried immediately
+		assertNull(hiscoreManager.lookupAsync("zezima", HiscoreEndpoint.NORMAL));
+		assertEquals(1, server.getRequestCount());
+
+		level.set(1);
+		now.addAndGet(TimeUnit.MINUTES.toMillis(10));
+		assertNull(hiscoreManager.lookupAsync("zezima", HiscoreEndpoint.NORMAL));
+		assertEquals(1, overall(hiscoreManager.fetch("zezima", HiscoreEndpoint.NORMAL).get(5, TimeUnit.SECONDS)));
+		assertEquals(2, server.getRequestCount());
+	}
+
+	@Test
+	public void testPersistence() throws Exception
+	{
+		HiscoreManager hiscoreManager = manager(0);
+		hiscoreManager.lookup("zezima", HiscoreEndpoint.NORMAL);
+		hiscoreManager.save();
+		assertTrue(cacheFile.exists());
+
+		HiscoreManager reloaded = manager(0);
+		// wait for the load scheduled on construction
+		executor.submit(() -> null).get();
+		assertEquals(1, overall(reloaded.lookupAsync("zezima", HiscoreEndpoint.NORMAL)));
+		assertEquals("zezima", reloaded.lookupAsync("zezima", HiscoreEndpoint.NORMAL).getPlayer());
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testRateLimit() throws Exception
+	{
+		HiscoreManager hiscoreManager = manager(TimeUnit.MILLISECONDS.toNanos(100));
+		long start = System.nanoTime();
+		for (String name : new String[]{"a", "b", "c"})
+		{
+			hiscoreManager.fetch(name, HiscoreEndpoint.NORMAL);
+		}
+		hiscoreManager.fetch("c", HiscoreEndpoint.NORMAL).get(5, TimeUnit.SECONDS);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue("requests were not spaced out: " + elapsed + "ms", elapsed >= 200);
+		assertEquals(3, server.getRequestCount());
+	}
+
+	@Test
+	public void testLookupOnExecutor() throws Exception
+	{
+		HiscoreManager hiscoreManager = manager(TimeUnit.MILLISECONDS.toNanos(100));
+		// queue behind an earlier request, so the lookups below wait for their slots
+		hiscoreManager.fetch("a", HiscoreEndpoint.NORMAL);
+		hiscoreManager.fetch("b", HiscoreEndpoint.NORMAL);
+
+		// plugins make blocking lookups from the executor's only thread
+		Future<HiscoreResult> miss = executor.submit(() -> hiscoreManager.lookup("c", HiscoreEndpoint.NORMAL));
+		assertEquals(1, overall(miss.get(5, TimeUnit.SECONDS)));
+		Future<HiscoreResult> coalesced = executor.submit(() -> hiscoreManager.lookup("b", HiscoreEndpoint.NORMAL));
+		assertEquals(1, overall(coalesced.get(5, TimeUnit.SECONDS)));
+		assertEquals(3, server.getRequestCount());
+	}
+
+	@Test
+	public void testBacklog() throws Exception
+	{
+		// only the first request is made before the test ends
+		HiscoreManager hiscoreManager = manager(TimeUnit.HOURS.toNanos(1));
+		for (int i = 0; i < HiscoreManager.MAX_BACKLOG; ++i)
+		{
+			assertFalse(hiscoreManager.fetch("player" + i, HiscoreEndpoint.NORMAL).isDone());
+		}
+		// a queued player shares its request rather than failing
+		assertFalse(hiscoreManager.fetch("player1", HiscoreEndpoint.NORMAL).isDone());
+
+		CompletableFuture<HiscoreResult> rejected = hiscoreManager.fetch("zezima", HiscoreEndpoint.NORMAL);
+		assertTrue(rejected.isCompletedExceptionally());
+		try
+		{
+			hiscoreManager.lookup("zezima", HiscoreEndpoint.NORMAL);
+			fail();
+		}
+		catch (IOException ex)
+		{
+			// expected
+		}
+	}
+}
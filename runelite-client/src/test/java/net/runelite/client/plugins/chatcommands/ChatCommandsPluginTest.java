@@ -64,8 +64,8 @@ import net.runelite.client.config.ChatColorConfig;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.config.RuneLiteConfig;
 import net.runelite.client.game.ItemManager;
-import net.runelite.client.hiscore.HiscoreClient;
 import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreManager;
 import net.runelite.client.hiscore.HiscoreResult;
 import net.runelite.client.hiscore.HiscoreSkill;
 import net.runelite.client.hiscore.Skill;
@@ -122,7 +122,7 @@ public class ChatCommandsPluginTest
 
 	@Mock
 	@Bind
-	HiscoreClient hiscoreClient;
+	HiscoreManager hiscoreManager;
 
 	@Mock
 	@Bind
@@ -671,7 +671,7 @@ public class ChatCommandsPluginTest
 		HiscoreResult hiscoreResult = new HiscoreResult(PLAYER_NAME,
 			ImmutableMap.of(HiscoreSkill.CHAMBERS_OF_XERIC_CHALLENGE_MODE, new Skill(10, 1000, -1)));
 
-		when(hiscoreClient.lookup(eq(PLAYER_NAME), nullable(HiscoreEndpoint.class))).thenReturn(hiscoreResult);
+		when(hiscoreManager.lookup(eq(PLAYER_NAME), nullable(HiscoreEndpoint.class))).thenReturn(hiscoreResult);
 
 		MessageNode messageNode = mock(MessageNode.class);
 
@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.gpu;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.GameObject;
+import net.runelite.api.Model;
+import net.runelite.api.Point;
+import net.runelite.api.Scene;
+import net.runelite.api.SceneTilePaint;
+import net.runelite.api.Tile;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.anyInt;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@Slf4j
+@RunWith(MockitoJUnitRunner.class)
+public class SceneUploaderTest
+{
+	@Mock
+	@Bind
+	private Client client;
+
+	@Mock
+	@Bind
+	private GpuPluginConfig config;
+
+	@Inject
+	private SceneUploader sceneUploader;
+
+	private final Random random = new Random(42);
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+	}
+
+	@Test
+	public void testPack() throws Exception
+	{
+		Scene scene = mock(Scene.class);
+		Tile[][][] tiles = new Tile[Constants.MAX_Z][Constants.EXTENDED_SCENE_SIZE][Constants.EXTENDED_SCENE_SIZE];
+		int[][][] tileHeights = new int[Constants.MAX_Z][Constants.EXTENDED_SCENE_SIZE + 1][Constants.EXTENDED_SCENE_SIZE + 1];
+		for (int[][] plane : tileHeights)
+		{
+			for (int[] row : plane)
+			{
+				Arrays.setAll(row, i -> random.nextInt(64) * -8);
+			}
+		}
+		when(scene.getExtendedTiles()).thenReturn(tiles);
+		when(scene.getTileHeights()).thenReturn(tileHeights);
+
+		List<SceneTilePaint> paints = new ArrayList<>();
+		List<Point> paintLocations = new ArrayList<>();
+		List<Model> models = new ArrayList<>();
+		// spans several zones
+		for (int x = 0; x < 20; ++x)
+		{
+			for (int y = 0; y < 20; ++y)
+			{
+				SceneTilePaint paint = paint();
+				Model model = (x + y) % 3 == 0 ? model(10 + random.nextInt(50)) : null;
+				Point location = new Point(x - GpuPlugin.SCENE_OFFSET, y - GpuPlugin.SCENE_OFFSET);
+				tiles[0][x][y] = tile(location, paint, model);
+				paints.add(paint);
+				paintLocations.add(location);
+				if (model != null)
+				{
+					models.add(model);
+				}
+			}
+		}
+
+		SceneSnapshot snapshot = sceneUploader.snapshot(scene);
+		snapshot.pack(MoreExecutors.directExecutor()).get();
+		int[] vertices = contents(snapshot.vertexBuffer.getBuffer());
+		assertEquals(snapshot.vertexCount * 4, vertices.length);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			snapshot.pack(executor).get();
+			assertArrayEquals(vertices, contents(snapshot.vertexBuffer.getBuffer()));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		snapshot.applyOffsets();
+
+		// each piece of geometry must be at the offset it was assigned
+		for (int i = 0; i < paints.size(); ++i)
+		{
+			GpuIntBuffer expected = new GpuIntBuffer();
+			Point location = paintLocations.get(i);
+			int len = sceneUploader.upload(scene, paints.get(i), 0, location.getX(), location.getY(), expected, new GpuFloatBuffer(), 0, 0, false);
+			expected.flip();
+
+			ArgumentCaptor<Integer> offset = ArgumentCaptor.forClass(Integer.class);
+			verify(paints.get(i)).setBufferOffset(offset.capture());
+			verify(paints.get(i)).setBufferLen(len);
+			assertArrayEquals(contents(expected.getBuffer()), Arrays.copyOfRange(vertices, offset.getValue() * 4, (offset.getValue() + len) * 4));
+		}
+
+		for (Model model : models)
+		{
+			GpuIntBuffer expected = new GpuIntBuffer();
+			int len = sceneUploader.pushModel(model, expected, new GpuFloatBuffer());
+			expected.flip();
+
+			ArgumentCaptor<Integer> offset = ArgumentCaptor.forClass(Integer.class);
+			verify(model).setBufferOffset(offset.capture());
+			assertArrayEquals(contents(expected.getBuffer()), Arrays.copyOfRange(vertices, offset.getValue() * 4, (offset.getValue() + len) * 4));
+		}
+	}
+
+	@Test
+	public void testSharedGeometry() throws Exception
+	{
+		Scene scene = mock(Scene.class);
+		Tile[][][] tiles = new Tile[Constants.MAX_Z][Constants.EXTENDED_SCENE_SIZE][Constants.EXTENDED_SCENE_SIZE];
+		when(scene.getExtendedTiles()).thenReturn(tiles);
+
+		SceneSnapshot.ModelGeometry geometry = geometry(20);
+		Model model1 = model(geometry);
+		Model model2 = model(geometry);
+		// same content, different arrays
+		SceneSnapshot.ModelGeometry copy = geometry(20);
+		System.arraycopy(geometry.vertexX, 0, copy.vertexX, 0, copy.vertexX.length);
+		System.arraycopy(geometry.vertexY, 0, copy.vertexY, 0, copy.vertexY.length);
+		System.arraycopy(geometry.vertexZ, 0, copy.vertexZ, 0, copy.vertexZ.length);
+		System.arraycopy(geometry.color1s, 0, copy.color1s, 0, copy.color1s.length);
+		System.arraycopy(geometry.color2s, 0, copy.color2s, 0, copy.color2s.length);
+		System.arraycopy(geometry.color3s, 0, copy.color3s, 0, copy.color3s.length);
+		Model model3 = model(copy);
+		Model model4 = model(geometry(20));
+
+		tiles[0][10][10] = tile(new Point(0, 0), null, model1);
+		tiles[0][20][20] = tile(new Point(10, 10), null, model2);
+		tiles[1][30][30] = tile(new Point(20, 20), null, model3);
+		tiles[1][31][30] = tile(new Point(21, 20), null, model4);
+
+		SceneSnapshot snapshot = sceneUploader.snapshot(scene);
+		// models are compared by content when the snapshot is laid out, not on the client thread
+		verify(model1, never()).setBufferOffset(anyInt());
+
+		snapshot.pack(MoreExecutors.directExecutor()).get();
+		snapshot.applyOffsets();
+		assertEquals(2, snapshot.dedupedModels);
+		assertEquals(2 * 20 * 3 * 16, snapshot.bytesSaved);
+		assertEquals(2 * 20 * 3, snapshot.vertexCount);
+
+		verify(model1).setBufferOffset(0);
+		verify(model2).setBufferOffset(0);
+		verify(model3).setBufferOffset(0);
+		verify(model4).setBufferOffset(20 * 3);
+	}
+
+	@Test
+	@Ignore
+	public void benchmark() throws Exception
+	{
+		// a full scene of synthetic geometry, roughly the size of a dense area
+		SceneSnapshot snapshot = new SceneSnapshot(0);
+		for (int zx = 0; zx < Constants.EXTENDED_SCENE_SIZE; zx += SceneSnapshot.ZONE_SIZE)
+		{
+			for (int zy = 0; zy < Constants.EXTENDED_SCENE_SIZE; zy += SceneSnapshot.ZONE_SIZE)
+			{
+				SceneSnapshot.Zone zone = new SceneSnapshot.Zone();
+				for (int i = 0; i < 16; ++i)
+				{
+					zone.geometry.add(geometry(200));
+				}
+				snapshot.zones.add(zone);
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+		try
+		{
+			for (int i = 0; i < 10; ++i)
+			{
+				Stopwatch sw = Stopwatch.createStarted();
+				snapshot.pack(MoreExecutors.directExecutor()).get();
+				log.info("serial pack: {}", sw);
+
+				sw = Stopwatch.createStarted();
+				snapshot.pack(executor).get();
+				log.info("parallel pack: {}", sw);
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	private static int[] contents(IntBuffer buffer)
+	{
+		int[] contents = new int[buffer.remaining()];
+		buffer.duplicate().get(contents);
+		return contents;
+	}
+
+	private Tile tile(Point location, SceneTilePaint paint, Model model)
+	{
+		Tile tile = mock(Tile.class);
+		if (paint != null)
+		{
+			when(tile.getSceneLocation()).thenReturn(location);
+			when(tile.getSceneTilePaint()).thenReturn(paint);
+		}
+		GameObject[] gameObjects = new GameObject[5];
+		if (model != null)
+		{
+			gameObjects[0] = mock(GameObject.class);
+			when(gameObjects[0].getRenderable()).thenReturn(model);
+		}
+		when(tile.getGameObjects()).thenReturn(gameObjects);
+		return tile;
+	}
+
+	private SceneTilePaint paint()
+	{
+		SceneTilePaint paint = mock(SceneTilePaint.class);
+		when(paint.getSwColor()).thenReturn(random.nextInt(65536));
+		when(paint.getSeColor()).thenReturn(random.nextInt(65536));
+		when(paint.getNeColor()).thenReturn(random.nextInt(65536));
+		when(paint.getNwColor()).thenReturn(random.nextInt(65536));
+		when(paint.getTexture()).thenReturn(-1);
+		return paint;
+	}
+
+	private Model model(int faceCount)
+	{
+		return model(geometry(faceCount));
+	}
+
+	private Model model(SceneSnapshot.ModelGeometry geometry)
+	{
+		Model model = mock(Model.class);
+		when(model.getFaceCount()).thenReturn(geometry.triangleCount);
+		when(model.getVerticesX()).thenReturn(geometry.vertexX);
+		when(model.getVerticesY()).thenReturn(geometry.vertexY);
+		when(model.getVerticesZ()).thenReturn(geometry.vertexZ);
+		when(model.getFaceIndices1()).thenReturn(geometry.indices1);
+		when(model.getFaceIndices2()).thenReturn(geometry.indices2);
+		when(model.getFaceIndices3()).thenReturn(geometry.indices3);
+		when(model.getFaceColors1()).thenReturn(geometry.color1s);
+		when(model.getFaceColors2()).thenReturn(geometry.color2s);
+		when(model.getFaceColors3()).thenReturn(geometry.color3s);
+		return model;
+	}
+
+	private SceneSnapshot.ModelGeometry geometry(int faceCount)
+	{
+		SceneSnapshot.ModelGeometry geometry = new SceneSnapshot.ModelGeometry();
+		int vertexCount = faceCount + 2;
+		geometry.triangleCount = faceCount;
+		geometry.vertexX = new float[vertexCount];
+		geometry.vertexY = new float[vertexCount];
+		geometry.vertexZ = new float[vertexCount];
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			geometry.vertexX[i] = random.nextInt(256) - 128;
+			geometry.vertexY[i] = -random.nextInt(256);
+			geometry.vertexZ[i] = random.nextInt(256) - 128;
+		}
+		geometry.indices1 = new int[faceCount];
+		geometry.indices2 = new int[faceCount];
+		geometry.indices3 = new int[faceCount];
+		geometry.color1s = new int[faceCount];
+		geometry.color2s = new int[faceCount];
+		geometry.color3s = new int[faceCount];
+		for (int i = 0; i < faceCount; ++i)
+		{
+			geometry.indices1[i] = i;
+			geometry.indices2[i] = i + 1;
+			geometry.indices3[i] = i + 2;
+			geometry.color1s[i] = random.nextInt(65536);
+			geometry.color2s[i] = random.nextInt(65536);
+			// some flat shaded faces
+			geometry.color3s[i] = i % 4 == 0 ? -1 : random.nextInt(65536);
+		}
+		return geometry;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.grounditems;
+
+import java.util.List;
+import net.runelite.api.coords.WorldPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class GroundItemIndexTest
+{
+	@Test
+	public void testIndex()
+	{
+		WorldPoint a = new WorldPoint(3200, 3200, 0);
+		WorldPoint b = new WorldPoint(3200, 3200, 1);
+		GroundItem bones = item(526, a);
+		GroundItem coins = item(995, a);
+		GroundItem bones2 = item(526, b);
+
+		GroundItemIndex index = new GroundItemIndex();
+		index.put(bones);
+		index.put(coins);
+		index.put(bones2);
+
+		assertSame(bones, index.get(a, 526));
+		assertSame(coins, index.get(GroundItemIndex.pack(3200, 3200, 0), 995));
+		assertSame(bones2, index.get(b, 526));
+		assertNull(index.get(b, 995));
+		assertEquals(List.of(bones, coins), index.getTile(a));
+		assertEquals(2, index.tiles().size());
+
+		assertSame(bones, index.remove(a, 526));
+		assertNull(index.remove(a, 526));
+		assertEquals(List.of(coins, bones2), List.copyOf(index.values()));
+
+		index.remove(b, 526);
+		assertTrue(index.getTile(b).isEmpty());
+		assertEquals(1, index.tiles().size());
+	}
+
+	@Test
+	public void testPack()
+	{
+		WorldPoint point = new WorldPoint(3222, 3218, 2);
+		assertEquals(point, WorldPoint.fromCoord(GroundItemIndex.pack(point)));
+	}
+
+	private static GroundItem item(int id, WorldPoint location)
+	{
+		return GroundItem.builder()
+			.id(id)
+			.location(location)
+			.quantity(1)
+			.build();
+	}
+}
@@ -33,9 +33,12 @@ import net.runelite.api.Client;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.ItemID;
 import net.runelite.api.ItemLayer;
+import net.runelite.api.MenuAction;
+import net.runelite.api.MenuEntry;
 import net.runelite.api.Tile;
 import net.runelite.api.TileItem;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.ItemSpawned;
 import net.runelite.client.Notifier;
 import net.runelite.client.config.ConfigManager;
@@ -51,7 +54,9 @@ import org.junit.runner.RunWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -150,4 +155,43 @@ public class GroundItemsPluginTest
 
 		verify(notifier).notify("You received a highlighted drop: Abyssal whip");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCollapseEntries()
+	{
+		when(config.collapseEntries()).thenReturn(true);
+
+		MenuEntry walk = menuEntry(MenuAction.WALK, "");
+		MenuEntry bones = menuEntry(MenuAction.GROUND_ITEM_THIRD_OPTION, "Bones");
+		MenuEntry coins = menuEntry(MenuAction.GROUND_ITEM_THIRD_OPTION, "Coins");
+		when(client.getMenuEntries()).thenReturn(new MenuEntry[]{walk, bones, coins, bones, bones});
+
+		groundItemsPlugin.onClientTick(new ClientTick());
+
+		verify(client).setMenuEntries(new MenuEntry[]{walk, coins, bones});
+		verify(bones).setTarget("Bones x 3");
+	}
+
+	@Test
+	public void testCollapseEntriesNoDuplicates()
+	{
+		when(config.collapseEntries()).thenReturn(true);
+		MenuEntry[] entries = {
+			menuEntry(MenuAction.WALK, ""),
+			menuEntry(MenuAction.GROUND_ITEM_THIRD_OPTION, "Bones"),
+		};
+		when(client.getMenuEntries()).thenReturn(entries);
+
+		groundItemsPlugin.onClientTick(new ClientTick());
+
+		verify(client, never()).setMenuEntries(any());
+	}
+
+	private static MenuEntry menuEntry(MenuAction type, String target)
+	{
+		MenuEntry entry = mock(MenuEntry.class);
+		when(entry.getType()).thenReturn(type);
+		lenient().when(entry.getTarget()).thenReturn(target);
+		return entry;
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.loottracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import net.runelite.api.ItemID;
+import net.runelite.http.api.loottracker.LootRecordType;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LootStoreTest
+{
+	private static final Instant START = Instant.ofEpochMilli(1_700_000_000_000L);
+	private static final Duration MAX_AGE = Duration.ofDays(365L);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ConfigLoot loot(LootRecordType type, String name, Instant time, int kills, int... drops)
+	{
+		ConfigLoot loot = new ConfigLoot(type, name);
+		loot.kills = kills;
+		loot.first = loot.last = time;
+		for (int i = 0; i < drops.length; i += 2)
+		{
+			loot.add(drops[i], drops[i + 1]);
+		}
+		return loot;
+	}
+
+	private LootStore open(File file, Instant now)
+	{
+		LootStore store = new LootStore(file, MAX_AGE);
+		store.open(now);
+		return store;
+	}
+
+	@Test
+	public void testAggregate() throws IOException
+	{
+		LootStore store = open(folder.newFile(), START);
+		store.add(loot(LootRecordType.NPC, "Goblin", START, 1, ItemID.BONES, 1, ItemID.COINS_995, 5));
+		store.add(loot(LootRecordType.NPC, "Goblin", START.plusSeconds(60), 2, ItemID.BONES, 2));
+		store.add(loot(LootRecordType.EVENT, "Barrows", START.plusSeconds(30), 1, ItemID.DEATH_RUNE, 100));
+
+		ConfigLoot goblin = store.get(LootRecordType.NPC, "Goblin");
+		assertEquals(3, goblin.kills);
+		assertEquals(START, goblin.first);
+		assertEquals(START.plusSeconds(60), goblin.last);
+		assertArrayEquals(new int[]{ItemID.BONES, 3, ItemID.COINS_995, 5}, goblin.drops);
+		assertNull(store.get(LootRecordType.PLAYER, "Goblin"));
+
+		List<ConfigLoot> loots = store.aggregate(START.plusSeconds(45));
+		assertEquals(1, loots.size());
+		assertEquals("Goblin", loots.get(0).name);
+		assertEquals(2, store.aggregate(START).size());
+	}
+
+	@Test
+	public void testReplay() throws IOException
+	{
+		File file = folder.newFile();
+		LootStore store = open(file, START);
+		store.add(loot(LootRecordType.NPC, "Goblin", START, 1, ItemID.BONES, 1));
+		store.add(loot(LootRecordType.EVENT, "Barrows", START, 1, ItemID.DEATH_RUNE, 100));
+		store.add(loot(LootRecordType.NPC, "Goblin", START.plusSeconds(60), 1, ItemID.BONES, 1));
+		store.remove(LootRecordType.EVENT, "Barrows");
+		store.close();
+
+		// a record cut short by a crash is dropped
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.seek(raf.length());
+			raf.write(2);
+		}
+
+		store = open(file, START.plusSeconds(120));
+		assertEquals(2, store.getRowCount());
+		assertNull(store.get(LootRecordType.EVENT, "Barrows"));
+		ConfigLoot goblin = store.get(LootRecordType.NPC, "Goblin");
+		assertEquals(2, goblin.kills);
+		assertArrayEquals(new int[]{ItemID.BONES, 2}, goblin.drops);
+
+		// and later records are still read back
+		store.add(loot(LootRecordType.EVENT, "Barrows", START.plusSeconds(180), 1, ItemID.CHAOS_RUNE, 50));
+		store.close();
+		store = open(file, START.plusSeconds(240));
+		assertArrayEquals(new int[]{ItemID.CHAOS_RUNE, 50}, store.get(LootRecordType.EVENT, "Barrows").drops);
+	}
+
+	@Test
+	public void testCompact() throws IOException
+	{
+		File file = folder.newFile();
+		LootStore store = open(file, START);
+		store.add(loot(LootRecordType.NPC, "Man", START, 1, ItemID.BONES, 1));
+		// enough rows to exceed one per source by the slack
+		final int kills = LootStore.COMPACT_SLACK + 2;
+		Instant time = START.plus(MAX_AGE);
+		for (int i = 0; i < kills; ++i)
+		{
+			time = time.plusSeconds(60);
+			store.add(loot(LootRecordType.NPC, "Goblin", time, 1, ItemID.BONES, 1, ItemID.COINS_995, i));
+		}
+
+		// compacting leaves a row per source, and drops those past the max age
+		assertEquals(1, store.getRowCount());
+		assertNull(store.get(LootRecordType.NPC, "Man"));
+
+		ConfigLoot goblin = store.get(LootRecordType.NPC, "Goblin");
+		assertEquals(kills, goblin.kills);
+		assertEquals(START.plus(MAX_AGE).plusSeconds(60), goblin.first);
+		assertEquals(time, goblin.last);
+		assertArrayEquals(new int[]{ItemID.BONES, kills, ItemID.COINS_995, kills * (kills - 1) / 2}, goblin.drops);
+
+		store.add(loot(LootRecordType.NPC, "Goblin", time, 1, ItemID.BONES, 1));
+		store.close();
+		store = open(file, time);
+		assertEquals(2, store.getRowCount());
+		assertEquals(kills + 1, store.get(LootRecordType.NPC, "Goblin").kills);
+	}
+
+	@Test
+	public void testRemoveAll() throws IOException
+	{
+		File file = folder.newFile();
+		LootStore store = open(file, START);
+		store.add(loot(LootRecordType.NPC, "Goblin", START, 1, ItemID.BONES, 1));
+		store.removeAll();
+		store.add(loot(LootRecordType.NPC, "Man", START, 1, ItemID.BONES, 1));
+		store.close();
+
+		store = open(file, START);
+		assertNull(store.get(LootRecordType.NPC, "Goblin"));
+		assertEquals(1, store.aggregate(START).size());
+	}
+}
@@ -36,13 +36,16 @@ import net.runelite.api.MenuEntry;
 import net.runelite.api.NPC;
 import net.runelite.api.NPCComposition;
 import net.runelite.api.ObjectComposition;
+import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.PostMenuSort;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.menus.TestMenuEntry;
 import org.junit.After;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -53,6 +56,7 @@ import org.mockito.Mock;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -380,4 +384,59 @@ public class MenuEntrySwapperPluginTest
 			menu("Last-destination (AIQ)", "Fairy ring", MenuAction.GAME_OBJECT_SECOND_OPTION),
 		}, argumentCaptor.getValue());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testSwapsRecompiledOnConfigChange()
+	{
+		entries = new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Bank", "Banker", MenuAction.NPC_THIRD_OPTION),
+			menu("Talk-to", "Banker", MenuAction.NPC_FIRST_OPTION),
+		};
+		menuEntrySwapperPlugin.onPostMenuSort(new PostMenuSort());
+		verify(client, never()).setMenuEntries(any(MenuEntry[].class));
+
+		when(config.swapBank()).thenReturn(true);
+		ConfigChanged configChanged = new ConfigChanged();
+		configChanged.setGroup(MenuEntrySwapperConfig.GROUP);
+		configChanged.setKey("swapBank");
+		menuEntrySwapperPlugin.onConfigChanged(configChanged);
+
+		menuEntrySwapperPlugin.onPostMenuSort(new PostMenuSort());
+
+		ArgumentCaptor<MenuEntry[]> argumentCaptor = ArgumentCaptor.forClass(MenuEntry[].class);
+		verify(client).setMenuEntries(argumentCaptor.capture());
+
+		assertArrayEquals(new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Talk-to", "Banker", MenuAction.NPC_FIRST_OPTION),
+			menu("Bank", "Banker", MenuAction.NPC_THIRD_OPTION),
+		}, argumentCaptor.getValue());
+	}
+
+	@Test
+	public void testCustomSwapCached()
+	{
+		final int objectId = 1234;
+		when(configManager.getConfiguration(MenuEntrySwapperConfig.GROUP, "object_" + objectId)).thenReturn("0");
+
+		entries = new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Walk here", "", MenuAction.WALK),
+			menu("Open", "Door", MenuAction.GAME_OBJECT_FIRST_OPTION, objectId),
+		};
+
+		menuEntrySwapperPlugin.onClientTick(new ClientTick());
+		menuEntrySwapperPlugin.onClientTick(new ClientTick());
+		assertFalse(entries[2].isDeprioritized());
+		verify(configManager).getConfiguration(MenuEntrySwapperConfig.GROUP, "object_" + objectId);
+
+		ConfigChanged configChanged = new ConfigChanged();
+		configChanged.setGroup(MenuEntrySwapperConfig.GROUP);
+		configChanged.setKey("object_" + objectId);
+		menuEntrySwapperPlugin.onConfigChanged(configChanged);
+
+		menuEntrySwapperPlugin.onClientTick(new ClientTick());
+		verify(configManager, times(2)).getConfiguration(MenuEntrySwapperConfig.GROUP, "object_" + objectId);
+	}
+}
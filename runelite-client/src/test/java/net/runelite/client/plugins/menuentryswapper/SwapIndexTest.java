@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.menuentryswapper;
+
+import static com.google.common.base.Predicates.alwaysTrue;
+import static com.google.common.base.Predicates.equalTo;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class SwapIndexTest
+{
+	private static Swap swap(String target, String swappedOption, boolean enabled)
+	{
+		return new Swap(alwaysTrue(), target == null ? alwaysTrue() : equalTo(target), swappedOption, () -> enabled, true);
+	}
+
+	@Test
+	public void testPriorityOrder()
+	{
+		Swap assignment = swap(null, "assignment", true);
+		Swap trade = swap(null, "trade", true);
+		Swap bank = swap("banker", "bank", true);
+
+		Multimap<String, Swap> swaps = LinkedHashMultimap.create();
+		swaps.put("talk-to", assignment);
+		swaps.put("talk-to", swap(null, "help", false));
+		swaps.put("talk-to", bank);
+		swaps.put("talk-to", trade);
+
+		SwapIndex index = new SwapIndex(swaps);
+		assertArrayEquals(new Swap[]{assignment, trade}, index.get("talk-to", "duradel"));
+		assertArrayEquals(new Swap[]{assignment, bank, trade}, index.get("talk-to", "banker"));
+		assertEquals(0, index.get("attack", "banker").length);
+	}
+
+	@Test
+	public void testMemoized()
+	{
+		Multimap<String, Swap> swaps = LinkedHashMultimap.create();
+		swaps.put("talk-to", swap("banker", "bank", true));
+
+		SwapIndex index = new SwapIndex(swaps);
+		Swap[] banker = index.get("talk-to", "banker");
+		assertSame(banker, index.get("talk-to", "banker"));
+
+		// overflowing the memo must not change the results
+		for (int i = 0; i < 5000; ++i)
+		{
+			assertEquals(0, index.get("talk-to", "man " + i).length);
+		}
+		assertArrayEquals(banker, index.get("talk-to", "banker"));
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkMenuSort()
+	{
+		// stand in for the config proxy, which resolves each getter through a cache
+		final Map<String, Boolean> config = new ConcurrentHashMap<>();
+		Multimap<String, Swap> swaps = LinkedHashMultimap.create();
+		for (int option = 0; option < 100; ++option)
+		{
+			for (int i = 0; i < 20; ++i)
+			{
+				final String key = "swap" + option + "_" + i;
+				config.put(key, i % 3 == 0);
+				Supplier<Boolean> enabled = () -> config.get(key);
+				swaps.put("option " + option, new Swap(alwaysTrue(), i % 2 == 0 ? alwaysTrue() : equalTo("target " + i), "swapped " + i, enabled, true));
+			}
+		}
+
+		// a large synthetic menu: every option on a few hundred targets, plus options with no swaps
+		final int entries = 2000;
+		final String[] options = new String[entries];
+		final String[] targets = new String[entries];
+		for (int i = 0; i < entries; ++i)
+		{
+			options[i] = i % 4 == 0 ? "examine" : "option " + (i % 100);
+			targets[i] = "target " + (i % 300);
+		}
+
+		for (int round = 0; round < 5; ++round)
+		{
+			int matches = 0;
+			long start = System.nanoTime();
+			for (int iter = 0; iter < 100; ++iter)
+			{
+				for (int i = 0; i < entries; ++i)
+				{
+					for (Swap swap : swaps.get(options[i]))
+					{
+						if (swap.getTargetPredicate().test(targets[i]) && swap.getEnabled().get())
+						{
+							++matches;
+						}
+					}
+				}
+			}
+			long scan = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			SwapIndex index = new SwapIndex(swaps);
+			long compile = System.nanoTime() - start;
+			for (int iter = 0; iter < 100; ++iter)
+			{
+				for (int i = 0; i < entries; ++i)
+				{
+					matches -= index.get(options[i], targets[i]).length;
+				}
+			}
+			long indexed = System.nanoTime() - start;
+
+			assertEquals(0, matches);
+			log.info("{} entries: scan {}us/sort, indexed {}us/sort (compile {}us)", entries,
+				scan / 100 / 1000, indexed / 100 / 1000, compile / 1000);
+		}
+	}
+}
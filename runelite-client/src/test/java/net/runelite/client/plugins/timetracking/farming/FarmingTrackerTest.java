@@ -28,7 +28,14 @@ import com.google.inject.Guice;
 import com.google.inject.Inject;
 import com.google.inject.testing.fieldbinder.Bind;
 import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.Player;
@@ -38,20 +45,32 @@ import net.runelite.client.Notifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.config.RuneScapeProfile;
 import net.runelite.client.config.RuneScapeProfileType;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.game.ItemManager;
+import net.runelite.client.plugins.timetracking.Tab;
 import net.runelite.client.plugins.timetracking.TimeTrackingConfig;
+import static org.junit.Assert.assertEquals;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
+@Slf4j
 public class FarmingTrackerTest
 {
+	private static final String PROFILE = "rsprofile.test";
+
 	@Inject
 	private FarmingTracker farmingTracker;
 
@@ -129,4 +148,95 @@ public class FarmingTrackerTest
 
 		verify(notifier).notify("Your Ranarr is ready to harvest in Ardougne.");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testPredictionCached()
+	{
+		FarmingRegion region = new FarmingRegion("Ardougne", 10548, false,
+			new FarmingPatch("", Varbits.FARMING_4774, PatchImplementation.HERB)
+		);
+		FarmingPatch patch = region.getPatches()[0];
+		patch.setRegion(region);
+
+		long now = Instant.now().getEpochSecond();
+		when(configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, PROFILE, patch.configKey())).thenReturn("4:" + now);
+
+		assertEquals(Produce.GUAM, farmingTracker.predictPatch(patch, PROFILE).getProduce());
+		assertEquals(Produce.GUAM, farmingTracker.predictPatch(patch, PROFILE).getProduce());
+		verify(configManager, times(1)).getConfiguration(TimeTrackingConfig.CONFIG_GROUP, PROFILE, patch.configKey());
+
+		// a change to the patch's config is picked up
+		when(configManager.getConfiguration(TimeTrackingConfig.CONFIG_GROUP, PROFILE, patch.configKey())).thenReturn("11:" + now);
+		ConfigChanged configChanged = new ConfigChanged();
+		configChanged.setGroup(TimeTrackingConfig.CONFIG_GROUP);
+		configChanged.setProfile(PROFILE);
+		configChanged.setKey(patch.configKey());
+		farmingTracker.onConfigChanged(configChanged);
+
+		assertEquals(Produce.MARRENTILL, farmingTracker.predictPatch(patch, PROFILE).getProduce());
+		verify(configManager, times(2)).getConfiguration(TimeTrackingConfig.CONFIG_GROUP, PROFILE, patch.configKey());
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkPredictPatch()
+	{
+		final FarmingWorld world = new FarmingWorld();
+		final List<FarmingPatch> patches = new ArrayList<>();
+		for (Set<FarmingPatch> tab : world.getTabs().values())
+		{
+			patches.addAll(tab);
+		}
+
+		final String[] profiles = new String[8];
+		final Map<String, String> values = new HashMap<>();
+		final long now = Instant.now().getEpochSecond();
+		for (int i = 0; i < profiles.length; ++i)
+		{
+			profiles[i] = "rsprofile.bench" + i;
+			for (FarmingPatch patch : patches)
+			{
+				values.put(profiles[i] + "." + patch.configKey(), (i + patch.getVarbit()) % 64 + ":" + (now - i * 600));
+			}
+		}
+		lenient().when(configManager.getConfiguration(eq(TimeTrackingConfig.CONFIG_GROUP), anyString(), anyString()))
+			.thenAnswer(a -> values.get(a.getArgument(1) + "." + a.getArgument(2)));
+		lenient().when(configManager.getConfiguration(eq(TimeTrackingConfig.CONFIG_GROUP), anyString(), anyString(), any(Class.class)))
+			.thenReturn(null);
+
+		for (int pass = 0; pass < 5; ++pass)
+		{
+			long uncached = 0;
+			long cached = 0;
+			for (int i = 0; i < 20; ++i)
+			{
+				farmingTracker.loadCompletionTimes();
+				long start = System.nanoTime();
+				predictAll(patches, profiles);
+				uncached += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				predictAll(patches, profiles);
+				cached += System.nanoTime() - start;
+			}
+			log.info("{} patches x {} profiles: first {}us, cached {}us",
+				patches.size(), profiles.length, uncached / 20_000, cached / 20_000);
+		}
+	}
+
+	private void predictAll(List<FarmingPatch> patches, String[] profiles)
+	{
+		for (String profile : profiles)
+		{
+			for (FarmingPatch patch : patches)
+			{
+				farmingTracker.predictPatch(patch, profile);
+			}
+		}
+		for (Tab tab : Tab.values())
+		{
+			farmingTracker.getSummary(tab);
+			farmingTracker.getCompletionTime(tab);
+		}
+	}
+}
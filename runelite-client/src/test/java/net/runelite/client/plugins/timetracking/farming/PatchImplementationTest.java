@@ -30,6 +30,9 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ErrorCollector;
 import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class PatchImplementationTest
 {
@@ -80,4 +83,22 @@ public class PatchImplementationTest
 			}
 		}
 	}
+
+	@Test
+	public void testStateTable()
+	{
+		for (PatchImplementation impl : PatchImplementation.values())
+		{
+			for (int i = 0; i < 256; i++)
+			{
+				assertEquals(impl.name() + "[" + i + "]", impl.decode(i), impl.forVarbitValue(i));
+			}
+			assertNull(impl.forVarbitValue(-1));
+			assertNull(impl.forVarbitValue(256));
+		}
+
+		// equal states are shared
+		assertSame(PatchImplementation.HERB.forVarbitValue(4), PatchImplementation.HERB.forVarbitValue(4));
+		assertSame(PatchImplementation.HERB.forVarbitValue(0), PatchImplementation.ALLOTMENT.forVarbitValue(0));
+	}
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.worldhopper.ping;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.client.util.OSType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PingSweepTest
+{
+	private final List<ServerSocket> listeners = new ArrayList<>();
+
+	@Before
+	public void before() throws IOException
+	{
+		for (int i = 0; i < 8; ++i)
+		{
+			// connects complete from the backlog, so there is no need to accept
+			listeners.add(new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+		}
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		for (ServerSocket listener : listeners)
+		{
+			listener.close();
+		}
+	}
+
+	@Test
+	public void testSweep() throws IOException
+	{
+		// a port which was listening but is now closed, to be refused
+		ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		int closedPort = closed.getLocalPort();
+		closed.close();
+
+		List<Integer> ports = new ArrayList<>();
+		for (ServerSocket listener : listeners)
+		{
+			ports.add(listener.getLocalPort());
+		}
+		ports.add(closedPort);
+		ports.add(-1); // unresolvable
+
+		Map<Integer, Integer> results = new HashMap<>();
+		// fewer in flight than targets, to exercise the limit
+		new PingSweep(3, 2000).sweep(ports,
+			port -> port < 0 ? null : new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+			(port, rtt) -> assertEquals(null, results.put(port, rtt)));
+
+		assertEquals(ports.size(), results.size());
+		for (ServerSocket listener : listeners)
+		{
+			int rtt = results.get(listener.getLocalPort());
+			assertTrue(rtt >= 0 && rtt < 2000);
+		}
+		assertEquals(-1, (int) results.get(closedPort));
+		assertEquals(-1, (int) results.get(-1));
+	}
+
+	@Test
+	public void testSlowResolve() throws IOException
+	{
+		List<Integer> ports = new ArrayList<>();
+		ports.add(-1); // resolves slowly, then fails
+		for (ServerSocket listener : listeners)
+		{
+			ports.add(listener.getLocalPort());
+		}
+
+		Map<Integer, Long> completed = new HashMap<>();
+		Map<Integer, Integer> results = new HashMap<>();
+		long start = System.nanoTime();
+		new PingSweep(3, 2000).sweep(ports,
+			port ->
+			{
+				if (port < 0)
+				{
+					try
+					{
+						Thread.sleep(1000);
+					}
+					catch (InterruptedException ex)
+					{
+						Thread.currentThread().interrupt();
+					}
+					return null;
+				}
+				return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+			},
+			(port, rtt) ->
+			{
+				results.put(port, rtt);
+				completed.put(port, (System.nanoTime() - start) / 1_000_000);
+			});
+
+		assertEquals(ports.size(), results.size());
+		assertEquals(-1, (int) results.get(-1));
+		assertTrue(completed.get(-1) >= 1000);
+		// the slow lookup doesn't hold up the other pings
+		for (ServerSocket listener : listeners)
+		{
+			assertTrue(results.get(listener.getLocalPort()) >= 0);
+			assertTrue(completed.get(listener.getLocalPort()) < 1000);
+		}
+	}
+
+	@Test
+	public void testTimeout() throws IOException
+	{
+		// Linux drops syns once the accept queue is full, rather than refusing them
+		assumeTrue(OSType.getOSType() == OSType.Linux);
+
+		try (ServerSocket full = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+			Socket s1 = new Socket(InetAddress.getLoopbackAddress(), full.getLocalPort());
+			Socket s2 = new Socket(InetAddress.getLoopbackAddress(), full.getLocalPort()))
+		{
+			List<Integer> ports = Arrays.asList(full.getLocalPort(), listeners.get(0).getLocalPort());
+			Map<Integer, Integer> results = new HashMap<>();
+			long start = System.nanoTime();
+			new PingSweep(8, 250).sweep(ports,
+				port -> new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+				results::put);
+			long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+			assertEquals(-1, (int) results.get(full.getLocalPort()));
+			assertTrue(results.get(listeners.get(0).getLocalPort()) >= 0);
+			assertTrue(elapsed >= 250 && elapsed < 2000);
+		}
+	}
+
+	@Test
+	public void testStats()
+	{
+		PingStats stats = new PingStats();
+		for (int rtt : Arrays.asList(100, 100, 100, 100))
+		{
+			stats.update(rtt);
+		}
+		assertEquals(100, stats.getPing());
+		assertEquals(4, stats.getSamples());
+
+		stats.update(180);
+		// a single spike only moves the smoothed rtt by 1/8th
+		assertEquals(110, stats.getPing());
+
+		stats.update(-1);
+		assertEquals(-1, stats.getPing());
+		assertEquals(1, stats.getFailures());
+
+		stats.update(110);
+		assertEquals(110, stats.getPing());
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.xptracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Duration;
+import net.runelite.api.Skill;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class XpHistoryTest
+{
+	private static final long MINUTE = 60_000;
+	// aligned to a bucket boundary
+	private static final long START = 1_699_999_998_000L;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testWindows()
+	{
+		XpHistory history = new XpHistory();
+		// 100 xp a minute for 90 minutes
+		for (int i = 0; i < 90; ++i)
+		{
+			history.record(Skill.MINING, 100, START + i * MINUTE);
+		}
+
+		final long now = START + 90 * MINUTE - 1;
+		assertEquals(500, history.getXpGained(Skill.MINING, Duration.ofMinutes(5), now));
+		assertEquals(1500, history.getXpGained(Skill.MINING, Duration.ofMinutes(15), now));
+		assertEquals(6000, history.getXpGained(Skill.MINING, Duration.ofHours(1), now));
+		assertEquals(6000, history.getXpHr(Skill.MINING, Duration.ofMinutes(5), now));
+		assertEquals(6000, history.getXpHr(Skill.MINING, Duration.ofHours(1), now));
+		assertEquals(0, history.getXpGained(Skill.FISHING, Duration.ofHours(1), now));
+	}
+
+	@Test
+	public void testIdle()
+	{
+		XpHistory history = new XpHistory();
+		history.record(Skill.MINING, 100, START);
+		assertEquals(100, history.getXpGained(Skill.MINING, Duration.ofMinutes(5), START + MINUTE));
+
+		// the drop ages out of short windows, and out of the ring entirely after an idle period longer than it
+		assertEquals(0, history.getXpGained(Skill.MINING, Duration.ofMinutes(5), START + 10 * MINUTE));
+		assertEquals(100, history.getXpGained(Skill.MINING, Duration.ofMinutes(15), START + 10 * MINUTE));
+		history.record(Skill.MINING, 50, START + 300 * MINUTE);
+		assertEquals(50, history.getXpGained(Skill.MINING, Duration.ofHours(1), START + 300 * MINUTE));
+	}
+
+	@Test
+	public void testReplay() throws IOException
+	{
+		File file = new File(folder.getRoot(), "history.dat");
+
+		XpHistory history = new XpHistory();
+		history.open(file, START);
+		for (int i = 0; i < 10; ++i)
+		{
+			history.record(Skill.AGILITY, 1000, START + i * MINUTE);
+		}
+		history.close();
+
+		XpHistory restored = new XpHistory();
+		restored.open(file, START + 20 * MINUTE);
+		restored.record(Skill.AGILITY, 500, START + 20 * MINUTE);
+		restored.close();
+
+		// a crash mid write leaves a partial record, which is dropped on the next open
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.seek(raf.length());
+			raf.write(Skill.AGILITY.ordinal());
+		}
+
+		restored = new XpHistory();
+		restored.open(file, START + 30 * MINUTE);
+		final long now = START + 30 * MINUTE;
+		assertEquals(10500, restored.getXpGained(Skill.AGILITY, Duration.ofHours(1), now));
+		assertEquals(500, restored.getXpGained(Skill.AGILITY, Duration.ofMinutes(15), now));
+		// the rate is over the time since the history began
+		assertEquals(21000, restored.getXpHr(Skill.AGILITY, Duration.ofHours(1), now));
+
+		restored.record(Skill.AGILITY, 250, now);
+		restored.close();
+		restored = new XpHistory();
+		restored.open(file, now);
+		assertEquals(10750, restored.getXpGained(Skill.AGILITY, Duration.ofHours(1), now));
+		restored.close();
+	}
+
+	@Test
+	public void testRecordIsWrittenOnFlush() throws IOException
+	{
+		File file = new File(folder.getRoot(), "history.dat");
+
+		XpHistory history = new XpHistory();
+		history.open(file, START);
+		history.flush();
+		final long opened = file.length();
+
+		// recording only queues the drop, it is counted right away but written on the next flush
+		history.record(Skill.WOODCUTTING, 300, START + MINUTE);
+		assertEquals(300, history.getXpGained(Skill.WOODCUTTING, Duration.ofMinutes(5), START + MINUTE));
+		assertEquals(opened, file.length());
+
+		history.flush();
+		assertNotEquals(opened, file.length());
+
+		XpHistory restored = new XpHistory();
+		restored.open(file, START + 2 * MINUTE);
+		assertEquals(300, restored.getXpGained(Skill.WOODCUTTING, Duration.ofMinutes(5), START + 2 * MINUTE));
+		restored.close();
+		history.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWindowTooLarge()
+	{
+		new XpHistory().getXpGained(Skill.MINING, Duration.ofHours(2), START);
+	}
+}
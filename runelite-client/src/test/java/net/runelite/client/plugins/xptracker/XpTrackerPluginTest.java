@@ -27,6 +27,7 @@ package net.runelite.client.plugins.xptracker;
 import com.google.inject.Guice;
 import com.google.inject.testing.fieldbinder.Bind;
 import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Inject;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
@@ -82,6 +83,10 @@ public class XpTrackerPluginTest
 	@Bind
 	private OverlayManager overlayManager;
 
+	@Mock
+	@Bind
+	private ScheduledExecutorService executor;
+
 	@Before
 	public void before()
 	{
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.Model;
+import net.runelite.api.Renderable;
+import net.runelite.api.WorldView;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.client.eventbus.EventBus;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GeometryCacheTest
+{
+	@Mock
+	@Bind
+	private Client client;
+
+	@Mock
+	@Bind
+	private EventBus eventBus;
+
+	@Mock
+	private WorldView worldView;
+
+	@Mock
+	private GameObject object;
+
+	@Inject
+	private GeometryCache geometryCache;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		when(worldView.isTopLevel()).thenReturn(true);
+		when(object.getWorldView()).thenReturn(worldView);
+		when(object.getClickbox()).thenReturn(new Rectangle(0, 0, 10, 10));
+	}
+
+	@Test
+	public void testClickboxCached()
+	{
+		when(object.getRenderable()).thenReturn(mock(Model.class));
+
+		geometryCache.onBeforeRender(new BeforeRender());
+		assertSame(geometryCache.getClickbox(object), geometryCache.getClickbox(object));
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getClickbox(object);
+
+		verify(object, times(1)).getClickbox();
+		assertEquals(2, geometryCache.getClickboxHits());
+		assertEquals(1, geometryCache.getClickboxMisses());
+	}
+
+	@Test
+	public void testCameraMoveInvalidates()
+	{
+		when(object.getRenderable()).thenReturn(mock(Model.class));
+
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getClickbox(object);
+
+		when(client.getCameraFpYaw()).thenReturn(128.0);
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getClickbox(object);
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getClickbox(object);
+
+		verify(object, times(2)).getClickbox();
+		assertEquals(1, geometryCache.getInvalidations());
+	}
+
+	@Test
+	public void testModelChangeInvalidates()
+	{
+		when(object.getRenderable()).thenReturn(mock(Model.class));
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getClickbox(object);
+
+		when(object.getRenderable()).thenReturn(mock(Model.class));
+		geometryCache.getClickbox(object);
+
+		verify(object, times(2)).getClickbox();
+	}
+
+	@Test
+	public void testAnimatedClickboxPerFrame()
+	{
+		// dynamic renderables build a new model each frame
+		when(object.getRenderable()).thenReturn(mock(Renderable.class));
+
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getClickbox(object);
+		geometryCache.getClickbox(object);
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getClickbox(object);
+
+		verify(object, times(2)).getClickbox();
+	}
+
+	@Test
+	public void testTilePolySurvivesModelChange()
+	{
+		Polygon poly = new Polygon();
+		when(object.getCanvasTilePoly()).thenReturn(poly);
+		when(object.getRenderable()).thenReturn(mock(Renderable.class));
+
+		geometryCache.onBeforeRender(new BeforeRender());
+		geometryCache.getCanvasTilePoly(object);
+		geometryCache.onBeforeRender(new BeforeRender());
+		assertSame(poly, geometryCache.getCanvasTilePoly(object));
+
+		verify(object, times(1)).getCanvasTilePoly();
+		assertEquals(1, geometryCache.getTileHits());
+	}
+}
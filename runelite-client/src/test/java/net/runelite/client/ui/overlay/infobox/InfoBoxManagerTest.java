@@ -29,6 +29,7 @@ import com.google.inject.testing.fieldbinder.Bind;
 import com.google.inject.testing.fieldbinder.BoundFieldModule;
 import java.awt.Color;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -128,4 +129,39 @@ public class InfoBoxManagerTest
 		assertEquals("two", infoBoxManager.getInfoBoxes().get(1).getText());
 		assertEquals("three", infoBoxManager.getInfoBoxes().get(2).getText());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testSnapshot()
+	{
+		InfoBox one = new TestInfobox(InfoBoxPriority.LOW, "one");
+		InfoBox two = new TestInfobox(InfoBoxPriority.HIGH, "two");
+		infoBoxManager.addInfoBox(one);
+
+		List<InfoBox> snapshot = infoBoxManager.getInfoBoxes();
+		infoBoxManager.addInfoBox(two);
+		infoBoxManager.removeInfoBox(one);
+
+		assertEquals(Collections.singletonList(one), snapshot);
+		assertEquals(Collections.singletonList(two), infoBoxManager.getInfoBoxes());
+	}
+
+	@Test
+	public void testCull()
+	{
+		InfoBox keep = new TestInfobox(InfoBoxPriority.MED, "keep");
+		InfoBox cull = new TestInfobox(InfoBoxPriority.HIGH, "cull")
+		{
+			@Override
+			public boolean cull()
+			{
+				return true;
+			}
+		};
+		infoBoxManager.addInfoBox(keep);
+		infoBoxManager.addInfoBox(cull);
+		assertEquals(Arrays.asList(cull, keep), infoBoxManager.getInfoBoxes());
+
+		infoBoxManager.cull();
+		assertEquals(Collections.singletonList(keep), infoBoxManager.getInfoBoxes());
+	}
+}
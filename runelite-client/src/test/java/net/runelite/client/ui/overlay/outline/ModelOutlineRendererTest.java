@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay.outline;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.MainBufferProvider;
+import net.runelite.api.Model;
+import net.runelite.api.RuneLiteObject;
+import net.runelite.api.coords.LocalPoint;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotEquals;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@Slf4j
+@RunWith(MockitoJUnitRunner.class)
+public class ModelOutlineRendererTest
+{
+	private static final int VIEWPORT_SIZE = 512;
+
+	@Mock
+	@Bind
+	private Client client;
+
+	@Mock
+	private MainBufferProvider bufferProvider;
+
+	@Inject
+	private ModelOutlineRenderer modelOutlineRenderer;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		// camera looking straight down from 1000 units up, so that one local unit is one pixel
+		when(client.getCameraPitch()).thenReturn(512);
+		when(client.getCameraZ()).thenReturn(-1000);
+		when(client.getScale()).thenReturn(1000);
+		when(client.getViewportWidth()).thenReturn(VIEWPORT_SIZE);
+		when(client.getViewportHeight()).thenReturn(VIEWPORT_SIZE);
+		when(client.getBufferProvider()).thenReturn(bufferProvider);
+	}
+
+	@Test
+	public void testBatchMatchesImmediate()
+	{
+		Model model = gridModel(2, 32);
+		List<RuneLiteObject> objects = new ArrayList<>();
+		for (int x = -180; x <= 180; x += 90)
+		{
+			for (int y = -180; y <= 180; y += 90)
+			{
+				objects.add(object(model, x, y));
+			}
+		}
+
+		// opaque outlines are written directly, translucent and feathered outlines go through the pixel queue
+		for (Color color : new Color[]{Color.RED, new Color(0, 255, 0, 128)})
+		{
+			for (int feather = 0; feather <= 2; feather += 2)
+			{
+				int[] immediate = render(objects, false, 4, color, feather);
+				int[] batched = render(objects, true, 4, color, feather);
+				// just left of the center model
+				assertNotEquals(0, immediate[VIEWPORT_SIZE / 2 * VIEWPORT_SIZE + VIEWPORT_SIZE / 2 - 32 - 2]);
+				assertArrayEquals(immediate, batched);
+			}
+		}
+	}
+
+	@Test
+	public void testLargeModel()
+	{
+		// more vertices than the initial projection buffers hold
+		Model model = gridModel(100, 4);
+		int[] immediate = render(List.of(object(model, 0, 0)), false, 2, Color.RED, 0);
+		int[] batched = render(List.of(object(model, 0, 0)), true, 2, Color.RED, 0);
+		assertArrayEquals(immediate, batched);
+	}
+
+	@Test
+	public void testParallelBandsMatchImmediate()
+	{
+		// enough faces to be rasterized in bands, running off the right edge of the viewport
+		// so that lines end on a bitset segment boundary
+		Model model = gridModel(72, 8);
+		List<RuneLiteObject> objects = List.of(object(model, 100, 0));
+		int[] immediate = render(objects, false, 2, Color.RED, 0);
+		for (int i = 0; i < 20; ++i)
+		{
+			assertArrayEquals(immediate, render(objects, true, 2, Color.RED, 0));
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmark()
+	{
+		Model model = gridModel(64, 1);
+		List<RuneLiteObject> objects = new ArrayList<>();
+		for (int x = -224; x <= 224; x += 32)
+		{
+			for (int y = -224; y <= 224; y += 32)
+			{
+				objects.add(object(model, x, y));
+			}
+		}
+
+		for (int round = 0; round < 5; ++round)
+		{
+			for (boolean batch : new boolean[]{false, true})
+			{
+				long start = System.nanoTime();
+				for (int i = 0; i < 20; ++i)
+				{
+					render(objects, batch, 3, Color.RED, 0);
+				}
+				long end = System.nanoTime();
+				log.info("{} models, {} faces each, batch: {}: {}ms per frame", objects.size(), model.getFaceCount(), batch,
+					(end - start) / 20 / 1_000_000d);
+			}
+		}
+	}
+
+	private int[] render(List<RuneLiteObject> objects, boolean batch, int width, Color color, int feather)
+	{
+		BufferedImage image = new BufferedImage(VIEWPORT_SIZE, VIEWPORT_SIZE, BufferedImage.TYPE_INT_RGB);
+		when(bufferProvider.getImage()).thenReturn(image);
+
+		if (batch)
+		{
+			modelOutlineRenderer.startBatch();
+		}
+		for (RuneLiteObject object : objects)
+		{
+			modelOutlineRenderer.drawOutline(object, width, color, feather);
+		}
+		if (batch)
+		{
+			modelOutlineRenderer.endBatch();
+		}
+
+		return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+	}
+
+	private static RuneLiteObject object(Model model, int x, int y)
+	{
+		RuneLiteObject object = mock(RuneLiteObject.class);
+		when(object.getLocation()).thenReturn(new LocalPoint(x, y));
+		when(object.getModel()).thenReturn(model);
+		return object;
+	}
+
+	/**
+	 * Create a flat square model made of a grid of quads, with faces in both windings so
+	 * it is visible regardless of which way it faces
+	 *
+	 * @param quads number of quads per side
+	 * @param quadSize size of each quad
+	 */
+	private static Model gridModel(int quads, int quadSize)
+	{
+		int side = quads + 1;
+		int vertexCount = side * side;
+		float[] verticesX = new float[vertexCount];
+		float[] verticesY = new float[vertexCount];
+		float[] verticesZ = new float[vertexCount];
+		int offset = quads * quadSize / 2;
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			verticesX[i] = (i % side) * quadSize - offset;
+			verticesZ[i] = (i / side) * quadSize - offset;
+		}
+
+		int faceCount = quads * quads * 4;
+		int[] indices1 = new int[faceCount];
+		int[] indices2 = new int[faceCount];
+		int[] indices3 = new int[faceCount];
+		int face = 0;
+		for (int qy = 0; qy < quads; ++qy)
+		{
+			for (int qx = 0; qx < quads; ++qx)
+			{
+				int v00 = qy * side + qx, v10 = v00 + 1, v01 = v00 + side, v11 = v01 + 1;
+				int[][] tris = {{v00, v10, v11}, {v00, v11, v01}, {v00, v11, v10}, {v00, v01, v11}};
+				for (int[] tri : tris)
+				{
+					indices1[face] = tri[0];
+					indices2[face] = tri[1];
+					indices3[face] = tri[2];
+					++face;
+				}
+			}
+		}
+
+		Model model = mock(Model.class);
+		when(model.getVerticesCount()).thenReturn(vertexCount);
+		when(model.getVerticesX()).thenReturn(verticesX);
+		when(model.getVerticesY()).thenReturn(verticesY);
+		when(model.getVerticesZ()).thenReturn(verticesZ);
+		when(model.getFaceCount()).thenReturn(faceCount);
+		when(model.getFaceIndices1()).thenReturn(indices1);
+		when(model.getFaceIndices2()).thenReturn(indices2);
+		when(model.getFaceIndices3()).thenReturn(indices3);
+		return model;
+	}
+}
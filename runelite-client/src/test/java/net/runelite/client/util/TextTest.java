@@ -24,11 +24,35 @@
  */
 package net.runelite.client.util;
 
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Ignore;
 import org.junit.Test;
 
+@Slf4j
 public class TextTest
 {
+	private static final Pattern TAG_REGEXP = Pattern.compile("<[^>]*>");
+
+	private static final String[] SAMPLES = {
+		"<col=ffff00>Attack",
+		"<col=ffffff>Goblin<col=ff00>  (level-2)",
+		"<col=ffffff><img=2>Zezima<col=00ffff>  (level-126)",
+		"<col=ff9040>Coins",
+		"Walk here",
+		"Cancel",
+		"Use Item -> Man",
+		"<col=0000ff>Bank booth",
+		"Take",
+		"<img=1>Mod Ash: <col=0000ff>Hello there, <lt>adventurer<gt>!</col>",
+		"You have a funny feeling like you're being followed.",
+		"<col=ef1020>Your reward is: <col=ffffff>Dragon bones</col> x 2.</col>",
+		"a < b > c <d",
+		"<<nested>> tags",
+		"unterminated <col=ff0000",
+	};
 	@Test
 	public void removeTags()
 	{
@@ -73,4 +97,76 @@ public class TextTest
 		assertEquals("mR  nAmE", Text.toJagexName("--__--mR_-nAmE__  --"));
 		assertEquals("Mind    the     gap", Text.toJagexName("Mind_-_-the-- __gap"));
 	}
+
+	@Test
+	public void removeTagsMatchesRegex()
+	{
+		for (String sample : SAMPLES)
+		{
+			assertEquals(sample, TAG_REGEXP.matcher(sample).replaceAll(""), Text.removeTags(sample));
+			assertEquals(sample, Text.removeTags(sample), Text.removeTagsCached(sample));
+			assertEquals(sample, Text.standardize(sample), Text.standardizeCached(sample));
+		}
+		assertEquals("a <lt> b<gt>", Text.removeFormattingTags("<b>a <lt> b<gt></b>"));
+		assertEquals("a  b", Text.removeFormattingTags("a <LT> b"));
+	}
+
+	@Test
+	public void removeTagsNoTags()
+	{
+		String str = "Walk here";
+		assertSame(str, Text.removeTags(str));
+		assertSame(str, Text.removeFormattingTags(str));
+		String unterminated = "a < b";
+		assertSame(unterminated, Text.removeTags(unterminated));
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkRemoveTags()
+	{
+		final int iterations = 200_000;
+		// copy the samples each time, as the client hands out new strings for every menu entry
+		String[] inputs = new String[SAMPLES.length];
+		int sink = 0;
+		for (int run = 0; run < 3; ++run)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i)
+			{
+				for (int j = 0; j < SAMPLES.length; ++j)
+				{
+					sink += TAG_REGEXP.matcher(SAMPLES[j]).replaceAll("").length();
+				}
+			}
+			long regex = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i)
+			{
+				for (int j = 0; j < SAMPLES.length; ++j)
+				{
+					sink += Text.removeTags(SAMPLES[j]).length();
+				}
+			}
+			long scanner = System.nanoTime() - start;
+
+			for (int j = 0; j < SAMPLES.length; ++j)
+			{
+				inputs[j] = new String(SAMPLES[j]);
+			}
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i)
+			{
+				for (int j = 0; j < inputs.length; ++j)
+				{
+					sink += Text.removeTagsCached(inputs[j]).length();
+				}
+			}
+			long cached = System.nanoTime() - start;
+
+			log.info("regex: {}ms, scanner: {}ms, cached: {}ms", regex / 1_000_000, scanner / 1_000_000, cached / 1_000_000);
+		}
+		log.debug("{}", sink);
+	}
 }
@@ -24,11 +24,19 @@
  */
 package net.runelite.client.util;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import static junit.framework.TestCase.assertTrue;
+import lombok.extern.slf4j.Slf4j;
 import static net.runelite.client.util.WildcardMatcher.matches;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import org.junit.Ignore;
 import org.junit.Test;
 
+@Slf4j
 public class WildcardMatcherTest
 {
 	@Test
@@ -41,4 +49,102 @@ public class WildcardMatcherTest
 		assertTrue(matches("Abyssal whip", "Abyssal whip"));
 		assertTrue(matches("string $ with special character", "string $ with special character"));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCompiledMatchesRegex()
+	{
+		List<String> patterns = Arrays.asList("", "*", "**", "rune*", "*rune", "*rune*", "r*e", "a*b*c", "*a*a*", "ab*ab", "Abyssal whip", "(.*)+", "a*?");
+		List<String> texts = Arrays.asList("", "a", "rune", "Rune pouch", "Nature rune", "ruNe", "re", "rne", "abc", "aXbYc", "acb", "aa", "aba", "abab", "ab", "abyssal WHIP", "(.*)+", "axx?", "ax");
+		for (String pattern : patterns)
+		{
+			WildcardMatcher matcher = WildcardMatcher.compile(pattern);
+			for (String text : texts)
+			{
+				assertEquals(pattern + " ~ " + text, regexMatches(pattern, text), matcher.matches(text));
+			}
+		}
+	}
+
+	@Test
+	public void testSet()
+	{
+		WildcardMatcherSet set = WildcardMatcher.compile(Arrays.asList("Goblin", "*imp", "guard*"));
+		assertTrue(set.matches("goblin"));
+		assertTrue(set.matches("Black imp"));
+		assertTrue(set.matches("Guard dog"));
+		assertFalse(set.matches("Hobgoblin"));
+		assertFalse(set.matchesWildcard("goblin"));
+		assertTrue(set.matchesWildcard("Imp"));
+		assertTrue(WildcardMatcher.compile(List.of()).isEmpty());
+		assertFalse(WildcardMatcher.compile(List.of()).matches("goblin"));
+	}
+
+	@Test
+	@Ignore
+	public void benchmark()
+	{
+		List<String> patterns = Arrays.asList("rune*", "*whip", "dragon*bones", "Abyssal dagger", "*seed", "nature rune", "*(p++)", "coins");
+		String[] names = {"Rune platebody", "Abyssal whip", "Dragon bones", "Bones", "Ranarr seed", "Nature rune", "Coins", "Dragon dagger(p++)"};
+		WildcardMatcherSet set = WildcardMatcher.compile(patterns);
+
+		for (int round = 0; round < 5; ++round)
+		{
+			int hits = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < 20_000; ++i)
+			{
+				for (String name : names)
+				{
+					for (String pattern : patterns)
+					{
+						if (regexMatches(pattern, name))
+						{
+							++hits;
+							break;
+						}
+					}
+				}
+			}
+			long regex = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < 20_000; ++i)
+			{
+				for (String name : names)
+				{
+					if (set.matches(name))
+					{
+						--hits;
+					}
+				}
+			}
+			long compiled = System.nanoTime() - start;
+
+			assertEquals(0, hits);
+			log.info("regex: {}ms compiled set: {}ms", regex / 1_000_000, compiled / 1_000_000);
+		}
+	}
+
+	// the original regex based implementation
+	private static boolean regexMatches(String pattern, String text)
+	{
+		final Matcher matcher = Pattern.compile("(?i)[^*]+|(\\*)").matcher(pattern);
+		final StringBuffer buffer = new StringBuffer();
+
+		buffer.append("(?i)");
+		while (matcher.find())
+		{
+			if (matcher.group(1) != null)
+			{
+				matcher.appendReplacement(buffer, ".*");
+			}
+			else
+			{
+				matcher.appendReplacement(buffer, Matcher.quoteReplacement(Pattern.quote(matcher.group(0))));
+			}
+		}
+
+		matcher.appendTail(buffer);
+		return text.matches(buffer.toString());
+	}
+}
@@ -26,13 +26,15 @@ package net.runelite.mvn;
 
 import com.google.common.io.Files;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.ScriptDefinition;
 import net.runelite.cache.definitions.savers.ScriptSaver;
 import net.runelite.cache.script.RuneLiteInstructions;
-import net.runelite.cache.script.assembler.Assembler;
+import net.runelite.cache.script.ScriptBuildCache;
+import net.runelite.cache.script.assembler.BatchAssembler;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -53,6 +55,12 @@ public class AssembleMojo extends AbstractMojo
 	@Parameter(required = true)
 	private File outputDirectory;
 
+	/**
+	 * Records the inputs of each assembled script so unchanged scripts are skipped on the next build
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/rs2asm-cache.txt")
+	private File cacheFile;
+
 	private final Log log = getLog();
 
 	@Override
@@ -61,45 +69,80 @@ public class AssembleMojo extends AbstractMojo
 		RuneLiteInstructions instructions = new RuneLiteInstructions();
 		instructions.init();
 
-		Assembler assembler = new Assembler(instructions);
 		ScriptSaver saver = new ScriptSaver();
 
-		int count = 0;
 		File scriptOut = new File(outputDirectory, Integer.toString(IndexType.CLIENTSCRIPT.getNumber()));
 		scriptOut.mkdirs();
 
-		for (File scriptFile : scriptDirectory.listFiles((dir, name) -> name.endsWith(".rs2asm")))
+		BatchAssembler assembler = new BatchAssembler(instructions);
+		assembler.setDependencies(scriptFile -> Collections.singletonList(hashFile(scriptFile)));
+		if (cacheFile != null)
 		{
-			log.debug("Assembling " + scriptFile);
+			cacheFile.getParentFile().mkdirs();
+			assembler.setCache(ScriptBuildCache.load(cacheFile, instructions));
+		}
+
+		File[] scriptFiles = scriptDirectory.listFiles((dir, name) -> name.endsWith(".rs2asm"));
+		Arrays.sort(scriptFiles);
 
-			try (FileInputStream fin = new FileInputStream(scriptFile))
+		BatchAssembler.Result result;
+		try
+		{
+			result = assembler.assemble(Arrays.asList(scriptFiles), new BatchAssembler.Output()
 			{
-				ScriptDefinition script = assembler.assemble(fin);
-				byte[] packedScript = saver.save(script);
+				@Override
+				public void write(File scriptFile, ScriptDefinition script) throws IOException
+				{
+					log.debug("Assembling " + scriptFile);
 
-				File targetFile = new File(scriptOut, Integer.toString(script.getId()));
-				Files.write(packedScript, targetFile);
+					byte[] packedScript = saver.save(script);
 
-				// Copy hash file
+					File targetFile = new File(scriptOut, Integer.toString(script.getId()));
+					Files.write(packedScript, targetFile);
 
-				File hashFile = new File(scriptDirectory, Files.getNameWithoutExtension(scriptFile.getName()) + ".hash");
-				if (hashFile.exists())
-				{
-					Files.copy(hashFile, new File(scriptOut, Integer.toString(script.getId()) + ".hash"));
+					// Copy hash file
+
+					File hashFile = hashFile(scriptFile);
+					if (hashFile.exists())
+					{
+						Files.copy(hashFile, new File(scriptOut, Integer.toString(script.getId()) + ".hash"));
+					}
+					else if (script.getId() < 10000) // Scripts >=10000 are RuneLite scripts, so they shouldn't have a .hash
+					{
+						throw new MissingHashException("Unable to find hash file for " + scriptFile);
+					}
 				}
-				else if (script.getId() < 10000) // Scripts >=10000 are RuneLite scripts, so they shouldn't have a .hash
+
+				@Override
+				public boolean exists(File scriptFile, int scriptId)
 				{
-					throw new MojoExecutionException("Unable to find hash file for " + scriptFile);
+					return new File(scriptOut, Integer.toString(scriptId)).exists()
+						&& (!hashFile(scriptFile).exists() || new File(scriptOut, scriptId + ".hash").exists());
 				}
-
-				++count;
-			}
-			catch (IOException ex)
-			{
-				throw new MojoFailureException("unable to open file", ex);
-			}
+			});
+		}
+		catch (MissingHashException ex)
+		{
+			throw new MojoExecutionException(ex.getMessage());
+		}
+		catch (IOException ex)
+		{
+			throw new MojoFailureException("unable to assemble scripts", ex);
 		}
 
-		log.info("Assembled " + count + " scripts");
+		log.info("Assembled " + result.getAssembled() + " scripts, " + result.getSkipped() + " unchanged");
+	}
+
+	private File hashFile(File scriptFile)
+	{
+		return new File(scriptDirectory, Files.getNameWithoutExtension(scriptFile.getName()) + ".hash");
+	}
+
+	private static class MissingHashException extends IOException
+	{
+		MissingHashException(String message)
+		{
+			super(message);
+		}
 	}
 }
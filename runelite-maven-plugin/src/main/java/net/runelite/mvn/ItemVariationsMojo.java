@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024, RuneLite
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.mvn;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Packs item_variations.json into the sorted int tables read by ItemVariationMapping, so that the
+ * client doesn't have to parse json at startup. The output is, as big endian ints:
+ * <pre>
+ * n, variation ids[n] (sorted), base ids[n]
+ * m, base ids[m] (sorted), offsets[m + 1], variations[offsets[m]]
+ * </pre>
+ */
+@Mojo(
+	name = "pack-item-variations",
+	defaultPhase = LifecyclePhase.GENERATE_RESOURCES
+)
+public class ItemVariationsMojo extends AbstractMojo
+{
+	@Parameter(required = true)
+	private File inputFile;
+
+	@Parameter(required = true)
+	private File outputFile;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException
+	{
+		final Map<String, Collection<Integer>> itemVariations;
+		try (Reader reader = new InputStreamReader(new FileInputStream(inputFile), StandardCharsets.UTF_8))
+		{
+			// CHECKSTYLE:OFF
+			itemVariations = new Gson().fromJson(reader, new TypeToken<Map<String, Collection<Integer>>>(){}.getType());
+			// CHECKSTYLE:ON
+		}
+		catch (IOException ex)
+		{
+			throw new MojoExecutionException("error reading item variations", ex);
+		}
+
+		final TreeMap<Integer, Integer> mappings = new TreeMap<>();
+		final TreeMap<Integer, List<Integer>> variations = new TreeMap<>();
+		for (Map.Entry<String, Collection<Integer>> entry : itemVariations.entrySet())
+		{
+			final Iterator<Integer> iterator = entry.getValue().iterator();
+			final int base = iterator.next();
+			final List<Integer> baseVariations = variations.computeIfAbsent(base, k -> new ArrayList<>());
+
+			while (iterator.hasNext())
+			{
+				final int id = iterator.next();
+				if (mappings.put(id, base) != null)
+				{
+					throw new MojoFailureException("item " + id + " in " + entry.getKey() + " is a variation of multiple items");
+				}
+				baseVariations.add(id);
+			}
+
+			baseVariations.add(base);
+		}
+
+		outputFile.getParentFile().mkdirs();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile))))
+		{
+			out.writeInt(mappings.size());
+			for (int id : mappings.keySet())
+			{
+				out.writeInt(id);
+			}
+			for (int base : mappings.values())
+			{
+				out.writeInt(base);
+			}
+
+			out.writeInt(variations.size());
+			for (int base : variations.keySet())
+			{
+				out.writeInt(base);
+			}
+			int offset = 0;
+			out.writeInt(offset);
+			for (List<Integer> ids : variations.values())
+			{
+				offset += ids.size();
+				out.writeInt(offset);
+			}
+			for (List<Integer> ids : variations.values())
+			{
+				for (int id : ids)
+				{
+					out.writeInt(id);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			throw new MojoExecutionException("error writing item variations", ex);
+		}
+
+		getLog().info("Packed " + mappings.size() + " item variations of " + variations.size() + " items");
+	}
+}